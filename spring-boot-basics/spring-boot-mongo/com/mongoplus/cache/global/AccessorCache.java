@@ -0,0 +1,26 @@
+package com.mongoplus.cache.global;
+
+import com.mongoplus.strategy.accessor.FieldAccessorStrategy;
+import com.mongoplus.strategy.accessor.impl.ReflectFieldAccessorStrategy;
+
+/**
+ * 字段访问策略缓存
+ *
+ * @author anwen
+ */
+public class AccessorCache {
+
+    /**
+     * 字段访问策略，字段的访问器创建后会被缓存，所以应在启动时设置
+     */
+    private static FieldAccessorStrategy fieldAccessorStrategy = new ReflectFieldAccessorStrategy();
+
+    public static FieldAccessorStrategy getFieldAccessorStrategy() {
+        return fieldAccessorStrategy;
+    }
+
+    public static void setFieldAccessorStrategy(FieldAccessorStrategy fieldAccessorStrategy) {
+        AccessorCache.fieldAccessorStrategy = fieldAccessorStrategy;
+    }
+
+}
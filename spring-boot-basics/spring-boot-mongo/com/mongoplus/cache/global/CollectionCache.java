@@ -0,0 +1,224 @@
+package com.mongoplus.cache.global;
+
+import com.mongodb.client.MongoCollection;
+import org.bson.Document;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * MongoCollection缓存，以数据源、库、集合名和用途为key
+ * <p>超过最大数量时淘汰最久未使用的部分，避免按月分表等动态集合名无限增长；命中、未命中和淘汰次数可以通过对应方法获取</p>
+ *
+ * @author anwen
+ */
+public class CollectionCache {
+
+    /**
+     * 缓存的最大数量，小于等于0时不缓存
+     */
+    private static volatile int maxSize = 4096;
+
+    /**
+     * 最近访问时间的精度，命中时距离上次记录超过该时间才更新，避免每次命中都写入
+     */
+    private static final long ACCESS_PRECISION_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final Map<CollectionKey, CollectionEntry> collectionCacheMap = new ConcurrentHashMap<>();
+
+    private static final LongAdder hitCount = new LongAdder();
+
+    private static final LongAdder missCount = new LongAdder();
+
+    private static final LongAdder evictionCount = new LongAdder();
+
+    private static final AtomicBoolean evicting = new AtomicBoolean(false);
+
+    /**
+     * 获取集合，不存在时创建并缓存
+     * @param dataSource 数据源
+     * @param database 库
+     * @param collectionName 集合名
+     * @param usage 用途，区分同一集合不同读偏好等配置的句柄，普通集合为空字符串
+     * @param creator 创建集合
+     * @return {@link MongoCollection<Document>}
+     * @author anwen
+     */
+    public static MongoCollection<Document> getCollection(String dataSource, String database, String collectionName,
+                                                          String usage,
+                                                          Supplier<MongoCollection<Document>> creator) {
+        if (maxSize <= 0) {
+            missCount.increment();
+            return creator.get();
+        }
+        CollectionKey key = new CollectionKey(dataSource, database, collectionName, usage);
+        CollectionEntry entry = collectionCacheMap.get(key);
+        if (entry != null) {
+            hitCount.increment();
+            long now = System.nanoTime();
+            if (now - entry.lastAccess > ACCESS_PRECISION_NANOS) {
+                entry.lastAccess = now;
+            }
+            return entry.collection;
+        }
+        entry = collectionCacheMap.computeIfAbsent(key, k -> {
+            missCount.increment();
+            return new CollectionEntry(creator.get());
+        });
+        if (collectionCacheMap.size() > maxSize) {
+            evict();
+        }
+        return entry.collection;
+    }
+
+    /**
+     * 直接设置一个集合
+     * @author anwen
+     */
+    public static void putCollection(String dataSource, String database, String collectionName, String usage,
+                                     MongoCollection<Document> collection) {
+        if (maxSize <= 0) {
+            return;
+        }
+        collectionCacheMap.put(new CollectionKey(dataSource, database, collectionName, usage),
+                new CollectionEntry(collection));
+        if (collectionCacheMap.size() > maxSize) {
+            evict();
+        }
+    }
+
+    /**
+     * 移除数据源下的所有集合，数据源的连接被替换时调用
+     * @param dataSource 数据源
+     * @author anwen
+     */
+    public static void removeDataSource(String dataSource) {
+        collectionCacheMap.keySet().removeIf(key -> Objects.equals(key.dataSource, dataSource));
+    }
+
+    public static void clear() {
+        collectionCacheMap.clear();
+    }
+
+    public static int size() {
+        return collectionCacheMap.size();
+    }
+
+    public static long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public static long getMissCount() {
+        return missCount.sum();
+    }
+
+    public static long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    public static int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * 设置缓存的最大数量，小于等于0时不缓存
+     * @param maxSize 最大数量
+     * @author anwen
+     */
+    public static void setMaxSize(int maxSize) {
+        CollectionCache.maxSize = maxSize;
+        if (maxSize <= 0) {
+            clear();
+        } else if (collectionCacheMap.size() > maxSize) {
+            evict();
+        }
+    }
+
+    /**
+     * 淘汰最久未使用的集合，一次淘汰到最大数量的90%，同一时间只有一个线程执行
+     * <p>最近访问时间精确到{@link #ACCESS_PRECISION_NANOS}，同一时间段内访问的集合淘汰顺序不确定</p>
+     */
+    private static void evict() {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int target = maxSize - maxSize / 10;
+            int removeCount = collectionCacheMap.size() - target;
+            if (removeCount <= 0) {
+                return;
+            }
+            List<Map.Entry<CollectionKey, CollectionEntry>> entryList = new ArrayList<>(collectionCacheMap.entrySet());
+            entryList.sort(Comparator.comparingLong(entry -> entry.getValue().lastAccess));
+            for (int i = 0; i < removeCount && i < entryList.size(); i++) {
+                Map.Entry<CollectionKey, CollectionEntry> entry = entryList.get(i);
+                if (collectionCacheMap.remove(entry.getKey(), entry.getValue())) {
+                    evictionCount.increment();
+                }
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private static class CollectionEntry {
+
+        private final MongoCollection<Document> collection;
+
+        private volatile long lastAccess = System.nanoTime();
+
+        CollectionEntry(MongoCollection<Document> collection) {
+            this.collection = collection;
+        }
+
+    }
+
+    private static class CollectionKey {
+
+        private final String dataSource;
+
+        private final String database;
+
+        private final String collectionName;
+
+        private final String usage;
+
+        private final int hash;
+
+        CollectionKey(String dataSource, String database, String collectionName, String usage) {
+            this.dataSource = dataSource;
+            this.database = database;
+            this.collectionName = collectionName;
+            this.usage = usage == null ? "" : usage;
+            this.hash = Objects.hash(this.dataSource, this.database, this.collectionName, this.usage);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CollectionKey)) {
+                return false;
+            }
+            CollectionKey that = (CollectionKey) o;
+            return Objects.equals(collectionName, that.collectionName) && Objects.equals(database, that.database)
+                    && Objects.equals(dataSource, that.dataSource) && usage.equals(that.usage);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+    }
+
+}
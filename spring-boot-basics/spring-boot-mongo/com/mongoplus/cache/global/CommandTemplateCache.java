@@ -0,0 +1,135 @@
+package com.mongoplus.cache.global;
+
+import com.mongoplus.parser.CommandTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 命令模板缓存，以命令原文为key，近似按LRU淘汰
+ * <p>读取不加锁，命中时只记录访问时间；数量超过上限一定比例后，由一个线程按访问时间淘汰最久未使用的模板，
+ * 淘汰期间缓存的数量可能短暂超过上限</p>
+ *
+ * @author anwen
+ */
+public class CommandTemplateCache {
+
+    /**
+     * 缓存的最大数量
+     */
+    private static volatile int maxSize = 1024;
+
+    private static final Map<String, TemplateEntry> templateCacheMap = new ConcurrentHashMap<>();
+
+    /**
+     * 访问时钟，每次写入新模板时递增，命中时只在时钟变化后才更新访问时间，避免热点模板被频繁写入
+     */
+    private static final AtomicLong clock = new AtomicLong();
+
+    private static final AtomicBoolean evicting = new AtomicBoolean();
+
+    /**
+     * 获取命令模板，不存在时编译并缓存
+     * <p>编译不加锁，并发编译同一条命令时只保留先写入的结果</p>
+     * @param command 命令原文
+     * @param compiler 编译命令
+     * @return {@link CommandTemplate}
+     * @author anwen
+     */
+    public static CommandTemplate getTemplate(String command, Function<String, CommandTemplate> compiler) {
+        TemplateEntry entry = templateCacheMap.get(command);
+        if (entry != null) {
+            entry.access(clock.get());
+            return entry.commandTemplate;
+        }
+        CommandTemplate commandTemplate = compiler.apply(command);
+        if (maxSize <= 0) {
+            return commandTemplate;
+        }
+        TemplateEntry existing = templateCacheMap.putIfAbsent(command,
+                new TemplateEntry(commandTemplate, clock.incrementAndGet()));
+        if (existing != null) {
+            return existing.commandTemplate;
+        }
+        // 超过上限1/8后才批量淘汰，均摊后每次写入的淘汰开销很小
+        if (templateCacheMap.size() > maxSize + (maxSize >> 3)) {
+            evict(maxSize);
+        }
+        return commandTemplate;
+    }
+
+    /**
+     * 淘汰最久未使用的模板，直到数量不超过指定值，同一时间只有一个线程执行，其他线程直接返回
+     */
+    private static void evict(int size) {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int excess = templateCacheMap.size() - size;
+            if (excess <= 0) {
+                return;
+            }
+            List<Map.Entry<String, TemplateEntry>> entries = new ArrayList<>(templateCacheMap.entrySet());
+            entries.sort(Comparator.comparingLong(entry -> entry.getValue().lastAccess));
+            for (int i = 0; i < excess && i < entries.size(); i++) {
+                Map.Entry<String, TemplateEntry> entry = entries.get(i);
+                templateCacheMap.remove(entry.getKey(), entry.getValue());
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    public static int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * 设置缓存的最大数量，小于等于0时不缓存
+     * @param maxSize 最大数量
+     * @author anwen
+     */
+    public static void setMaxSize(int maxSize) {
+        CommandTemplateCache.maxSize = Math.max(maxSize, 0);
+        if (CommandTemplateCache.maxSize == 0) {
+            templateCacheMap.clear();
+            return;
+        }
+        evict(CommandTemplateCache.maxSize);
+    }
+
+    /**
+     * 清空缓存，更换解析器后调用
+     * @author anwen
+     */
+    public static void clear() {
+        templateCacheMap.clear();
+    }
+
+    private static final class TemplateEntry {
+
+        private final CommandTemplate commandTemplate;
+
+        private volatile long lastAccess;
+
+        private TemplateEntry(CommandTemplate commandTemplate, long lastAccess) {
+            this.commandTemplate = commandTemplate;
+            this.lastAccess = lastAccess;
+        }
+
+        private void access(long now) {
+            if (lastAccess != now) {
+                lastAccess = now;
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.mongoplus.cache.global;
+
+import com.mongoplus.context.ContextDecorator;
+import com.mongoplus.context.MongoPlusContextDecorator;
+import com.mongoplus.logging.Log;
+import com.mongoplus.logging.LogFactory;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 并发执行的线程池与上下文装饰器，例如分页时count查询与数据查询并发执行
+ * <p>默认没有执行器，所有任务在调用线程中执行；需要并发时通过{@link #setExecutor(Executor)}设置，
+ * 可以使用{@link #newDefaultExecutor()}，在JDK21及以上使用虚拟线程，否则使用有界线程池</p>
+ * <p>开启后，count等查询在其他线程中经过拦截器，{@link com.mongoplus.handlers.TenantHandler#getTenantId()}等
+ * 依赖调用线程上下文的实现，需要通过{@link #addContextDecorator(ContextDecorator)}传递对应的ThreadLocal</p>
+ *
+ * @author anwen
+ */
+public class ConcurrentCache {
+
+    private static final Log log = LogFactory.getLog(ConcurrentCache.class);
+
+    private static volatile Executor executor;
+
+    private static final List<ContextDecorator> contextDecorators = new CopyOnWriteArrayList<>();
+
+    static {
+        contextDecorators.add(new MongoPlusContextDecorator());
+    }
+
+    /**
+     * 获取执行器，未设置时为null
+     * @return {@link Executor}
+     * @author anwen
+     */
+    public static Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * 设置执行器，为null则不并发执行
+     * @param executor 执行器
+     * @author anwen
+     */
+    public static void setExecutor(Executor executor) {
+        ConcurrentCache.executor = executor;
+    }
+
+    /**
+     * 添加上下文装饰器，用于传递自定义的ThreadLocal
+     * @param contextDecorator 上下文装饰器
+     * @author anwen
+     */
+    public static void addContextDecorator(ContextDecorator contextDecorator) {
+        contextDecorators.add(contextDecorator);
+    }
+
+    /**
+     * 使用所有的上下文装饰器装饰任务，需要在调用线程中执行
+     * @param runnable 任务
+     * @return {@link Runnable}
+     * @author anwen
+     */
+    public static Runnable decorate(Runnable runnable) {
+        Runnable decorated = runnable;
+        for (ContextDecorator contextDecorator : contextDecorators) {
+            decorated = contextDecorator.decorate(decorated);
+        }
+        return decorated;
+    }
+
+    /**
+     * 创建默认执行器，JDK21及以上使用虚拟线程，否则使用有界线程池，队列已满时在调用线程中执行
+     * @return {@link Executor}
+     * @author anwen
+     */
+    public static Executor newDefaultExecutor() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (Executor) method.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            if (log.isDebugEnabled()) {
+                log.debug("Virtual threads are not available, use a bounded thread pool");
+            }
+        }
+        int processors = Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        return new ThreadPoolExecutor(
+                processors,
+                processors * 2,
+                60L,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(256),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "mongo-plus-concurrent-" + threadNumber.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                // 队列已满时在调用线程中执行，退化为串行
+                new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+    }
+
+}
@@ -14,26 +14,32 @@ import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Collections;
 import java.util.Date;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 转换器
+ * <p>启动后基本只读，查询不加锁；按可赋值类型匹配的结果会缓存，包括没有匹配到的类型，
+ * 与可赋值类型的策略映射保存在同一个快照中，注册新的可赋值策略时整体替换</p>
  * @author anwen
  */
 public class ConversionCache {
 
-    private static final Map<Class<?>, ConversionStrategy<?>> conversionStrategieMap = new HashMap<>();
+    private static final Map<Class<?>, ConversionStrategy<?>> conversionStrategieMap = new ConcurrentHashMap<>();
 
     /**
-     * 可赋值类型的策略映射，用于匹配 X 类及其子类等具有继承关系的类型
+     * 可赋值类型的策略映射及其匹配结果，修改时整体替换
+     * <p>匹配结果只写入计算时读取的快照，替换前计算出的旧结果不会进入新的快照</p>
      */
-    private static final Map<Class<?>, ConversionStrategy<?>> assignableConversionMap = new HashMap<>();
+    private static volatile AssignableSnapshot assignableSnapshot = new AssignableSnapshot(Collections.emptyMap());
 
-    public static EnumConversionStrategy<?> enumConversion = new EnumConversionStrategy<>();
+    public static volatile EnumConversionStrategy<?> enumConversion = new EnumConversionStrategy<>();
 
-    public static Map<Class<?>, ConversionStrategy<? extends Geometry>> geometryConversionMap = new HashMap<>();
+    public static Map<Class<?>, ConversionStrategy<? extends Geometry>> geometryConversionMap = new ConcurrentHashMap<>();
 
     static {
         conversionStrategieMap.put(Integer.class,new IntegerConversionStrategy());
@@ -75,22 +81,68 @@ public class ConversionCache {
 
     public static ConversionStrategy<?> getConversionStrategy(Class<?> clazz){
         ConversionStrategy<?> conversionStrategy = conversionStrategieMap.get(clazz);
-
-        if (conversionStrategy == null) {
-            conversionStrategy = assignableConversionMap.entrySet().stream()
-                    .filter(entry -> ClassTypeUtil.isTargetClass(entry.getKey(),clazz))
-                    .map(Map.Entry::getValue)
-                    .findFirst()
-                    .orElse(null);
+        if (conversionStrategy != null) {
+            return conversionStrategy;
         }
-        return conversionStrategy;
+        return assignableSnapshot.resolve(clazz);
     }
 
-    public static void putConversionStrategy(Class<?> clazz,ConversionStrategy<?> conversionStrategy){
+    public static synchronized void putConversionStrategy(Class<?> clazz,ConversionStrategy<?> conversionStrategy){
         if (clazz.equals(Enum.class)) {
             enumConversion = (EnumConversionStrategy<?>) conversionStrategy;
         }
         conversionStrategieMap.put(clazz,conversionStrategy);
     }
 
+    /**
+     * 注册按可赋值类型匹配的策略，clazz及其子类、实现类都会使用该策略
+     * @param clazz 类型
+     * @param conversionStrategy 转换策略
+     * @author anwen
+     */
+    public static synchronized void putAssignableConversionStrategy(Class<?> clazz,ConversionStrategy<?> conversionStrategy){
+        Map<Class<?>, ConversionStrategy<?>> newAssignableConversionMap =
+                new LinkedHashMap<>(assignableSnapshot.assignableConversionMap);
+        newAssignableConversionMap.put(clazz,conversionStrategy);
+        assignableSnapshot = new AssignableSnapshot(Collections.unmodifiableMap(newAssignableConversionMap));
+    }
+
+    /**
+     * 可赋值类型的策略映射与按其匹配的结果，映射不可变，结果只属于当前快照
+     */
+    private static final class AssignableSnapshot {
+
+        /**
+         * 可赋值类型的策略映射，用于匹配 X 类及其子类等具有继承关系的类型，按注册顺序匹配
+         */
+        private final Map<Class<?>, ConversionStrategy<?>> assignableConversionMap;
+
+        /**
+         * 按可赋值类型匹配的结果，没有匹配到时为{@link Optional#empty()}
+         */
+        private final Map<Class<?>, Optional<ConversionStrategy<?>>> resolvedConversionMap = new ConcurrentHashMap<>();
+
+        AssignableSnapshot(Map<Class<?>, ConversionStrategy<?>> assignableConversionMap) {
+            this.assignableConversionMap = assignableConversionMap;
+        }
+
+        ConversionStrategy<?> resolve(Class<?> clazz) {
+            Optional<ConversionStrategy<?>> resolved = resolvedConversionMap.get(clazz);
+            if (resolved == null) {
+                resolved = resolvedConversionMap.computeIfAbsent(clazz, this::resolveAssignable);
+            }
+            return resolved.orElse(null);
+        }
+
+        private Optional<ConversionStrategy<?>> resolveAssignable(Class<?> clazz) {
+            for (Map.Entry<Class<?>, ConversionStrategy<?>> entry : assignableConversionMap.entrySet()) {
+                if (ClassTypeUtil.isTargetClass(entry.getKey(), clazz)) {
+                    return Optional.of(entry.getValue());
+                }
+            }
+            return Optional.empty();
+        }
+
+    }
+
 }
@@ -0,0 +1,120 @@
+package com.mongoplus.cache.global;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 分页count结果的短时缓存，只有在条件构造器中设置了缓存时间才会使用
+ * <p>数量有上限，按key的hash分为多个段，每个段是按访问顺序排列的LRU，超过段容量时淘汰最久未访问的缓存，
+ * 读写只锁住一个段</p>
+ *
+ * @author anwen
+ */
+public class CountCache {
+
+    /**
+     * 段数量，必须是2的幂
+     */
+    private static final int SEGMENT_COUNT = 16;
+
+    /**
+     * 缓存的最大数量
+     */
+    private static final int MAX_SIZE = 4096;
+
+    private static final Segment[] segments = new Segment[SEGMENT_COUNT];
+
+    static {
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment(MAX_SIZE / SEGMENT_COUNT);
+        }
+    }
+
+    /**
+     * 获取未过期的count
+     * @param key 缓存key
+     * @return {@link Long} 不存在或已过期时返回null
+     * @author anwen
+     */
+    public static Long get(String key) {
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            CountEntry countEntry = segment.get(key);
+            if (countEntry == null) {
+                return null;
+            }
+            if (countEntry.isExpired(System.currentTimeMillis())) {
+                segment.remove(key);
+                return null;
+            }
+            return countEntry.count;
+        }
+    }
+
+    /**
+     * 缓存count，超过容量时淘汰最久未访问的缓存
+     * @param key 缓存key
+     * @param count 总数
+     * @param timeoutMillis 缓存时间，毫秒
+     * @author anwen
+     */
+    public static void put(String key, long count, long timeoutMillis) {
+        CountEntry countEntry = new CountEntry(count, System.currentTimeMillis() + timeoutMillis);
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            segment.put(key, countEntry);
+        }
+    }
+
+    public static void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    private static Segment segmentFor(String key) {
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENT_COUNT - 1)];
+    }
+
+    /**
+     * 按访问顺序排列的LRU，需要在持有自身锁时访问
+     */
+    private static final class Segment extends LinkedHashMap<String, CountEntry> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int maxSize;
+
+        private Segment(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CountEntry> eldest) {
+            return size() > maxSize;
+        }
+
+    }
+
+    private static final class CountEntry {
+
+        private final long count;
+
+        private final long expireTime;
+
+        private CountEntry(long count, long expireTime) {
+            this.count = count;
+            this.expireTime = expireTime;
+        }
+
+        private boolean isExpired(long now) {
+            return now >= expireTime;
+        }
+
+    }
+
+}
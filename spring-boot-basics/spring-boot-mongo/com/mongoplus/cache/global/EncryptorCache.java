@@ -0,0 +1,209 @@
+package com.mongoplus.cache.global;
+
+import javax.crypto.Cipher;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.NoSuchProviderException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 加密缓存，缓存派生后的密钥，以及每个线程已初始化的{@link Cipher}和{@link MessageDigest}
+ * <p>{@link Cipher}不是线程安全的，按线程缓存；doFinal后会回到init后的状态，可以直接复用</p>
+ * <p>密钥缓存以原始密钥的SHA-256摘要为key，Cipher缓存以密钥对象为key，缓存中不保留原始的密码和私钥字符串</p>
+ *
+ * @author anwen
+ */
+public class EncryptorCache {
+
+    /**
+     * 密钥缓存的最大数量，超过后清空
+     */
+    private static final int MAX_KEY_SIZE = 1024;
+
+    /**
+     * 每个线程缓存的最大Cipher数量，超过后清空
+     */
+    private static final int MAX_THREAD_CIPHER_SIZE = 64;
+
+    private static final Map<String, Key> keyCache = new ConcurrentHashMap<>();
+
+    private static final ThreadLocal<Map<CipherKey, Cipher>> cipherCache = ThreadLocal.withInitial(HashMap::new);
+
+    private static final ThreadLocal<Map<String, Cipher>> transformationCipherCache = ThreadLocal.withInitial(HashMap::new);
+
+    private static final ThreadLocal<Map<String, MessageDigest>> digestCache = ThreadLocal.withInitial(HashMap::new);
+
+    /**
+     * 获取密钥，不存在时派生并缓存
+     * @param keyType 密钥类型，如算法名、公钥或私钥，区分同一原始密钥派生出的不同密钥
+     * @param secret 原始密钥，只使用其摘要作为缓存key
+     * @param keyLoader 派生密钥
+     * @return {@link Key}
+     * @author anwen
+     */
+    @SuppressWarnings("unchecked")
+    public static <K extends Key> K getKey(String keyType, String secret, KeyLoader<K> keyLoader) throws Exception {
+        String keyId = keyType + ":" + digest(secret);
+        Key key = keyCache.get(keyId);
+        if (key == null) {
+            key = keyLoader.load();
+            if (keyCache.size() >= MAX_KEY_SIZE) {
+                keyCache.clear();
+            }
+            keyCache.put(keyId, key);
+        }
+        return (K) key;
+    }
+
+    /**
+     * 使用当前线程缓存的Cipher执行加密或解密
+     * @param transformation 算法
+     * @param provider 提供者，可以为null
+     * @param mode {@link Cipher#ENCRYPT_MODE}或{@link Cipher#DECRYPT_MODE}
+     * @param key 密钥，应为{@link #getKey(String, String, KeyLoader)}返回的缓存实例，按实例缓存Cipher
+     * @param input 输入
+     * @return {@link byte[]}
+     * @author anwen
+     */
+    public static byte[] doFinal(String transformation, String provider, int mode, Key key, byte[] input)
+            throws GeneralSecurityException {
+        Map<CipherKey, Cipher> cipherMap = cipherCache.get();
+        CipherKey cipherKey = new CipherKey(transformation, provider, mode, key);
+        Cipher cipher = cipherMap.get(cipherKey);
+        if (cipher == null) {
+            cipher = provider == null ? Cipher.getInstance(transformation) : Cipher.getInstance(transformation, provider);
+            cipher.init(mode, key);
+            if (cipherMap.size() >= MAX_THREAD_CIPHER_SIZE) {
+                cipherMap.clear();
+            }
+            cipherMap.put(cipherKey, cipher);
+        }
+        try {
+            return cipher.doFinal(input);
+        } catch (GeneralSecurityException | RuntimeException e) {
+            // 失败后Cipher的状态不确定，不再复用
+            cipherMap.remove(cipherKey);
+            throw e;
+        }
+    }
+
+    /**
+     * 获取当前线程缓存的未初始化的Cipher，用于每次需要不同参数初始化的算法
+     * @param transformation 算法
+     * @return {@link Cipher}
+     * @author anwen
+     */
+    public static Cipher getCipher(String transformation) throws GeneralSecurityException {
+        Map<String, Cipher> cipherMap = transformationCipherCache.get();
+        Cipher cipher = cipherMap.get(transformation);
+        if (cipher == null) {
+            cipher = Cipher.getInstance(transformation);
+            if (cipherMap.size() >= MAX_THREAD_CIPHER_SIZE) {
+                cipherMap.clear();
+            }
+            cipherMap.put(transformation, cipher);
+        }
+        return cipher;
+    }
+
+    /**
+     * 获取当前线程缓存的MessageDigest，digest后会自动重置
+     * @param algorithm 算法
+     * @param provider 提供者，可以为null
+     * @return {@link MessageDigest}
+     * @author anwen
+     */
+    public static MessageDigest getMessageDigest(String algorithm, String provider)
+            throws NoSuchAlgorithmException, NoSuchProviderException {
+        Map<String, MessageDigest> digestMap = digestCache.get();
+        String digestKey = algorithm + "|" + provider;
+        MessageDigest messageDigest = digestMap.get(digestKey);
+        if (messageDigest == null) {
+            messageDigest = provider == null
+                    ? MessageDigest.getInstance(algorithm)
+                    : MessageDigest.getInstance(algorithm, provider);
+            digestMap.put(digestKey, messageDigest);
+        } else {
+            messageDigest.reset();
+        }
+        return messageDigest;
+    }
+
+    /**
+     * 原始密钥的摘要，作为密钥缓存的key
+     */
+    private static String digest(String secret) throws NoSuchAlgorithmException, NoSuchProviderException {
+        byte[] bytes = getMessageDigest("SHA-256", null)
+                .digest(String.valueOf(secret).getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+
+    /**
+     * 清空密钥缓存，修改全局密钥后调用
+     * @author anwen
+     */
+    public static void clear() {
+        keyCache.clear();
+    }
+
+    /**
+     * Cipher缓存的key，密钥按实例比较，不会计算密钥内容的哈希
+     */
+    private static final class CipherKey {
+
+        private final String transformation;
+
+        private final String provider;
+
+        private final int mode;
+
+        private final Key key;
+
+        private CipherKey(String transformation, String provider, int mode, Key key) {
+            this.transformation = transformation;
+            this.provider = provider;
+            this.mode = mode;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CipherKey)) {
+                return false;
+            }
+            CipherKey that = (CipherKey) o;
+            return mode == that.mode && key == that.key && transformation.equals(that.transformation)
+                    && Objects.equals(provider, that.provider);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = transformation.hashCode();
+            result = 31 * result + mode;
+            result = 31 * result + System.identityHashCode(key);
+            return result;
+        }
+
+    }
+
+    /**
+     * 派生密钥
+     */
+    @FunctionalInterface
+    public interface KeyLoader<K extends Key> {
+
+        K load() throws Exception;
+
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.mongoplus.cache.global;
+
+import com.mongoplus.mapping.EntityMetadata;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 实体类元数据缓存，元数据不可变，可在多线程间共享
+ *
+ * @author anwen
+ */
+public class EntityMetadataCache {
+
+    private static final Map<Class<?>, EntityMetadata> resources = new ConcurrentHashMap<>();
+
+    public static EntityMetadata get(Class<?> clazz) {
+        return resources.get(clazz);
+    }
+
+    /**
+     * 添加元数据，如果已经存在，则返回已存在的元数据
+     * @param entityMetadata 元数据
+     * @return {@link EntityMetadata}
+     * @author anwen
+     */
+    public static EntityMetadata putIfAbsent(EntityMetadata entityMetadata) {
+        EntityMetadata exist = resources.putIfAbsent(entityMetadata.getClazz(), entityMetadata);
+        return exist != null ? exist : entityMetadata;
+    }
+
+}
@@ -4,7 +4,6 @@ import com.mongoplus.annotation.collection.CollectionField;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Type;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -17,10 +16,10 @@ public class FieldCache {
 
     private static final Map<Field, Type> genericTypeMapCache = new ConcurrentHashMap<>();
 
-    private static final Map<Field, CollectionField> collectionFieldMapCache = new HashMap<>();
+    private static final Map<Field, CollectionField> collectionFieldMapCache = new ConcurrentHashMap<>();
 
     public static Type getGenericType(Field field) {
-        return genericTypeMapCache.getOrDefault(field,null);
+        return genericTypeMapCache.get(field);
     }
 
     public static Map<Field, Type> getGenericTypeMapCache() {
@@ -32,11 +31,15 @@ public class FieldCache {
     }
 
     public static void setGenericTypeMapCache(Field field,Type type) {
+        if (type == null) {
+            FieldCache.genericTypeMapCache.remove(field);
+            return;
+        }
         FieldCache.genericTypeMapCache.put(field,type);
     }
 
     public static CollectionField getCollectionField(Field field) {
-        return collectionFieldMapCache.getOrDefault(field,null);
+        return collectionFieldMapCache.get(field);
     }
 
     public static Map<Field, CollectionField> getCollectionFieldMapCache() {
@@ -48,6 +51,10 @@ public class FieldCache {
     }
 
     public static void setCollectionFieldMapCache(Field field,CollectionField collectionField) {
+        if (collectionField == null) {
+            FieldCache.collectionFieldMapCache.remove(field);
+            return;
+        }
         FieldCache.collectionFieldMapCache.put(field,collectionField);
     }
 
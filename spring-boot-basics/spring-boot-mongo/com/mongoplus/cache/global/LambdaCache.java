@@ -0,0 +1,33 @@
+package com.mongoplus.cache.global;
+
+import com.mongoplus.support.LambdaMeta;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * lambda解析缓存，key为lambda生成的类，同一个方法引用的调用点只会生成一个类
+ *
+ * @author anwen
+ */
+public class LambdaCache {
+
+    private static final Map<Class<?>, LambdaMeta> lambdaMetaCache = new ConcurrentHashMap<>();
+
+    public static LambdaMeta get(Class<?> lambdaClass) {
+        return lambdaMetaCache.get(lambdaClass);
+    }
+
+    /**
+     * 添加lambda信息，如果已经存在，则返回已存在的信息
+     * @param lambdaClass lambda生成的类
+     * @param lambdaMeta lambda信息
+     * @return {@link LambdaMeta}
+     * @author anwen
+     */
+    public static LambdaMeta putIfAbsent(Class<?> lambdaClass, LambdaMeta lambdaMeta) {
+        LambdaMeta exist = lambdaMetaCache.putIfAbsent(lambdaClass, lambdaMeta);
+        return exist != null ? exist : lambdaMeta;
+    }
+
+}
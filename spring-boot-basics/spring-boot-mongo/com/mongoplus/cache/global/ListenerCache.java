@@ -1,6 +1,9 @@
 package com.mongoplus.cache.global;
 
 import com.mongoplus.listener.Listener;
+import com.mongoplus.model.command.CommandFailed;
+import com.mongoplus.model.command.CommandStarted;
+import com.mongoplus.model.command.CommandSucceeded;
 
 import java.util.ArrayList;
 import java.util.Comparator;
@@ -9,14 +12,98 @@ import java.util.stream.Collectors;
 
 /**
  * 监听器
+ * <p>分发时使用按事件类型预先计算好的监听器数组，监听器变更后重新计算</p>
  * @author JiaChaoYang
  **/
 public class ListenerCache {
 
     public static List<Listener> listeners = new ArrayList<>();
 
+    private static volatile ListenerSnapshot snapshot;
+
+    /**
+     * 添加监听器并重新排序
+     * @param listener 监听器
+     * @author anwen
+     */
+    public static void addListener(Listener listener) {
+        listeners.add(listener);
+        sorted();
+    }
+
     public static void sorted() {
         listeners = listeners.stream().sorted(Comparator.comparing(Listener::getOrder)).collect(Collectors.toList());
+        snapshot = new ListenerSnapshot(listeners);
+    }
+
+    /**
+     * 获取需要处理{@link CommandStarted}的监听器
+     * @return {@link Listener[]}
+     * @author anwen
+     */
+    public static Listener[] getStartedListeners() {
+        return getSnapshot().startedListeners;
+    }
+
+    /**
+     * 获取需要处理{@link CommandSucceeded}的监听器
+     * @return {@link Listener[]}
+     * @author anwen
+     */
+    public static Listener[] getSucceededListeners() {
+        return getSnapshot().succeededListeners;
+    }
+
+    /**
+     * 获取需要处理{@link CommandFailed}的监听器
+     * @return {@link Listener[]}
+     * @author anwen
+     */
+    public static Listener[] getFailedListeners() {
+        return getSnapshot().failedListeners;
+    }
+
+    private static ListenerSnapshot getSnapshot() {
+        ListenerSnapshot listenerSnapshot = snapshot;
+        List<Listener> currentListeners = listeners;
+        // 兼容直接修改listeners的情况
+        if (listenerSnapshot == null || listenerSnapshot.source != currentListeners
+                || listenerSnapshot.size != currentListeners.size()) {
+            listenerSnapshot = new ListenerSnapshot(currentListeners);
+            snapshot = listenerSnapshot;
+        }
+        return listenerSnapshot;
+    }
+
+    private static final class ListenerSnapshot {
+
+        private final List<Listener> source;
+
+        private final int size;
+
+        private final Listener[] startedListeners;
+
+        private final Listener[] succeededListeners;
+
+        private final Listener[] failedListeners;
+
+        private ListenerSnapshot(List<Listener> source) {
+            this.source = source;
+            this.size = source.size();
+            List<Listener> sortedListeners = source.stream()
+                    .sorted(Comparator.comparing(Listener::getOrder))
+                    .collect(Collectors.toList());
+            this.startedListeners = sortedListeners.stream()
+                    .filter(listener -> listener.supports(CommandStarted.class))
+                    .toArray(Listener[]::new);
+            this.succeededListeners = sortedListeners.stream()
+                    .filter(listener -> listener.supports(CommandSucceeded.class))
+                    .toArray(Listener[]::new);
+            this.failedListeners = sortedListeners.stream()
+                    .filter(listener -> listener.supports(CommandFailed.class))
+                    .toArray(Listener[]::new);
+        }
+
     }
 
 }
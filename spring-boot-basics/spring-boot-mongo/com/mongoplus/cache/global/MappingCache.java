@@ -6,12 +6,17 @@ import com.mongoplus.strategy.mapping.impl.EnumMappingStrategy;
 import com.mongoplus.strategy.mapping.impl.ObjectMappingStrategy;
 
 import java.math.BigInteger;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * 映射策略缓存
+ *
+ * @author anwen
+ */
 public class MappingCache {
 
-    private static final Map<Class<?>, MappingStrategy<?>> mappingStrategyMap = new HashMap<>();
+    private static final Map<Class<?>, MappingStrategy<?>> mappingStrategyMap = new ConcurrentHashMap<>();
 
     static {
         mappingStrategyMap.put(BigInteger.class,new BigIntegerMappingStrategy());
@@ -32,6 +32,31 @@ public class PropertyCache {
      */
     public static String autoIdCollectionName = "counters";
 
+    /**
+     * 自增id每次预留的号段长度，小于等于1表示每次插入都访问计数集合
+     */
+    public static int autoIdStep = 100;
+
+    /**
+     * 自动创建索引和时间序列集合时，只输出计划的变更，不执行
+     */
+    public static Boolean autoIndexDryRun = false;
+
+    /**
+     * 自动创建索引和时间序列集合时，存在冲突的定义直接抛出异常
+     */
+    public static Boolean autoIndexFailFast = false;
+
+    /**
+     * 分页时使用$facet在一次查询中同时获取总数和当前页的数据
+     */
+    public static Boolean facetPage = false;
+
+    /**
+     * 使用$facet分页的最大每页条数，超过后使用两次查询，避免结果超过单个文档的大小限制
+     */
+    public static int facetPageMaxSize = 1000;
+
     /**
      * 小黑子模式
      */
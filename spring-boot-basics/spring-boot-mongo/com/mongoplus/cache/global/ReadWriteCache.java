@@ -0,0 +1,101 @@
+package com.mongoplus.cache.global;
+
+import com.mongoplus.model.SlaveDataSource;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 读写分离缓存，保存每个数据源对应的从数据源，以及当前线程最后一次写入的时间
+ *
+ * @author anwen
+ */
+public class ReadWriteCache {
+
+    /**
+     * 主数据源名称 -> 从数据源
+     */
+    private static final Map<String, SlaveDataSource> slaveDataSourceMap = new ConcurrentHashMap<>();
+
+    private static final ThreadLocal<Long> lastWriteTime = new ThreadLocal<>();
+
+    /**
+     * 写入后，当前线程在该时间内的读取仍然路由到主数据源，单位毫秒，小于等于0表示不启用
+     */
+    private static volatile long stickyMillis = 1000;
+
+    public static void setSlaveDataSource(String dataSource, SlaveDataSource slaveDataSource) {
+        slaveDataSourceMap.put(dataSource, slaveDataSource);
+    }
+
+    public static SlaveDataSource getSlaveDataSource(String dataSource) {
+        return slaveDataSourceMap.get(dataSource);
+    }
+
+    public static void removeSlaveDataSource(String dataSource) {
+        slaveDataSourceMap.remove(dataSource);
+    }
+
+    public static boolean isEmpty() {
+        return slaveDataSourceMap.isEmpty();
+    }
+
+    public static long getStickyMillis() {
+        return stickyMillis;
+    }
+
+    public static void setStickyMillis(long stickyMillis) {
+        ReadWriteCache.stickyMillis = stickyMillis;
+    }
+
+    /**
+     * 记录当前线程的写入
+     * @author anwen
+     */
+    public static void markWrite() {
+        if (stickyMillis > 0) {
+            lastWriteTime.set(System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * 获取当前线程最后一次写入的时间，没有写入时返回0
+     * @return {@link long}
+     * @author anwen
+     */
+    public static long getLastWriteTime() {
+        Long time = lastWriteTime.get();
+        return time == null ? 0 : time;
+    }
+
+    /**
+     * 设置当前线程最后一次写入的时间，用于将调用线程的状态传递到并发任务中
+     * @param time 时间，0表示清除
+     * @author anwen
+     */
+    public static void setLastWriteTime(long time) {
+        if (time <= 0) {
+            lastWriteTime.remove();
+        } else {
+            lastWriteTime.set(time);
+        }
+    }
+
+    /**
+     * 当前线程是否处于写入后的读主窗口内
+     * @return {@link boolean}
+     * @author anwen
+     */
+    public static boolean isSticky() {
+        Long time = lastWriteTime.get();
+        if (time == null) {
+            return false;
+        }
+        if (System.currentTimeMillis() - time < stickyMillis) {
+            return true;
+        }
+        lastWriteTime.remove();
+        return false;
+    }
+
+}
@@ -1,9 +1,14 @@
 package com.mongoplus.conditions.query;
 
+import com.mongoplus.model.KeysetPageParam;
+import com.mongoplus.model.KeysetPageResult;
+import com.mongoplus.model.MongoPlusCursor;
 import com.mongoplus.model.PageParam;
 import com.mongoplus.model.PageResult;
 
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * 查询方法定义
@@ -118,4 +123,85 @@ public interface ChainQuery<T> {
     <R> PageResult<R> page(Integer pageNum, Integer pageSize, Integer recentPageNum,Class<R> rClazz);
 
     long count();
+
+    /**
+     * 游标分页，根据上一页的游标定位，不使用skip，翻页的耗时与页码无关
+     * @param keysetPageParam 游标分页参数
+     * @return {@link KeysetPageResult<T>}
+     * @author anwen
+     */
+    KeysetPageResult<T> keysetPage(KeysetPageParam keysetPageParam);
+
+    /**
+     * 游标分页，根据上一页的游标定位，不使用skip，翻页的耗时与页码无关
+     * @param keysetPageParam 游标分页参数
+     * @param rClazz 返回类型
+     * @return {@link KeysetPageResult<R>}
+     * @author anwen
+     */
+    <R> KeysetPageResult<R> keysetPage(KeysetPageParam keysetPageParam, Class<R> rClazz);
+
+    /**
+     * 获取游标，逐条映射，不会将结果集全部加载到内存
+     * @return {@link MongoPlusCursor<T>}
+     * @author anwen
+     */
+    default MongoPlusCursor<T> cursor(){
+        return cursor(null);
+    }
+
+    /**
+     * 获取游标，逐条映射，不会将结果集全部加载到内存
+     * @param batchSize 每批从服务端获取的数量，为null则使用驱动的默认值
+     * @return {@link MongoPlusCursor<T>}
+     * @author anwen
+     */
+    MongoPlusCursor<T> cursor(Integer batchSize);
+
+    /**
+     * 获取游标，逐条映射，不会将结果集全部加载到内存
+     * @param batchSize 每批从服务端获取的数量，为null则使用驱动的默认值
+     * @param rClazz 返回类型
+     * @return {@link MongoPlusCursor<R>}
+     * @author anwen
+     */
+    <R> MongoPlusCursor<R> cursor(Integer batchSize, Class<R> rClazz);
+
+    /**
+     * 获取Stream，使用完毕后需要关闭，推荐使用try-with-resources
+     * @return {@link Stream<T>}
+     * @author anwen
+     */
+    default Stream<T> stream(){
+        return cursor().stream();
+    }
+
+    /**
+     * 获取Stream，使用完毕后需要关闭，推荐使用try-with-resources
+     * @param batchSize 每批从服务端获取的数量，为null则使用驱动的默认值
+     * @return {@link Stream<T>}
+     * @author anwen
+     */
+    default Stream<T> stream(Integer batchSize){
+        return cursor(batchSize).stream();
+    }
+
+    /**
+     * 逐条处理，结束后关闭游标
+     * @param action 处理每条数据
+     * @author anwen
+     */
+    default void forEach(Consumer<? super T> action){
+        cursor().forEachRemaining(action);
+    }
+
+    /**
+     * 逐条处理，结束后关闭游标
+     * @param batchSize 每批从服务端获取的数量，为null则使用驱动的默认值
+     * @param action 处理每条数据
+     * @author anwen
+     */
+    default void forEach(Integer batchSize, Consumer<? super T> action){
+        cursor(batchSize).forEachRemaining(action);
+    }
 }
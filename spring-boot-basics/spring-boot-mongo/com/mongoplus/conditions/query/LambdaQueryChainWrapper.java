@@ -1,6 +1,9 @@
 package com.mongoplus.conditions.query;
 
 import com.mongoplus.mapper.BaseMapper;
+import com.mongoplus.model.KeysetPageParam;
+import com.mongoplus.model.KeysetPageResult;
+import com.mongoplus.model.MongoPlusCursor;
 import com.mongoplus.model.PageParam;
 import com.mongoplus.model.PageResult;
 
@@ -86,4 +89,24 @@ public class LambdaQueryChainWrapper<T> extends QueryChainWrapper<T,LambdaQueryC
         return baseMapper.count(this,clazz);
     }
 
+    @Override
+    public KeysetPageResult<T> keysetPage(KeysetPageParam keysetPageParam) {
+        return keysetPage(keysetPageParam, clazz);
+    }
+
+    @Override
+    public <R> KeysetPageResult<R> keysetPage(KeysetPageParam keysetPageParam, Class<R> rClazz) {
+        return baseMapper.keysetPage(this, keysetPageParam, clazz, rClazz);
+    }
+
+    @Override
+    public MongoPlusCursor<T> cursor(Integer batchSize) {
+        return cursor(batchSize, clazz);
+    }
+
+    @Override
+    public <R> MongoPlusCursor<R> cursor(Integer batchSize, Class<R> rClazz) {
+        return baseMapper.cursor(this, batchSize, clazz, rClazz);
+    }
+
 }
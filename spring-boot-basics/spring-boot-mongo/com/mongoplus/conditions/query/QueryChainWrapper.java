@@ -9,12 +9,55 @@ import com.mongoplus.model.BaseConditionResult;
 import com.mongoplus.support.SFunction;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * AbstractChainWrapper的条件扩展类，查询专有的条件，使用类构造条件时，使用QueryChainWrapper的子类，{@link QueryWrapper}
  * @author JiaChaoYang
 */
 public abstract class QueryChainWrapper<T,Children extends QueryChainWrapper<T,Children>> extends AbstractChainWrapper<T,Children> implements Query<T,Children> {
+
+    /**
+     * 分页时count结果的缓存时间，单位毫秒，小于等于0表示不缓存
+     */
+    private long countCacheMillis;
+
+    /**
+     * 分页时是否使用$facet，为null时使用全局配置
+     */
+    private Boolean facetPage;
+
+    /**
+     * 分页时缓存count结果，相同条件在缓存时间内不会重复count，适用于对总数实时性要求不高的场景
+     * @param timeout 缓存时间
+     * @param unit 时间单位
+     * @return {@link Children}
+     * @author anwen
+     */
+    public Children countCache(long timeout, TimeUnit unit) {
+        this.countCacheMillis = unit.toMillis(timeout);
+        return typedThis;
+    }
+
+    public long getCountCacheMillis() {
+        return countCacheMillis;
+    }
+
+    /**
+     * 分页时是否使用$facet在一次查询中同时获取总数和当前页的数据，不设置时使用全局配置
+     * @param facetPage 是否使用$facet分页
+     * @return {@link Children}
+     * @author anwen
+     */
+    public Children facetPage(boolean facetPage) {
+        this.facetPage = facetPage;
+        return typedThis;
+    }
+
+    public Boolean getFacetPage() {
+        return facetPage;
+    }
+
     @Override
     public BaseConditionResult buildCondition(Condition condition) {
         return condition.queryCondition(this);
@@ -25,6 +25,7 @@ import com.mongoplus.interceptor.Interceptor;
 import com.mongoplus.interceptor.InterceptorChain;
 import com.mongoplus.interceptor.business.*;
 import com.mongoplus.listener.Listener;
+import com.mongoplus.listener.business.AsyncLogListener;
 import com.mongoplus.listener.business.BlockAttackInnerListener;
 import com.mongoplus.listener.business.LogListener;
 import com.mongoplus.manager.LogicManager;
@@ -38,6 +39,7 @@ import com.mongoplus.mapping.TypeInformation;
 import com.mongoplus.model.BaseProperty;
 import com.mongoplus.model.LogicDeleteResult;
 import com.mongoplus.model.LogicProperty;
+import com.mongoplus.model.SlaveDataSource;
 import com.mongoplus.strategy.conversion.ConversionStrategy;
 import com.mongoplus.toolkit.ClassTypeUtil;
 import com.mongoplus.toolkit.MongoUtil;
@@ -169,7 +171,7 @@ public class Configuration {
      * @author JiaChaoYang
      */
     public Configuration log() {
-        ListenerCache.listeners.add(new LogListener());
+        ListenerCache.addListener(new LogListener());
         return this;
     }
 
@@ -180,7 +182,88 @@ public class Configuration {
      * @author loser
      */
     public Configuration log(Boolean pretty) {
-        ListenerCache.listeners.add(new LogListener(pretty));
+        ListenerCache.addListener(new LogListener(pretty));
+        PropertyCache.log = true;
+        return this;
+    }
+
+    /**
+     * 设置自增id每次预留的号段长度
+     *
+     * @param autoIdStep 号段长度，小于等于1表示每次插入都访问计数集合
+     * @author anwen
+     */
+    public Configuration autoIdStep(int autoIdStep) {
+        PropertyCache.autoIdStep = autoIdStep;
+        return this;
+    }
+
+    /**
+     * 自动创建索引和时间序列集合时，只输出计划的变更，不执行
+     *
+     * @param autoIndexDryRun 是否只输出计划
+     * @author anwen
+     */
+    public Configuration autoIndexDryRun(boolean autoIndexDryRun) {
+        PropertyCache.autoIndexDryRun = autoIndexDryRun;
+        return this;
+    }
+
+    /**
+     * 自动创建索引和时间序列集合时，存在冲突的定义直接抛出异常，不执行任何变更
+     *
+     * @param autoIndexFailFast 是否在冲突时抛出异常
+     * @author anwen
+     */
+    public Configuration autoIndexFailFast(boolean autoIndexFailFast) {
+        PropertyCache.autoIndexFailFast = autoIndexFailFast;
+        return this;
+    }
+
+    /**
+     * 分页时使用$facet在一次查询中同时获取总数和当前页的数据，减少一次网络往返
+     * <p>条件为空且可以使用estimatedDocumentCount时，仍然使用两次查询</p>
+     *
+     * @param facetPage 是否使用$facet分页
+     * @param facetPageMaxSize 使用$facet分页的最大每页条数，超过后使用两次查询
+     * @author anwen
+     */
+    public Configuration facetPage(boolean facetPage, int facetPageMaxSize) {
+        PropertyCache.facetPage = facetPage;
+        PropertyCache.facetPageMaxSize = facetPageMaxSize;
+        return this;
+    }
+
+    /**
+     * 为默认数据源配置读写分离，只读操作路由到从数据源，事务中始终读主
+     *
+     * @param slaveDataSource 从数据源配置，slaveName为空时与主数据源共用连接，按readPreference读取
+     * @param stickyMillis 写入后当前线程在该时间内仍然读主，小于等于0表示不启用
+     * @author anwen
+     */
+    public Configuration slaveDataSource(SlaveDataSource slaveDataSource, long stickyMillis) {
+        ReadWriteCache.setSlaveDataSource(DataSourceConstant.DEFAULT_DATASOURCE, slaveDataSource);
+        ReadWriteCache.setStickyMillis(stickyMillis);
+        return this;
+    }
+
+    /**
+     * 开启异步日志打印，日志在后台线程中输出，不会阻塞执行命令的线程
+     *
+     * @author anwen
+     */
+    public Configuration asyncLog() {
+        return asyncLog(new AsyncLogListener());
+    }
+
+    /**
+     * 开启异步日志打印
+     *
+     * @param asyncLogListener 异步日志监听器，可以设置缓冲区大小、截断长度、采样率和慢命令阈值
+     * @author anwen
+     */
+    public Configuration asyncLog(AsyncLogListener asyncLogListener) {
+        ListenerCache.addListener(asyncLogListener);
         PropertyCache.log = true;
         return this;
     }
@@ -191,7 +274,7 @@ public class Configuration {
      * @author JiaChaoYang
      */
     public Configuration blockAttackInner() {
-        ListenerCache.listeners.add(new BlockAttackInnerListener());
+        ListenerCache.addListener(new BlockAttackInnerListener());
         return this;
     }
 
@@ -205,7 +288,7 @@ public class Configuration {
     @SafeVarargs
     public final Configuration listener(Class<? extends Listener>... listeners) {
         for (Class<? extends Listener> listener : listeners) {
-            ListenerCache.listeners.add((Listener) ClassTypeUtil.getInstanceByClass(listener));
+            ListenerCache.addListener((Listener) ClassTypeUtil.getInstanceByClass(listener));
         }
         return this;
     }
@@ -297,7 +380,7 @@ public class Configuration {
             put(DataSourceConstant.DEFAULT_DATASOURCE, new LinkedHashMap<String, CollectionManager>() {{
                 String database = mongoPlusClient.getBaseProperty().getDatabase();
                 Arrays.stream(database.split(",")).collect(Collectors.toList()).forEach(db -> {
-                    CollectionManager collectionManager = new CollectionManager(db);
+                    CollectionManager collectionManager = new CollectionManager(DataSourceConstant.DEFAULT_DATASOURCE, db);
                     MongoDatabase mongoDatabase = mongoPlusClient.getMongoClient().getDatabase(db);
                     mongoDatabaseList.add(mongoDatabase);
                     put(db, collectionManager);
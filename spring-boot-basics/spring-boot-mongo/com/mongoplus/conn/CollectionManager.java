@@ -1,15 +1,20 @@
 package com.mongoplus.conn;
 
+import com.mongodb.ReadPreference;
 import com.mongodb.client.MongoCollection;
+import com.mongoplus.cache.global.CollectionCache;
 import com.mongoplus.cache.global.DataSourceNameCache;
+import com.mongoplus.constant.DataSourceConstant;
 import com.mongoplus.factory.MongoClientFactory;
 import com.mongoplus.handlers.collection.AnnotationOperate;
 import com.mongoplus.logic.UnClassCollection;
+import com.mongoplus.model.SlaveDataSource;
 import com.mongoplus.registry.MongoEntityMappingRegistry;
+import com.mongoplus.toolkit.StringUtils;
 import org.bson.Document;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 连接管理器
@@ -19,25 +24,30 @@ import java.util.concurrent.ConcurrentHashMap;
 public class CollectionManager {
 
     /**
-     * 缓存mongoCollection
-     *
+     * 读操作使用的mongoCollection在{@link CollectionCache}中的用途前缀，后面拼接读偏好配置
      */
-    private final Map<String, MongoCollection<Document>> collectionMap = new ConcurrentHashMap<>();
+    private static final String READ_USAGE = "read";
 
+    private final String dataSource;
 
     private final String database;
 
     public CollectionManager(String database) {
+        this(DataSourceConstant.DEFAULT_DATASOURCE, database);
+    }
+
+    public CollectionManager(String dataSource, String database) {
+        this.dataSource = dataSource;
         this.database = database;
     }
 
     /**
-     * 设置一个连接
+     * 设置一个连接，缓存在当前管理器所属的数据源下
      *
      * @author JiaChaoYang
      */
     public void setCollectionMap(String key, MongoCollection<Document> value) {
-        collectionMap.put(key, value);
+        CollectionCache.putCollection(dataSource, database, key, null, value);
     }
 
     public MongoCollection<Document> getCollection(Class<?> clazz) {
@@ -56,22 +66,58 @@ public class CollectionManager {
         return getCollection(DataSourceNameCache.getDataSource(),collectionName,clazz);
     }
 
+    /**
+     * 获取集合，集合与实体的映射关系在缓存之外注册，集合被淘汰后重新创建时不会影响已有的映射
+     * @author JiaChaoYang
+     */
     public MongoCollection<Document> getCollection(String dsName,String collectionName,Class<?> clazz) {
-        MongoCollection<Document> mongoCollection;
-        // 检查连接是否需要重新创建
-        if (!this.collectionMap.containsKey(collectionName)) {
-            mongoCollection = new ConnectMongoDB(
+        MongoCollection<Document> mongoCollection = CollectionCache.getCollection(dsName, database, collectionName,
+                null, () -> new ConnectMongoDB(
+                        MongoClientFactory.getInstance().getMongoClient(dsName),
+                        database,
+                        collectionName
+                ).open());
+        MongoEntityMappingRegistry.getInstance()
+                .setMappingRelation(mongoCollection.getNamespace().getFullName(), clazz);
+        return mongoCollection;
+    }
+
+    /**
+     * 获取读操作使用的集合，不会修改集合与实体的映射关系
+     * @param dsName 读操作使用的数据源
+     * @param collectionName 集合名称
+     * @param slaveDataSource 从数据源配置，配置了readPreference时使用对应的读偏好
+     * @return {@link MongoCollection<Document>}
+     * @author anwen
+     */
+    public MongoCollection<Document> getReadCollection(String dsName, String collectionName,
+                                                       SlaveDataSource slaveDataSource) {
+        boolean sameClient = !dsName.equals(slaveDataSource.getSlaveName());
+        String usage = READ_USAGE + "|" + slaveDataSource.getReadPreference() + "|"
+                + slaveDataSource.getMaxStalenessSeconds() + "|" + sameClient;
+        return CollectionCache.getCollection(dsName, database, collectionName, usage, () -> {
+            MongoCollection<Document> mongoCollection = new ConnectMongoDB(
                     MongoClientFactory.getInstance().getMongoClient(dsName),
                     database,
                     collectionName
             ).open();
-            this.collectionMap.put(collectionName, mongoCollection);
-            MongoEntityMappingRegistry.getInstance()
-                    .setMappingRelation(mongoCollection.getNamespace().getFullName(), clazz);
-        } else {
-            mongoCollection = this.collectionMap.get(collectionName);
+            ReadPreference readPreference = getReadPreference(slaveDataSource, sameClient);
+            return readPreference == null ? mongoCollection : mongoCollection.withReadPreference(readPreference);
+        });
+    }
+
+    private static ReadPreference getReadPreference(SlaveDataSource slaveDataSource, boolean sameClient) {
+        String readPreference = slaveDataSource.getReadPreference();
+        if (StringUtils.isBlank(readPreference)) {
+            // 与主数据源共用连接时默认优先读从节点，独立连接时使用连接自身的配置
+            return sameClient ? ReadPreference.secondaryPreferred() : null;
         }
-        return mongoCollection;
+        Integer maxStalenessSeconds = slaveDataSource.getMaxStalenessSeconds();
+        if (maxStalenessSeconds != null && maxStalenessSeconds > 0) {
+            return ReadPreference.valueOf(readPreference, Collections.emptyList(), maxStalenessSeconds,
+                    TimeUnit.SECONDS);
+        }
+        return ReadPreference.valueOf(readPreference);
     }
 
 }
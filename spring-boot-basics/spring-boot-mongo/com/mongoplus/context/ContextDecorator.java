@@ -0,0 +1,21 @@
+package com.mongoplus.context;
+
+/**
+ * 异步任务的上下文装饰器，用于将调用线程中的ThreadLocal传递到执行线程
+ * <p>{@link #decorate(Runnable)}在调用线程中执行，返回的Runnable在执行线程中执行，执行结束后需要恢复执行线程原本的上下文</p>
+ * <p>如果租户id等信息保存在自定义的ThreadLocal中，需要通过{@link com.mongoplus.cache.global.ConcurrentCache#addContextDecorator(ContextDecorator)}注册</p>
+ *
+ * @author anwen
+ */
+@FunctionalInterface
+public interface ContextDecorator {
+
+    /**
+     * 装饰任务
+     * @param runnable 任务
+     * @return {@link Runnable}
+     * @author anwen
+     */
+    Runnable decorate(Runnable runnable);
+
+}
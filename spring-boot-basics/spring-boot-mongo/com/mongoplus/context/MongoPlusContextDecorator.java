@@ -0,0 +1,58 @@
+package com.mongoplus.context;
+
+import com.mongoplus.cache.global.DataSourceNameCache;
+import com.mongoplus.cache.global.ReadWriteCache;
+import com.mongoplus.manager.LogicManager;
+import com.mongoplus.manager.TenantManager;
+
+/**
+ * 传递Mongo-Plus自身的上下文：数据源、读写分离的最后写入时间、忽略租户、忽略逻辑删除
+ * <p>事务中的ClientSession不是线程安全的，不会被传递，事务中的任务应在调用线程中执行</p>
+ *
+ * @author anwen
+ */
+public class MongoPlusContextDecorator implements ContextDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        String dataSource = DataSourceNameCache.getDataSource();
+        long lastWriteTime = ReadWriteCache.getLastWriteTime();
+        boolean ignoreTenant = Boolean.TRUE.equals(TenantManager.getIgnoreTenant());
+        boolean ignoreLogic = LogicManager.isIgnoreLogic();
+        return () -> {
+            String previousDataSource = DataSourceNameCache.getDataSource();
+            long previousLastWriteTime = ReadWriteCache.getLastWriteTime();
+            boolean previousIgnoreTenant = Boolean.TRUE.equals(TenantManager.getIgnoreTenant());
+            boolean previousIgnoreLogic = LogicManager.isIgnoreLogic();
+            try {
+                DataSourceNameCache.setDataSource(dataSource);
+                ReadWriteCache.setLastWriteTime(lastWriteTime);
+                setIgnoreTenant(ignoreTenant);
+                setIgnoreLogic(ignoreLogic);
+                runnable.run();
+            } finally {
+                DataSourceNameCache.setDataSource(previousDataSource);
+                ReadWriteCache.setLastWriteTime(previousLastWriteTime);
+                setIgnoreTenant(previousIgnoreTenant);
+                setIgnoreLogic(previousIgnoreLogic);
+            }
+        };
+    }
+
+    private static void setIgnoreTenant(boolean ignoreTenant) {
+        if (ignoreTenant) {
+            TenantManager.ignoreTenantCondition();
+        } else {
+            TenantManager.restoreTenantCondition();
+        }
+    }
+
+    private static void setIgnoreLogic(boolean ignoreLogic) {
+        if (ignoreLogic) {
+            LogicManager.ignoreLogicCondition();
+        } else {
+            LogicManager.restoreLogicCondition();
+        }
+    }
+
+}
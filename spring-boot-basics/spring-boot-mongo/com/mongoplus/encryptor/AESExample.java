@@ -1,5 +1,6 @@
 package com.mongoplus.encryptor;
 
+import com.mongoplus.cache.global.EncryptorCache;
 import com.mongoplus.cache.global.PropertyCache;
 import com.mongoplus.enums.AlgorithmEnum;
 import com.mongoplus.toolkit.EncryptorUtil;
@@ -48,12 +49,13 @@ public class AESExample implements Encryptor {
      */
     @Override
     public String encrypt(String data, String password,String publicKey) throws Exception {
-        Cipher cipher = Cipher.getInstance(ALGORITHM);
         if (StringUtils.isBlank(password)){
             password = PropertyCache.key;
         }
-        cipher.init(Cipher.ENCRYPT_MODE, getKeyFromPassword(password));
-        return StringUtils.bytesToHex(cipher.doFinal(data.getBytes()));
+        String finalPassword = password;
+        SecretKey key = EncryptorCache.getKey(ALGORITHM, password, () -> getKeyFromPassword(finalPassword));
+        return StringUtils.bytesToHex(EncryptorCache.doFinal(ALGORITHM, null, Cipher.ENCRYPT_MODE, key,
+                data.getBytes()));
     }
 
     /**
@@ -67,12 +69,13 @@ public class AESExample implements Encryptor {
      */
     @Override
     public String decrypt(String encryptedData, String password, String privateKey) throws Exception {
-        Cipher cipher = Cipher.getInstance(ALGORITHM);
         if (StringUtils.isBlank(password)){
             password = PropertyCache.key;
         }
-        cipher.init(Cipher.DECRYPT_MODE, getKeyFromPassword(password));
-        return new String(cipher.doFinal(hexToBytes(encryptedData)));
+        String finalPassword = password;
+        SecretKey key = EncryptorCache.getKey(ALGORITHM, password, () -> getKeyFromPassword(finalPassword));
+        return new String(EncryptorCache.doFinal(ALGORITHM, null, Cipher.DECRYPT_MODE, key,
+                hexToBytes(encryptedData)));
     }
 
     /**
@@ -1,5 +1,6 @@
 package com.mongoplus.encryptor;
 
+import com.mongoplus.cache.global.EncryptorCache;
 import com.mongoplus.toolkit.StringUtils;
 
 import java.security.MessageDigest;
@@ -24,7 +25,7 @@ public class MD5Example implements Encryptor {
     @Override
     public String encrypt(String data, String key,String publicKey) throws Exception {
         // 获取MD5加密实例
-        MessageDigest md = MessageDigest.getInstance("MD5");
+        MessageDigest md = EncryptorCache.getMessageDigest("MD5", null);
 
         // 将原始字符串转换为字节数组
         byte[] originalBytes = data.getBytes();
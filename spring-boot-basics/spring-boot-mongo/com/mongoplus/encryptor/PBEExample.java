@@ -1,5 +1,6 @@
 package com.mongoplus.encryptor;
 
+import com.mongoplus.cache.global.EncryptorCache;
 import com.mongoplus.cache.global.PropertyCache;
 import com.mongoplus.toolkit.StringUtils;
 
@@ -28,14 +29,23 @@ public class PBEExample implements Encryptor {
 
     private static final int ITERATION_COUNT = 1000;
 
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
     // 生成随机盐
     private static byte[] generateSalt() {
         byte[] salt = new byte[8];
-        SecureRandom random = new SecureRandom();
-        random.nextBytes(salt);
+        SECURE_RANDOM.nextBytes(salt);
         return salt;
     }
 
+    /**
+     * 盐每次不同，Cipher需要每次初始化，只缓存密钥和Cipher实例
+     */
+    private SecretKey getKey(String key) throws Exception {
+        return EncryptorCache.getKey(algorithm, key,
+                () -> SecretKeyFactory.getInstance(algorithm).generateSecret(new PBEKeySpec(key.toCharArray())));
+    }
+
     @Override
     public String encrypt(String data, String key,String publicKey) throws Exception {
         byte[] salt = generateSalt();
@@ -43,11 +53,8 @@ public class PBEExample implements Encryptor {
         if (StringUtils.isBlank(key)){
             key = PropertyCache.key;
         }
-        PBEKeySpec pbeKeySpec = new PBEKeySpec(key.toCharArray());
-        SecretKeyFactory keyFac = SecretKeyFactory.getInstance(algorithm);
-        SecretKey pbeKey = keyFac.generateSecret(pbeKeySpec);
-        Cipher cipher = Cipher.getInstance(algorithm);
-        cipher.init(Cipher.ENCRYPT_MODE, pbeKey, pbeParamSpec);
+        Cipher cipher = EncryptorCache.getCipher(algorithm);
+        cipher.init(Cipher.ENCRYPT_MODE, getKey(key), pbeParamSpec);
         byte[] encryptedBytes = cipher.doFinal(data.getBytes());
 
         // 将盐和加密数据一起返回，转换为十六进制字符串
@@ -68,11 +75,8 @@ public class PBEExample implements Encryptor {
         System.arraycopy(encryptedWithSalt, salt.length, encryptedBytes, 0, encryptedBytes.length);
 
         PBEParameterSpec pbeParamSpec = new PBEParameterSpec(salt, ITERATION_COUNT);
-        PBEKeySpec pbeKeySpec = new PBEKeySpec(key.toCharArray());
-        SecretKeyFactory keyFac = SecretKeyFactory.getInstance(algorithm);
-        SecretKey pbeKey = keyFac.generateSecret(pbeKeySpec);
-        Cipher cipher = Cipher.getInstance(algorithm);
-        cipher.init(Cipher.DECRYPT_MODE, pbeKey, pbeParamSpec);
+        Cipher cipher = EncryptorCache.getCipher(algorithm);
+        cipher.init(Cipher.DECRYPT_MODE, getKey(key), pbeParamSpec);
         byte[] decryptedBytes = cipher.doFinal(encryptedBytes);
         return new String(decryptedBytes);
     }
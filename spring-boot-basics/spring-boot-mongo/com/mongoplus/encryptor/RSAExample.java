@@ -1,5 +1,6 @@
 package com.mongoplus.encryptor;
 
+import com.mongoplus.cache.global.EncryptorCache;
 import com.mongoplus.cache.global.PropertyCache;
 import com.mongoplus.toolkit.StringUtils;
 
@@ -39,7 +40,11 @@ public class RSAExample implements Encryptor {
         if (StringUtils.isBlank(publicKey)){
             publicKey = PropertyCache.publicKey;
         }
-        return encrypt(data,getPublicKeyFromString(publicKey,ALGORITHM));
+        String finalPublicKey = publicKey;
+        PublicKey cachedPublicKey = EncryptorCache.getKey(ALGORITHM + ":public", publicKey,
+                () -> getPublicKeyFromString(finalPublicKey, ALGORITHM));
+        return StringUtils.bytesToHex(EncryptorCache.doFinal(ALGORITHM, null, Cipher.ENCRYPT_MODE,
+                cachedPublicKey, data.getBytes()));
     }
 
     /**
@@ -60,7 +65,11 @@ public class RSAExample implements Encryptor {
         if (StringUtils.isBlank(privateKey)){
             privateKey = PropertyCache.publicKey;
         }
-        return decrypt(encryptedData,getPrivateKeyFromString(privateKey,ALGORITHM));
+        String finalPrivateKey = privateKey;
+        PrivateKey cachedPrivateKey = EncryptorCache.getKey(ALGORITHM + ":private", privateKey,
+                () -> getPrivateKeyFromString(finalPrivateKey, ALGORITHM));
+        return new String(EncryptorCache.doFinal(ALGORITHM, null, Cipher.DECRYPT_MODE,
+                cachedPrivateKey, StringUtils.hexToBytes(encryptedData)));
     }
 
     /**
@@ -1,5 +1,6 @@
 package com.mongoplus.encryptor;
 
+import com.mongoplus.cache.global.EncryptorCache;
 import com.mongoplus.cache.global.PropertyCache;
 import com.mongoplus.toolkit.EncryptorUtil;
 import com.mongoplus.toolkit.StringUtils;
@@ -49,7 +50,11 @@ public class SM2Example implements Encryptor {
         if (StringUtils.isBlank(publicKey)){
             publicKey = PropertyCache.publicKey;
         }
-        return encrypt(data,EncryptorUtil.getPublicKeyFromString(publicKey,ALGORITHM,BouncyCastleProvider.PROVIDER_NAME));
+        String finalPublicKey = publicKey;
+        PublicKey cachedPublicKey = EncryptorCache.getKey("SM2:public", publicKey,
+                () -> EncryptorUtil.getPublicKeyFromString(finalPublicKey, ALGORITHM, BouncyCastleProvider.PROVIDER_NAME));
+        return Hex.toHexString(EncryptorCache.doFinal("SM2", BouncyCastleProvider.PROVIDER_NAME,
+                Cipher.ENCRYPT_MODE, cachedPublicKey, data.getBytes()));
     }
     
     /**
@@ -68,6 +73,10 @@ public class SM2Example implements Encryptor {
         if (StringUtils.isBlank(privateKey)){
             privateKey = PropertyCache.publicKey;
         }
-        return decrypt(data,EncryptorUtil.getPrivateKeyFromString(privateKey,ALGORITHM,BouncyCastleProvider.PROVIDER_NAME));
+        String finalPrivateKey = privateKey;
+        PrivateKey cachedPrivateKey = EncryptorCache.getKey("SM2:private", privateKey,
+                () -> EncryptorUtil.getPrivateKeyFromString(finalPrivateKey, ALGORITHM, BouncyCastleProvider.PROVIDER_NAME));
+        return new String(EncryptorCache.doFinal("SM2", BouncyCastleProvider.PROVIDER_NAME,
+                Cipher.DECRYPT_MODE, cachedPrivateKey, Hex.decode(data)));
     }
 }
@@ -1,9 +1,9 @@
 package com.mongoplus.encryptor;
 
+import com.mongoplus.cache.global.EncryptorCache;
 import com.mongoplus.toolkit.StringUtils;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 
-import java.security.MessageDigest;
 import java.security.Security;
 
 /**
@@ -19,7 +19,8 @@ public class SM3Example implements Encryptor {
 
     @Override
     public String encrypt(String data, String key,String publicKey) throws Exception {
-        return StringUtils.bytesToHex(MessageDigest.getInstance("SM3", BouncyCastleProvider.PROVIDER_NAME).digest(data.getBytes()));
+        return StringUtils.bytesToHex(EncryptorCache.getMessageDigest("SM3", BouncyCastleProvider.PROVIDER_NAME)
+                .digest(data.getBytes()));
     }
 
     @Override
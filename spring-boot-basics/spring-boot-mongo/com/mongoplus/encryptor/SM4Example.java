@@ -1,5 +1,6 @@
 package com.mongoplus.encryptor;
 
+import com.mongoplus.cache.global.EncryptorCache;
 import com.mongoplus.cache.global.PropertyCache;
 import com.mongoplus.toolkit.StringUtils;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
@@ -20,16 +21,16 @@ public class SM4Example implements Encryptor {
         Security.addProvider(new BouncyCastleProvider());
     }
 
+    private static final String TRANSFORMATION = "SM4/ECB/PKCS5Padding";
+
     @Override
     public String encrypt(String data, String key,String publicKey) throws Exception {
         if (StringUtils.isBlank(key)){
             key = PropertyCache.publicKey;
         }
-        byte[] keyBytes = Hex.decode(key);
-        SecretKeySpec secretKeySpec = new SecretKeySpec(keyBytes, "SM4");
-        Cipher cipher = Cipher.getInstance("SM4/ECB/PKCS5Padding", "BC");
-        cipher.init(Cipher.ENCRYPT_MODE, secretKeySpec);
-        byte[] encryptedBytes = cipher.doFinal(data.getBytes());
+        SecretKeySpec secretKeySpec = getKey(key);
+        byte[] encryptedBytes = EncryptorCache.doFinal(TRANSFORMATION, "BC", Cipher.ENCRYPT_MODE,
+                secretKeySpec, data.getBytes());
         return Hex.toHexString(encryptedBytes);
     }
 
@@ -38,12 +39,14 @@ public class SM4Example implements Encryptor {
         if (StringUtils.isBlank(key)){
             key = PropertyCache.publicKey;
         }
-        byte[] keyBytes = Hex.decode(key);
-        SecretKeySpec secretKeySpec = new SecretKeySpec(keyBytes, "SM4");
-        Cipher cipher = Cipher.getInstance("SM4/ECB/PKCS5Padding", "BC");
-        cipher.init(Cipher.DECRYPT_MODE, secretKeySpec);
+        SecretKeySpec secretKeySpec = getKey(key);
         byte[] encryptedBytes = Hex.decode(data);
-        return new String(cipher.doFinal(encryptedBytes));
+        return new String(EncryptorCache.doFinal(TRANSFORMATION, "BC", Cipher.DECRYPT_MODE,
+                secretKeySpec, encryptedBytes));
+    }
+
+    private static SecretKeySpec getKey(String key) throws Exception {
+        return EncryptorCache.getKey("SM4", key, () -> new SecretKeySpec(Hex.decode(key), "SM4"));
     }
 
 }
@@ -1,11 +1,13 @@
 package com.mongoplus.execute;
 
 import com.mongodb.client.ClientSession;
+import com.mongoplus.cache.global.MongoPlusClientCache;
 import com.mongoplus.context.MongoTransactionContext;
 import com.mongoplus.execute.instance.DefaultExecute;
 import com.mongoplus.execute.instance.SessionExecute;
 import com.mongoplus.interceptor.AdvancedInterceptorChain;
-import com.mongoplus.proxy.ExecutorProxy;
+import com.mongoplus.proxy.InterceptorExecute;
+import com.mongoplus.proxy.ReadWriteExecute;
 
 import java.util.Optional;
 
@@ -24,13 +26,18 @@ public class ExecutorFactory {
      * @author anwen
      */
     public Execute getExecute(){
+        ClientSession clientSession = MongoTransactionContext.getClientSessionContext();
         Execute execute = getOriginalExecute();
         Class<? extends Execute> clazz = execute.getClass();
+        // 读写分离，事务中的读写都使用主数据源
+        if (clientSession == null) {
+            execute = ReadWriteExecute.wrap(execute, MongoPlusClientCache.mongoPlusClient);
+        }
         // 包装一层高级代理对象，高级拦截器替代替换器，和普通拦截器形成拦截器责任链
         // 保证高级拦截器在普通拦截器之后执行，可以将普通拦截器认为成一种过滤器
         execute = AdvancedInterceptorChain.wrap(execute);
-        // 普通代理类
-        return ExecutorProxy.wrap(execute);
+        // 普通拦截器，预编译的拦截器链
+        return InterceptorExecute.wrap(execute);
     }
 
     /**
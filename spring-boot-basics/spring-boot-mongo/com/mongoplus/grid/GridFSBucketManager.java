@@ -1,20 +1,47 @@
 package com.mongoplus.grid;
 
+import com.mongodb.client.ClientSession;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
 import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.gridfs.GridFSBucket;
 import com.mongodb.client.gridfs.GridFSBuckets;
 import com.mongodb.client.gridfs.GridFSUploadStream;
+import com.mongodb.client.gridfs.model.GridFSFile;
 import com.mongodb.client.gridfs.model.GridFSUploadOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Sorts;
 import com.mongoplus.cache.global.MongoPlusClientCache;
+import com.mongoplus.context.MongoTransactionContext;
+import com.mongoplus.domain.MongoPlusException;
 import com.mongoplus.manager.MongoPlusClient;
+import com.mongoplus.toolkit.ConcurrentUtil;
+import org.bson.Document;
+import org.bson.types.Binary;
 import org.bson.types.ObjectId;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Date;
+import java.util.Deque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
+ * GridFS管理器
+ * <p>{@code uploadParallel}将文件按块在独立的线程池中并发写入chunks集合，{@code download}按字节范围只读取需要的块，
+ * 并校验块的序号和长度，两者同时在内存中的块数量都是有限的；直接读写files和chunks集合时使用bucket的写关注、读关注和读偏好，
+ * 处于事务中时使用事务的ClientSession顺序执行</p>
  * @author anwen
  */
 public class GridFSBucketManager {
@@ -27,17 +54,36 @@ public class GridFSBucketManager {
 
     private MongoPlusClient mongoPlusClient;
 
+    private MongoDatabase mongoDatabase;
+
+    /**
+     * 并发上传时同时写入的块数量，即上传线程数，处于事务中时为顺序写入
+     */
+    private int parallelism = 4;
+
+    /**
+     * 下载时每次从服务器获取的块数量
+     */
+    private int downloadBatchSize = 4;
+
+    private volatile boolean indexCreated = false;
+
     protected GridFSBucketManager(GridFSBucket gridFSBucket) {
         this.gridFSBucket = gridFSBucket;
     }
 
+    protected GridFSBucketManager(GridFSBucket gridFSBucket, MongoDatabase mongoDatabase) {
+        this.gridFSBucket = gridFSBucket;
+        this.mongoDatabase = mongoDatabase;
+    }
+
     public static GridFSBucketManager create(String database) {
         return create(database,"fs");
     }
 
     public static GridFSBucketManager create(String database,String bucketName) {
         MongoDatabase mongoDatabase = MongoPlusClientCache.mongoPlusClient.getMongoDatabase(database);
-        return new GridFSBucketManager(GridFSBuckets.create(mongoDatabase,bucketName));
+        return new GridFSBucketManager(GridFSBuckets.create(mongoDatabase,bucketName),mongoDatabase);
     }
 
     public ObjectId upload(String filePath,String filename) throws IOException {
@@ -70,6 +116,266 @@ public class GridFSBucketManager {
         }
     }
 
+    public ObjectId uploadParallel(InputStream inputStream,String filename) throws IOException {
+        return uploadParallel(inputStream,filename,getEmptyOptions());
+    }
+
+    /**
+     * 并发上传，按块读取输入流，最多{@link #parallelism}个块同时写入，所有块写入成功后才写入文件信息
+     * <p>每次上传使用独立的线程池，线程数为{@link #parallelism}，上传结束后关闭</p>
+     * <p>块大小取{@link GridFSUploadOptions#getChunkSizeBytes()}，未设置时使用bucket的块大小；
+     * 任意块写入失败时会删除已写入的块；处于事务中时所有块在当前线程中使用事务的ClientSession顺序写入，
+     * 失败时已写入的块随事务回滚</p>
+     * @param inputStream 输入流，上传结束后关闭
+     * @param filename 文件名
+     * @param options 上传选项
+     * @return {@link ObjectId} 文件id
+     * @author anwen
+     */
+    public ObjectId uploadParallel(InputStream inputStream,String filename,GridFSUploadOptions options) throws IOException {
+        int chunkSize = options.getChunkSizeBytes() != null ? options.getChunkSizeBytes() : gridFSBucket.getChunkSizeBytes();
+        if (chunkSize <= 0) {
+            throw new MongoPlusException("GridFS chunk size must be greater than 0");
+        }
+        MongoCollection<Document> chunksCollection = getChunksCollection();
+        createIndexes(chunksCollection);
+        ClientSession clientSession = MongoTransactionContext.getClientSessionContext();
+        int threads = Math.max(parallelism, 1);
+        ExecutorService executor = clientSession == null ? newUploadExecutor(threads) : null;
+        ObjectId fileId = new ObjectId();
+        Deque<Future<?>> pending = new ArrayDeque<>();
+        long length = 0;
+        int n = 0;
+        try (InputStream in = inputStream) {
+            byte[] buffer;
+            while ((buffer = readChunk(in, chunkSize)) != null) {
+                Document chunk = new Document("files_id", fileId)
+                        .append("n", n++)
+                        .append("data", new Binary(buffer));
+                length += buffer.length;
+                if (clientSession != null) {
+                    chunksCollection.insertOne(clientSession, chunk);
+                    continue;
+                }
+                if (pending.size() >= threads) {
+                    ConcurrentUtil.join(pending.poll());
+                }
+                pending.add(executor.submit(() -> chunksCollection.insertOne(chunk)));
+            }
+            while (!pending.isEmpty()) {
+                ConcurrentUtil.join(pending.poll());
+            }
+            Document file = new Document("_id", fileId)
+                    .append("length", length)
+                    .append("chunkSize", chunkSize)
+                    .append("uploadDate", new Date())
+                    .append("filename", filename);
+            if (options.getMetadata() != null) {
+                file.append("metadata", options.getMetadata());
+            }
+            if (clientSession != null) {
+                getFilesCollection().insertOne(clientSession, file);
+            } else {
+                getFilesCollection().insertOne(file);
+            }
+            return fileId;
+        } catch (IOException | RuntimeException e) {
+            pending.forEach(future -> future.cancel(false));
+            pending.forEach(future -> {
+                try {
+                    future.get();
+                } catch (Exception ignored) {
+                    // 只等待结束，异常以最初的为准
+                }
+            });
+            if (clientSession == null) {
+                chunksCollection.deleteMany(Filters.eq("files_id", fileId));
+            }
+            throw e;
+        } finally {
+            if (executor != null) {
+                executor.shutdown();
+            }
+        }
+    }
+
+    public GridFSFile find(ObjectId fileId) {
+        return gridFSBucket.find(Filters.eq("_id", fileId)).first();
+    }
+
+    public long download(ObjectId fileId,OutputStream outputStream) throws IOException {
+        return download(fileId,0,Long.MAX_VALUE,outputStream);
+    }
+
+    public long download(ObjectId fileId,WritableByteChannel channel) throws IOException {
+        return download(fileId,0,Long.MAX_VALUE,channel);
+    }
+
+    /**
+     * 下载指定范围的字节，只读取范围内的块，直接从块数据写入输出流
+     * @param fileId 文件id
+     * @param offset 起始位置
+     * @param length 读取的长度，超出文件长度时读取到文件末尾
+     * @param outputStream 输出流，不会关闭
+     * @return {@link long} 写入的字节数
+     * @author anwen
+     */
+    public long download(ObjectId fileId,long offset,long length,OutputStream outputStream) throws IOException {
+        return download(fileId,offset,length,outputStream::write);
+    }
+
+    /**
+     * 下载指定范围的字节，只读取范围内的块，直接从块数据写入通道
+     * @param fileId 文件id
+     * @param offset 起始位置
+     * @param length 读取的长度，超出文件长度时读取到文件末尾
+     * @param channel 通道，不会关闭
+     * @return {@link long} 写入的字节数
+     * @author anwen
+     */
+    public long download(ObjectId fileId,long offset,long length,WritableByteChannel channel) throws IOException {
+        return download(fileId,offset,length,(data,off,len) -> {
+            ByteBuffer byteBuffer = ByteBuffer.wrap(data,off,len);
+            while (byteBuffer.hasRemaining()) {
+                channel.write(byteBuffer);
+            }
+        });
+    }
+
+    private long download(ObjectId fileId,long offset,long length,ChunkWriter chunkWriter) throws IOException {
+        if (offset < 0 || length < 0) {
+            throw new MongoPlusException("GridFS download range must not be negative");
+        }
+        GridFSFile file = find(fileId);
+        if (file == null) {
+            throw new MongoPlusException("No file found with the id: " + fileId);
+        }
+        long fileLength = file.getLength();
+        if (offset >= fileLength || length == 0) {
+            return 0;
+        }
+        long end = length > fileLength - offset ? fileLength : offset + length;
+        int chunkSize = file.getChunkSize();
+        int firstChunk = (int) (offset / chunkSize);
+        int lastChunk = (int) ((end - 1) / chunkSize);
+        int fileLastChunk = (int) ((fileLength - 1) / chunkSize);
+        long written = 0;
+        int expected = firstChunk;
+        try (MongoCursor<Document> cursor = getChunksCollection()
+                .find(Filters.and(
+                        Filters.eq("files_id", file.getId()),
+                        Filters.gte("n", firstChunk),
+                        Filters.lte("n", lastChunk)))
+                .sort(Sorts.ascending("n"))
+                .batchSize(Math.max(downloadBatchSize, 1))
+                .iterator()) {
+            while (expected <= lastChunk) {
+                if (!cursor.hasNext()) {
+                    throw new MongoPlusException("Could not find file chunk for file_id: " + fileId + " at chunk index: " + expected);
+                }
+                Document chunk = cursor.next();
+                Object n = chunk.get("n");
+                if (!(n instanceof Number) || ((Number) n).doubleValue() != expected) {
+                    throw new MongoPlusException("Could not find file chunk for file_id: " + fileId + " at chunk index: " + expected);
+                }
+                byte[] data = getChunkData(chunk, fileId, expected);
+                // 除最后一块外每块都必须是完整的块大小，最后一块是剩余的长度，否则偏移会错位
+                long expectedLength = expected == fileLastChunk ? fileLength - (long) expected * chunkSize : chunkSize;
+                if (data.length != expectedLength) {
+                    throw new MongoPlusException("Chunk size data length is not the expected size. The size was " + data.length
+                            + " for file_id: " + fileId + " chunk index " + expected + " it should be " + expectedLength + " bytes");
+                }
+                long chunkStart = (long) expected * chunkSize;
+                int from = (int) Math.max(offset - chunkStart, 0);
+                int to = (int) Math.min(end - chunkStart, data.length);
+                if (from < to) {
+                    chunkWriter.write(data, from, to - from);
+                    written += to - from;
+                }
+                expected++;
+            }
+        }
+        return written;
+    }
+
+    private static byte[] getChunkData(Document chunk, ObjectId fileId, int n) {
+        Object data = chunk.get("data");
+        if (data instanceof Binary) {
+            return ((Binary) data).getData();
+        }
+        if (data instanceof byte[]) {
+            return (byte[]) data;
+        }
+        throw new MongoPlusException("Unexpected data format for file_id: " + fileId + " at chunk index: " + n);
+    }
+
+    private static ExecutorService newUploadExecutor(int threads) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "mongo-plus-gridfs-upload-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 读取一个块，输入流结束时返回null，最后一个块可能小于块大小
+     */
+    private static byte[] readChunk(InputStream in, int chunkSize) throws IOException {
+        byte[] buffer = new byte[chunkSize];
+        int read = 0;
+        while (read < chunkSize) {
+            int count = in.read(buffer, read, chunkSize - read);
+            if (count < 0) {
+                break;
+            }
+            read += count;
+        }
+        if (read == 0) {
+            return null;
+        }
+        if (read < chunkSize) {
+            byte[] last = new byte[read];
+            System.arraycopy(buffer, 0, last, 0, read);
+            return last;
+        }
+        return buffer;
+    }
+
+    private void createIndexes(MongoCollection<Document> chunksCollection) {
+        if (indexCreated) {
+            return;
+        }
+        chunksCollection.createIndex(Indexes.ascending("files_id", "n"), new IndexOptions().unique(true));
+        getFilesCollection().createIndex(Indexes.ascending("filename", "uploadDate"));
+        indexCreated = true;
+    }
+
+    private MongoCollection<Document> getFilesCollection() {
+        return getBucketCollection(gridFSBucket.getBucketName() + ".files");
+    }
+
+    private MongoCollection<Document> getChunksCollection() {
+        return getBucketCollection(gridFSBucket.getBucketName() + ".chunks");
+    }
+
+    /**
+     * 获取bucket下的集合，与bucket使用相同的写关注、读关注和读偏好
+     */
+    private MongoCollection<Document> getBucketCollection(String collectionName) {
+        return getMongoDatabase().getCollection(collectionName)
+                .withWriteConcern(gridFSBucket.getWriteConcern())
+                .withReadConcern(gridFSBucket.getReadConcern())
+                .withReadPreference(gridFSBucket.getReadPreference());
+    }
+
+    private MongoDatabase getMongoDatabase() {
+        if (mongoDatabase == null) {
+            throw new MongoPlusException("GridFSBucketManager was not created with a database, use GridFSBucketManager.create");
+        }
+        return mongoDatabase;
+    }
+
     GridFSUploadOptions getEmptyOptions(){
         return new GridFSUploadOptions();
     }
@@ -90,4 +396,31 @@ public class GridFSBucketManager {
         this.mongoPlusClient = mongoPlusClient;
     }
 
+    public void setMongoDatabase(MongoDatabase mongoDatabase) {
+        this.mongoDatabase = mongoDatabase;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public int getDownloadBatchSize() {
+        return downloadBatchSize;
+    }
+
+    public void setDownloadBatchSize(int downloadBatchSize) {
+        this.downloadBatchSize = downloadBatchSize;
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter {
+
+        void write(byte[] data, int offset, int length) throws IOException;
+
+    }
+
 }
@@ -15,6 +15,17 @@ public interface FieldHandler {
         return (fieldInformation) -> true;
     }
 
+    /**
+     * 激活条件是否只与字段本身有关
+     * <p>返回true时，{@link #activate()}的结果按字段缓存，每个字段只判断一次；
+     * 默认为false，每次处理时都会重新判断，激活条件可以依赖字段值或上下文</p>
+     * @return {@link boolean}
+     * @author anwen
+     */
+    default boolean staticActivate() {
+        return false;
+    }
+
     /**
      * 处理字段
      * @param fieldInformation 字段信息
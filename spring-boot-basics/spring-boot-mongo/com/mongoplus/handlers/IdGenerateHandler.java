@@ -4,6 +4,8 @@ import com.mongoplus.enums.IdTypeEnum;
 import com.mongoplus.mapping.TypeInformation;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * id生成处理器
@@ -20,4 +22,20 @@ public interface IdGenerateHandler {
      */
     Serializable generateId(IdTypeEnum idTypeEnum, TypeInformation typeInformation);
 
+    /**
+     * 批量生成id，用于批量插入
+     * @param idTypeEnum id类型
+     * @param typeInformation 类信息
+     * @param count 数量
+     * @return {@link java.util.List<java.io.Serializable>}
+     * @author anwen
+     */
+    default List<Serializable> generateIds(IdTypeEnum idTypeEnum, TypeInformation typeInformation, int count) {
+        List<Serializable> idList = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            idList.add(generateId(idTypeEnum, typeInformation));
+        }
+        return idList;
+    }
+
 }
@@ -56,6 +56,16 @@ public interface TenantHandler {
         return false;
     }
 
+    /**
+     * {@link #ignoreCollection}、{@link #ignoreDatabase}、{@link #ignoreDataSource}的结果是否只取决于参数
+     * <p>返回true时判断结果会缓存在租户计划中，不再每次调用；判断依赖ThreadLocal等上下文时需要返回false</p>
+     * @return {@link boolean} 默认false
+     * @author anwen
+     */
+    default boolean staticIgnore(){
+        return false;
+    }
+
     /**
      * 忽略插入租户字段逻辑
      * @param columns 插入字段
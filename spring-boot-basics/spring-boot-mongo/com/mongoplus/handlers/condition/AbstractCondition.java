@@ -17,9 +17,6 @@ import org.bson.BsonDocument;
 import java.lang.reflect.Field;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicReference;
-import java.util.function.BiFunction;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -34,6 +31,11 @@ public abstract class AbstractCondition implements Condition, UpdateCondition {
      */
     final Map<Class<?>, Field> enumValueCache = new ConcurrentHashMap<>();
 
+    /**
+     * 更新条件中记录的方法名与更新操作符的映射，只初始化一次
+     */
+    private static final Map<String, UpdateConditionEnum> UPDATE_CONDITION_MAP = initUpdateConditionMap();
+
     @Override
     public BasicDBObject queryCondition(List<CompareCondition> compareConditionList) {
         MongoPlusBasicDBObject mongoPlusBasicDBObject = new MongoPlusBasicDBObject();
@@ -53,21 +55,9 @@ public abstract class AbstractCondition implements Condition, UpdateCondition {
 
     @Override
     public MutablePair<BasicDBObject, BasicDBObject> updateCondition(UpdateChainWrapper<?, ?> updateChainWrapper) {
-        List<CompareCondition> updateCompareList = updateChainWrapper.getUpdateCompareList();
-
-        Map<UpdateConditionEnum, List<CompareCondition>> conditionMap = Arrays.stream(UpdateConditionEnum.values())
-                .collect(Collectors.toMap(Function.identity(),
-                        conditionEnum -> updateCompareList.stream()
-                                .filter(compareCondition -> Objects.equals(compareCondition.getCondition(),
-                                        conditionEnum.getSubCondition()))
-                                .collect(Collectors.toList())));
-
         BasicDBObject updateBasicDBObject = new BasicDBObject();
-        conditionMap.forEach((conditionEnum, compareConditionList) -> {
-            if (CollUtil.isNotEmpty(compareConditionList)) {
-                updateBasicDBObject.append(conditionEnum.getCondition(), updateValue(conditionEnum, compareConditionList));
-            }
-        });
+        groupUpdateCondition(updateChainWrapper.getUpdateCompareList()).forEach((conditionEnum, compareConditionList) ->
+                updateBasicDBObject.append(conditionEnum.getCondition(), updateValue(conditionEnum, compareConditionList)));
         if (CollUtil.isNotEmpty(updateChainWrapper.getUpdateBson())) {
             updateChainWrapper.getUpdateBson().forEach(updateBson ->
                     updateBasicDBObject.putAll(updateBson.toBsonDocument(
@@ -77,6 +67,27 @@ public abstract class AbstractCondition implements Condition, UpdateCondition {
         return new MutablePair<>(updateChainWrapper.buildCondition().getCondition(), updateBasicDBObject);
     }
 
+    /**
+     * 按更新操作符分组，只遍历一次条件集合，没有条件的操作符不会出现在结果中
+     *
+     * @param updateCompareList 更新条件集合
+     * @return {@link Map} 按操作符声明顺序排列
+     * @author anwen
+     */
+    protected Map<UpdateConditionEnum, List<CompareCondition>> groupUpdateCondition(List<CompareCondition> updateCompareList) {
+        Map<UpdateConditionEnum, List<CompareCondition>> conditionMap = new EnumMap<>(UpdateConditionEnum.class);
+        if (CollUtil.isEmpty(updateCompareList)) {
+            return conditionMap;
+        }
+        for (CompareCondition compareCondition : updateCompareList) {
+            UpdateConditionEnum conditionEnum = UPDATE_CONDITION_MAP.get(compareCondition.getCondition());
+            if (conditionEnum != null) {
+                conditionMap.computeIfAbsent(conditionEnum, key -> new ArrayList<>()).add(compareCondition);
+            }
+        }
+        return conditionMap;
+    }
+
     /**
      * 具体的抽象更新构建方法
      *
@@ -86,46 +97,67 @@ public abstract class AbstractCondition implements Condition, UpdateCondition {
      * @author anwen
      */
     public BasicDBObject updateValue(UpdateConditionEnum updateConditionEnum, List<CompareCondition> compareConditionList) {
-        final AtomicReference<List<CompareCondition>> finalCompareConditionList = new AtomicReference<>(compareConditionList);
-        BiFunction<AbstractCondition, BuildUpdate, BasicDBObject> updateValueFunc = (condition, buildUpdate) -> {
-            List<CompareCondition> currentCompareConditionList = finalCompareConditionList.get();
-            switch (updateConditionEnum) {
-                case SET:
-                case INC:
-                case MIN:
-                case MAX:
-                case MUL:
-                case POP:
-                case PULL_ALL:
-                    return condition.buildUpdateCondition(currentCompareConditionList, buildUpdate);
-                case PUSH:
-                    finalCompareConditionList.set(currentCompareConditionList.stream().distinct().collect(Collectors.toList()));
-                    currentCompareConditionList = finalCompareConditionList.get();
-                    return condition.buildPushCondition(currentCompareConditionList, buildUpdate);
-                case CURRENT_DATE:
-                    return condition.buildCurrentDateCondition(currentCompareConditionList, buildUpdate);
-                case RENAME:
-                    return condition.buildRenameCondition(currentCompareConditionList, buildUpdate);
-                case UNSET:
-                    return condition.buildUnsetCondition(currentCompareConditionList, buildUpdate);
-                case ADD_TO_SET:
-                    return condition.buildAddToSetCondition(currentCompareConditionList, buildUpdate);
-                case PULL:
-                    return condition.buildPullCondition(currentCompareConditionList, buildUpdate);
-            }
-            return null;
-        };
+        if (updateConditionEnum == UpdateConditionEnum.PUSH) {
+            compareConditionList = compareConditionList.stream().distinct().collect(Collectors.toList());
+        }
+        List<ConditionHandler> conditionHandlerList = HandlerCache.conditionHandlerList;
         BasicDBObject updateBasicDBObject = new BasicDBObject();
-        finalCompareConditionList.get().forEach(compareCondition -> {
-            HandlerCache.conditionHandlerList.forEach(conditionHandler ->
-                    conditionHandler.beforeUpdateCondition(compareCondition, updateBasicDBObject));
-            updateValueFunc.apply(this, new BuildUpdate(compareCondition, updateBasicDBObject));
-            HandlerCache.conditionHandlerList.forEach(conditionHandler ->
-                    conditionHandler.afterUpdateCondition(compareCondition, updateBasicDBObject));
-        });
+        for (CompareCondition compareCondition : compareConditionList) {
+            for (ConditionHandler conditionHandler : conditionHandlerList) {
+                conditionHandler.beforeUpdateCondition(compareCondition, updateBasicDBObject);
+            }
+            buildUpdateValue(updateConditionEnum, compareConditionList,
+                    new BuildUpdate(compareCondition, updateBasicDBObject));
+            for (ConditionHandler conditionHandler : conditionHandlerList) {
+                conditionHandler.afterUpdateCondition(compareCondition, updateBasicDBObject);
+            }
+        }
         return updateBasicDBObject;
     }
 
+    private void buildUpdateValue(UpdateConditionEnum updateConditionEnum, List<CompareCondition> compareConditionList,
+                                  BuildUpdate buildUpdate) {
+        switch (updateConditionEnum) {
+            case SET:
+            case INC:
+            case MIN:
+            case MAX:
+            case MUL:
+            case POP:
+            case PULL_ALL:
+                buildUpdateCondition(compareConditionList, buildUpdate);
+                break;
+            case PUSH:
+                buildPushCondition(compareConditionList, buildUpdate);
+                break;
+            case CURRENT_DATE:
+                buildCurrentDateCondition(compareConditionList, buildUpdate);
+                break;
+            case RENAME:
+                buildRenameCondition(compareConditionList, buildUpdate);
+                break;
+            case UNSET:
+                buildUnsetCondition(compareConditionList, buildUpdate);
+                break;
+            case ADD_TO_SET:
+                buildAddToSetCondition(compareConditionList, buildUpdate);
+                break;
+            case PULL:
+                buildPullCondition(compareConditionList, buildUpdate);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static Map<String, UpdateConditionEnum> initUpdateConditionMap() {
+        Map<String, UpdateConditionEnum> updateConditionMap = new HashMap<>();
+        for (UpdateConditionEnum conditionEnum : UpdateConditionEnum.values()) {
+            updateConditionMap.putIfAbsent(conditionEnum.getSubCondition(), conditionEnum);
+        }
+        return updateConditionMap;
+    }
+
     protected void checkCompareCondition(CompareCondition compareCondition) {
         Object value = compareCondition.getValue();
         if (value == null) return;
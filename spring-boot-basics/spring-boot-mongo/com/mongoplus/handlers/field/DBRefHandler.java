@@ -51,6 +51,11 @@ public class DBRefHandler implements FieldHandler, ReadHandler, ConditionHandler
                 );
     }
 
+    @Override
+    public boolean staticActivate() {
+        return true;
+    }
+
     @Override
     public Function<Object,Boolean> discontinue() {
         return Objects::isNull;
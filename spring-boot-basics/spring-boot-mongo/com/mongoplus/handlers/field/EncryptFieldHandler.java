@@ -18,6 +18,11 @@ public class EncryptFieldHandler implements FieldHandler {
         return (fieldInformation -> fieldInformation.isAnnotation(FieldEncrypt.class));
     }
 
+    @Override
+    public boolean staticActivate() {
+        return true;
+    }
+
     @Override
     public Object handler(FieldInformation fieldInformation) {
         return EncryptorUtil.encrypt(fieldInformation.getAnnotation(FieldEncrypt.class),fieldInformation.getValue());
@@ -20,6 +20,11 @@ public class TypeHandlerFieldHandler implements FieldHandler {
                 ClassTypeUtil.isTargetClass(TypeHandler.class, fieldInformation.getCollectionField().typeHandler()));
     }
 
+    @Override
+    public boolean staticActivate() {
+        return true;
+    }
+
     @Override
     @SuppressWarnings({"rawtypes", "unchecked"})
     public Object handler(FieldInformation fieldInformation) {
@@ -1,11 +1,7 @@
 package com.mongoplus.incrementer.id;
 
 import com.mongodb.client.MongoCollection;
-import com.mongodb.client.model.FindOneAndUpdateOptions;
-import com.mongodb.client.model.ReturnDocument;
 import com.mongoplus.cache.global.PropertyCache;
-import com.mongoplus.constant.SqlOperationConstant;
-import com.mongoplus.context.MongoTransactionContext;
 import com.mongoplus.enums.IdTypeEnum;
 import com.mongoplus.handlers.IdGenerateHandler;
 import com.mongoplus.handlers.collection.AnnotationOperate;
@@ -15,9 +11,8 @@ import org.bson.Document;
 import org.bson.types.ObjectId;
 
 import java.io.Serializable;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * 抽象的id生成处理器
@@ -28,6 +23,8 @@ public abstract class AbstractIdGenerateHandler implements IdGenerateHandler {
 
     protected final MongoPlusClient mongoPlusClient;
 
+    protected final SegmentIdAllocator autoIdAllocator = new SegmentIdAllocator();
+
     public MongoPlusClient getMongoPlusClient() {
         return mongoPlusClient;
     }
@@ -36,6 +33,14 @@ public abstract class AbstractIdGenerateHandler implements IdGenerateHandler {
         this.mongoPlusClient = mongoPlusClient;
     }
 
+    @Override
+    public List<Serializable> generateIds(IdTypeEnum idTypeEnum, TypeInformation typeInformation, int count) {
+        if (idTypeEnum.getKey() == IdTypeEnum.AUTO.getKey()) {
+            return generateAutoIds(typeInformation, count);
+        }
+        return IdGenerateHandler.super.generateIds(idTypeEnum, typeInformation, count);
+    }
+
     @Override
     public Serializable generateId(IdTypeEnum idTypeEnum, TypeInformation typeInformation) {
         if (idTypeEnum.getKey() == IdTypeEnum.ASSIGN_UUID.getKey()){
@@ -57,32 +62,36 @@ public abstract class AbstractIdGenerateHandler implements IdGenerateHandler {
     }
 
     /**
-     * 生成自增id
+     * 生成自增id，从号段中分配
      * @param typeInformation 类信息
      * @return {@link java.lang.Integer}
      * @author anwen
      */
     public Integer generateAutoId(TypeInformation typeInformation) {
         String collectionName = AnnotationOperate.getCollectionName(typeInformation.getClazz());
-        // 每个Collection单独加锁
-        synchronized (collectionName.intern()) {
-            MongoCollection<Document> collection = mongoPlusClient.getCollection(typeInformation.getClazz(), PropertyCache.autoIdCollectionName);
-            Document query = new Document(SqlOperationConstant._ID, collectionName);
-            Document update = new Document("$inc", new Document(SqlOperationConstant.AUTO_NUM, 1));
-            Document document = Optional.ofNullable(MongoTransactionContext.getClientSessionContext())
-                    .map(session -> collection.findOneAndUpdate(session, query, update, new FindOneAndUpdateOptions().returnDocument(ReturnDocument.AFTER)))
-                    .orElseGet(() -> collection.findOneAndUpdate(query, update, new FindOneAndUpdateOptions().returnDocument(ReturnDocument.AFTER)));
-            int finalNum = 1;
-            if (document == null) {
-                Map<String, Object> map = new HashMap<>();
-                map.put(SqlOperationConstant._ID, collectionName);
-                map.put(SqlOperationConstant.AUTO_NUM, finalNum);
-                collection.insertOne(new Document(map));
-            } else {
-                finalNum = Integer.parseInt(String.valueOf(document.get(SqlOperationConstant.AUTO_NUM)));
-            }
-            return finalNum;
+        return Math.toIntExact(autoIdAllocator.next(getAutoIdCollection(typeInformation), collectionName,
+                PropertyCache.autoIdStep));
+    }
+
+    /**
+     * 批量生成自增id，一次预留所需数量
+     * @param typeInformation 类信息
+     * @param count 数量
+     * @return {@link java.util.List<java.io.Serializable>}
+     * @author anwen
+     */
+    public List<Serializable> generateAutoIds(TypeInformation typeInformation, int count) {
+        String collectionName = AnnotationOperate.getCollectionName(typeInformation.getClazz());
+        long start = autoIdAllocator.reserveBatch(getAutoIdCollection(typeInformation), collectionName, count);
+        List<Serializable> idList = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            idList.add(Math.toIntExact(start + i));
         }
+        return idList;
+    }
+
+    protected MongoCollection<Document> getAutoIdCollection(TypeInformation typeInformation) {
+        return mongoPlusClient.getCollection(typeInformation.getClazz(), PropertyCache.autoIdCollectionName);
     }
 
 }
@@ -0,0 +1,145 @@
+package com.mongoplus.incrementer.id;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongoplus.cache.global.DataSourceNameCache;
+import com.mongoplus.constant.SqlOperationConstant;
+import com.mongoplus.toolkit.ConcurrentUtil;
+import org.bson.Document;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 号段（hi/lo）自增id分配器
+ * <p>每次通过一次$inc从计数集合中预留一段id，在本地通过{@link AtomicLong}无锁分配，
+ * 剩余数量达到水位线时，在分配器自己的预取线程中异步预取下一段，不占用调用线程</p>
+ * <p>预留不使用事务的ClientSession，否则事务回滚后计数被回退，本地号段中的id会被重复分配，代价是回滚或重启后id不连续</p>
+ *
+ * @author anwen
+ */
+public class SegmentIdAllocator {
+
+    private static final FindOneAndUpdateOptions RESERVE_OPTIONS = new FindOneAndUpdateOptions()
+            .upsert(true)
+            .returnDocument(ReturnDocument.AFTER);
+
+    /**
+     * key为数据源+计数集合的命名空间+自增的集合名
+     */
+    private final Map<String, SegmentBuffer> bufferMap = new ConcurrentHashMap<>();
+
+    /**
+     * 获取下一个id
+     * @param counterCollection 计数集合
+     * @param collectionName 自增的集合名
+     * @param step 号段长度
+     * @return {@link long}
+     * @author anwen
+     */
+    public long next(MongoCollection<Document> counterCollection, String collectionName, int step) {
+        if (step <= 1) {
+            return reserve(counterCollection, collectionName, 1).start;
+        }
+        String key = DataSourceNameCache.getDataSource() + "|" + counterCollection.getNamespace().getFullName()
+                + "|" + collectionName;
+        return bufferMap.computeIfAbsent(key, k -> new SegmentBuffer()).next(counterCollection, collectionName, step);
+    }
+
+    /**
+     * 一次预留指定数量的id，用于批量插入，不影响当前号段
+     * @param counterCollection 计数集合
+     * @param collectionName 自增的集合名
+     * @param count 数量
+     * @return {@link long} 第一个id，预留的id为[start, start + count)
+     * @author anwen
+     */
+    public long reserveBatch(MongoCollection<Document> counterCollection, String collectionName, int count) {
+        return reserve(counterCollection, collectionName, count).start;
+    }
+
+    private static Segment reserve(MongoCollection<Document> counterCollection, String collectionName, int count) {
+        Document document = counterCollection.findOneAndUpdate(
+                new Document(SqlOperationConstant._ID, collectionName),
+                new Document("$inc", new Document(SqlOperationConstant.AUTO_NUM, count)),
+                RESERVE_OPTIONS
+        );
+        long end = ((Number) document.get(SqlOperationConstant.AUTO_NUM)).longValue();
+        return new Segment(end - count + 1, end);
+    }
+
+    /**
+     * 一段已预留的id，[start, end]
+     */
+    private static final class Segment {
+
+        private final long start;
+
+        private final long end;
+
+        private final AtomicLong cursor;
+
+        private Segment(long start, long end) {
+            this.start = start;
+            this.end = end;
+            this.cursor = new AtomicLong(start);
+        }
+
+    }
+
+    /**
+     * 预取线程，第一次预取时才创建，单个守护线程，预取只是一次$inc，不需要并发
+     * <p>不使用{@link com.mongoplus.cache.global.ConcurrentCache}的执行器，未配置执行器时预取会在调用线程中同步执行</p>
+     */
+    private static final class PrefetchExecutorHolder {
+
+        private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "mongo-plus-segment-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+    }
+
+    /**
+     * 双号段缓冲，当前号段用完前预取下一段
+     */
+    private static final class SegmentBuffer {
+
+        private volatile Segment current;
+
+        private volatile Future<Segment> prefetch;
+
+        private long next(MongoCollection<Document> counterCollection, String collectionName, int step) {
+            while (true) {
+                Segment segment = current;
+                if (segment != null) {
+                    long id = segment.cursor.getAndIncrement();
+                    if (id <= segment.end) {
+                        // 剩余20%时预取，只有取到水位线上id的线程会触发
+                        if (segment.end - id == (segment.end - segment.start + 1) / 5) {
+                            prefetch = PrefetchExecutorHolder.EXECUTOR.submit(() -> reserve(counterCollection, collectionName, step));
+                        }
+                        return id;
+                    }
+                }
+                synchronized (this) {
+                    if (current == segment) {
+                        Future<Segment> future = prefetch;
+                        prefetch = null;
+                        current = future != null
+                                ? ConcurrentUtil.join(future)
+                                : reserve(counterCollection, collectionName, step);
+                    }
+                }
+            }
+        }
+
+    }
+
+}
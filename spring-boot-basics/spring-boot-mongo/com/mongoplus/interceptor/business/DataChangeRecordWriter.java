@@ -0,0 +1,227 @@
+package com.mongoplus.interceptor.business;
+
+import com.mongoplus.cache.global.DataSourceNameCache;
+import com.mongoplus.logging.Log;
+import com.mongoplus.logging.LogFactory;
+import com.mongoplus.mapper.BaseMapper;
+import com.mongoplus.model.OperationResult;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 数据变动记录的后台写入线程
+ * <p>记录先放入有界队列，由单个后台线程按批次使用insertMany写入，达到批次大小或刷新间隔后写入一次；
+ * 关闭时会在超时时间内写完队列中剩余的记录</p>
+ *
+ * @author anwen
+ */
+class DataChangeRecordWriter {
+
+    /**
+     * 队列为空时单次等待的最长时间，毫秒，关闭时最多经过该时间后写入线程感知到关闭
+     */
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final Log log = LogFactory.getLog(DataChangeRecordWriter.class);
+
+    private final BaseMapper baseMapper;
+
+    private final BlockingQueue<Record> queue;
+
+    private final int batchSize;
+
+    private final long flushIntervalMillis;
+
+    private final long idlePollMillis;
+
+    private final Thread thread;
+
+    private volatile boolean running = true;
+
+    DataChangeRecordWriter(BaseMapper baseMapper, int queueCapacity, int batchSize, long flushIntervalMillis) {
+        this.baseMapper = baseMapper;
+        this.queue = new ArrayBlockingQueue<>(Math.max(queueCapacity, 1));
+        this.batchSize = Math.max(batchSize, 1);
+        this.flushIntervalMillis = Math.max(flushIntervalMillis, 0);
+        this.idlePollMillis = Math.max(Math.min(this.flushIntervalMillis, IDLE_POLL_MILLIS), 1);
+        this.thread = new Thread(this::run, "mongo-plus-data-change-recorder");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 放入队列，队列已满时立即返回false
+     */
+    boolean offer(Record record) {
+        return running && queue.offer(record);
+    }
+
+    /**
+     * 放入队列，队列已满时等待，写入线程已关闭时返回false
+     */
+    boolean put(Record record) throws InterruptedException {
+        while (running) {
+            if (queue.offer(record, 100, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 同步写入一条记录
+     */
+    static void write(BaseMapper baseMapper, Record record) {
+        String currentDataSource = DataSourceNameCache.getDataSource();
+        try {
+            DataSourceNameCache.setDataSource(record.datasourceName);
+            baseMapper.save(record.databaseName, record.collectionName, record.operationResult);
+        } finally {
+            DataSourceNameCache.setDataSource(currentDataSource);
+        }
+    }
+
+    /**
+     * 停止接收新的记录，并等待队列中剩余的记录写入完成
+     * <p>不中断写入线程，避免正在执行的saveBatch被中断，写入线程在空闲等待结束后退出</p>
+     * @param timeoutMillis 最长等待时间
+     */
+    void shutdown(long timeoutMillis) {
+        running = false;
+        try {
+            thread.join(Math.max(timeoutMillis, 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            log.warn("DataChangeRecorder shutdown timed out, {} records were not saved", queue.size());
+        }
+    }
+
+    private void run() {
+        List<Record> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                // 被外部中断，继续写入队列中剩余的记录
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+        DataSourceNameCache.clear();
+    }
+
+    /**
+     * 收集一个批次，达到批次大小或距离第一条记录超过刷新间隔时返回
+     */
+    private void collect(List<Record> batch) throws InterruptedException {
+        Record first = running ? queue.poll(idlePollMillis, TimeUnit.MILLISECONDS) : queue.poll();
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                return;
+            }
+            Record next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<Record> batch) {
+        Map<Target, List<OperationResult>> groupMap = new LinkedHashMap<>();
+        batch.forEach(record -> groupMap.computeIfAbsent(new Target(record), key -> new ArrayList<>())
+                .add(record.operationResult));
+        groupMap.forEach((target, operationResultList) -> {
+            try {
+                DataSourceNameCache.setDataSource(target.datasourceName);
+                baseMapper.saveBatch(target.databaseName, target.collectionName, operationResultList);
+            } catch (Exception e) {
+                log.error("DataChangeRecorder failed to save " + operationResultList.size() + " records", e);
+            }
+        });
+    }
+
+    /**
+     * 待写入的数据变动记录
+     */
+    static class Record {
+
+        private final String datasourceName;
+
+        private final String databaseName;
+
+        private final String collectionName;
+
+        private final OperationResult operationResult;
+
+        Record(String datasourceName, String databaseName, String collectionName, OperationResult operationResult) {
+            this.datasourceName = datasourceName;
+            this.databaseName = databaseName;
+            this.collectionName = collectionName;
+            this.operationResult = operationResult;
+        }
+
+    }
+
+    /**
+     * 写入目标，同一目标的记录合并为一次insertMany
+     */
+    private static class Target {
+
+        private final String datasourceName;
+
+        private final String databaseName;
+
+        private final String collectionName;
+
+        Target(Record record) {
+            this.datasourceName = record.datasourceName;
+            this.databaseName = record.databaseName;
+            this.collectionName = record.collectionName;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Target)) {
+                return false;
+            }
+            Target target = (Target) o;
+            return datasourceName.equals(target.datasourceName) && databaseName.equals(target.databaseName)
+                    && collectionName.equals(target.collectionName);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = datasourceName.hashCode();
+            result = 31 * result + databaseName.hashCode();
+            result = 31 * result + collectionName.hashCode();
+            return result;
+        }
+
+    }
+
+}
@@ -8,6 +8,7 @@ import com.mongodb.client.model.WriteModel;
 import com.mongoplus.cache.codec.MapCodecCache;
 import com.mongoplus.cache.global.DataSourceNameCache;
 import com.mongoplus.constant.DataSourceConstant;
+import com.mongoplus.context.MongoTransactionContext;
 import com.mongoplus.domain.MongoPlusException;
 import com.mongoplus.enums.ExecuteMethodEnum;
 import com.mongoplus.enums.SpecialConditionEnum;
@@ -31,6 +32,8 @@ import java.util.stream.Collectors;
 /**
  * 数据变动记录拦截器
  * <p>请不要与自增id同时使用</p>
+ * <p>保存到数据库时，默认放入有界队列，由后台线程批量写入，不会阻塞业务写入；
+ * 处于事务中时默认同步写入，与业务数据保持一致，可以通过{@link #setSaveInTransaction(Boolean)}关闭</p>
  * @author anwen
  * @since by mybatis-plus
  */
@@ -96,6 +99,44 @@ public class DataChangeRecorderInnerInterceptor implements Interceptor {
      */
     private String collectionName = "DATA_CHANGE_RECORD";
 
+    /**
+     * 是否异步批量保存，关闭后在业务线程中同步保存
+     */
+    private Boolean asyncSave = true;
+
+    /**
+     * 是否在事务中同步保存，默认开启，处于事务中的记录会与业务数据在同一个事务中写入，事务回滚时记录一并回滚
+     * <p>关闭后事务中的记录也会异步写入，不受事务控制</p>
+     */
+    private Boolean saveInTransaction = true;
+
+    /**
+     * 异步保存的队列容量
+     */
+    private Integer queueCapacity = 10000;
+
+    /**
+     * 异步保存每批最多写入的条数
+     */
+    private Integer saveBatchSize = 500;
+
+    /**
+     * 异步保存的刷新间隔，毫秒，记录最多在队列中等待该时间后写入
+     */
+    private Long flushInterval = 1000L;
+
+    /**
+     * 关闭时等待队列中剩余记录写入的最长时间，毫秒
+     */
+    private Long shutdownTimeout = 5000L;
+
+    /**
+     * 队列已满时的处理策略
+     */
+    private BackPressurePolicy backPressurePolicy = BackPressurePolicy.CALLER_RUNS;
+
+    private volatile DataChangeRecordWriter writer;
+
     private static final ThreadLocal<OperationResult> operationResultThreadLocal = ThreadLocal.withInitial(() -> null);
 
     @Override
@@ -116,7 +157,7 @@ public class DataChangeRecorderInnerInterceptor implements Interceptor {
             operationResult.setRecordStatus(true);
             long costThis = System.currentTimeMillis() - startTs;
             operationResult.setCost(costThis);
-            log.info(String.format("%s DataChangeRecord: %s",executeMethodEnum.name(), operationResult));
+            log.info(executeMethodEnum.name() + " DataChangeRecord: " + operationResult);
             if (enableSaveDatabase) {
                 operationResultThreadLocal.set(operationResult);
             }
@@ -131,11 +172,86 @@ public class DataChangeRecorderInnerInterceptor implements Interceptor {
         }
 
         if (enableSaveDatabase) {
-            String datasource = determineDatasource();
-            DataSourceNameCache.setDataSource(datasource);
-            String databaseName = determineDatabaseName();
-            baseMapper.save(databaseName, collectionName, operationResultThreadLocal.get());
+            OperationResult operationResult = operationResultThreadLocal.get();
             operationResultThreadLocal.remove();
+            if (operationResult != null) {
+                save(operationResult);
+            }
+        }
+    }
+
+    private void save(OperationResult operationResult) {
+        String datasource = determineDatasource();
+        DataChangeRecordWriter.Record record = new DataChangeRecordWriter.Record(
+                datasource, determineDatabaseName(datasource), collectionName, operationResult
+        );
+        boolean syncSave = !asyncSave ||
+                (saveInTransaction && MongoTransactionContext.getClientSessionContext() != null);
+        if (syncSave) {
+            DataChangeRecordWriter.write(baseMapper, record);
+            return;
+        }
+        DataChangeRecordWriter currentWriter = getWriter();
+        boolean queued;
+        switch (backPressurePolicy) {
+            case BLOCK:
+                try {
+                    queued = currentWriter.put(record);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    queued = false;
+                }
+                break;
+            case DISCARD:
+                if (currentWriter.offer(record)) {
+                    return;
+                }
+                if (currentWriter.isRunning()) {
+                    log.warn("DataChangeRecorder queue is full, discard record: {}", operationResult);
+                    return;
+                }
+                queued = false;
+                break;
+            default:
+                queued = currentWriter.offer(record);
+        }
+        if (!queued) {
+            DataChangeRecordWriter.write(baseMapper, record);
+        }
+    }
+
+    /**
+     * 获取写入线程，首次异步保存时启动，并在JVM关闭时写完剩余记录
+     */
+    private DataChangeRecordWriter getWriter() {
+        DataChangeRecordWriter currentWriter = writer;
+        if (currentWriter == null) {
+            synchronized (this) {
+                currentWriter = writer;
+                if (currentWriter == null) {
+                    currentWriter = new DataChangeRecordWriter(baseMapper, queueCapacity, saveBatchSize, flushInterval);
+                    writer = currentWriter;
+                    DataChangeRecordWriter hookWriter = currentWriter;
+                    try {
+                        Runtime.getRuntime().addShutdownHook(new Thread(() -> hookWriter.shutdown(shutdownTimeout),
+                                "mongo-plus-data-change-recorder-shutdown"));
+                    } catch (IllegalStateException ignored) {
+                        // JVM正在关闭
+                    }
+                }
+            }
+        }
+        return currentWriter;
+    }
+
+    /**
+     * 关闭异步保存，等待队列中剩余的记录写入完成，之后的记录会同步保存
+     * @author anwen
+     */
+    public void shutdown() {
+        DataChangeRecordWriter currentWriter = writer;
+        if (currentWriter != null) {
+            currentWriter.shutdown(shutdownTimeout);
         }
     }
 
@@ -166,8 +282,8 @@ public class DataChangeRecorderInnerInterceptor implements Interceptor {
         return DataSourceNameCache.getDataSource();
     }
 
-    private String determineDatabaseName() {
-        return StringUtils.isNotBlank(this.databaseName) ? this.databaseName : DataSourceNameCache.getDatabase();
+    private String determineDatabaseName(String datasource) {
+        return StringUtils.isNotBlank(this.databaseName) ? this.databaseName : DataSourceNameCache.getDatabase(datasource);
     }
 
     private OperationResult processOperation(ExecuteMethodEnum executeMethodEnum, Object[] source) throws DataUpdateLimitationException {
@@ -372,6 +488,84 @@ public class DataChangeRecorderInnerInterceptor implements Interceptor {
         this.batchUpdateLimit = batchUpdateLimit;
     }
 
+    public Boolean getAsyncSave() {
+        return asyncSave;
+    }
+
+    public void setAsyncSave(Boolean asyncSave) {
+        this.asyncSave = asyncSave;
+    }
+
+    public Boolean getSaveInTransaction() {
+        return saveInTransaction;
+    }
+
+    public void setSaveInTransaction(Boolean saveInTransaction) {
+        this.saveInTransaction = saveInTransaction;
+    }
+
+    public Integer getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(Integer queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public Integer getSaveBatchSize() {
+        return saveBatchSize;
+    }
+
+    public void setSaveBatchSize(Integer saveBatchSize) {
+        this.saveBatchSize = saveBatchSize;
+    }
+
+    public Long getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setFlushInterval(Long flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    public Long getShutdownTimeout() {
+        return shutdownTimeout;
+    }
+
+    public void setShutdownTimeout(Long shutdownTimeout) {
+        this.shutdownTimeout = shutdownTimeout;
+    }
+
+    public BackPressurePolicy getBackPressurePolicy() {
+        return backPressurePolicy;
+    }
+
+    public void setBackPressurePolicy(BackPressurePolicy backPressurePolicy) {
+        this.backPressurePolicy = backPressurePolicy;
+    }
+
+    /**
+     * 异步保存队列已满时的处理策略
+     */
+    public enum BackPressurePolicy {
+
+        /**
+         * 等待队列有空位
+         */
+        BLOCK,
+
+        /**
+         * 丢弃记录并打印警告
+         */
+        DISCARD,
+
+        /**
+         * 在业务线程中同步保存
+         */
+        CALLER_RUNS
+
+    }
+
     public static class DataUpdateLimitationException extends MongoPlusException {
 
         public DataUpdateLimitationException(String message) {
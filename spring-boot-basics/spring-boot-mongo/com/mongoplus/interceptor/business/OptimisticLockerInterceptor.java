@@ -7,6 +7,8 @@ import com.mongodb.client.model.UpdateManyModel;
 import com.mongodb.client.model.WriteModel;
 import com.mongodb.client.result.UpdateResult;
 import com.mongoplus.annotation.collection.Version;
+import com.mongoplus.cache.global.ConcurrentCache;
+import com.mongoplus.context.MongoTransactionContext;
 import com.mongoplus.domain.MongoPlusException;
 import com.mongoplus.domain.OptimisticLockerException;
 import com.mongoplus.enums.ExecuteMethodEnum;
@@ -21,16 +23,16 @@ import com.mongoplus.model.MutablePair;
 import com.mongoplus.model.Retry;
 import com.mongoplus.model.UpdateRetryResult;
 import com.mongoplus.registry.MongoEntityMappingRegistry;
+import com.mongoplus.strategy.retry.RetryPolicy;
 import com.mongoplus.toolkit.BsonUtil;
 import org.bson.Document;
 import org.bson.conversions.Bson;
 
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.Condition;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static com.mongoplus.enums.ExecuteMethodEnum.*;
 import static com.mongoplus.enums.UpdateConditionEnum.INC;
@@ -45,6 +47,11 @@ public class OptimisticLockerInterceptor implements AdvancedInterceptor {
 
     private final Map<Class<?>,FieldInformation> optimisticLockerExistMap = new ConcurrentHashMap<>();
 
+    /**
+     * {@link #updateWithRetry(Runnable)}执行期间，记录最后一次乐观锁更新的最终结果，执行结束后清除
+     */
+    private static final ThreadLocal<AtomicReference<CompletableFuture<Object>>> retryFutureCapture = new ThreadLocal<>();
+
     /**
      * 字段值为空时需要抛出的异常
      */
@@ -113,9 +120,15 @@ public class OptimisticLockerInterceptor implements AdvancedInterceptor {
         boolean isUpdate = executeMethod == UPDATE || executeMethod == UPDATE_ONE || executeMethod == BULK_WRITE;
         Object result = executor(invocation,false);
         if (isUpdate) {
-            if (retry != null) {
+            if (retry != null && getModifiedCount(result) <= 0) {
+                boolean asyncRetry = isAsyncRetry();
                 result = beforeRetry(result,invocation);
+                // 异步重试立即返回本次失败的结果，最终结果通过回调或updateWithRetry返回的CompletableFuture获取
+                if (asyncRetry) {
+                    return result;
+                }
             }
+            captureRetryFuture(CompletableFuture.completedFuture(result));
             if (updateFailException != null &&
                     getModifiedCount(result) <= 0) {
                 updateFailException.fillInStackTrace();
@@ -175,80 +188,163 @@ public class OptimisticLockerInterceptor implements AdvancedInterceptor {
         } else {
             finalInvocation = invocation;
         }
-        if (retry.getAsyncRetry()) {
-            return CompletableFuture.supplyAsync(() -> {
-                try {
-                    return retryUpdate(result,finalInvocation);
-                } catch (Throwable e) {
-                    throw new RuntimeException(e);
-                }
-            }).get();
+        if (isAsyncRetry()) {
+            captureRetryFuture(retryUpdateAsync(result, finalInvocation));
+            return result;
         }
         return retryUpdate(result, finalInvocation);
     }
 
     /**
-     * 重试更新
+     * 是否异步重试
+     * <p>ClientSession不是线程安全的，事务中不能在其他线程重试，退回同步重试</p>
+     */
+    private boolean isAsyncRetry() {
+        return retry.getAsyncRetry() && MongoTransactionContext.getClientSessionContext() == null;
+    }
+
+    /**
+     * 执行更新，并返回其中最后一次乐观锁更新的最终结果
+     * <p>开启异步重试时，更新失败后立即返回，CompletableFuture在重试结束后完成；未发生重试或同步重试时，返回已完成的CompletableFuture</p>
+     * <p>结果为驱动返回的{@link UpdateResult}或{@link BulkWriteResult}，经过fallback时为fallback的返回值，
+     * 没有执行乐观锁更新时为null</p>
+     * <pre>{@code
+     * OptimisticLockerInterceptor.updateWithRetry(() -> userService.updateById(user))
+     *         .thenAccept(result -> log.info("final result: {}", result));
+     * }</pre>
+     * @param update 更新操作，需要在当前线程中执行
+     * @return {@link CompletableFuture<Object>}
+     * @author anwen
+     */
+    public static CompletableFuture<Object> updateWithRetry(Runnable update) {
+        AtomicReference<CompletableFuture<Object>> previous = retryFutureCapture.get();
+        AtomicReference<CompletableFuture<Object>> capture = new AtomicReference<>();
+        retryFutureCapture.set(capture);
+        try {
+            update.run();
+        } finally {
+            if (previous == null) {
+                retryFutureCapture.remove();
+            } else {
+                retryFutureCapture.set(previous);
+            }
+        }
+        CompletableFuture<Object> future = capture.get();
+        return future != null ? future : CompletableFuture.completedFuture(null);
+    }
+
+    private static void captureRetryFuture(CompletableFuture<Object> future) {
+        AtomicReference<CompletableFuture<Object>> capture = retryFutureCapture.get();
+        if (capture != null) {
+            capture.set(future);
+        }
+    }
+
+    /**
+     * 重试更新，在当前线程中等待
      * @param result 结果
      * @param invocation invocation
      * @return {@link java.lang.Object}
      * @author anwen
      */
     Object retryUpdate(Object result,Invocation invocation) throws Throwable {
-        // 锁和条件变量
-        ReentrantLock lock = new ReentrantLock();
-        Condition condition = lock.newCondition();
+        RetryPolicy retryPolicy = retry.getRetryPolicy();
+        long startTime = System.nanoTime();
         int retryCount = 1;
-        while (retryCount <= retry.getMaxRetryNum()) {
-            long line = getModifiedCount(result);
-            UpdateRetryResult updateRetryResult =
-                    new UpdateRetryResult(result, retryCount, invocation.getArgs(), retry);
-            if (line >= 1) {
-                if (retry.getOnSuccess() != null) {
-                    retry.getOnSuccess().accept(updateRetryResult);
-                }
-                return result;
-            } else {
-                if (retry.getOnFailure() != null) {
-                    retry.getOnFailure().accept(updateRetryResult);
-                }
+        while (!isRetrySuccess(result, retryCount, invocation)) {
+            long delay = retryPolicy.nextDelayMillis(retryCount, elapsedMillis(startTime));
+            if (delay < 0) {
+                return fallback(result, retryCount, invocation);
             }
+            sleep(delay);
+            result = executor(invocation,true);
             retryCount++;
-            if (retryCount > 1) {
-                lock.lock();
+        }
+        return result;
+    }
+
+    /**
+     * 异步重试更新，等待期间不占用线程，由调度线程在等待结束后提交重试
+     * <p>存在事务时不会调用，重试线程中的上下文通过{@link ConcurrentCache#decorate(Runnable)}传递，
+     * 租户id等保存在自定义ThreadLocal中的信息需要注册{@link com.mongoplus.context.ContextDecorator}</p>
+     * @param result 结果
+     * @param invocation invocation
+     * @return {@link CompletableFuture<Object>}
+     * @author anwen
+     */
+    CompletableFuture<Object> retryUpdateAsync(Object result, Invocation invocation) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        scheduleRetry(future, result, invocation, retry.getRetryPolicy(), 1, System.nanoTime());
+        return future;
+    }
+
+    private void scheduleRetry(CompletableFuture<Object> future, Object result, Invocation invocation,
+                               RetryPolicy retryPolicy, int retryCount, long startTime) {
+        try {
+            if (isRetrySuccess(result, retryCount, invocation)) {
+                future.complete(result);
+                return;
+            }
+            long delay = retryPolicy.nextDelayMillis(retryCount, elapsedMillis(startTime));
+            if (delay < 0) {
+                future.complete(fallback(result, retryCount, invocation));
+                return;
+            }
+            RetryScheduler.schedule(() -> {
                 try {
-                    // 等待动态时间
-                    // 转换为纳秒
-                    long remainingTimeNanos = retry.getRetryInterval() * 1_000_000L;
-                    awaitCondition(condition, remainingTimeNanos);
-                } finally {
-                    // 确保锁释放
-                    lock.unlock();
+                    Object nextResult = executor(invocation, true);
+                    scheduleRetry(future, nextResult, invocation, retryPolicy, retryCount + 1, startTime);
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
                 }
+            }, delay);
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * 判断本次更新是否成功，并执行对应的回调
+     */
+    private boolean isRetrySuccess(Object result, int retryCount, Invocation invocation) {
+        UpdateRetryResult updateRetryResult = new UpdateRetryResult(result, retryCount, invocation.getArgs(), retry);
+        if (getModifiedCount(result) >= 1) {
+            if (retry.getOnSuccess() != null) {
+                retry.getOnSuccess().accept(updateRetryResult);
             }
-            result = executor(invocation,true);
+            return true;
         }
+        if (retry.getOnFailure() != null) {
+            retry.getOnFailure().accept(updateRetryResult);
+        }
+        return false;
+    }
+
+    private Object fallback(Object result, int retryCount, Invocation invocation) {
         if (retry.getFallback() != null) {
             return retry.getFallback().apply(
-                    new UpdateRetryResult(result, retryCount,invocation.getArgs(), retry),
+                    new UpdateRetryResult(result, retryCount, invocation.getArgs(), retry),
                     invocation
             );
         }
         return result;
     }
 
+    private static long elapsedMillis(long startTime) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+    }
+
     /**
      * 等待执行
-     * @param condition 条件变量
-     * @param remainingTimeNanos 等待时间
+     * @param delayMillis 等待时间
      * @author anwen
      */
-    void awaitCondition(Condition condition, long remainingTimeNanos) throws MongoPlusException {
+    void sleep(long delayMillis) throws MongoPlusException {
+        if (delayMillis <= 0) {
+            return;
+        }
         try {
-            while (remainingTimeNanos > 0) {
-                // 等待剩余时间
-                remainingTimeNanos = condition.awaitNanos(remainingTimeNanos);
-            }
+            TimeUnit.MILLISECONDS.sleep(delayMillis);
         } catch (InterruptedException e) {
             // 恢复中断状态
             Thread.currentThread().interrupt();
@@ -439,4 +535,59 @@ public class OptimisticLockerInterceptor implements AdvancedInterceptor {
         });
     }
 
+    /**
+     * 异步重试的调度线程，只负责等待，不执行重试
+     * <p>等待结束后，重试在{@link ConcurrentCache#getExecutor()}中执行，未配置或拒绝时在重试线程池中执行，
+     * 调度线程不会被数据库请求阻塞</p>
+     */
+    private static final class RetryScheduler {
+
+        private static final ScheduledExecutorService SCHEDULER = createScheduler();
+
+        private static final ExecutorService WORKER = createWorker();
+
+        private static ScheduledExecutorService createScheduler() {
+            ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "mongo-plus-retry-scheduler");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.setRemoveOnCancelPolicy(true);
+            return scheduler;
+        }
+
+        /**
+         * 线程数为CPU核数，空闲时回收，队列不设上限，重试任务不会回到调度线程中执行
+         */
+        private static ExecutorService createWorker() {
+            AtomicInteger threadNumber = new AtomicInteger(1);
+            int threads = Runtime.getRuntime().availableProcessors();
+            ThreadPoolExecutor worker = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), runnable -> {
+                        Thread thread = new Thread(runnable, "mongo-plus-retry-" + threadNumber.getAndIncrement());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            worker.allowCoreThreadTimeOut(true);
+            return worker;
+        }
+
+        static void schedule(Runnable task, long delayMillis) {
+            Runnable decorated = ConcurrentCache.decorate(task);
+            SCHEDULER.schedule(() -> {
+                Executor executor = ConcurrentCache.getExecutor();
+                if (executor != null) {
+                    try {
+                        executor.execute(decorated);
+                        return;
+                    } catch (RejectedExecutionException ignored) {
+                        // 使用重试线程池
+                    }
+                }
+                WORKER.execute(decorated);
+            }, delayMillis, TimeUnit.MILLISECONDS);
+        }
+
+    }
+
 }
@@ -1,45 +1,161 @@
 package com.mongoplus.interceptor.business;
 
 import com.mongodb.BasicDBObject;
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoCollection;
-import com.mongodb.client.model.CountOptions;
-import com.mongodb.client.model.InsertOneModel;
-import com.mongodb.client.model.UpdateManyModel;
-import com.mongodb.client.model.WriteModel;
-import com.mongoplus.aggregate.AggregateWrapper;
-import com.mongoplus.cache.codec.MapCodecCache;
-import com.mongoplus.conditions.query.QueryWrapper;
+import com.mongodb.client.model.*;
+import com.mongodb.connection.ServerDescription;
+import com.mongoplus.cache.global.DataSourceNameCache;
 import com.mongoplus.enums.AggregateEnum;
+import com.mongoplus.factory.MongoClientFactory;
 import com.mongoplus.handlers.TenantHandler;
 import com.mongoplus.interceptor.Interceptor;
+import com.mongoplus.logging.Log;
+import com.mongoplus.logging.LogFactory;
+import com.mongoplus.manager.TenantManager;
 import com.mongoplus.model.MutablePair;
 import com.mongoplus.model.QueryParam;
+import com.mongoplus.toolkit.AggregateUtil;
 import com.mongoplus.toolkit.BsonUtil;
 import com.mongoplus.toolkit.CollUtil;
+import org.bson.BSONObject;
+import org.bson.BsonArray;
 import org.bson.BsonDocument;
+import org.bson.BsonValue;
 import org.bson.Document;
 import org.bson.conversions.Bson;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 import static com.mongoplus.enums.QueryOperatorEnum.EQ;
-import static com.mongoplus.manager.TenantManager.isTenantIgnored;
 
 /**
  * 多租户拦截器
+ * <p>每个数据源下的每个集合都有一个缓存的租户计划：租户字段、租户字段是否是某个索引的前缀（后台检查后写入），
+ * 以及按阶段结构缓存的聚合管道计划（租户条件的位置、需要处理的子管道），执行时只判断上下文相关的忽略条件并绑定租户id</p>
+ * <p>{@link TenantHandler}的ignore判断默认每次执行时调用，{@link TenantHandler#staticIgnore()}返回true时判断结果也会缓存在计划中，
+ * 判断条件变化时需要调用{@link #clearPlanCache()}</p>
+ * <p>聚合管道的租户条件放在第一个阶段（$geoNear、$search等必须位于第一个阶段的操作之后），
+ * $lookup和$unionWith的子管道会同样处理，$graphLookup使用restrictSearchWithMatch限制</p>
  *
  * @author anwen
  */
+@SuppressWarnings("unchecked")
 public class TenantInterceptor implements Interceptor {
 
+    private final Log log = LogFactory.getLog(TenantInterceptor.class);
+
+    private static final String MATCH = AggregateEnum.MATCH.getValue();
+
+    private static final String LOOKUP = "$lookup";
+
+    private static final String UNION_WITH = "$unionWith";
+
+    private static final String GRAPH_LOOKUP = "$graphLookup";
+
+    private static final String FROM = "from";
+
+    private static final String COLL = "coll";
+
+    private static final String PIPELINE = "pipeline";
+
+    private static final String LOCAL_FIELD = "localField";
+
+    private static final String RESTRICT_SEARCH_WITH_MATCH = "restrictSearchWithMatch";
+
+    /**
+     * MongoDB 5.0的wire版本，从该版本开始$lookup可以同时使用localField/foreignField和pipeline
+     */
+    private static final int WIRE_VERSION_5_0 = 13;
+
+    /**
+     * 每个集合最多缓存的聚合管道计划数量，超过后新的管道结构每次计算
+     */
+    private static final int MAX_PIPELINE_PLANS = 256;
+
     private final TenantHandler tenantHandler;
 
+    /**
+     * 数据源 -> 命名空间 -> 租户计划
+     */
+    private final Map<String, Map<MongoNamespace, TenantPlan>> planCache = new ConcurrentHashMap<>();
+
+    /**
+     * 数据源 -> 是否支持同时使用localField/foreignField和pipeline的$lookup，只缓存已经确定的结果
+     */
+    private final Map<String, Boolean> combinedLookupSupportMap = new ConcurrentHashMap<>();
+
+    /**
+     * 已经提示过$lookup无法添加租户条件的数据源
+     */
+    private final Set<String> combinedLookupWarnedSet = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 是否检查租户字段是否是某个索引的前缀，没有时打印一次警告
+     */
+    private boolean checkTenantIndex = true;
+
+    /**
+     * 只使用localField/foreignField的$lookup是否添加只包含租户条件的子管道
+     * <p>该写法需要MongoDB 5.0及以上版本，为null时按服务器的wire版本判断，低于5.0或无法判断时不添加并打印一次警告</p>
+     */
+    private Boolean combinedLookup;
+
     public TenantInterceptor(TenantHandler tenantHandler) {
         this.tenantHandler = tenantHandler;
     }
 
+    public TenantHandler getTenantHandler() {
+        return tenantHandler;
+    }
+
+    public boolean isCheckTenantIndex() {
+        return checkTenantIndex;
+    }
+
+    public void setCheckTenantIndex(boolean checkTenantIndex) {
+        this.checkTenantIndex = checkTenantIndex;
+    }
+
+    public Boolean getCombinedLookup() {
+        return combinedLookup;
+    }
+
+    public void setCombinedLookup(Boolean combinedLookup) {
+        this.combinedLookup = combinedLookup;
+    }
+
+    /**
+     * 清空租户计划缓存，下次使用集合时会重新计算计划并检查租户字段的索引
+     * @author anwen
+     */
+    public void clearPlanCache() {
+        planCache.clear();
+        combinedLookupSupportMap.clear();
+    }
+
+    /**
+     * 租户字段是否是集合某个索引的前缀
+     * @param dataSource 数据源
+     * @param namespace 命名空间
+     * @return {@link Boolean} 还没有检查或未开启检查时返回null
+     * @author anwen
+     */
+    public Boolean isTenantIndexCovered(String dataSource, MongoNamespace namespace) {
+        Map<MongoNamespace, TenantPlan> namespacePlanMap = planCache.get(dataSource);
+        TenantPlan plan = namespacePlanMap == null ? null : namespacePlanMap.get(namespace);
+        return plan == null ? null : plan.indexCovered;
+    }
+
     @Override
     public int order() {
         return 0;
@@ -47,36 +163,38 @@ public class TenantInterceptor implements Interceptor {
 
     @Override
     public List<Document> executeSave(List<Document> documentList, MongoCollection<Document> collection) {
-        if (isTenantIgnored(collection, tenantHandler) || tenantHandler.ignoreInsert(new ArrayList<>(documentList.get(0).keySet()),
-                tenantHandler.getTenantIdColumn())) {
+        TenantPlan plan = getActivePlan(collection);
+        if (plan == null || tenantHandler.ignoreInsert(new ArrayList<>(documentList.get(0).keySet()),
+                plan.tenantIdColumn)) {
             return documentList;
         }
-        documentList.forEach(document ->
-                document.putIfAbsent(tenantHandler.getTenantIdColumn(), tenantHandler.getTenantId())
-        );
+        BsonValue tenantId = tenantHandler.getTenantId();
+        documentList.forEach(document -> document.putIfAbsent(plan.tenantIdColumn, tenantId));
         return documentList;
     }
 
     @Override
     public Document executeSave(Document document, MongoCollection<Document> collection) {
-        if (isTenantIgnored(collection, tenantHandler) || tenantHandler.ignoreInsert(new ArrayList<>(document.keySet()),
-                tenantHandler.getTenantIdColumn())) {
+        TenantPlan plan = getActivePlan(collection);
+        if (plan == null || tenantHandler.ignoreInsert(new ArrayList<>(document.keySet()), plan.tenantIdColumn)) {
             return document;
         }
-        document.putIfAbsent(tenantHandler.getTenantIdColumn(), tenantHandler.getTenantId());
+        document.putIfAbsent(plan.tenantIdColumn, tenantHandler.getTenantId());
         return document;
     }
 
     @Override
     public Bson executeRemove(Bson filter, MongoCollection<Document> collection) {
-        return appendTenantFilter(filter, collection);
+        return appendTenantFilter(filter, getActivePlan(collection), null);
     }
 
     @Override
     public List<MutablePair<Bson, Bson>> executeUpdate(List<MutablePair<Bson, Bson>> updatePairList,
                                                        MongoCollection<Document> collection) {
-        if (!isTenantIgnored(collection, tenantHandler)) {
-            updatePairList.forEach(pair -> pair.setLeft(appendTenantFilter(pair.getLeft(), collection)));
+        TenantPlan plan = getActivePlan(collection);
+        if (plan != null) {
+            BsonValue tenantId = tenantHandler.getTenantId();
+            updatePairList.forEach(pair -> pair.setLeft(appendTenantFilter(pair.getLeft(), plan, tenantId)));
         }
         return updatePairList;
     }
@@ -84,8 +202,9 @@ public class TenantInterceptor implements Interceptor {
     @Override
     public MutablePair<Bson, Bson> executeUpdate(MutablePair<Bson, Bson> updatePair,
                                                        MongoCollection<Document> collection) {
-        if (!isTenantIgnored(collection, tenantHandler)) {
-            updatePair.setLeft(appendTenantFilter(updatePair.getLeft(), collection));
+        TenantPlan plan = getActivePlan(collection);
+        if (plan != null) {
+            updatePair.setLeft(appendTenantFilter(updatePair.getLeft(), plan, null));
         }
         return updatePair;
     }
@@ -93,84 +212,454 @@ public class TenantInterceptor implements Interceptor {
     @Override
     public QueryParam executeQuery(Bson queryBasic, BasicDBObject projectionList, BasicDBObject sortCond,
                                    MongoCollection<Document> collection) {
-        return new QueryParam(appendTenantFilter(queryBasic, collection), projectionList, sortCond);
+        return new QueryParam(appendTenantFilter(queryBasic, getActivePlan(collection), null), projectionList,
+                sortCond);
     }
 
     @Override
     public List<Bson> executeAggregates(List<Bson> aggregateConditionList, MongoCollection<Document> collection) {
-        if (!isTenantIgnored(collection, tenantHandler)) {
-            boolean hasMatch = aggregateConditionList.stream()
-                    .anyMatch(bson -> BsonUtil.asBsonDocument(bson)
-                            .containsKey(AggregateEnum.MATCH.getValue()));
-
-            if (hasMatch) {
-                aggregateConditionList = aggregateConditionList.stream()
-                        .map(bson -> {
-                            BsonDocument bsonDocument = bson.toBsonDocument(BsonDocument.class,
-                                    MapCodecCache.getDefaultCodecRegistry());
-                            if (bsonDocument.containsKey(AggregateEnum.MATCH.getValue())) {
-                                BsonDocument matchBsonDocument = bsonDocument.get(AggregateEnum.MATCH.getValue())
-                                        .asDocument();
-                                matchBsonDocument.putIfAbsent(
-                                        tenantHandler.getTenantIdColumn(),
-                                        new BsonDocument(EQ.getOperatorValue(), tenantHandler.getTenantId())
-                                );
-                                return bsonDocument;
-                            }
-                            return bson;
-                        }).collect(Collectors.toList());
-            } else {
-                Bson matchBson = new AggregateWrapper().match(new QueryWrapper<>().eq(tenantHandler.getTenantIdColumn(),
-                        tenantHandler.getTenantId())).getAggregateConditionList().get(0);
-                aggregateConditionList.add(0, matchBson);
-            }
+        TenantPlan plan = getActivePlan(collection);
+        if (plan == null) {
+            return aggregateConditionList;
         }
-        return aggregateConditionList;
+        return appendTenantStage(aggregateConditionList, DataSourceNameCache.getDataSource(),
+                collection.getNamespace().getDatabaseName(), plan, tenantHandler.getTenantId());
     }
 
     @Override
     public MutablePair<BasicDBObject, CountOptions> executeCount(BasicDBObject queryBasic, CountOptions countOptions,
                                                                  MongoCollection<Document> collection) {
-        return new MutablePair<>(appendTenantFilter(queryBasic, collection), countOptions);
+        BasicDBObject filter = queryBasic == null ? new BasicDBObject() : queryBasic;
+        return new MutablePair<>((BasicDBObject) appendTenantFilter(filter, getActivePlan(collection), null),
+                countOptions);
     }
 
     @Override
     public List<WriteModel<Document>> executeBulkWrite(List<WriteModel<Document>> writeModelList,
                                                        MongoCollection<Document> collection) {
-        if (!isTenantIgnored(collection, tenantHandler) && CollUtil.isNotEmpty(writeModelList)) {
-            List<Document> insertDocumentList = writeModelList.stream()
-                    .filter(writeModel -> writeModel instanceof InsertOneModel)
-                    .map(writeModel -> ((InsertOneModel<Document>) writeModel).getDocument())
-                    .collect(Collectors.toList());
-
-            if (CollUtil.isNotEmpty(insertDocumentList)) {
-                executeSave(insertDocumentList, collection);
+        TenantPlan plan = getActivePlan(collection);
+        if (plan == null || CollUtil.isEmpty(writeModelList)) {
+            return writeModelList;
+        }
+        BsonValue tenantId = tenantHandler.getTenantId();
+        List<Document> insertDocumentList = writeModelList.stream()
+                .filter(writeModel -> writeModel instanceof InsertOneModel)
+                .map(writeModel -> ((InsertOneModel<Document>) writeModel).getDocument())
+                .collect(Collectors.toList());
+        if (CollUtil.isNotEmpty(insertDocumentList) && !tenantHandler.ignoreInsert(
+                new ArrayList<>(insertDocumentList.get(0).keySet()), plan.tenantIdColumn)) {
+            insertDocumentList.forEach(document -> document.putIfAbsent(plan.tenantIdColumn, tenantId));
+        }
+        List<WriteModel<Document>> tenantWriteModelList = new ArrayList<>(writeModelList.size());
+        for (WriteModel<Document> writeModel : writeModelList) {
+            tenantWriteModelList.add(appendTenantFilter(writeModel, plan, tenantId));
+        }
+        return tenantWriteModelList;
+    }
+
+    /**
+     * 为写模型的过滤条件添加租户条件，过滤条件不可修改时会创建新的写模型
+     */
+    private WriteModel<Document> appendTenantFilter(WriteModel<Document> writeModel, TenantPlan plan,
+                                                    BsonValue tenantId) {
+        if (writeModel instanceof UpdateManyModel) {
+            UpdateManyModel<Document> model = (UpdateManyModel<Document>) writeModel;
+            Bson filter = appendTenantFilter(model.getFilter(), plan, tenantId);
+            return model.getUpdate() != null ?
+                    new UpdateManyModel<>(filter, model.getUpdate(), model.getOptions()) :
+                    new UpdateManyModel<>(filter, model.getUpdatePipeline(), model.getOptions());
+        }
+        if (writeModel instanceof UpdateOneModel) {
+            UpdateOneModel<Document> model = (UpdateOneModel<Document>) writeModel;
+            Bson filter = appendTenantFilter(model.getFilter(), plan, tenantId);
+            return model.getUpdate() != null ?
+                    new UpdateOneModel<>(filter, model.getUpdate(), model.getOptions()) :
+                    new UpdateOneModel<>(filter, model.getUpdatePipeline(), model.getOptions());
+        }
+        if (writeModel instanceof ReplaceOneModel) {
+            ReplaceOneModel<Document> model = (ReplaceOneModel<Document>) writeModel;
+            Document replacement = model.getReplacement();
+            if (!tenantHandler.ignoreInsert(new ArrayList<>(replacement.keySet()), plan.tenantIdColumn)) {
+                replacement.putIfAbsent(plan.tenantIdColumn, tenantId);
             }
+            return new ReplaceOneModel<>(appendTenantFilter(model.getFilter(), plan, tenantId), replacement,
+                    model.getReplaceOptions());
+        }
+        if (writeModel instanceof DeleteManyModel) {
+            DeleteManyModel<Document> model = (DeleteManyModel<Document>) writeModel;
+            return new DeleteManyModel<>(appendTenantFilter(model.getFilter(), plan, tenantId), model.getOptions());
+        }
+        if (writeModel instanceof DeleteOneModel) {
+            DeleteOneModel<Document> model = (DeleteOneModel<Document>) writeModel;
+            return new DeleteOneModel<>(appendTenantFilter(model.getFilter(), plan, tenantId), model.getOptions());
+        }
+        return writeModel;
+    }
 
-            List<MutablePair<Bson, Bson>> updatePairList = writeModelList.stream()
-                    .filter(writeModel -> writeModel instanceof UpdateManyModel)
-                    .map(writeModel -> new MutablePair<>(((UpdateManyModel<Document>) writeModel).getFilter(),
-                            ((UpdateManyModel<Document>) writeModel).getUpdate()))
-                    .collect(Collectors.toList());
+    /**
+     * 添加租户条件，已经包含租户字段时不处理
+     * <p>Document和BasicDBObject直接修改，其他Bson会转换为新的BasicDBObject</p>
+     * @param plan 租户计划，为null时表示本次忽略租户
+     * @param tenantId 租户id，为null时从{@link TenantHandler}获取
+     */
+    private Bson appendTenantFilter(Bson filter, TenantPlan plan, BsonValue tenantId) {
+        if (filter == null) {
+            filter = new Document();
+        }
+        if (plan == null) {
+            return filter;
+        }
+        if (!containsKey(filter, plan.tenantIdColumn)) {
+            filter = BsonUtil.addToMap(filter, plan.tenantIdColumn,
+                    tenantId != null ? tenantId : tenantHandler.getTenantId());
+        }
+        return filter;
+    }
 
-            if (CollUtil.isNotEmpty(updatePairList)) {
-                executeUpdate(updatePairList, collection);
+    /**
+     * 按管道计划添加租户条件，第一个阶段是$match时合并到其中，否则插入新的$match阶段，并处理子管道
+     */
+    private List<Bson> appendTenantStage(List<Bson> aggregateConditionList, String dataSource, String databaseName,
+                                         TenantPlan plan, BsonValue tenantId) {
+        PipelinePlan pipelinePlan = plan.getPipelinePlan(aggregateConditionList);
+        List<Bson> tenantAggregateConditionList = new ArrayList<>(aggregateConditionList.size() + 1);
+        BsonDocument tenantCondition = new BsonDocument(EQ.getOperatorValue(), tenantId);
+        int subStage = 0;
+        for (int i = 0; i < aggregateConditionList.size(); i++) {
+            Bson stage = aggregateConditionList.get(i);
+            if (i == pipelinePlan.matchIndex) {
+                if (pipelinePlan.mergeMatch) {
+                    BsonDocument stageDocument = BsonUtil.asBsonDocument(stage);
+                    stageDocument.get(MATCH).asDocument().putIfAbsent(plan.tenantIdColumn, tenantCondition);
+                    stage = stageDocument;
+                } else {
+                    tenantAggregateConditionList.add(new BsonDocument(MATCH,
+                            new BsonDocument(plan.tenantIdColumn, tenantCondition)));
+                }
+            }
+            if (subStage < pipelinePlan.subStageIndexes.length && pipelinePlan.subStageIndexes[subStage] == i) {
+                stage = appendTenantSubStage(stage, pipelinePlan.subStageNames[subStage], dataSource, databaseName,
+                        tenantId);
+                subStage++;
             }
+            tenantAggregateConditionList.add(stage);
         }
-        return writeModelList;
+        if (pipelinePlan.matchIndex >= aggregateConditionList.size()) {
+            tenantAggregateConditionList.add(new BsonDocument(MATCH,
+                    new BsonDocument(plan.tenantIdColumn, tenantCondition)));
+        }
+        return tenantAggregateConditionList;
     }
 
-    @SuppressWarnings("unchecked")
-    private <T extends Bson> T appendTenantFilter(T filter, MongoCollection<Document> collection) {
-        if (filter == null) {
-            filter = (T) new Document();
+    /**
+     * 为$lookup、$unionWith的子管道和$graphLookup的restrictSearchWithMatch添加租户条件
+     * <p>目标集合的租户条件使用目标集合的计划；只使用localField和foreignField的$lookup需要MongoDB 5.0及以上版本，
+     * 见{@link #setCombinedLookup(Boolean)}</p>
+     */
+    private Bson appendTenantSubStage(Bson stage, String stageName, String dataSource, String databaseName,
+                                      BsonValue tenantId) {
+        BsonDocument stageDocument = BsonUtil.asBsonDocument(stage);
+        BsonValue value = stageDocument.get(stageName);
+        BsonDocument spec;
+        String from;
+        if (value.isString() && UNION_WITH.equals(stageName)) {
+            // {$unionWith: "collection"}
+            from = value.asString().getValue();
+            spec = new BsonDocument(COLL, value);
+        } else if (value.isDocument()) {
+            spec = value.asDocument();
+            BsonValue target = spec.get(UNION_WITH.equals(stageName) ? COLL : FROM);
+            from = target != null && target.isString() ? target.asString().getValue() : null;
+        } else {
+            return stage;
+        }
+        if (from == null) {
+            return stage;
+        }
+        TenantPlan targetPlan = getActivePlan(dataSource, new MongoNamespace(databaseName, from), null);
+        if (targetPlan == null) {
+            return stage;
+        }
+        if (GRAPH_LOOKUP.equals(stageName)) {
+            BsonValue restrictSearchWithMatch = spec.get(RESTRICT_SEARCH_WITH_MATCH);
+            BsonDocument restrict = restrictSearchWithMatch != null && restrictSearchWithMatch.isDocument() ?
+                    restrictSearchWithMatch.asDocument() : new BsonDocument();
+            restrict.putIfAbsent(targetPlan.tenantIdColumn, new BsonDocument(EQ.getOperatorValue(), tenantId));
+            spec.put(RESTRICT_SEARCH_WITH_MATCH, restrict);
+            stageDocument.put(stageName, spec);
+            return stageDocument;
+        }
+        BsonValue pipeline = spec.get(PIPELINE);
+        if (pipeline != null && !pipeline.isArray()) {
+            return stage;
         }
-        if (!isTenantIgnored(collection, tenantHandler)) {
-            BsonDocument filterDoc = BsonUtil.asBsonDocument(filter);
-            if (!filterDoc.containsKey(tenantHandler.getTenantIdColumn())) {
-                BsonUtil.addToMap(filter, tenantHandler.getTenantIdColumn(), tenantHandler.getTenantId());
+        if (pipeline == null && LOOKUP.equals(stageName) && spec.containsKey(LOCAL_FIELD)
+                && !isCombinedLookupSupported(dataSource)) {
+            if (combinedLookupWarnedSet.add(dataSource)) {
+                log.warn("$lookup with localField/foreignField on data source {} cannot carry the tenant filter "
+                        + "before MongoDB 5.0, use a pipeline $lookup instead", dataSource);
             }
+            return stage;
         }
-        return filter;
+        List<Bson> subPipeline = new ArrayList<>();
+        if (pipeline != null) {
+            pipeline.asArray().forEach(subStage -> subPipeline.add(subStage.asDocument()));
+        }
+        BsonArray tenantSubPipeline = new BsonArray();
+        appendTenantStage(subPipeline, dataSource, databaseName, targetPlan, tenantId)
+                .forEach(subStage -> tenantSubPipeline.add(BsonUtil.asBsonDocument(subStage)));
+        spec.put(PIPELINE, tenantSubPipeline);
+        stageDocument.put(stageName, spec);
+        return stageDocument;
+    }
+
+    /**
+     * 获取本次执行使用的租户计划
+     * @return {@link TenantPlan} 本次忽略租户时返回null
+     */
+    private TenantPlan getActivePlan(MongoCollection<Document> collection) {
+        Boolean ignoreTenant = TenantManager.getIgnoreTenant();
+        if (ignoreTenant != null) {
+            return ignoreTenant ? null : getPlan(DataSourceNameCache.getDataSource(), collection.getNamespace(),
+                    collection);
+        }
+        return getActivePlan(DataSourceNameCache.getDataSource(), collection.getNamespace(), collection);
+    }
+
+    /**
+     * 获取本次执行使用的租户计划，上下文相关的ignore判断每次执行，只取决于参数的判断使用计划中的缓存
+     * @param collection 用于检查索引的集合，子管道的目标集合为null，不检查
+     * @return {@link TenantPlan} 本次忽略租户时返回null
+     */
+    private TenantPlan getActivePlan(String dataSource, MongoNamespace namespace,
+                                     MongoCollection<Document> collection) {
+        TenantPlan plan = getPlan(dataSource, namespace, collection);
+        boolean ignored = plan.ignored != null ? plan.ignored :
+                isIgnored(dataSource, namespace.getDatabaseName(), namespace.getCollectionName());
+        return ignored ? null : plan;
     }
+
+    private TenantPlan getPlan(String dataSource, MongoNamespace namespace, MongoCollection<Document> collection) {
+        Map<MongoNamespace, TenantPlan> namespacePlanMap = planCache.get(dataSource);
+        if (namespacePlanMap == null) {
+            namespacePlanMap = planCache.computeIfAbsent(dataSource, key -> new ConcurrentHashMap<>());
+        }
+        TenantPlan plan = namespacePlanMap.get(namespace);
+        if (plan == null) {
+            Boolean ignored = tenantHandler.staticIgnore() ?
+                    isIgnored(dataSource, namespace.getDatabaseName(), namespace.getCollectionName()) : null;
+            plan = new TenantPlan(tenantHandler.getTenantIdColumn(), ignored);
+            TenantPlan existPlan = namespacePlanMap.putIfAbsent(namespace, plan);
+            if (existPlan != null) {
+                plan = existPlan;
+            }
+        }
+        if (collection != null && checkTenantIndex && !plan.indexCheckSubmitted.get()
+                && plan.indexCheckSubmitted.compareAndSet(false, true)) {
+            TenantPlan checkPlan = plan;
+            IndexChecker.submit(() -> checkPlan.indexCovered = checkTenantIndex(collection, checkPlan.tenantIdColumn));
+        }
+        return plan;
+    }
+
+    private boolean isIgnored(String dataSource, String databaseName, String collectionName) {
+        return tenantHandler.ignoreCollection(collectionName) ||
+                tenantHandler.ignoreDatabase(databaseName) ||
+                tenantHandler.ignoreDataSource(dataSource);
+    }
+
+    /**
+     * 是否可以为只使用localField/foreignField的$lookup添加子管道
+     */
+    private boolean isCombinedLookupSupported(String dataSource) {
+        if (combinedLookup != null) {
+            return combinedLookup;
+        }
+        Boolean supported = combinedLookupSupportMap.get(dataSource);
+        if (supported == null) {
+            supported = detectCombinedLookup(dataSource);
+            if (supported == null) {
+                return false;
+            }
+            combinedLookupSupportMap.put(dataSource, supported);
+        }
+        return supported;
+    }
+
+    /**
+     * 根据已连接的服务器的wire版本判断，所有服务器都不低于MongoDB 5.0时支持
+     * @return {@link Boolean} 还没有可用的服务器信息时返回null
+     */
+    private static Boolean detectCombinedLookup(String dataSource) {
+        MongoClientFactory mongoClientFactory = MongoClientFactory.getInstance();
+        MongoClient mongoClient = mongoClientFactory == null ? null : mongoClientFactory.getMongoClient(dataSource);
+        if (mongoClient == null) {
+            return null;
+        }
+        boolean connected = false;
+        for (ServerDescription serverDescription : mongoClient.getClusterDescription().getServerDescriptions()) {
+            if (!serverDescription.isOk()) {
+                continue;
+            }
+            if (serverDescription.getMaxWireVersion() < WIRE_VERSION_5_0) {
+                return false;
+            }
+            connected = true;
+        }
+        return connected ? Boolean.TRUE : null;
+    }
+
+    /**
+     * 检查租户字段是否是某个索引的前缀，没有时租户条件无法使用索引
+     * @return {@link Boolean} 检查失败时返回null
+     */
+    private Boolean checkTenantIndex(MongoCollection<Document> collection, String tenantIdColumn) {
+        try {
+            for (Document index : collection.listIndexes()) {
+                Document key = index.get("key", Document.class);
+                if (key != null && !key.isEmpty() && tenantIdColumn.equals(key.keySet().iterator().next())) {
+                    return true;
+                }
+            }
+            log.warn("No index on collection {} starts with the tenant column {}, tenant filters will not use an index",
+                    collection.getNamespace().getFullName(), tenantIdColumn);
+            return false;
+        } catch (Exception e) {
+            log.debug("Failed to check tenant index: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static boolean containsKey(Bson bson, String key) {
+        if (bson instanceof Map) {
+            return ((Map<?, ?>) bson).containsKey(key);
+        }
+        if (bson instanceof BSONObject) {
+            return ((BSONObject) bson).containsField(key);
+        }
+        return BsonUtil.asBsonDocument(bson).containsKey(key);
+    }
+
+    /**
+     * 租户索引检查的后台线程，每个集合只检查一次，线程空闲时退出
+     */
+    private static final class IndexChecker {
+
+        private static final ExecutorService EXECUTOR = createExecutor();
+
+        private static ExecutorService createExecutor() {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "mongo-plus-tenant-index-check");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+
+        static void submit(Runnable task) {
+            try {
+                EXECUTOR.execute(task);
+            } catch (RejectedExecutionException ignored) {
+                // 只影响索引提示，不影响租户条件
+            }
+        }
+
+    }
+
+    /**
+     * 集合的租户计划，不包含租户id和上下文相关的判断
+     */
+    private static class TenantPlan {
+
+        /**
+         * 租户字段
+         */
+        private final String tenantIdColumn;
+
+        /**
+         * 是否忽略租户条件，ignore判断依赖上下文时为null，每次执行时判断
+         */
+        private final Boolean ignored;
+
+        /**
+         * 租户字段是否是某个索引的前缀，还没有检查时为null
+         */
+        private volatile Boolean indexCovered;
+
+        private final AtomicBoolean indexCheckSubmitted = new AtomicBoolean(false);
+
+        /**
+         * 阶段结构 -> 聚合管道计划
+         */
+        private final Map<String, PipelinePlan> pipelinePlanMap = new ConcurrentHashMap<>();
+
+        TenantPlan(String tenantIdColumn, Boolean ignored) {
+            this.tenantIdColumn = tenantIdColumn;
+            this.ignored = ignored;
+        }
+
+        PipelinePlan getPipelinePlan(List<Bson> pipeline) {
+            String[] stageNames = new String[pipeline.size()];
+            for (int i = 0; i < stageNames.length; i++) {
+                stageNames[i] = AggregateUtil.stageName(pipeline.get(i));
+            }
+            String shape = String.join(",", stageNames);
+            PipelinePlan pipelinePlan = pipelinePlanMap.get(shape);
+            if (pipelinePlan == null) {
+                pipelinePlan = new PipelinePlan(stageNames);
+                if (pipelinePlanMap.size() < MAX_PIPELINE_PLANS) {
+                    pipelinePlanMap.putIfAbsent(shape, pipelinePlan);
+                }
+            }
+            return pipelinePlan;
+        }
+
+    }
+
+    /**
+     * 同一阶段结构的聚合管道的租户计划
+     */
+    private static class PipelinePlan {
+
+        /**
+         * 租户条件所在的阶段下标，等于管道长度时追加在末尾
+         */
+        private final int matchIndex;
+
+        /**
+         * 租户条件是否合并到已有的$match阶段
+         */
+        private final boolean mergeMatch;
+
+        /**
+         * 需要处理子管道的阶段下标，升序
+         */
+        private final int[] subStageIndexes;
+
+        /**
+         * 需要处理子管道的阶段名，与{@link #subStageIndexes}对应
+         */
+        private final String[] subStageNames;
+
+        PipelinePlan(String[] stageNames) {
+            this.matchIndex = stageNames.length > 0 && AggregateUtil.FIRST_STAGES.contains(stageNames[0]) ? 1 : 0;
+            this.mergeMatch = matchIndex < stageNames.length && MATCH.equals(stageNames[matchIndex]);
+            List<Integer> indexList = new ArrayList<>();
+            for (int i = 0; i < stageNames.length; i++) {
+                String stageName = stageNames[i];
+                if (LOOKUP.equals(stageName) || UNION_WITH.equals(stageName) || GRAPH_LOOKUP.equals(stageName)) {
+                    indexList.add(i);
+                }
+            }
+            this.subStageIndexes = indexList.stream().mapToInt(Integer::intValue).toArray();
+            this.subStageNames = new String[subStageIndexes.length];
+            for (int i = 0; i < subStageIndexes.length; i++) {
+                subStageNames[i] = stageNames[subStageIndexes[i]];
+            }
+        }
+
+    }
+
 }
@@ -5,7 +5,9 @@ import org.bson.Document;
 public interface BackupListener {
 
     /**
-     * 导出
+     * 导出，每导出一条文档调用一次
+     * <p>集合按分区由多个线程并发导出，可能在多个线程中同时调用，同一集合的文档不保证顺序；
+     * 实现需要线程安全，需要在单个线程中按顺序调用时，将{@link com.mongoplus.manager.BackupManager#setParallelism(Integer)}设置为1</p>
      * @param path 导出路径
      * @param collectionName 集合名称
      * @param document document
@@ -13,4 +15,14 @@ public interface BackupListener {
      */
     void export(String path, String collectionName, Document document);
 
+    /**
+     * 导入进度，每批次写入完成后调用，可能在多个线程中同时调用
+     * @param path 导入的文件路径
+     * @param collectionName 集合名称
+     * @param count 该集合已导入的文档数量
+     * @author anwen
+     */
+    default void imports(String path, String collectionName, long count) {
+    }
+
 }
@@ -4,6 +4,7 @@ import com.mongodb.event.CommandFailedEvent;
 import com.mongodb.event.CommandListener;
 import com.mongodb.event.CommandStartedEvent;
 import com.mongodb.event.CommandSucceededEvent;
+import com.mongoplus.cache.global.ListenerCache;
 import com.mongoplus.domain.MongoPlusInterceptorException;
 import com.mongoplus.logging.Log;
 import com.mongoplus.logging.LogFactory;
@@ -19,8 +20,13 @@ public class BaseListener implements CommandListener {
 
     @Override
     public void commandStarted(CommandStartedEvent event) {
+        // 没有监听器需要该事件时，不创建事件对象
+        if (ListenerCache.getStartedListeners().length == 0) {
+            return;
+        }
         try {
-            mongoPlusInterceptor.commandStarted(new CommandStarted(event.getCommandName(),event.getCommand(),event.getCommand().toJson(),event));
+            // json在监听器第一次获取时才会生成
+            mongoPlusInterceptor.commandStarted(new CommandStarted(event.getCommandName(),event.getCommand(),event));
         }catch (Exception e){
             log.error("interceptor error: ",e);
             throw new MongoPlusInterceptorException(e);
@@ -29,6 +35,9 @@ public class BaseListener implements CommandListener {
 
     @Override
     public void commandSucceeded(CommandSucceededEvent event) {
+        if (ListenerCache.getSucceededListeners().length == 0) {
+            return;
+        }
         try {
             mongoPlusInterceptor.commandSucceeded(new CommandSucceeded(event.getCommandName(),event.getResponse(),event));
         }catch (Exception e){
@@ -39,6 +48,9 @@ public class BaseListener implements CommandListener {
 
     @Override
     public void commandFailed(CommandFailedEvent event) {
+        if (ListenerCache.getFailedListeners().length == 0) {
+            return;
+        }
         try {
             mongoPlusInterceptor.commandFailed(new CommandFailed(event.getCommandName(),event.getThrowable(),event));
         }catch (Exception e){
@@ -1,5 +1,6 @@
 package com.mongoplus.listener;
 
+import com.mongoplus.model.command.BaseCommand;
 import com.mongoplus.model.command.CommandFailed;
 import com.mongoplus.model.command.CommandStarted;
 import com.mongoplus.model.command.CommandSucceeded;
@@ -43,6 +44,17 @@ public interface Listener {
     */
     void commandFailed(CommandFailed commandFailed);
 
+    /**
+     * 是否需要处理该类型的命令事件，不需要的事件不会分发给该监听器
+     * <p>所有监听器都不需要某类事件时，不会创建该事件的对象</p>
+     * @param commandType {@link CommandStarted}、{@link CommandSucceeded}或{@link CommandFailed}
+     * @return {@link boolean}
+     * @author anwen
+     */
+    default boolean supports(Class<? extends BaseCommand> commandType) {
+        return true;
+    }
+
     /**
      * 指定拦截器排序
      * @return int
@@ -13,17 +13,23 @@ public class MongoPlusListener implements Listener {
 
     @Override
     public void commandStarted(CommandStarted commandStarted) {
-        ListenerCache.listeners.forEach(interceptor -> interceptor.commandStarted(commandStarted));
+        for (Listener listener : ListenerCache.getStartedListeners()) {
+            listener.commandStarted(commandStarted);
+        }
     }
 
     @Override
     public void commandSucceeded(CommandSucceeded commandSucceeded) {
-        ListenerCache.listeners.forEach(interceptor -> interceptor.commandSucceeded(commandSucceeded));
+        for (Listener listener : ListenerCache.getSucceededListeners()) {
+            listener.commandSucceeded(commandSucceeded);
+        }
     }
 
     @Override
     public void commandFailed(CommandFailed commandFailed) {
-        ListenerCache.listeners.forEach(interceptor -> interceptor.commandFailed(commandFailed));
+        for (Listener listener : ListenerCache.getFailedListeners()) {
+            listener.commandFailed(commandFailed);
+        }
     }
 
     @Override
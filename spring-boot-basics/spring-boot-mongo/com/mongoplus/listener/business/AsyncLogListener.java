@@ -0,0 +1,282 @@
+package com.mongoplus.listener.business;
+
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import com.mongoplus.cache.global.OrderCache;
+import com.mongoplus.listener.Listener;
+import com.mongoplus.logging.Log;
+import com.mongoplus.logging.LogFactory;
+import com.mongoplus.model.command.CommandFailed;
+import com.mongoplus.model.command.CommandStarted;
+import com.mongoplus.model.command.CommandSucceeded;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.json.JsonWriterSettings;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 异步日志监听器，适合在生产环境开启
+ * <p>调用线程只生成截断后的命令并写入有界无锁缓冲区，由后台线程输出日志；缓冲区已满时丢弃日志并计数，不会阻塞调用线程</p>
+ * <p>支持按命令形态（命令名+集合）采样，以及慢命令阈值，慢命令和失败的命令不会被采样丢弃</p>
+ * <p>为减少调用线程的开销，不会像{@link LogListener}一样格式化命令，也不会统计查询返回的条数</p>
+ *
+ * @author anwen
+ */
+public class AsyncLogListener implements Listener {
+
+    private static final Log log = LogFactory.getLog(AsyncLogListener.class);
+
+    private static final int INFO = 0;
+
+    private static final int WARN = 1;
+
+    private static final int ERROR = 2;
+
+    /**
+     * 采样计数器的最大数量，超过后清空
+     */
+    private static final int MAX_SHAPE_SIZE = 4096;
+
+    /**
+     * 后台线程空闲时的最长等待时间，只作为兜底，正常情况下写入日志时会被唤醒
+     */
+    private static final long IDLE_PARK_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final LogRingBuffer<LogEntry> ringBuffer;
+
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private final Map<String, AtomicLong> shapeCounterMap = new ConcurrentHashMap<>();
+
+    private volatile Thread drainThread;
+
+    private volatile boolean running = true;
+
+    /**
+     * 后台线程是否因缓冲区为空而等待，写入日志时据此唤醒
+     */
+    private final AtomicBoolean waiting = new AtomicBoolean(false);
+
+    /**
+     * 命令的最大长度，超过后截断
+     */
+    private int maxCommandLength = 2048;
+
+    /**
+     * 相同形态的命令每n条输出一条，小于等于1表示全部输出
+     */
+    private int sampleRate = 1;
+
+    /**
+     * 慢命令阈值，单位毫秒，小于等于0表示不输出慢命令
+     */
+    private long slowThresholdMillis = 1000;
+
+    private JsonWriterSettings jsonWriterSettings = JsonWriterSettings.builder().maxLength(maxCommandLength).build();
+
+    public AsyncLogListener() {
+        this(8192);
+    }
+
+    /**
+     * @param bufferSize 缓冲区大小，会向上取整为2的幂
+     */
+    public AsyncLogListener(int bufferSize) {
+        this.ringBuffer = new LogRingBuffer<>(bufferSize);
+    }
+
+    public int getMaxCommandLength() {
+        return maxCommandLength;
+    }
+
+    public void setMaxCommandLength(int maxCommandLength) {
+        this.maxCommandLength = maxCommandLength;
+        this.jsonWriterSettings = JsonWriterSettings.builder().maxLength(maxCommandLength).build();
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public long getSlowThresholdMillis() {
+        return slowThresholdMillis;
+    }
+
+    public void setSlowThresholdMillis(long slowThresholdMillis) {
+        this.slowThresholdMillis = slowThresholdMillis;
+    }
+
+    /**
+     * 获取因缓冲区已满被丢弃的日志数量
+     * @return {@link long}
+     * @author anwen
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    @Override
+    public void commandStarted(CommandStarted commandStarted) {
+        if (!sample(commandStarted)) {
+            return;
+        }
+        CommandStartedEvent event = commandStarted.getCommandStartedEvent();
+        // 命令文档在回调结束后可能被驱动释放，必须在调用线程中生成字符串
+        String command = commandStarted.getCommandDocument().toJson(jsonWriterSettings);
+        if (command.length() >= maxCommandLength) {
+            command = command + "...(truncated)";
+        }
+        offer(INFO, commandStarted.getCommandName() + " Statement Execution ==> [" + event.getRequestId() + "] "
+                + command);
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceeded commandSucceeded) {
+        CommandSucceededEvent event = commandSucceeded.getCommandSucceededEvent();
+        long elapsed = event.getElapsedTime(TimeUnit.MILLISECONDS);
+        if (slowThresholdMillis > 0 && elapsed >= slowThresholdMillis) {
+            offer(WARN, "Slow command ==> [" + event.getRequestId() + "] " + commandSucceeded.getCommandName()
+                    + " took " + elapsed + "ms");
+        }
+    }
+
+    @Override
+    public void commandFailed(CommandFailed commandFailed) {
+        offer(ERROR, "error ==> : [" + commandFailed.getCommandFailedEvent().getRequestId() + "] "
+                + commandFailed.getCommandName() + ", " + commandFailed.getThrowable().getMessage());
+    }
+
+    @Override
+    public int getOrder() {
+        return OrderCache.LOG_ORDER;
+    }
+
+    /**
+     * 停止后台线程，并输出缓冲区中剩余的日志
+     * @author anwen
+     */
+    public void shutdown() {
+        running = false;
+        Thread thread = drainThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private boolean sample(CommandStarted commandStarted) {
+        if (sampleRate <= 1) {
+            return true;
+        }
+        if (shapeCounterMap.size() > MAX_SHAPE_SIZE) {
+            shapeCounterMap.clear();
+        }
+        return shapeCounterMap.computeIfAbsent(getShape(commandStarted), key -> new AtomicLong())
+                .getAndIncrement() % sampleRate == 0;
+    }
+
+    /**
+     * 命令形态：数据库+命令名+集合，只读取命令文档的第一个字段
+     */
+    private static String getShape(CommandStarted commandStarted) {
+        String commandName = commandStarted.getCommandName();
+        BsonDocument commandDocument = commandStarted.getCommandDocument();
+        BsonValue collection = commandDocument == null ? null : commandDocument.get(commandName);
+        return commandStarted.getCommandStartedEvent().getDatabaseName() + "." + commandName + "."
+                + (collection != null && collection.isString() ? collection.asString().getValue() : "");
+    }
+
+    private void offer(int level, String message) {
+        ensureDrainThread();
+        if (!ringBuffer.offer(new LogEntry(level, message))) {
+            droppedCount.incrementAndGet();
+            return;
+        }
+        // 只有后台线程等待时才唤醒，连续写入时不会重复调用unpark
+        if (waiting.get() && waiting.compareAndSet(true, false)) {
+            LockSupport.unpark(drainThread);
+        }
+    }
+
+    private void ensureDrainThread() {
+        if (drainThread == null) {
+            synchronized (this) {
+                if (drainThread == null) {
+                    Thread thread = new Thread(this::drain, "mongo-plus-async-log");
+                    thread.setDaemon(true);
+                    thread.start();
+                    drainThread = thread;
+                }
+            }
+        }
+    }
+
+    private void drain() {
+        long reportedDroppedCount = 0;
+        while (true) {
+            LogEntry logEntry = ringBuffer.poll();
+            if (logEntry != null) {
+                write(logEntry);
+                continue;
+            }
+            long currentDroppedCount = droppedCount.get();
+            if (currentDroppedCount != reportedDroppedCount) {
+                log.warn("Async log buffer is full, {} log entries have been dropped",
+                        currentDroppedCount - reportedDroppedCount);
+                reportedDroppedCount = currentDroppedCount;
+            }
+            if (!running) {
+                return;
+            }
+            // 先标记等待再检查缓冲区，写入线程在标记之后写入的日志一定会唤醒后台线程
+            waiting.set(true);
+            logEntry = ringBuffer.poll();
+            if (logEntry != null) {
+                waiting.set(false);
+                write(logEntry);
+                continue;
+            }
+            if (running) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            waiting.set(false);
+        }
+    }
+
+    private static void write(LogEntry logEntry) {
+        try {
+            if (logEntry.level == ERROR) {
+                log.error(logEntry.message);
+            } else if (logEntry.level == WARN) {
+                log.warn(logEntry.message);
+            } else {
+                log.info(logEntry.message);
+            }
+        } catch (RuntimeException e) {
+            // 日志输出失败不能影响后台线程
+        }
+    }
+
+    private static final class LogEntry {
+
+        private final int level;
+
+        private final String message;
+
+        private LogEntry(int level, String message) {
+            this.level = level;
+            this.message = message;
+        }
+
+    }
+
+}
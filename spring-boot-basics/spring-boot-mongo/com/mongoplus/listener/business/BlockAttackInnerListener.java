@@ -4,6 +4,7 @@ import com.mongoplus.cache.global.OrderCache;
 import com.mongoplus.listener.Listener;
 import com.mongoplus.logging.Log;
 import com.mongoplus.logging.LogFactory;
+import com.mongoplus.model.command.BaseCommand;
 import com.mongoplus.model.command.CommandFailed;
 import com.mongoplus.model.command.CommandStarted;
 import com.mongoplus.model.command.CommandSucceeded;
@@ -39,6 +40,11 @@ public class BlockAttackInnerListener implements Listener {
         //不做任何操作
     }
 
+    @Override
+    public boolean supports(Class<? extends BaseCommand> commandType) {
+        return CommandStarted.class.equals(commandType);
+    }
+
     @Override
     public int getOrder() {
         return OrderCache.BLOCK_ATTACK_INNER_ORDER;
@@ -0,0 +1,76 @@
+package com.mongoplus.listener.business;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 有界无锁环形缓冲区，多生产者单消费者
+ * <p>缓冲区已满时{@link #offer(Object)}直接返回false，不会阻塞生产者</p>
+ *
+ * @author anwen
+ */
+final class LogRingBuffer<E> {
+
+    private final AtomicReferenceArray<E> buffer;
+
+    private final int mask;
+
+    private final int capacity;
+
+    /**
+     * 生产者已申请的位置
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * 消费者下一个读取的位置，只有消费者线程写入
+     */
+    private volatile long head;
+
+    LogRingBuffer(int capacity) {
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.capacity = size;
+        this.mask = size - 1;
+        this.buffer = new AtomicReferenceArray<>(size);
+    }
+
+    /**
+     * 写入，缓冲区已满时返回false
+     * @param element 元素
+     * @return {@link boolean}
+     * @author anwen
+     */
+    boolean offer(E element) {
+        long position;
+        do {
+            position = tail.get();
+            if (position - head >= capacity) {
+                return false;
+            }
+        } while (!tail.compareAndSet(position, position + 1));
+        buffer.lazySet((int) position & mask, element);
+        return true;
+    }
+
+    /**
+     * 读取，只能由消费者线程调用，没有可读的元素时返回null
+     * @return {@link E}
+     * @author anwen
+     */
+    E poll() {
+        long position = head;
+        int index = (int) position & mask;
+        E element = buffer.get(index);
+        // 生产者已申请位置但还未写入时同样返回null，下次再读
+        if (element == null) {
+            return null;
+        }
+        buffer.lazySet(index, null);
+        head = position + 1;
+        return element;
+    }
+
+}
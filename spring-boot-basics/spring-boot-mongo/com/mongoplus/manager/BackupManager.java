@@ -3,10 +3,13 @@ package com.mongoplus.manager;
 import com.mongodb.MongoNamespace;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.InsertManyOptions;
 import com.mongoplus.cache.codec.MapCodecCache;
+import com.mongoplus.cache.global.ConcurrentCache;
 import com.mongoplus.cache.global.DataSourceNameCache;
+import com.mongoplus.constant.SqlOperationConstant;
+import com.mongoplus.context.MongoTransactionContext;
 import com.mongoplus.domain.MongoPlusException;
-import com.mongoplus.execute.Execute;
 import com.mongoplus.execute.ExecutorFactory;
 import com.mongoplus.handlers.collection.AnnotationOperate;
 import com.mongoplus.listener.BackupListener;
@@ -15,20 +18,29 @@ import com.mongoplus.logging.LogFactory;
 import com.mongoplus.meta.MongoPlusVersion;
 import com.mongoplus.toolkit.Assert;
 import com.mongoplus.toolkit.CollUtil;
+import com.mongoplus.toolkit.ConcurrentUtil;
 import com.mongoplus.toolkit.StringUtils;
-import com.mongoplus.toolkit.ZipUtil;
-import org.bson.BsonArray;
-import org.bson.BsonDocument;
-import org.bson.Document;
+import org.bson.*;
+import org.bson.codecs.DecoderContext;
+import org.bson.conversions.Bson;
+import org.bson.json.JsonReader;
+import org.bson.types.ObjectId;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
-import java.nio.file.attribute.BasicFileAttributes;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
 
 /**
  * 备份管理器
@@ -44,6 +56,32 @@ public class BackupManager {
 
     private final ExecutorFactory factory = new ExecutorFactory();
 
+    public static final String JSON_SUFFIX = ".json";
+
+    public static final String BSON_SUFFIX = ".bson";
+
+    /**
+     * 单个压缩条目的最大字节数，超过后切分
+     */
+    private static final int MAX_ENTRY_BYTES = 16 * 1024 * 1024;
+
+    private static final int SAMPLE_SIZE_PER_PARTITION = 20;
+
+    /**
+     * 导入时单个文档的最大长度，MongoDB文档最大16MB，另留16KB余量
+     */
+    private static final int MAX_DOCUMENT_BYTES = 16 * 1024 * 1024 + 16 * 1024;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final DecoderContext DECODER_CONTEXT = DecoderContext.builder().build();
+
+    private static final InsertManyOptions UNORDERED_OPTIONS = new InsertManyOptions().ordered(false);
+
+    private static final byte[] JSON_SEPARATOR = ",\n".getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] JSON_END = "\n]".getBytes(StandardCharsets.UTF_8);
+
     /**
      * 备份文件存储路径
      */
@@ -65,10 +103,32 @@ public class BackupManager {
     private MongoPlusClient mongoPlusClient;
 
     /**
-     * 每批次导出的数量，默认1000
+     * 每批次导出、导入的数量，默认1000
      */
     private Integer limit = 1000;
 
+    /**
+     * 导出时并行的集合数量及读取线程数，导入时的写入线程数，默认为CPU核数，最多4个
+     * <p>大于1时{@link BackupListener}会在多个线程中同时调用</p>
+     */
+    private Integer parallelism = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    /**
+     * 单个集合按_id范围拆分的分区数，默认1，即单游标顺序读取
+     */
+    private Integer partitions = 1;
+
+    /**
+     * 每个压缩条目中的最大文档数量，默认100000
+     */
+    private Integer entryLimit = 100000;
+
+    /**
+     * 是否以原始BSON格式导出，默认false，以Extended JSON格式导出
+     * <p>BSON格式不需要编码为JSON，导出和导入更快，且不会丢失类型</p>
+     */
+    private boolean rawBson = false;
+
     /**
      * 备份监听器
      */
@@ -140,65 +200,139 @@ public class BackupManager {
     public Map<String,String> export(){
         Assert.hasLength(path,"'path' is null");
         Assert.isTrue(CollUtil.isNotEmpty(collectionNames),"'collectionNames' is null");
-        HashMap<String, String> resultMap = new HashMap<>();
-        this.collectionNames.forEach(collectionName -> {
-            MongoCollection<Document> collection = mongoPlusClient.getCollection(
-                    this.dataSourceName,
-                    DataSourceNameCache.getDatabase(this.dataSourceName),
-                    collectionName
-            );
-            String path = backupCollectionToJSON(collection);
-            resultMap.put(collectionName,path);
-            log.info(collectionName+" -> "+path);
-        });
-        return resultMap;
+        List<String> collectionNameList = new ArrayList<>(new LinkedHashSet<>(this.collectionNames));
+        ExecutorService collectionExecutor = newExecutor("mongo-plus-backup-collection",
+                Math.min(parallelism, collectionNameList.size()));
+        ExecutorService partitionExecutor = newExecutor("mongo-plus-backup", parallelism);
+        try {
+            Map<String, Future<String>> futureMap = new LinkedHashMap<>();
+            collectionNameList.forEach(collectionName -> {
+                MongoCollection<Document> collection = mongoPlusClient.getCollection(
+                        this.dataSourceName,
+                        DataSourceNameCache.getDatabase(this.dataSourceName),
+                        collectionName
+                );
+                futureMap.put(collectionName, collectionExecutor.submit(() -> backupCollection(collection, partitionExecutor)));
+            });
+            HashMap<String, String> resultMap = new HashMap<>();
+            futureMap.forEach((collectionName, future) -> {
+                String path = ConcurrentUtil.join(future);
+                resultMap.put(collectionName,path);
+                log.info(collectionName+" -> "+path);
+            });
+            return resultMap;
+        } finally {
+            collectionExecutor.shutdownNow();
+            partitionExecutor.shutdownNow();
+        }
     }
 
     /**
      * 导入备份数据
+     * <p>逐条解码压缩条目中的文档，按{@link #limit}分批，由{@link #parallelism}个线程以无序批量写入，
+     * 同时执行中的批次有上限，内存占用与备份大小无关</p>
+     * <p>处于事务中时，在当前线程中顺序写入</p>
      * @author anwen
      */
     public void imports(String path) {
-        try(ZipInputStream zipInputStream = new ZipInputStream(Files.newInputStream(Paths.get(path)))){
-            int num = 0;
-            while (zipInputStream.getNextEntry() != null) {
-                // 读取文件内容
-                ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-                byte[] buffer = new byte[1024];
-                int bytesRead;
-                while ((bytesRead = zipInputStream.read(buffer)) != -1) {
-                    byteArrayOutputStream.write(buffer, 0, bytesRead);
-                }
-
-                // 获取文件的内容
-                String content = byteArrayOutputStream.toString("UTF-8");
-                BsonArray bsonArray = BsonArray.parse(content);
-                BsonDocument document = bsonArray.get(0).asDocument();
-                BsonDocument information = document.get("information").asDocument();
-                if (information == null){
-                    throw new MongoPlusException("Unable to parse this file, it may not have been generated through MongoPlus");
+        ExecutorService executor = MongoTransactionContext.getClientSessionContext() == null
+                ? newExecutor("mongo-plus-restore", parallelism)
+                : null;
+        RestoreContext restoreContext = new RestoreContext(path, executor);
+        try(ZipInputStream zipInputStream = new ZipInputStream(
+                new BufferedInputStream(Files.newInputStream(Paths.get(path)), BUFFER_SIZE))){
+            ZipEntry zipEntry;
+            while ((zipEntry = zipInputStream.getNextEntry()) != null) {
+                if (zipEntry.isDirectory()) {
+                    continue;
                 }
-                String dataSource = information.getString("data_source").getValue();
-                String database = information.getString("database").getValue();
-                bsonArray.remove(0);
-                String collectionName = information.getString("collection_name").getValue();
-                MongoCollection<Document> collection = mongoPlusClient.getCollection(dataSourceName, database, collectionName);
-                if (num <= 0){
-                    collection.drop();
+                if (zipEntry.getName().endsWith(BSON_SUFFIX)) {
+                    importBsonEntry(zipInputStream, restoreContext);
+                } else {
+                    importJsonEntry(zipInputStream, restoreContext);
                 }
-                // 使用执行器工厂获取执行器，通过执行器执行，方便事务控制
-                Execute execute = factory.getExecute();
-                List<Document> documentList = bsonArray.stream()
-                        .map(bd -> new Document(bd.asDocument()))
-                        .collect(Collectors.toList());
-                execute.executeSave(documentList,null,collection);
+                restoreContext.flush();
+                log.info("Import entry " + zipEntry.getName() + " successful.");
                 // 关闭当前条目
                 zipInputStream.closeEntry();
-                num++;
             }
+            restoreContext.await();
         } catch (IOException e) {
-            throw new RuntimeException();
+            throw new MongoPlusException("Import backup failed: " + path, e);
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * 导入JSON数组格式的条目，通过JsonReader逐个读取数组中的文档
+     */
+    private void importJsonEntry(InputStream inputStream, RestoreContext restoreContext) {
+        // 不关闭reader，避免关闭压缩流
+        JsonReader reader = new JsonReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        reader.readStartArray();
+        boolean first = true;
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            Document document = MapCodecCache.getDefaultCodec().decode(reader, DECODER_CONTEXT);
+            if (first) {
+                restoreContext.start(document);
+                first = false;
+            } else {
+                restoreContext.add(document);
+            }
+        }
+        reader.readEndArray();
+    }
+
+    /**
+     * 导入BSON格式的条目，条目为连续的文档，每个文档以4字节小端序的长度开头
+     */
+    private void importBsonEntry(InputStream inputStream, RestoreContext restoreContext) throws IOException {
+        boolean first = true;
+        byte[] lengthBytes = new byte[4];
+        while (readFully(inputStream, lengthBytes, 0, 4)) {
+            int length = (lengthBytes[0] & 0xff) | (lengthBytes[1] & 0xff) << 8
+                    | (lengthBytes[2] & 0xff) << 16 | (lengthBytes[3] & 0xff) << 24;
+            // 长度来自文件，先校验再分配内存，损坏的文件不会导致内存溢出
+            if (length < 5 || length > MAX_DOCUMENT_BYTES) {
+                throw new MongoPlusException("Unable to parse this file, invalid document length: " + length);
+            }
+            byte[] bytes = new byte[length];
+            System.arraycopy(lengthBytes, 0, bytes, 0, 4);
+            if (!readFully(inputStream, bytes, 4, length - 4)) {
+                throw new MongoPlusException("Unable to parse this file, unexpected end of entry");
+            }
+            Document document;
+            try (BsonBinaryReader reader = new BsonBinaryReader(ByteBuffer.wrap(bytes))) {
+                document = MapCodecCache.getDefaultCodec().decode(reader, DECODER_CONTEXT);
+            }
+            if (first) {
+                restoreContext.start(document);
+                first = false;
+            } else {
+                restoreContext.add(document);
+            }
+        }
+    }
+
+    /**
+     * 读取指定长度，流在读取第一个字节前结束时返回false
+     */
+    private static boolean readFully(InputStream inputStream, byte[] bytes, int offset, int length) throws IOException {
+        int read = 0;
+        while (read < length) {
+            int n = inputStream.read(bytes, offset + read, length - read);
+            if (n < 0) {
+                if (read == 0) {
+                    return false;
+                }
+                throw new EOFException("Unexpected end of entry");
+            }
+            read += n;
         }
+        return true;
     }
 
     /**
@@ -208,10 +342,28 @@ public class BackupManager {
      * @author anwen
      */
     public String getFileName(String collectionName){
-        return collectionName+"-"+System.currentTimeMillis()+".json";
+        return getFileName(collectionName, JSON_SUFFIX);
+    }
+
+    /**
+     * 获取文件名称
+     * @param collectionName 集合名称
+     * @param suffix 后缀
+     * @return {@link String}
+     * @author anwen
+     */
+    public String getFileName(String collectionName, String suffix){
+        return collectionName+"-"+System.currentTimeMillis()+suffix;
     }
 
-    String backupCollectionToJSON(MongoCollection<Document> collection) {
+    /**
+     * 备份单个集合，由分区线程读取并编码，当前线程写入压缩文件
+     * @param collection 集合
+     * @param partitionExecutor 分区线程池
+     * @return {@link String} 压缩文件路径，集合为空时返回null
+     * @author anwen
+     */
+    String backupCollection(MongoCollection<Document> collection, ExecutorService partitionExecutor) {
         MongoNamespace namespace = collection.getNamespace();
         String collectionName = namespace.getCollectionName();
         long totalDocuments = collection.estimatedDocumentCount();
@@ -222,101 +374,193 @@ public class BackupManager {
             return null;
         }
 
-        int count = 0, skip = 0, num = 0;
-        boolean hasMore = true;
-
-        String filePath = path + collectionName;
-        File dir = new File(filePath);
+        File dir = new File(path);
         if (!dir.exists() && dir.mkdirs()) {
-            log.info("Directory created: " + filePath);
+            log.info("Directory created: " + path);
         }
 
-        // 开始备份
-        while (hasMore) {
-            num++;
-            String finalPath = String.format("%s/%d-%s", filePath, num, getFileName(collectionName));
-
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(finalPath))) {
-                writer.write("[\n");
-                writeCollectionInfo(namespace, writer);
+        String zipFilePath = path + collectionName + "-" + currentDateTime(nameFormatter) + ".zip";
+        MongoCollection<RawBsonDocument> rawCollection = collection.withDocumentClass(RawBsonDocument.class);
+        List<Bson> filters = getPartitionFilters(rawCollection, totalDocuments);
+        // 有界队列，写入跟不上时阻塞读取线程，内存中最多保留队列长度+分区数个条目
+        BlockingQueue<BackupChunk> queue = new ArrayBlockingQueue<>(Math.max(2, filters.size()));
+        List<Future<?>> futures = new ArrayList<>(filters.size());
+        for (int i = 0; i < filters.size(); i++) {
+            Bson filter = filters.get(i);
+            int partition = i + 1;
+            futures.add(partitionExecutor.submit(() -> exportPartition(rawCollection, filter, partition, zipFilePath, queue)));
+        }
 
-                try (MongoCursor<Document> cursor = collection
-                        .find()
-                        .skip(skip * limit)
-                        .limit(limit)
-                        .batchSize(limit)
-                        .iterator()) {
+        long count = 0;
+        try (ZipOutputStream zipOutputStream = new ZipOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(Paths.get(zipFilePath)), BUFFER_SIZE))) {
+            int finished = 0;
+            while (finished < filters.size()) {
+                BackupChunk chunk = queue.take();
+                if (chunk.throwable != null) {
+                    throw new MongoPlusException("Backup failed for collection: " + collectionName, chunk.throwable);
+                }
+                if (chunk.buffer == null) {
+                    finished++;
+                    continue;
+                }
+                zipOutputStream.putNextEntry(new ZipEntry(chunk.entryName));
+                zipOutputStream.write(chunk.buffer.getBuffer(), 0, chunk.buffer.size());
+                zipOutputStream.closeEntry();
+                count += chunk.count;
+                log.info("Backup for collection '" + collectionName + "' entry " + chunk.entryName + " successful.");
+            }
+        } catch (IOException e) {
+            cancel(futures, zipFilePath);
+            throw new MongoPlusException("Backup failed for collection: " + collectionName, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel(futures, zipFilePath);
+            throw new MongoPlusException("Backup interrupted for collection: " + collectionName, e);
+        } catch (RuntimeException e) {
+            cancel(futures, zipFilePath);
+            throw e;
+        }
+        log.info("Backup for collection '" + collectionName + "' completed, " + count + " documents: " + zipFilePath);
+        return zipFilePath;
+    }
 
-                    if (!cursor.hasNext()) {
-                        hasMore = false;
-                        continue;
+    /**
+     * 导出一个分区，按{@link #entryLimit}和{@link #MAX_ENTRY_BYTES}切分为多个压缩条目
+     * <p>任何异常和错误（如OutOfMemoryError）都会先作为失败条目放入队列再抛出，写入线程不会一直等待该分区结束</p>
+     */
+    private Void exportPartition(MongoCollection<RawBsonDocument> collection, Bson filter, int partition,
+                                 String zipFilePath, BlockingQueue<BackupChunk> queue) throws IOException {
+        String collectionName = collection.getNamespace().getCollectionName();
+        try {
+            RawBsonDocument information = getCollectionInfo(collection.getNamespace());
+            int num = 0;
+            BackupChunk chunk = null;
+            try (MongoCursor<RawBsonDocument> cursor = collection.find(filter).batchSize(limit).iterator()) {
+                while (cursor.hasNext()) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        return null;
                     }
-
-                    // 逐条处理 Mongo 数据
-                    while (cursor.hasNext()) {
-                        count++;
-                        Document document = cursor.next();
-                        if (CollUtil.isNotEmpty(backupListeners)) {
-                            backupListeners.forEach(backupListener ->
-                                    backupListener.export(finalPath,collectionName,document));
-                        }
-                        writer.write(document.toJson(MapCodecCache.getDefaultCodec()));
-
-                        // 不是最后一条数据时加逗号
-                        if (count < totalDocuments) {
-                            writer.write(",\n");
-                        }
-                        hasMore = count < totalDocuments;
+                    RawBsonDocument document = cursor.next();
+                    if (chunk == null) {
+                        num++;
+                        chunk = new BackupChunk(collectionName + "/" + partition + "-" + num + "-"
+                                + getFileName(collectionName, rawBson ? BSON_SUFFIX : JSON_SUFFIX), information, rawBson);
+                    }
+                    chunk.write(document);
+                    if (CollUtil.isNotEmpty(backupListeners)) {
+                        Document listenerDocument = document.decode(MapCodecCache.getDefaultCodec());
+                        backupListeners.forEach(backupListener ->
+                                backupListener.export(zipFilePath, collectionName, listenerDocument));
+                    }
+                    if (chunk.count >= entryLimit || chunk.buffer.size() >= MAX_ENTRY_BYTES) {
+                        queue.put(chunk.finish());
+                        chunk = null;
                     }
                 }
-
-                // 结束 JSON 数组
-                writer.write("\n]");
-
-                log.info("Backup for collection '" + collectionName + "' batch " + num + " successful.");
-            } catch (IOException e) {
-                log.error("Backup failed for collection: " + collectionName, e);
-                break;
             }
-            // 更新分页，跳到下一批次
-            skip++;
+            if (chunk != null) {
+                queue.put(chunk.finish());
+            }
+            queue.put(BackupChunk.END);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable e) {
+            try {
+                queue.put(BackupChunk.failed(e));
+            } catch (InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw e;
         }
+        return null;
+    }
 
-        // 执行压缩和删除操作
-        String zipFilePath = path + collectionName + "-" + currentDateTime(nameFormatter) + ".zip";
-        ZipUtil.zipDirectory(filePath, zipFilePath);
-        log.info("Zipping completed successfully: " + zipFilePath);
-
-        // 删除临时文件
-        deleteFiles(filePath);
-        log.info("Temporary files deleted.");
-        return zipFilePath;
+    /**
+     * 按_id范围拆分分区
+     * <p>通过$sample采样得到分界点，只拆分ObjectId类型的_id，其他类型的_id比较受集合排序规则影响，
+     * 最后追加一个非ObjectId类型_id的分区，保证不遗漏文档</p>
+     */
+    List<Bson> getPartitionFilters(MongoCollection<RawBsonDocument> collection, long totalDocuments) {
+        if (partitions <= 1 || totalDocuments < (long) partitions * limit) {
+            return Collections.singletonList(new BsonDocument());
+        }
+        List<ObjectId> sampleIdList = new ArrayList<>();
+        for (BsonDocument document : collection.withDocumentClass(BsonDocument.class).aggregate(Arrays.asList(
+                new BsonDocument("$sample", new BsonDocument("size", new BsonInt32(partitions * SAMPLE_SIZE_PER_PARTITION))),
+                new BsonDocument("$project", new BsonDocument(SqlOperationConstant._ID, new BsonInt32(1)))
+        ))) {
+            BsonValue id = document.get(SqlOperationConstant._ID);
+            if (id == null || !id.isObjectId()) {
+                return Collections.singletonList(new BsonDocument());
+            }
+            sampleIdList.add(id.asObjectId().getValue());
+        }
+        Collections.sort(sampleIdList);
+        List<ObjectId> boundaryList = new ArrayList<>();
+        for (int i = 1; i < partitions && !sampleIdList.isEmpty(); i++) {
+            ObjectId boundary = sampleIdList.get(i * sampleIdList.size() / partitions);
+            if (boundaryList.isEmpty() || boundaryList.get(boundaryList.size() - 1).compareTo(boundary) < 0) {
+                boundaryList.add(boundary);
+            }
+        }
+        if (boundaryList.isEmpty()) {
+            return Collections.singletonList(new BsonDocument());
+        }
+        List<Bson> filters = new ArrayList<>(boundaryList.size() + 2);
+        ObjectId lower = null;
+        for (ObjectId boundary : boundaryList) {
+            filters.add(getRangeFilter(lower, boundary));
+            lower = boundary;
+        }
+        filters.add(getRangeFilter(lower, null));
+        filters.add(new BsonDocument(SqlOperationConstant._ID,
+                new BsonDocument("$not", new BsonDocument("$type", new BsonString("objectId")))));
+        return filters;
     }
 
+    private static Bson getRangeFilter(ObjectId lower, ObjectId upper) {
+        BsonDocument condition = new BsonDocument();
+        // 范围比较只会匹配相同类型的_id
+        if (lower != null) {
+            condition.append("$gte", new BsonObjectId(lower));
+        }
+        if (upper != null) {
+            condition.append("$lt", new BsonObjectId(upper));
+        }
+        return new BsonDocument(SqlOperationConstant._ID, condition);
+    }
 
-    @SuppressWarnings("all")
-    void deleteFiles(String filePath){
-        // 使用 walkFileTree 递归删除文件夹及其内容
+    private static void cancel(List<Future<?>> futures, String zipFilePath) {
+        futures.forEach(future -> future.cancel(true));
         try {
-            Files.walkFileTree(Paths.get(filePath), new SimpleFileVisitor<Path>() {
-                @Override
-                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
-                    Files.delete(file);  // 删除文件
-                    return FileVisitResult.CONTINUE;
-                }
-
-                @Override
-                public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
-                    Files.delete(dir);  // 删除目录
-                    return FileVisitResult.CONTINUE;
-                }
-            });
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+            Files.deleteIfExists(Paths.get(zipFilePath));
+        } catch (IOException ignored) {
+            // 删除失败时保留不完整的文件
         }
     }
 
+    private static ExecutorService newExecutor(String name, int threads) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
     public void writeCollectionInfo(MongoNamespace namespace,BufferedWriter writer) throws IOException {
+        writer.write(getCollectionInfo(namespace).toJson());
+        writer.write(",\n");
+    }
+
+    /**
+     * 获取集合信息，作为每个压缩条目的第一个文档
+     * @param namespace 命名空间
+     * @return {@link RawBsonDocument}
+     * @author anwen
+     */
+    public RawBsonDocument getCollectionInfo(MongoNamespace namespace) {
         Document collectionDocument = new Document();
         collectionDocument.put("origin","MongoPlus");
         collectionDocument.put("version","v"+ MongoPlusVersion.getVersion());
@@ -326,8 +570,7 @@ public class BackupManager {
         collectionDocument.put("collection_name",namespace.getCollectionName());
         collectionDocument.put("date_time", currentDateTime());
         collectionDocument.put("time_stamp", System.currentTimeMillis());
-        writer.write(new Document("information",collectionDocument).toJson(MapCodecCache.getDefaultCodec()));
-        writer.write(",\n");
+        return new RawBsonDocument(new Document("information",collectionDocument), MapCodecCache.getDefaultCodec());
     }
 
     String currentDateTime(){
@@ -370,6 +613,38 @@ public class BackupManager {
         this.limit = limit;
     }
 
+    public Integer getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(Integer parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public Integer getPartitions() {
+        return partitions;
+    }
+
+    public void setPartitions(Integer partitions) {
+        this.partitions = partitions;
+    }
+
+    public Integer getEntryLimit() {
+        return entryLimit;
+    }
+
+    public void setEntryLimit(Integer entryLimit) {
+        this.entryLimit = entryLimit;
+    }
+
+    public boolean isRawBson() {
+        return rawBson;
+    }
+
+    public void setRawBson(boolean rawBson) {
+        this.rawBson = rawBson;
+    }
+
     /**
      * 设置监听器
      * @param backupListeners 监听器
@@ -380,6 +655,221 @@ public class BackupManager {
     }
 
 
+    /**
+     * 导入上下文，负责分批、提交写入和统计进度
+     */
+    private final class RestoreContext {
+
+        private final String path;
+
+        private final ExecutorService executor;
+
+        private final Semaphore semaphore;
+
+        private final int permits;
+
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        private final Map<String, AtomicLong> countMap = new ConcurrentHashMap<>();
+
+        private final Set<String> droppedCollectionSet = new HashSet<>();
+
+        private MongoCollection<Document> collection;
+
+        private String collectionName;
+
+        private List<Document> batch;
+
+        private RestoreContext(String path, ExecutorService executor) {
+            this.path = path;
+            this.executor = executor;
+            this.permits = Math.max(1, parallelism) * 2;
+            this.semaphore = new Semaphore(permits);
+            this.batch = new ArrayList<>(limit);
+        }
+
+        /**
+         * 开始一个条目，第一个文档为集合信息，第一次导入某个集合时先删除该集合
+         */
+        private void start(Document document) {
+            Document information = document.get("information", Document.class);
+            if (information == null){
+                throw new MongoPlusException("Unable to parse this file, it may not have been generated through MongoPlus");
+            }
+            flush();
+            String database = information.getString("database");
+            collectionName = information.getString("collection_name");
+            collection = mongoPlusClient.getCollection(dataSourceName, database, collectionName);
+            if (droppedCollectionSet.add(database + "." + collectionName)) {
+                collection.drop();
+            }
+        }
+
+        private void add(Document document) {
+            if (collection == null) {
+                throw new MongoPlusException("Unable to parse this file, it may not have been generated through MongoPlus");
+            }
+            batch.add(document);
+            if (batch.size() >= limit) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<Document> documentList = batch;
+            batch = new ArrayList<>(limit);
+            MongoCollection<Document> currentCollection = collection;
+            String currentCollectionName = collectionName;
+            if (executor == null) {
+                insert(documentList, currentCollection, currentCollectionName);
+                return;
+            }
+            checkFailure();
+            acquire(1);
+            try {
+                executor.execute(ConcurrentCache.decorate(() -> {
+                    try {
+                        insert(documentList, currentCollection, currentCollectionName);
+                    } catch (RuntimeException e) {
+                        failure.compareAndSet(null, e);
+                    } catch (Error e) {
+                        // 错误也需要让导入失败，否则等待结束后会被当作成功
+                        failure.compareAndSet(null, e);
+                        throw e;
+                    } finally {
+                        semaphore.release();
+                    }
+                }));
+            } catch (RejectedExecutionException e) {
+                semaphore.release();
+                throw new MongoPlusException("Import backup failed: " + path, e);
+            }
+        }
+
+        private void insert(List<Document> documentList, MongoCollection<Document> collection, String collectionName) {
+            // 使用执行器工厂获取执行器，通过执行器执行，方便事务控制
+            factory.getExecute().executeSave(documentList, UNORDERED_OPTIONS, collection);
+            long count = countMap.computeIfAbsent(collectionName, key -> new AtomicLong())
+                    .addAndGet(documentList.size());
+            if (CollUtil.isNotEmpty(backupListeners)) {
+                backupListeners.forEach(backupListener -> backupListener.imports(path, collectionName, count));
+            }
+        }
+
+        /**
+         * 等待所有批次写入完成
+         */
+        private void await() {
+            flush();
+            if (executor != null) {
+                acquire(permits);
+                semaphore.release(permits);
+            }
+            checkFailure();
+            countMap.forEach((name, count) -> log.info("Import collection '" + name + "' completed, "
+                    + count.get() + " documents"));
+        }
+
+        private void acquire(int n) {
+            try {
+                semaphore.acquire(n);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MongoPlusException("Import backup interrupted: " + path, e);
+            }
+        }
+
+        private void checkFailure() {
+            Throwable e = failure.get();
+            if (e instanceof RuntimeException) {
+                throw (RuntimeException) e;
+            }
+            if (e instanceof Error) {
+                throw (Error) e;
+            }
+        }
+
+    }
+
+    /**
+     * 一个压缩条目的内容，JSON格式为数组，第一个元素为集合信息；BSON格式为连续的文档，第一个文档为集合信息
+     */
+    static final class BackupChunk {
+
+        static final BackupChunk END = new BackupChunk(null, null, false, null);
+
+        private final String entryName;
+
+        private final ChunkBuffer buffer;
+
+        private final boolean rawBson;
+
+        private final Throwable throwable;
+
+        private int count;
+
+        private BackupChunk(String entryName, ChunkBuffer buffer, boolean rawBson, Throwable throwable) {
+            this.entryName = entryName;
+            this.buffer = buffer;
+            this.rawBson = rawBson;
+            this.throwable = throwable;
+        }
+
+        BackupChunk(String entryName, RawBsonDocument information, boolean rawBson) throws IOException {
+            this(entryName, new ChunkBuffer(), rawBson, null);
+            if (rawBson) {
+                writeRaw(information);
+            } else {
+                buffer.write(("[\n" + information.toJson()).getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        static BackupChunk failed(Throwable throwable) {
+            return new BackupChunk(null, null, false, throwable);
+        }
+
+        void write(RawBsonDocument document) throws IOException {
+            if (rawBson) {
+                writeRaw(document);
+            } else {
+                buffer.write(JSON_SEPARATOR);
+                buffer.write(document.toJson().getBytes(StandardCharsets.UTF_8));
+            }
+            count++;
+        }
+
+        BackupChunk finish() throws IOException {
+            if (!rawBson) {
+                buffer.write(JSON_END);
+            }
+            return this;
+        }
+
+        private void writeRaw(RawBsonDocument document) {
+            ByteBuffer byteBuffer = document.getByteBuffer().asNIO();
+            buffer.write(byteBuffer.array(), byteBuffer.arrayOffset() + byteBuffer.position(), byteBuffer.remaining());
+        }
+
+    }
+
+    /**
+     * 可直接访问内部数组的输出流，避免写入压缩流时复制
+     */
+    static final class ChunkBuffer extends ByteArrayOutputStream {
+
+        ChunkBuffer() {
+            super(BUFFER_SIZE);
+        }
+
+        byte[] getBuffer() {
+            return buf;
+        }
+
+    }
+
     static class DocumentArray extends ArrayList<Document> {
 
         public String toJson(){
@@ -1,10 +1,13 @@
 package com.mongoplus.manager;
 
 import com.mongodb.client.MongoClient;
+import com.mongoplus.cache.global.CollectionCache;
 import com.mongoplus.cache.global.DataSourceNameCache;
+import com.mongoplus.cache.global.ReadWriteCache;
 import com.mongoplus.conn.CollectionManager;
 import com.mongoplus.factory.MongoClientFactory;
 import com.mongoplus.model.BaseProperty;
+import com.mongoplus.model.SlaveDataSource;
 import com.mongoplus.toolkit.MongoUtil;
 
 import java.util.Arrays;
@@ -39,12 +42,35 @@ public class DataSourceManager {
         Boolean containsMongoClient = mongoClientFactory.containsMongoClient(dsName);
         if (!containsMongoClient || isOverride) {
             mongoClientFactory.addMongoClient(dsName, mongoClient);
+            // 连接已替换，旧连接创建的集合不能再使用
+            CollectionCache.removeDataSource(dsName);
             mongoPlusClient.getCollectionManagerMap().put(dsName,new LinkedHashMap<String, CollectionManager>(){{
-                Arrays.stream(baseProperty.getDatabase().split(",")).collect(Collectors.toList()).forEach(db -> put(db,new CollectionManager(db)));
+                Arrays.stream(baseProperty.getDatabase().split(",")).collect(Collectors.toList()).forEach(db -> put(db,new CollectionManager(dsName, db)));
             }});
         }
     }
 
+    /**
+     * 为数据源配置读写分离，只读操作路由到从数据源
+     * <p>slaveName为空时，与主数据源共用连接，按readPreference读取，未配置readPreference时为secondaryPreferred</p>
+     * <p>slaveName不为空时，使用该名称的数据源读取，配置了连接信息且该数据源不存在时，会创建新的连接</p>
+     * @param dsName 主数据源名称
+     * @param slaveDataSource 从数据源配置
+     * @author anwen
+     */
+    public void appendSlaveDataSource(String dsName, SlaveDataSource slaveDataSource){
+        ReadWriteCache.setSlaveDataSource(dsName, slaveDataSource);
+    }
+
+    /**
+     * 移除数据源的读写分离配置
+     * @param dsName 主数据源名称
+     * @author anwen
+     */
+    public void removeSlaveDataSource(String dsName){
+        ReadWriteCache.removeSlaveDataSource(dsName);
+    }
+
     /**
      * 切换为指定数据源
      * <p style='color: red'>需要手动的去清除缓存</p>
@@ -1,19 +1,23 @@
 package com.mongoplus.manager;
 
+import com.mongodb.MongoNamespace;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import com.mongoplus.cache.global.DataSourceNameCache;
+import com.mongoplus.cache.global.ReadWriteCache;
 import com.mongoplus.conn.CollectionManager;
+import com.mongoplus.context.MongoTransactionContext;
 import com.mongoplus.domain.MongoPlusDsException;
 import com.mongoplus.factory.MongoClientFactory;
 import com.mongoplus.handlers.collection.AnnotationOperate;
 import com.mongoplus.model.BaseProperty;
+import com.mongoplus.model.SlaveDataSource;
+import com.mongoplus.toolkit.MongoUtil;
 import com.mongoplus.toolkit.StringUtils;
 import org.bson.Document;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -56,6 +60,52 @@ public class MongoPlusClient {
         return getCollectionManager(database).getCollection(clazz);
     }
 
+    /**
+     * 获取读操作使用的集合，当前数据源配置了{@link SlaveDataSource}时路由到从数据源或从节点
+     * <p>处于事务中，或当前线程刚写入过（{@link ReadWriteCache#getStickyMillis()}内）时，仍然读主</p>
+     * @param collection 主数据源的集合
+     * @return {@link MongoCollection<Document>}
+     * @author anwen
+     */
+    public MongoCollection<Document> getReadCollection(MongoCollection<Document> collection){
+        if (ReadWriteCache.isEmpty()){
+            return collection;
+        }
+        String dataSource = DataSourceNameCache.getDataSource();
+        SlaveDataSource slaveDataSource = ReadWriteCache.getSlaveDataSource(dataSource);
+        if (slaveDataSource == null
+                || MongoTransactionContext.getClientSessionContext() != null
+                || ReadWriteCache.isSticky()){
+            return collection;
+        }
+        MongoNamespace namespace = collection.getNamespace();
+        return getCollectionManager(dataSource, namespace.getDatabaseName())
+                .getReadCollection(getReadDataSource(dataSource, slaveDataSource), namespace.getCollectionName(),
+                        slaveDataSource);
+    }
+
+    /**
+     * 获取读操作使用的数据源，从数据源配置了连接信息时，第一次使用时创建连接
+     */
+    private String getReadDataSource(String dataSource, SlaveDataSource slaveDataSource){
+        String slaveName = slaveDataSource.getSlaveName();
+        if (StringUtils.isBlank(slaveName)){
+            return dataSource;
+        }
+        MongoClientFactory mongoClientFactory = MongoClientFactory.getInstance();
+        if (!mongoClientFactory.containsMongoClient(slaveName)){
+            if (StringUtils.isBlank(slaveDataSource.getUrl()) && StringUtils.isBlank(slaveDataSource.getHost())){
+                throw new MongoPlusDsException("The " + slaveName + " slave data source does not exist");
+            }
+            synchronized (slaveDataSource){
+                if (!mongoClientFactory.containsMongoClient(slaveName)){
+                    mongoClientFactory.addMongoClient(slaveName, MongoUtil.getMongo(slaveName, slaveDataSource));
+                }
+            }
+        }
+        return slaveName;
+    }
+
     public CollectionManager getCollectionManager(Class<?> clazz){
         return getCollectionManager(getDatabase(clazz));
     }
@@ -71,18 +121,35 @@ public class MongoPlusClient {
     public CollectionManager getCollectionManager(String dataSource,String database){
         Map<String, CollectionManager> managerMap = getCollectionManagerMap().get(dataSource);
         if (StringUtils.isBlank(database)){
+            if (managerMap == null) {
+                throw new MongoPlusDsException("database is null");
+            }
             database = managerMap.keySet().stream().findFirst().orElseThrow(() ->
                     new MongoPlusDsException("database is null"));
         }
-        if (null == managerMap || null == managerMap.get(database)){
-            CollectionManager collectionManager = new CollectionManager(database);
-            getMongoDatabase().add(getMongoClient().getDatabase(database));
-            String finalDatabase = database;
-            getCollectionManagerMap().put(dataSource,new ConcurrentHashMap<String,CollectionManager>(){{
-                put(finalDatabase, collectionManager);
-            }});
+        CollectionManager collectionManager = managerMap == null ? null : managerMap.get(database);
+        if (collectionManager == null){
+            collectionManager = addCollectionManager(dataSource, database);
+        }
+        return collectionManager;
+    }
+
+    /**
+     * 为数据源添加一个库的CollectionManager，保留数据源下已有的库
+     * <p>写时复制，读取时不会看到正在修改的Map</p>
+     */
+    private synchronized CollectionManager addCollectionManager(String dataSource,String database){
+        Map<String, CollectionManager> managerMap = getCollectionManagerMap().get(dataSource);
+        if (managerMap != null && managerMap.get(database) != null) {
+            return managerMap.get(database);
         }
-        return getCollectionManagerMap().get(dataSource).get(database);
+        Map<String, CollectionManager> newManagerMap = managerMap == null ?
+                new LinkedHashMap<>() : new LinkedHashMap<>(managerMap);
+        CollectionManager collectionManager = new CollectionManager(dataSource, database);
+        newManagerMap.put(database, collectionManager);
+        getMongoDatabase().add(getMongoClient().getDatabase(database));
+        getCollectionManagerMap().put(dataSource, newManagerMap);
+        return collectionManager;
     }
 
     public String getDatabase(Class<?> clazz){
@@ -148,11 +215,7 @@ public class MongoPlusClient {
     }
 
     public void setCollectionManagerMap(String database) {
-        CollectionManager collectionManager = new CollectionManager(database);
-        getMongoDatabase().add(getMongoClient().getDatabase(database));
-        getCollectionManagerMap().put(DataSourceNameCache.getDataSource(),new ConcurrentHashMap<String,CollectionManager>(){{
-            put(database, collectionManager);
-        }});
+        addCollectionManager(DataSourceNameCache.getDataSource(), database);
     }
 
     public void setCollectionManagerMap(Map<String,Map<String,CollectionManager>> collectionManagerMap) {
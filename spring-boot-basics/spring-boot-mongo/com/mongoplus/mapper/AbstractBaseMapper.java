@@ -1,6 +1,7 @@
 package com.mongoplus.mapper;
 
 import com.mongodb.BasicDBObject;
+import com.mongodb.MongoCommandException;
 import com.mongodb.bulk.BulkWriteResult;
 import com.mongodb.client.AggregateIterable;
 import com.mongodb.client.FindIterable;
@@ -10,6 +11,9 @@ import com.mongodb.client.model.*;
 import com.mongodb.client.result.InsertManyResult;
 import com.mongodb.client.result.InsertOneResult;
 import com.mongoplus.aggregate.Aggregate;
+import com.mongoplus.cache.global.CountCache;
+import com.mongoplus.cache.global.DataSourceNameCache;
+import com.mongoplus.cache.global.PropertyCache;
 import com.mongoplus.conditions.interfaces.condition.CompareCondition;
 import com.mongoplus.conditions.query.QueryChainWrapper;
 import com.mongoplus.conditions.query.QueryWrapper;
@@ -18,16 +22,21 @@ import com.mongoplus.enums.CommandOperate;
 import com.mongoplus.execute.Execute;
 import com.mongoplus.execute.ExecutorFactory;
 import com.mongoplus.index.impl.DefaultBaseIndexImpl;
+import com.mongoplus.interceptor.Interceptor;
 import com.mongoplus.interceptor.InterceptorChain;
 import com.mongoplus.interceptor.business.TenantInterceptor;
 import com.mongoplus.logging.Log;
 import com.mongoplus.logging.LogFactory;
 import com.mongoplus.logic.LogicDeleteHandler;
+import com.mongoplus.manager.LogicManager;
 import com.mongoplus.manager.MongoPlusClient;
 import com.mongoplus.manager.TenantManager;
 import com.mongoplus.mapping.MongoConverter;
 import com.mongoplus.mapping.TypeReference;
 import com.mongoplus.model.BaseConditionResult;
+import com.mongoplus.model.KeysetPageParam;
+import com.mongoplus.model.KeysetPageResult;
+import com.mongoplus.model.MongoPlusCursor;
 import com.mongoplus.model.MutablePair;
 import com.mongoplus.model.PageParam;
 import com.mongoplus.model.PageResult;
@@ -40,9 +49,16 @@ import org.bson.conversions.Bson;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
 
 import static com.mongoplus.constant.SqlOperationConstant._ID;
 import static com.mongoplus.enums.SpecialConditionEnum.EQ;
@@ -57,6 +73,15 @@ public abstract class AbstractBaseMapper extends DefaultBaseIndexImpl implements
 
     private final Log log = LogFactory.getLog(AbstractBaseMapper.class);
 
+    private static final String FACET_TOTAL = "total";
+
+    private static final String FACET_DATA = "data";
+
+    /**
+     * $facet结果超过单个文档大小限制时的错误码
+     */
+    private static final Set<Integer> FACET_TOO_LARGE_CODES = new HashSet<>(Arrays.asList(10334, 16389, 4031700));
+
     private final MongoPlusClient mongoPlusClient;
 
     private final MongoConverter mongoConverter;
@@ -249,6 +274,49 @@ public abstract class AbstractBaseMapper extends DefaultBaseIndexImpl implements
                 InterceptorChain.getInterceptor(interceptor -> interceptor instanceof TenantInterceptor) == null);
     }
 
+    /**
+     * 提交分页的count任务，条件构造器设置了count缓存时，优先使用未过期的缓存
+     * @param condition 查询条件，作为缓存key的一部分
+     * @param keySuffix 缓存key的附加部分，用于区分不同的count方式
+     * @param countCallable count任务
+     * @return {@link Future<Long>}
+     * @author anwen
+     */
+    private Future<Long> submitCount(String database, String collectionName, QueryChainWrapper<?, ?> queryChainWrapper,
+                                     BasicDBObject condition, String keySuffix, Callable<Long> countCallable) {
+        long countCacheMillis = queryChainWrapper.getCountCacheMillis();
+        if (countCacheMillis <= 0) {
+            return ConcurrentUtil.submit(countCallable);
+        }
+        // 缓存key需要在调用线程中生成，租户id可能来自调用线程的上下文
+        String key = getCountCacheKey(database, collectionName, condition, keySuffix);
+        Long cacheCount = CountCache.get(key);
+        if (cacheCount != null) {
+            return CompletableFuture.completedFuture(cacheCount);
+        }
+        return ConcurrentUtil.submit(() -> {
+            Long count = countCallable.call();
+            CountCache.put(key, count, countCacheMillis);
+            return count;
+        });
+    }
+
+    private String getCountCacheKey(String database, String collectionName, BasicDBObject condition,
+                                    String keySuffix) {
+        Object tenantId = null;
+        if (TenantManager.getIgnoreTenant() == null) {
+            Interceptor interceptor = InterceptorChain.getInterceptor(
+                    tenantInterceptor -> tenantInterceptor instanceof TenantInterceptor
+            );
+            if (interceptor != null) {
+                tenantId = ((TenantInterceptor) interceptor).getTenantHandler().getTenantId();
+            }
+        }
+        return DataSourceNameCache.getDataSource() + "|" + database + "." + collectionName + "|"
+                + (condition == null ? "{}" : condition.toJson()) + "|" + tenantId + "|"
+                + LogicManager.isIgnoreLogic() + "|" + keySuffix;
+    }
+
     @Override
     public long recentPageCount(String database, String collectionName, List<CompareCondition> compareConditionList,
                                 Integer pageNum, Integer pageSize, Integer recentPageNum) {
@@ -319,6 +387,24 @@ public abstract class AbstractBaseMapper extends DefaultBaseIndexImpl implements
         return mongoConverter.read(documentFindIterable, typeReference);
     }
 
+    @Override
+    public <T, R> MongoPlusCursor<R> cursor(String database, String collectionName,
+                                        QueryChainWrapper<T, ?> queryChainWrapper, Integer batchSize,
+                                        TypeReference<R> typeReference) {
+        BaseConditionResult baseConditionResult = queryChainWrapper != null ? queryChainWrapper.buildCondition() : null;
+        FindIterable<Document> documentFindIterable = factory.getExecute().executeQuery(
+                baseConditionResult != null ? baseConditionResult.getCondition() : null,
+                baseConditionResult != null ? baseConditionResult.getProjection() : null,
+                baseConditionResult != null ? baseConditionResult.getSort() : null,
+                Document.class,
+                mongoPlusClient.getCollection(database, collectionName)
+        );
+        if (batchSize != null) {
+            documentFindIterable.batchSize(batchSize);
+        }
+        return mongoConverter.cursor(documentFindIterable, typeReference);
+    }
+
     @Override
     public <R> List<R> aggregateList(String database, String collectionName, Aggregate<?> aggregate, Class<R> rClazz) {
         return aggregateList(database, collectionName, aggregate, new TypeReference<R>(rClazz) {
@@ -398,12 +484,18 @@ public abstract class AbstractBaseMapper extends DefaultBaseIndexImpl implements
                                      Integer pageNum, Integer pageSize, TypeReference<R> typeReference) {
         BaseConditionResult baseConditionResult = queryChainWrapper.buildCondition();
         MongoCollection<Document> collection = mongoPlusClient.getCollection(database, collectionName);
-        long count;
-        if (canEstimatedDocumentCount(collection, queryChainWrapper)) {
-            count = factory.getExecute().estimatedDocumentCount(collection);
-        } else {
-            count = count(database, collectionName, queryChainWrapper);
+        PageParam pageParam = new PageParam(pageNum, pageSize);
+        if (useFacetPage(collection, queryChainWrapper, pageParam)) {
+            PageResult<R> pageResult = facetPage(database, collectionName, queryChainWrapper, baseConditionResult,
+                    collection, pageParam, typeReference);
+            if (pageResult != null) {
+                return pageResult;
+            }
         }
+        // count与数据查询并发执行
+        Future<Long> count = submitCount(database, collectionName, queryChainWrapper,
+                baseConditionResult.getCondition(), null,
+                () -> count(database, collectionName, queryChainWrapper));
         FindIterable<Document> iterable = factory.getExecute().executeQuery(
                 baseConditionResult.getCondition(),
                 baseConditionResult.getProjection(),
@@ -414,12 +506,194 @@ public abstract class AbstractBaseMapper extends DefaultBaseIndexImpl implements
         return getPageResult(
                 iterable,
                 count,
-                new PageParam(pageNum, pageSize),
+                pageParam,
                 typeReference,
                 mongoConverter
         );
     }
 
+    /**
+     * 是否使用$facet分页
+     * <p>不带条件可以使用estimatedDocumentCount，或者count已被缓存时，两次查询的开销更小</p>
+     */
+    private boolean useFacetPage(MongoCollection<Document> collection, QueryChainWrapper<?, ?> queryChainWrapper,
+                                 PageParam pageParam) {
+        Boolean facetPage = queryChainWrapper.getFacetPage();
+        if (facetPage == null) {
+            facetPage = PropertyCache.facetPage;
+        }
+        return facetPage
+                && pageParam.getPageSize() <= PropertyCache.facetPageMaxSize
+                && !canEstimatedDocumentCount(collection, queryChainWrapper);
+    }
+
+    /**
+     * 使用$match+$facet在一次查询中获取总数和当前页的数据
+     * @return {@link PageResult<R>} 命中count缓存或结果超过单个文档的大小限制时返回null，需要使用两次查询
+     * @author anwen
+     */
+    private <R> PageResult<R> facetPage(String database, String collectionName,
+                                        QueryChainWrapper<?, ?> queryChainWrapper,
+                                        BaseConditionResult baseConditionResult,
+                                        MongoCollection<Document> collection, PageParam pageParam,
+                                        TypeReference<R> typeReference) {
+        long countCacheMillis = queryChainWrapper.getCountCacheMillis();
+        String countCacheKey = null;
+        if (countCacheMillis > 0) {
+            countCacheKey = getCountCacheKey(database, collectionName, baseConditionResult.getCondition(), null);
+            if (CountCache.get(countCacheKey) != null) {
+                return null;
+            }
+        }
+        List<Bson> pipeline = conditionPipeline(baseConditionResult.getCondition(), baseConditionResult.getSort());
+        List<Bson> dataPipeline = new ArrayList<>();
+        addPageStages(dataPipeline, pageParam);
+        BasicDBObject projection = baseConditionResult.getProjection();
+        if (projection != null && !projection.isEmpty()) {
+            dataPipeline.add(new Document("$project", projection));
+        }
+        PageResult<R> pageResult = facetPage(collection, pipeline, dataPipeline, null, pageParam, typeReference);
+        if (pageResult != null && countCacheKey != null) {
+            CountCache.put(countCacheKey, pageResult.getTotalSize(), countCacheMillis);
+        }
+        return pageResult;
+    }
+
+    /**
+     * 条件构造器分页在$facet之前的管道
+     * <p>$match总是存在，即使条件为空，逻辑删除等拦截器会合并到其中，否则会被追加到$facet之后，过滤掉分页结果；
+     * 排序放在$facet之前，$facet的子管道不能使用索引，放在data分支中会对所有匹配的文档做内存排序</p>
+     * @param condition 查询条件
+     * @param sort 排序
+     * @return {@link List<Bson>}
+     * @author anwen
+     */
+    static List<Bson> conditionPipeline(BasicDBObject condition, BasicDBObject sort) {
+        List<Bson> pipeline = new ArrayList<>();
+        pipeline.add(new Document("$match", condition == null ? new BasicDBObject() : condition));
+        if (sort != null && !sort.isEmpty()) {
+            pipeline.add(new Document("$sort", sort));
+        }
+        return pipeline;
+    }
+
+    /**
+     * 拼接$facet阶段，total分支统计总数，data分支获取当前页
+     * @param pipeline $facet之前的管道
+     * @param dataPipeline 数据分支的管道
+     * @return {@link List<Bson>} 新的管道
+     * @author anwen
+     */
+    static List<Bson> facetPipeline(List<Bson> pipeline, List<Bson> dataPipeline) {
+        List<Bson> facetPipeline = new ArrayList<>(pipeline.size() + 1);
+        facetPipeline.addAll(pipeline);
+        facetPipeline.add(new Document("$facet", new Document(FACET_TOTAL,
+                Collections.singletonList(new Document("$count", FACET_TOTAL)))
+                .append(FACET_DATA, dataPipeline)));
+        return facetPipeline;
+    }
+
+    /**
+     * 执行$facet分页
+     * @param pipeline $facet之前的管道
+     * @param dataPipeline 数据分支的管道
+     * @param aggregateOptions 管道选项，可以为null
+     * @return {@link PageResult<R>} 结果超过单个文档的大小限制时返回null
+     * @author anwen
+     */
+    @SuppressWarnings("unchecked")
+    private <R> PageResult<R> facetPage(MongoCollection<Document> collection, List<Bson> pipeline,
+                                        List<Bson> dataPipeline, BasicDBObject aggregateOptions,
+                                        PageParam pageParam, TypeReference<R> typeReference) {
+        List<Bson> facetPipeline = facetPipeline(pipeline, dataPipeline);
+        Document result;
+        try {
+            AggregateIterable<Document> aggregateIterable = factory.getExecute().executeAggregate(
+                    facetPipeline, Document.class, collection);
+            if (aggregateOptions != null) {
+                AggregateUtil.aggregateOptions(aggregateIterable, aggregateOptions);
+            }
+            result = aggregateIterable.first();
+        } catch (MongoCommandException e) {
+            if (FACET_TOO_LARGE_CODES.contains(e.getErrorCode())) {
+                log.warn("The $facet page result on {} exceeds the document size limit, fall back to two queries",
+                        collection.getNamespace().getFullName());
+                return null;
+            }
+            throw e;
+        }
+        long totalSize = 0;
+        List<R> pageContentData = new ArrayList<>();
+        if (result != null) {
+            List<Document> totalList = (List<Document>) result.get(FACET_TOTAL);
+            if (CollUtil.isNotEmpty(totalList)) {
+                totalSize = ((Number) totalList.get(0).get(FACET_TOTAL)).longValue();
+            }
+            List<Document> dataList = (List<Document>) result.get(FACET_DATA);
+            if (dataList != null) {
+                dataList.forEach(document -> pageContentData.add(mongoConverter.read(document, typeReference)));
+            }
+        }
+        return getPageResult(pageContentData, totalSize, pageParam);
+    }
+
+    private static void addPageStages(List<Bson> pipeline, PageParam pageParam) {
+        long skip = (long) (pageParam.getPageNum() - 1) * pageParam.getPageSize();
+        if (skip > 0) {
+            pipeline.add(new Document("$skip", skip));
+        }
+        pipeline.add(new Document("$limit", pageParam.getPageSize()));
+    }
+
+    @Override
+    public <R> PageResult<R> aggregatePage(String database, String collectionName, Aggregate<?> aggregate,
+                                           Integer pageNum, Integer pageSize, Class<R> rClazz) {
+        return aggregatePage(database, collectionName, aggregate, pageNum, pageSize, new TypeReference<R>(rClazz) {
+        });
+    }
+
+    @Override
+    public <R> PageResult<R> aggregatePage(String database, String collectionName, Aggregate<?> aggregate,
+                                           Integer pageNum, Integer pageSize, TypeReference<R> typeReference) {
+        MongoCollection<Document> collection = mongoPlusClient.getCollection(database, collectionName);
+        // 保证开头有$match，拦截器的条件合并到其中，而不是追加到$facet、$count和分页阶段之后
+        List<Bson> pipeline = AggregateUtil.withLeadingMatch(aggregate.getAggregateConditionList());
+        BasicDBObject aggregateOptions = aggregate.getAggregateOptions();
+        PageParam pageParam = new PageParam(pageNum, pageSize);
+        List<Bson> dataPipeline = new ArrayList<>();
+        addPageStages(dataPipeline, pageParam);
+        if (PropertyCache.facetPage && pageSize <= PropertyCache.facetPageMaxSize) {
+            PageResult<R> pageResult = facetPage(collection, pipeline, dataPipeline, aggregateOptions, pageParam,
+                    typeReference);
+            if (pageResult != null) {
+                return pageResult;
+            }
+        }
+        // count与数据查询并发执行
+        List<Bson> countPipeline = new ArrayList<>(pipeline);
+        countPipeline.add(new Document("$count", FACET_TOTAL));
+        Future<Long> count = ConcurrentUtil.submit(() -> {
+            AggregateIterable<Document> aggregateIterable = factory.getExecute().executeAggregate(
+                    countPipeline, Document.class, collection);
+            AggregateUtil.aggregateOptions(aggregateIterable, aggregateOptions);
+            Document document = aggregateIterable.first();
+            return document == null ? 0L : ((Number) document.get(FACET_TOTAL)).longValue();
+        });
+        List<Bson> pagePipeline = new ArrayList<>(pipeline);
+        pagePipeline.addAll(dataPipeline);
+        List<R> pageContentData;
+        try {
+            AggregateIterable<Document> aggregateIterable = factory.getExecute().executeAggregate(
+                    pagePipeline, Document.class, collection);
+            AggregateUtil.aggregateOptions(aggregateIterable, aggregateOptions);
+            pageContentData = mongoConverter.read(aggregateIterable, typeReference);
+        } catch (RuntimeException e) {
+            count.cancel(false);
+            throw e;
+        }
+        return getPageResult(pageContentData, ConcurrentUtil.join(count), pageParam);
+    }
+
     @Override
     public <T, R> List<R> pageList(String database, String collectionName, QueryChainWrapper<T, ?> queryChainWrapper,
                                    Integer pageNum, Integer pageSize, Class<R> rClazz) {
@@ -455,12 +729,13 @@ public abstract class AbstractBaseMapper extends DefaultBaseIndexImpl implements
                                      Integer pageNum, Integer pageSize, Integer recentPageNum, TypeReference<R> typeReference) {
         BaseConditionResult baseConditionResult = queryChainWrapper.buildCondition();
         MongoCollection<Document> collection = mongoPlusClient.getCollection(database, collectionName);
-        long count;
-        if (canEstimatedDocumentCount(collection, queryChainWrapper)) {
-            count = factory.getExecute().estimatedDocumentCount(collection);
-        } else {
-            count = recentPageCount(database, collectionName, queryChainWrapper.getCompareList(), pageNum, pageSize, recentPageNum);
-        }
+        // count与数据查询并发执行
+        Future<Long> count = submitCount(database, collectionName, queryChainWrapper,
+                baseConditionResult.getCondition(), pageNum + "," + pageSize + "," + recentPageNum,
+                () -> canEstimatedDocumentCount(collection, queryChainWrapper)
+                        ? factory.getExecute().estimatedDocumentCount(collection)
+                        : recentPageCount(database, collectionName, queryChainWrapper.getCompareList(), pageNum,
+                        pageSize, recentPageNum));
         FindIterable<Document> iterable = factory.getExecute().executeQuery(
                 baseConditionResult.getCondition(),
                 baseConditionResult.getProjection(),
@@ -476,6 +751,63 @@ public abstract class AbstractBaseMapper extends DefaultBaseIndexImpl implements
         );
     }
 
+    @Override
+    public <T, R> KeysetPageResult<R> keysetPage(String database, String collectionName,
+                                                 QueryChainWrapper<T, ?> queryChainWrapper,
+                                                 KeysetPageParam keysetPageParam, TypeReference<R> typeReference) {
+        Assert.isTrue(keysetPageParam.getPageSize() != null && keysetPageParam.getPageSize() > 0,
+                () -> "Keyset pagination 'pageSize' must be positive: " + keysetPageParam.getPageSize());
+        BaseConditionResult baseConditionResult = queryChainWrapper.buildCondition();
+        MongoCollection<Document> collection = mongoPlusClient.getCollection(database, collectionName);
+        Future<Long> count = keysetPageParam.isSearchCount()
+                ? submitCount(database, collectionName, queryChainWrapper, baseConditionResult.getCondition(), null,
+                () -> count(database, collectionName, queryChainWrapper))
+                : CompletableFuture.completedFuture(-1L);
+        String token = keysetPageParam.getToken();
+        boolean backward = token != null && keysetPageParam.isBackward();
+        int pageSize = keysetPageParam.getPageSize();
+        LinkedHashMap<String, Integer> sortMap = KeysetUtil.getSort(baseConditionResult.getSort());
+        BasicDBObject condition = baseConditionResult.getCondition();
+        if (token != null) {
+            condition = KeysetUtil.and(
+                    condition,
+                    KeysetUtil.getSeekCondition(sortMap, KeysetUtil.decode(token, sortMap), backward)
+            );
+        }
+        // 多查询一条，用于判断是否还有更多数据
+        List<Document> documentList;
+        try {
+            documentList = factory.getExecute().executeQuery(
+                    condition,
+                    KeysetUtil.getProjection(baseConditionResult.getProjection(), sortMap.keySet()),
+                    KeysetUtil.getSortCondition(sortMap, backward),
+                    Document.class,
+                    collection
+            ).limit(pageSize + 1).into(new ArrayList<>(pageSize + 1));
+        } catch (RuntimeException e) {
+            count.cancel(false);
+            throw e;
+        }
+        boolean hasMore = documentList.size() > pageSize;
+        if (hasMore) {
+            documentList.remove(pageSize);
+        }
+        if (backward) {
+            Collections.reverse(documentList);
+        }
+        boolean hasNext = backward || hasMore;
+        boolean hasPrevious = backward ? hasMore : token != null;
+        String nextToken = null;
+        String previousToken = null;
+        if (!documentList.isEmpty()) {
+            nextToken = hasNext ? KeysetUtil.encode(sortMap, documentList.get(documentList.size() - 1)) : null;
+            previousToken = hasPrevious ? KeysetUtil.encode(sortMap, documentList.get(0)) : null;
+        }
+        List<R> contentData = new ArrayList<>(documentList.size());
+        documentList.forEach(document -> contentData.add(mongoConverter.read(document, typeReference)));
+        return new KeysetPageResult<>(pageSize, ConcurrentUtil.join(count), contentData, nextToken, previousToken);
+    }
+
     @Override
     public <R> List<R> getByIds(String database, String collectionName, Collection<? extends Serializable> ids,
                                 Class<R> rClazz) {
@@ -570,8 +902,13 @@ public abstract class AbstractBaseMapper extends DefaultBaseIndexImpl implements
 
     @Override
     public <T> List<T> command(String database, String command, TypeReference<T> typeReference) {
+        return command(database, command, typeReference, (Object[]) null);
+    }
+
+    @Override
+    public <T> List<T> command(String database, String command, TypeReference<T> typeReference, Object... args) {
         Execute execute = factory.getExecute();
-        ParseCommand parseCommand = CommandParse.parserInstance.parse(command);
+        ParseCommand parseCommand = CommandParse.parserInstance.parse(command, args);
         CommandOperate commandOperate = CommandOperate.getCommandOperate(parseCommand.getOperate());
         MongoCollection<Document> collection = mongoPlusClient.getCollection(database,parseCommand.getCollection());
         MongoIterable<Document> iterable;
@@ -598,6 +935,38 @@ public abstract class AbstractBaseMapper extends DefaultBaseIndexImpl implements
                         .limit(pageParams.getPageSize()),
                 typeReference
         );
+        return getPageResult(pageContentData, totalSize, pageParams);
+    }
+
+    /**
+     * 获取分页结果，数据查询在当前线程中执行，完成后等待并发执行的count
+     * @param documentFindIterable 查询
+     * @param totalSize 并发执行的count，-1表示不查询总条数
+     * @param pageParams 分页参数
+     * @param typeReference 返回值类型
+     * @param mongoConverter 转换器
+     * @return {@link PageResult<T>}
+     * @author anwen
+     */
+    public <T> PageResult<T> getPageResult(FindIterable<Document> documentFindIterable, Future<Long> totalSize,
+                                           PageParam pageParams, TypeReference<T> typeReference,
+                                           MongoConverter mongoConverter) {
+        List<T> pageContentData;
+        try {
+            pageContentData = mongoConverter.read(
+                    documentFindIterable
+                            .skip((pageParams.getPageNum() - 1) * pageParams.getPageSize())
+                            .limit(pageParams.getPageSize()),
+                    typeReference
+            );
+        } catch (RuntimeException e) {
+            totalSize.cancel(false);
+            throw e;
+        }
+        return getPageResult(pageContentData, ConcurrentUtil.join(totalSize), pageParams);
+    }
+
+    private <T> PageResult<T> getPageResult(List<T> pageContentData, long totalSize, PageParam pageParams) {
         // 不查询总条数，总条数=当前页的总数
         if (totalSize == -1) {
             totalSize = pageContentData.size();
@@ -8,6 +8,9 @@ import com.mongoplus.conditions.query.QueryChainWrapper;
 import com.mongoplus.conditions.query.QueryWrapper;
 import com.mongoplus.conditions.update.UpdateChainWrapper;
 import com.mongoplus.mapping.TypeReference;
+import com.mongoplus.model.KeysetPageParam;
+import com.mongoplus.model.KeysetPageResult;
+import com.mongoplus.model.MongoPlusCursor;
 import com.mongoplus.model.PageResult;
 import org.bson.Document;
 import org.bson.conversions.Bson;
@@ -15,6 +18,8 @@ import org.bson.conversions.Bson;
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 
 /**
@@ -286,6 +291,54 @@ public interface BaseMapper extends Mapper {
      */
     <T,R> List<R> list(QueryChainWrapper<T,?> queryChainWrapper, Class<T> clazz, TypeReference<R> typeReference);
 
+    /**
+     * 根据条件查询，返回逐条映射的游标，不会将结果集全部加载到内存
+     * @param queryChainWrapper 条件，为null则查询所有
+     * @param batchSize 每批从服务端获取的数量，为null则使用驱动的默认值
+     * @param clazz class
+     * @param typeReference 返回值类型
+     * @return {@link MongoPlusCursor<R>}
+     * @author anwen
+     */
+    <T,R> MongoPlusCursor<R> cursor(QueryChainWrapper<T,?> queryChainWrapper, Integer batchSize, Class<T> clazz, TypeReference<R> typeReference);
+
+    /**
+     * 根据条件查询，返回逐条映射的游标，不会将结果集全部加载到内存
+     * @param queryChainWrapper 条件，为null则查询所有
+     * @param batchSize 每批从服务端获取的数量，为null则使用驱动的默认值
+     * @param clazz class
+     * @param rClazz 返回值类型
+     * @return {@link MongoPlusCursor<R>}
+     * @author anwen
+     */
+    default <T,R> MongoPlusCursor<R> cursor(QueryChainWrapper<T,?> queryChainWrapper, Integer batchSize, Class<T> clazz, Class<R> rClazz){
+        return cursor(queryChainWrapper, batchSize, clazz, new TypeReference<R>(rClazz){});
+    }
+
+    /**
+     * 根据条件查询，返回逐条映射的Stream，使用完毕后需要关闭，推荐使用try-with-resources
+     * @param queryChainWrapper 条件，为null则查询所有
+     * @param batchSize 每批从服务端获取的数量，为null则使用驱动的默认值
+     * @param clazz class
+     * @return {@link Stream<T>}
+     * @author anwen
+     */
+    default <T> Stream<T> stream(QueryChainWrapper<T,?> queryChainWrapper, Integer batchSize, Class<T> clazz){
+        return cursor(queryChainWrapper, batchSize, clazz, clazz).stream();
+    }
+
+    /**
+     * 根据条件查询，逐条处理，结束后关闭游标
+     * @param queryChainWrapper 条件，为null则查询所有
+     * @param batchSize 每批从服务端获取的数量，为null则使用驱动的默认值
+     * @param clazz class
+     * @param action 处理每条数据
+     * @author anwen
+     */
+    default <T> void forEach(QueryChainWrapper<T,?> queryChainWrapper, Integer batchSize, Class<T> clazz, Consumer<? super T> action){
+        cursor(queryChainWrapper, batchSize, clazz, clazz).forEachRemaining(action);
+    }
+
     /**
      * 管道查询
      * @param aggregate 管道构建
@@ -346,6 +399,30 @@ public interface BaseMapper extends Mapper {
      */
     <T,R> R aggregateOne(Aggregate<?> aggregate, Class<T> clazz, TypeReference<R> typeReference);
 
+    /**
+     * 管道分页查询
+     * @param aggregate 管道构建
+     * @param pageNum 当前页
+     * @param pageSize 每页显示行数
+     * @param clazz class
+     * @return {@link PageResult<R>}
+     * @author anwen
+     */
+    <T,R> PageResult<R> aggregatePage(Aggregate<?> aggregate, Integer pageNum, Integer pageSize, Class<T> clazz, TypeReference<R> typeReference);
+
+    /**
+     * 管道分页查询
+     * @param aggregate 管道构建
+     * @param pageNum 当前页
+     * @param pageSize 每页显示行数
+     * @param clazz class
+     * @return {@link PageResult<R>}
+     * @author anwen
+     */
+    default <T,R> PageResult<R> aggregatePage(Aggregate<?> aggregate, Integer pageNum, Integer pageSize, Class<T> clazz, Class<R> rClazz){
+        return aggregatePage(aggregate, pageNum, pageSize, clazz, new TypeReference<R>(rClazz){});
+    }
+
     /**
      * 根据条件查询单个
      * @param queryChainWrapper 条件
@@ -420,6 +497,28 @@ public interface BaseMapper extends Mapper {
      */
     <T,R> PageResult<R> page(QueryChainWrapper<T,?> queryChainWrapper, Integer pageNum, Integer pageSize, Class<T> clazz,TypeReference<R> typeReference);
 
+    /**
+     * 游标分页查询，根据上一页的游标定位，不使用skip，翻页的耗时与页码无关
+     * @param queryChainWrapper 条件
+     * @param keysetPageParam 游标分页参数
+     * @param clazz class
+     * @return {@link KeysetPageResult<R>}
+     * @author anwen
+     */
+    <T,R> KeysetPageResult<R> keysetPage(QueryChainWrapper<T,?> queryChainWrapper, KeysetPageParam keysetPageParam, Class<T> clazz,TypeReference<R> typeReference);
+
+    /**
+     * 游标分页查询，根据上一页的游标定位，不使用skip，翻页的耗时与页码无关
+     * @param queryChainWrapper 条件
+     * @param keysetPageParam 游标分页参数
+     * @param clazz class
+     * @return {@link KeysetPageResult<R>}
+     * @author anwen
+     */
+    default <T,R> KeysetPageResult<R> keysetPage(QueryChainWrapper<T,?> queryChainWrapper, KeysetPageParam keysetPageParam, Class<T> clazz,Class<R> rClazz){
+        return keysetPage(queryChainWrapper, keysetPageParam, clazz, new TypeReference<R>(rClazz){});
+    }
+
     /**
      * 分页查询，返回List，不进行count查询，比page查询效率高
      * @param pageNum 当前页
@@ -10,6 +10,9 @@ import com.mongoplus.execute.ExecutorFactory;
 import com.mongoplus.manager.MongoPlusClient;
 import com.mongoplus.mapping.MongoConverter;
 import com.mongoplus.mapping.TypeReference;
+import com.mongoplus.model.KeysetPageParam;
+import com.mongoplus.model.KeysetPageResult;
+import com.mongoplus.model.MongoPlusCursor;
 import com.mongoplus.model.MutablePair;
 import com.mongoplus.model.PageResult;
 import org.bson.Document;
@@ -101,6 +104,13 @@ public class DefaultBaseMapperImpl extends AbstractBaseMapper {
         return list(namespace.left, namespace.right, queryChainWrapper, typeReference);
     }
 
+    @Override
+    public <T, R> MongoPlusCursor<R> cursor(QueryChainWrapper<T, ?> queryChainWrapper, Integer batchSize, Class<T> clazz,
+                                        TypeReference<R> typeReference) {
+        MutablePair<String, String> namespace = getNamespace(clazz);
+        return cursor(namespace.left, namespace.right, queryChainWrapper, batchSize, typeReference);
+    }
+
     @Override
     public <T, R> List<R> aggregateList(Aggregate<?> aggregate, Class<T> clazz, Class<R> rClazz) {
         MutablePair<String, String> namespace = getNamespace(clazz);
@@ -125,6 +135,13 @@ public class DefaultBaseMapperImpl extends AbstractBaseMapper {
         return aggregateOne(namespace.left, namespace.right, aggregate, typeReference);
     }
 
+    @Override
+    public <T, R> PageResult<R> aggregatePage(Aggregate<?> aggregate, Integer pageNum, Integer pageSize, Class<T> clazz,
+                                              TypeReference<R> typeReference) {
+        MutablePair<String, String> namespace = getNamespace(clazz);
+        return aggregatePage(namespace.left, namespace.right, aggregate, pageNum, pageSize, typeReference);
+    }
+
     @Override
     public <T, R> R one(QueryChainWrapper<T, ?> queryChainWrapper, Class<T> clazz, Class<R> rClazz) {
         MutablePair<String, String> namespace = getNamespace(clazz);
@@ -166,6 +183,12 @@ public class DefaultBaseMapperImpl extends AbstractBaseMapper {
         return pageList(namespace.left, namespace.right, queryChainWrapper, pageNum, pageSize, typeReference);
     }
 
+    @Override
+    public <T, R> KeysetPageResult<R> keysetPage(QueryChainWrapper<T, ?> queryChainWrapper, KeysetPageParam keysetPageParam, Class<T> clazz, TypeReference<R> typeReference) {
+        MutablePair<String, String> namespace = getNamespace(clazz);
+        return keysetPage(namespace.left, namespace.right, queryChainWrapper, keysetPageParam, typeReference);
+    }
+
     @Override
     public <T, R> PageResult<R> page(QueryChainWrapper<T, ?> queryChainWrapper, Integer pageNum, Integer pageSize, Integer recentPageNum, Class<T> clazz, Class<R> rClazz) {
         MutablePair<String, String> namespace = getNamespace(clazz);
@@ -7,6 +7,7 @@ import com.mongoplus.conditions.query.QueryChainWrapper;
 import com.mongoplus.conditions.update.UpdateChainWrapper;
 import com.mongoplus.mapping.MongoConverter;
 import com.mongoplus.mapping.TypeReference;
+import com.mongoplus.model.MongoPlusCursor;
 import com.mongoplus.model.PageResult;
 import org.bson.Document;
 import org.bson.conversions.Bson;
@@ -168,6 +169,18 @@ public interface Mapper extends SuperMapper {
         return list(EMPTY,collectionName,queryChainWrapper,typeReference);
     }
 
+    /**
+     * 根据条件查询，返回逐条映射的游标，不会将结果集全部加载到内存
+     * @param queryChainWrapper 条件，为null则查询所有
+     * @param batchSize 每批从服务端获取的数量，为null则使用驱动的默认值
+     * @param typeReference 返回值类型
+     * @return {@link MongoPlusCursor<R>}
+     * @author anwen
+     */
+    default <T,R> MongoPlusCursor<R> cursor(String collectionName,QueryChainWrapper<T,?> queryChainWrapper,Integer batchSize,TypeReference<R> typeReference){
+        return cursor(EMPTY,collectionName,queryChainWrapper,batchSize,typeReference);
+    }
+
     /**
      * 管道查询
      * @param aggregate 管道构建
@@ -188,6 +201,26 @@ public interface Mapper extends SuperMapper {
         return aggregateList(EMPTY,collectionName,aggregate,typeReference);
     }
 
+    /**
+     * 管道分页查询
+     * @param aggregate 管道构建
+     * @return {@link PageResult<R>}
+     * @author anwen
+     */
+    default <R> PageResult<R> aggregatePage(String collectionName,Aggregate<?> aggregate, Integer pageNum, Integer pageSize, Class<R> rClazz){
+        return aggregatePage(EMPTY,collectionName,aggregate,pageNum,pageSize,rClazz);
+    }
+
+    /**
+     * 管道分页查询
+     * @param aggregate 管道构建
+     * @return {@link PageResult<R>}
+     * @author anwen
+     */
+    default <R> PageResult<R> aggregatePage(String collectionName,Aggregate<?> aggregate, Integer pageNum, Integer pageSize, TypeReference<R> typeReference){
+        return aggregatePage(EMPTY,collectionName,aggregate,pageNum,pageSize,typeReference);
+    }
+
     /**
      * 根据条件查询单个
      * @param queryChainWrapper 条件
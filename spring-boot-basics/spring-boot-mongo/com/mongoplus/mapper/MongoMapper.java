@@ -9,6 +9,9 @@ import com.mongoplus.aggregate.Aggregate;
 import com.mongoplus.conditions.query.QueryChainWrapper;
 import com.mongoplus.conditions.update.UpdateChainWrapper;
 import com.mongoplus.mapping.TypeReference;
+import com.mongoplus.model.KeysetPageParam;
+import com.mongoplus.model.KeysetPageResult;
+import com.mongoplus.model.MongoPlusCursor;
 import com.mongoplus.model.PageParam;
 import com.mongoplus.model.PageResult;
 import com.mongoplus.support.SFunction;
@@ -17,6 +20,8 @@ import org.bson.Document;
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * mapper层接口，只继承接口即可使用，如果实现类实现了MongoMapperImpl类，则不会自动为接口创建实现类
@@ -471,6 +476,55 @@ public interface MongoMapper<T> {
      */
     <R> List<R> list(QueryChainWrapper<T ,?> queryChainWrapper,TypeReference<R> typeReference);
 
+    /**
+     * 查询游标，逐条映射，不会将结果集全部加载到内存
+     * @param queryChainWrapper 条件
+     * @return {@link MongoPlusCursor<T>}
+     * @author anwen
+     */
+    default MongoPlusCursor<T> cursor(QueryChainWrapper<T ,?> queryChainWrapper){
+        return cursor(queryChainWrapper, null);
+    }
+
+    /**
+     * 查询游标，逐条映射，不会将结果集全部加载到内存
+     * @param queryChainWrapper 条件
+     * @param batchSize 每批从服务端获取的数量，为null则使用驱动的默认值
+     * @return {@link MongoPlusCursor<T>}
+     * @author anwen
+     */
+    MongoPlusCursor<T> cursor(QueryChainWrapper<T ,?> queryChainWrapper,Integer batchSize);
+
+    /**
+     * 查询游标，逐条映射，不会将结果集全部加载到内存
+     * @param queryChainWrapper 条件
+     * @param batchSize 每批从服务端获取的数量，为null则使用驱动的默认值
+     * @param rClazz 返回值类型
+     * @return {@link MongoPlusCursor<R>}
+     * @author anwen
+     */
+    <R> MongoPlusCursor<R> cursor(QueryChainWrapper<T ,?> queryChainWrapper,Integer batchSize,Class<R> rClazz);
+
+    /**
+     * 查询Stream，使用完毕后需要关闭，推荐使用try-with-resources
+     * @param queryChainWrapper 条件
+     * @return {@link Stream<T>}
+     * @author anwen
+     */
+    default Stream<T> stream(QueryChainWrapper<T ,?> queryChainWrapper){
+        return cursor(queryChainWrapper).stream();
+    }
+
+    /**
+     * 逐条处理查询结果，结束后关闭游标
+     * @param queryChainWrapper 条件
+     * @param action 处理每条数据
+     * @author anwen
+     */
+    default void forEach(QueryChainWrapper<T ,?> queryChainWrapper,Consumer<? super T> action){
+        cursor(queryChainWrapper).forEachRemaining(action);
+    }
+
     /**
      * 获取总数
      * @return {@link long}
@@ -684,6 +738,26 @@ public interface MongoMapper<T> {
      */
     <R> PageResult<R> page(QueryChainWrapper<T, ?> queryChainWrapper, PageParam pageParam,TypeReference<R> typeReference);
 
+    /**
+     * 游标分页查询，根据上一页的游标定位，不使用skip，翻页的耗时与页码无关
+     * <p>排序字段取自queryWrapper中的排序，并自动追加_id，下一页使用{@link KeysetPageParam#after(String, Integer)}</p>
+     * @param queryChainWrapper 条件
+     * @param keysetPageParam 游标分页参数
+     * @return {@link KeysetPageResult<T>}
+     * @author anwen
+     */
+    KeysetPageResult<T> keysetPage(QueryChainWrapper<T, ?> queryChainWrapper, KeysetPageParam keysetPageParam);
+
+    /**
+     * 游标分页查询，根据上一页的游标定位，不使用skip，翻页的耗时与页码无关
+     * @param queryChainWrapper 条件
+     * @param keysetPageParam 游标分页参数
+     * @param rClazz 返回值类型
+     * @return {@link KeysetPageResult<R>}
+     * @author anwen
+     */
+    <R> KeysetPageResult<R> keysetPage(QueryChainWrapper<T, ?> queryChainWrapper, KeysetPageParam keysetPageParam,Class<R> rClazz);
+
     /**
      * 分页查询
      * @param queryChainWrapper 条件
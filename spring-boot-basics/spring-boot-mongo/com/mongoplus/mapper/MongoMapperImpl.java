@@ -14,6 +14,9 @@ import com.mongoplus.domain.MongoPlusException;
 import com.mongoplus.handlers.collection.AnnotationOperate;
 import com.mongoplus.mapping.TypeInformation;
 import com.mongoplus.mapping.TypeReference;
+import com.mongoplus.model.KeysetPageParam;
+import com.mongoplus.model.KeysetPageResult;
+import com.mongoplus.model.MongoPlusCursor;
 import com.mongoplus.model.MutablePair;
 import com.mongoplus.model.PageParam;
 import com.mongoplus.model.PageResult;
@@ -407,6 +410,16 @@ public class MongoMapperImpl<T> implements MongoMapper<T> {
         return baseMapper.list(queryChainWrapper, clazz, typeReference);
     }
 
+    @Override
+    public MongoPlusCursor<T> cursor(QueryChainWrapper<T, ?> queryChainWrapper, Integer batchSize) {
+        return cursor(queryChainWrapper, batchSize, clazz);
+    }
+
+    @Override
+    public <R> MongoPlusCursor<R> cursor(QueryChainWrapper<T, ?> queryChainWrapper, Integer batchSize, Class<R> rClazz) {
+        return baseMapper.cursor(queryChainWrapper, batchSize, clazz, rClazz);
+    }
+
     @Override
     public long count() {
         return baseMapper.count(clazz);
@@ -422,6 +435,16 @@ public class MongoMapperImpl<T> implements MongoMapper<T> {
         return page(queryChainWrapper, pageNum, pageSize, clazz);
     }
 
+    @Override
+    public KeysetPageResult<T> keysetPage(QueryChainWrapper<T, ?> queryChainWrapper, KeysetPageParam keysetPageParam) {
+        return keysetPage(queryChainWrapper, keysetPageParam, clazz);
+    }
+
+    @Override
+    public <R> KeysetPageResult<R> keysetPage(QueryChainWrapper<T, ?> queryChainWrapper, KeysetPageParam keysetPageParam, Class<R> rClazz) {
+        return baseMapper.keysetPage(queryChainWrapper, keysetPageParam, clazz, rClazz);
+    }
+
     @Override
     public PageResult<T> page(QueryChainWrapper<T, ?> queryChainWrapper, PageParam pageParam) {
         return page(queryChainWrapper, pageParam.getPageNum(), pageParam.getPageSize());
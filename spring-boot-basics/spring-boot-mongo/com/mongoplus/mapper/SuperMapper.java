@@ -11,6 +11,9 @@ import com.mongoplus.index.BaseIndex;
 import com.mongoplus.manager.MongoPlusClient;
 import com.mongoplus.mapping.MongoConverter;
 import com.mongoplus.mapping.TypeReference;
+import com.mongoplus.model.KeysetPageParam;
+import com.mongoplus.model.KeysetPageResult;
+import com.mongoplus.model.MongoPlusCursor;
 import com.mongoplus.model.PageResult;
 import org.bson.Document;
 import org.bson.conversions.Bson;
@@ -18,6 +21,8 @@ import org.bson.conversions.Bson;
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import static com.mongoplus.toolkit.StringPool.EMPTY;
 
@@ -298,6 +303,40 @@ public interface SuperMapper extends BaseIndex {
      */
     <T,R> List<R> list(String database,String collectionName,QueryChainWrapper<T,?> queryChainWrapper, TypeReference<R> typeReference);
 
+    /**
+     * 根据条件查询，返回逐条映射的游标，不会将结果集全部加载到内存
+     * @param queryChainWrapper 条件，为null则查询所有
+     * @param batchSize 每批从服务端获取的数量，为null则使用驱动的默认值
+     * @param typeReference 返回值类型
+     * @return {@link MongoPlusCursor<R>}
+     * @author anwen
+     */
+    <T,R> MongoPlusCursor<R> cursor(String database,String collectionName,QueryChainWrapper<T,?> queryChainWrapper,Integer batchSize,TypeReference<R> typeReference);
+
+    /**
+     * 根据条件查询，返回逐条映射的Stream，使用完毕后需要关闭，推荐使用try-with-resources
+     * @param queryChainWrapper 条件，为null则查询所有
+     * @param batchSize 每批从服务端获取的数量，为null则使用驱动的默认值
+     * @param typeReference 返回值类型
+     * @return {@link Stream<R>}
+     * @author anwen
+     */
+    default <T,R> Stream<R> stream(String database,String collectionName,QueryChainWrapper<T,?> queryChainWrapper,Integer batchSize,TypeReference<R> typeReference){
+        return cursor(database,collectionName,queryChainWrapper,batchSize,typeReference).stream();
+    }
+
+    /**
+     * 根据条件查询，逐条处理，结束后关闭游标
+     * @param queryChainWrapper 条件，为null则查询所有
+     * @param batchSize 每批从服务端获取的数量，为null则使用驱动的默认值
+     * @param typeReference 返回值类型
+     * @param action 处理每条数据
+     * @author anwen
+     */
+    default <T,R> void forEach(String database,String collectionName,QueryChainWrapper<T,?> queryChainWrapper,Integer batchSize,TypeReference<R> typeReference,Consumer<? super R> action){
+        cursor(database,collectionName,queryChainWrapper,batchSize,typeReference).forEachRemaining(action);
+    }
+
     /**
      * 管道查询
      * @param aggregate 管道构建
@@ -330,6 +369,26 @@ public interface SuperMapper extends BaseIndex {
      */
     <R> R aggregateOne(String database,String collectionName,Aggregate<?> aggregate, TypeReference<R> typeReference);
 
+    /**
+     * 管道分页查询，开启{@link com.mongoplus.cache.global.PropertyCache#facetPage}时使用$facet在一次查询中获取总数和数据
+     * @param aggregate 管道构建
+     * @param pageNum 当前页
+     * @param pageSize 每页显示行数
+     * @return {@link PageResult<R>}
+     * @author anwen
+     */
+    <R> PageResult<R> aggregatePage(String database,String collectionName,Aggregate<?> aggregate, Integer pageNum, Integer pageSize, Class<R> rClazz);
+
+    /**
+     * 管道分页查询，开启{@link com.mongoplus.cache.global.PropertyCache#facetPage}时使用$facet在一次查询中获取总数和数据
+     * @param aggregate 管道构建
+     * @param pageNum 当前页
+     * @param pageSize 每页显示行数
+     * @return {@link PageResult<R>}
+     * @author anwen
+     */
+    <R> PageResult<R> aggregatePage(String database,String collectionName,Aggregate<?> aggregate, Integer pageNum, Integer pageSize, TypeReference<R> typeReference);
+
     /**
      * 根据条件查询单个
      * @param queryChainWrapper 条件
@@ -408,6 +467,16 @@ public interface SuperMapper extends BaseIndex {
      */
     <T,R> PageResult<R> page(String database,String collectionName,QueryChainWrapper<T,?> queryChainWrapper, Integer pageNum, Integer pageSize, Integer recentPageNum,TypeReference<R> typeReference);
 
+    /**
+     * 游标分页查询，根据上一页的游标定位，不使用skip，翻页的耗时与页码无关
+     * <p>排序字段取自queryWrapper中的排序，并自动追加_id</p>
+     * @param queryChainWrapper 条件
+     * @param keysetPageParam 游标分页参数
+     * @return {@link KeysetPageResult<R>}
+     * @author anwen
+     */
+    <T,R> KeysetPageResult<R> keysetPage(String database,String collectionName,QueryChainWrapper<T,?> queryChainWrapper, KeysetPageParam keysetPageParam,TypeReference<R> typeReference);
+
     /**
      * 根据多个id查询
      * @param ids ids
@@ -512,4 +581,41 @@ public interface SuperMapper extends BaseIndex {
      */
     <T> List<T> command(String database , String command,TypeReference<T> typeReference);
 
+    /**
+     * 命令查询，支持find和aggregate，命令中的占位符{@code ?0}、{@code ?1}...按下标绑定参数
+     * <p>命令只解析一次，之后只绑定参数，适合反复执行的命令</p>
+     * @param command 命令
+     * @param clazz 返回值类型
+     * @param args 参数
+     * @return {@link List<T>}
+     * @author anwen
+     */
+    default <T> List<T> command(String command,Class<T> clazz,Object... args){
+        return command(EMPTY, command, new TypeReference<T>(clazz) {}, args);
+    }
+
+    /**
+     * 命令查询，支持find和aggregate，命令中的占位符{@code ?0}、{@code ?1}...按下标绑定参数
+     * @param database 数据库
+     * @param command 命令
+     * @param clazz 返回值类型
+     * @param args 参数
+     * @return {@link List<T>}
+     * @author anwen
+     */
+    default <T> List<T> command(String database , String command,Class<T> clazz,Object... args){
+        return command(database, command, new TypeReference<T>(clazz) {}, args);
+    }
+
+    /**
+     * 命令查询，支持find和aggregate，命令中的占位符{@code ?0}、{@code ?1}...按下标绑定参数
+     * @param database 数据库
+     * @param command 命令
+     * @param typeReference 返回值类型
+     * @param args 参数
+     * @return {@link List<T>}
+     * @author anwen
+     */
+    <T> List<T> command(String database , String command,TypeReference<T> typeReference,Object... args);
+
 }
@@ -9,6 +9,7 @@ import com.mongoplus.cache.global.PropertyCache;
 import com.mongoplus.constant.SqlOperationConstant;
 import com.mongoplus.domain.MongoPlusWriteException;
 import com.mongoplus.enums.FieldFill;
+import com.mongoplus.enums.IdTypeEnum;
 import com.mongoplus.handlers.ReadHandler;
 import com.mongoplus.handlers.TypeHandler;
 import com.mongoplus.handlers.auto.AutoFillHandler;
@@ -24,9 +25,8 @@ import org.bson.Document;
 import org.bson.conversions.Bson;
 import org.bson.types.ObjectId;
 
-import java.util.Collection;
-import java.util.List;
-import java.util.Map;
+import java.io.Serializable;
+import java.util.*;
 
 /**
  * 抽象地映射处理器
@@ -45,6 +45,67 @@ public abstract class AbstractMongoConverter implements MongoConverter {
 
     @Override
     public void writeBySave(Object sourceObj, Document document) {
+        writeBySave(sourceObj, document, null);
+    }
+
+    @Override
+    public void writeBySaveBatch(Collection<?> sourceObjCollection, List<Document> documentList) {
+        Map<Class<?>, Iterator<Serializable>> autoIdMap = generateAutoIds(sourceObjCollection);
+        sourceObjCollection.forEach(sourceObj -> {
+            Document document = new Document();
+            writeBySave(sourceObj, document, autoIdMap.get(sourceObj.getClass()));
+            documentList.add(document);
+        });
+    }
+
+    @Override
+    public List<Document> writeBySaveBatch(Collection<?> sourceObjCollection) {
+        List<Document> documentList = new ArrayList<>(sourceObjCollection.size());
+        writeBySaveBatch(sourceObjCollection, documentList);
+        return documentList;
+    }
+
+    /**
+     * 批量插入时，为需要自增id的实体一次性生成所需数量的id，避免每条数据单独访问计数集合
+     * @param sourceObjCollection 实体集合
+     * @return {@link Map} key为实体类，value为预先生成的id
+     * @author anwen
+     */
+    private Map<Class<?>, Iterator<Serializable>> generateAutoIds(Collection<?> sourceObjCollection) {
+        Map<Class<?>, Integer> countMap = new HashMap<>();
+        Map<Class<?>, TypeInformation> typeInformationMap = new HashMap<>();
+        for (Object sourceObj : sourceObjCollection) {
+            if (sourceObj == null || ClassTypeUtil.isTargetClass(Map.class, sourceObj.getClass())) {
+                continue;
+            }
+            TypeInformation typeInformation = TypeInformation.of(sourceObj);
+            FieldInformation idFieldInformation = typeInformation.getAnnotationField(ID.class);
+            if (idFieldInformation == null || idFieldInformation.getId().type() != IdTypeEnum.AUTO
+                    || idFieldInformation.getValue() != null) {
+                continue;
+            }
+            countMap.merge(sourceObj.getClass(), 1, Integer::sum);
+            typeInformationMap.putIfAbsent(sourceObj.getClass(), typeInformation);
+        }
+        Map<Class<?>, Iterator<Serializable>> autoIdMap = new HashMap<>();
+        countMap.forEach((clazz, count) -> {
+            if (count > 1) {
+                autoIdMap.put(clazz, HandlerCache.idGenerateHandler.generateIds(
+                        IdTypeEnum.AUTO, typeInformationMap.get(clazz), count
+                ).iterator());
+            }
+        });
+        return autoIdMap;
+    }
+
+    /**
+     * 映射插入的Document
+     * @param sourceObj 实体
+     * @param document 文档
+     * @param generatedIds 批量插入时预先生成的id，为null则单独生成
+     * @author anwen
+     */
+    protected void writeBySave(Object sourceObj, Document document, Iterator<Serializable> generatedIds) {
         // Map类型不需要再做下边的操作 因为它们只针对实体类
         if (ClassTypeUtil.isTargetClass(Map.class, sourceObj.getClass())) {
             write((Map<?, ?>) sourceObj, document);
@@ -65,7 +126,9 @@ public abstract class AbstractMongoConverter implements MongoConverter {
                 }
             } else {
                 // 没有自行设置id，则自动生成id
-                idValue = HandlerCache.idGenerateHandler.generateId(idFieldInformation.getId().type(), typeInformation);
+                idValue = generatedIds != null && generatedIds.hasNext()
+                        ? generatedIds.next()
+                        : HandlerCache.idGenerateHandler.generateId(idFieldInformation.getId().type(), typeInformation);
                 // 没有生成id抛出异常
                 if (idValue == null) {
                     throw new MongoPlusWriteException("The _id cannot be empty, please check the IdGenerateHandler or manually assign it");
@@ -165,7 +228,7 @@ public abstract class AbstractMongoConverter implements MongoConverter {
             if (CollUtil.isNotEmpty(HandlerCache.getReadHandler())) {
                 List<ReadHandler> readHandlerList = HandlerCache.getReadHandler();
                 for (ReadHandler readHandler : readHandlerList) {
-                    if (readHandler.activate().apply(fieldInformation)) {
+                    if (fieldInformation.isActivate(readHandler, readHandler.activate(), readHandler.staticActivate())) {
                         obj = readHandler.read(fieldInformation, obj,this);
                     }
                     if (readHandler.discontinue().apply(obj)) {
@@ -0,0 +1,212 @@
+package com.mongoplus.mapping;
+
+import com.mongoplus.annotation.ID;
+import com.mongoplus.cache.global.EntityMetadataCache;
+import com.mongoplus.cache.global.PropertyCache;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * 实体类的元数据，每个Class只解析一次，字段顺序、字段名、注解、泛型等信息都在这里缓存
+ * <p>元数据不持有实例，实例的值通过{@link FieldInformation}单独传入，所以可以在多线程间共享</p>
+ *
+ * @author anwen
+ */
+public final class EntityMetadata {
+
+    private static final int[] EMPTY_INDEX = new int[0];
+
+    private final Class<?> clazz;
+
+    /**
+     * 所有字段，包括父类，不包括静态字段
+     */
+    private final List<FieldMetadata> fields;
+
+    /**
+     * 所有字段，不包括父类
+     */
+    private final List<FieldMetadata> thisFields;
+
+    /**
+     * 当前类声明的字段，key为Java字段名
+     */
+    private final Map<String, FieldMetadata> declaredFieldMap;
+
+    /**
+     * 字段名到{@link #fields}下标的映射
+     */
+    private final Map<String, Integer> nameIndexMap;
+
+    /**
+     * 驼峰转下划线后的字段名到{@link #fields}下标的映射
+     */
+    private final Map<String, Integer> underlineNameIndexMap;
+
+    /**
+     * 注解到{@link #fields}下标的映射
+     */
+    private final Map<Class<? extends Annotation>, int[]> annotationIndexMap = new ConcurrentHashMap<>();
+
+    /**
+     * 注解到{@link #thisFields}下标的映射
+     */
+    private final Map<Class<? extends Annotation>, int[]> annotationThisIndexMap = new ConcurrentHashMap<>();
+
+    private final FieldMetadata idField;
+
+    EntityMetadata(Class<?> clazz) {
+        this.clazz = clazz;
+        List<FieldMetadata> thisFieldList = new ArrayList<>();
+        Map<String, FieldMetadata> declaredFields = new HashMap<>();
+        for (Field field : clazz.getDeclaredFields()) {
+            FieldMetadata fieldMetadata = new FieldMetadata(field);
+            thisFieldList.add(fieldMetadata);
+            declaredFields.put(field.getName(), fieldMetadata);
+        }
+        List<FieldMetadata> fieldList = new ArrayList<>();
+        Class<?> enclosingClass = clazz.getEnclosingClass();
+        thisFieldList.forEach(fieldMetadata -> {
+            Field field = fieldMetadata.getField();
+            if (!Modifier.isStatic(field.getModifiers()) && !field.getType().equals(enclosingClass)) {
+                fieldList.add(fieldMetadata);
+            }
+        });
+        Class<?> superClass = clazz.getSuperclass();
+        if (superClass != null && !superClass.equals(Object.class)) {
+            fieldList.addAll(of(superClass).getSuperFields());
+        }
+        Map<String, Integer> nameIndex = new HashMap<>();
+        Map<String, Integer> underlineNameIndex = new HashMap<>();
+        FieldMetadata id = null;
+        for (int i = 0; i < fieldList.size(); i++) {
+            FieldMetadata fieldMetadata = fieldList.get(i);
+            nameIndex.putIfAbsent(fieldMetadata.getName(), i);
+            underlineNameIndex.putIfAbsent(fieldMetadata.getUnderlineName(), i);
+            if (id == null && fieldMetadata.isId()) {
+                id = fieldMetadata;
+            }
+        }
+        this.fields = Collections.unmodifiableList(fieldList);
+        this.thisFields = Collections.unmodifiableList(thisFieldList);
+        this.declaredFieldMap = Collections.unmodifiableMap(declaredFields);
+        this.nameIndexMap = Collections.unmodifiableMap(nameIndex);
+        this.underlineNameIndexMap = Collections.unmodifiableMap(underlineNameIndex);
+        this.idField = id;
+    }
+
+    /**
+     * 获取Class的元数据，全局缓存
+     * @param clazz 类
+     * @return {@link EntityMetadata}
+     * @author anwen
+     */
+    public static EntityMetadata of(Class<?> clazz) {
+        EntityMetadata entityMetadata = EntityMetadataCache.get(clazz);
+        if (entityMetadata == null) {
+            // 解析父类时会递归调用，所以不能使用computeIfAbsent
+            entityMetadata = EntityMetadataCache.putIfAbsent(new EntityMetadata(clazz));
+        }
+        return entityMetadata;
+    }
+
+    public Class<?> getClazz() {
+        return clazz;
+    }
+
+    public List<FieldMetadata> getFields() {
+        return fields;
+    }
+
+    public List<FieldMetadata> getThisFields() {
+        return thisFields;
+    }
+
+    /**
+     * 获取@ID字段，不存在则返回null
+     * @return {@link FieldMetadata}
+     * @author anwen
+     */
+    public FieldMetadata getIdField() {
+        return idField;
+    }
+
+    /**
+     * 根据Java字段名获取当前类声明的字段，不包括父类
+     * @param fieldName Java字段名
+     * @return {@link FieldMetadata}
+     * @author anwen
+     */
+    public FieldMetadata getDeclaredField(String fieldName) {
+        return declaredFieldMap.get(fieldName);
+    }
+
+    /**
+     * 根据字段名获取在{@link #getFields()}中的下标，受驼峰转下划线配置的影响，不存在则返回-1
+     * @param fieldName 字段名
+     * @return {@link int}
+     * @author anwen
+     */
+    public int indexOfField(String fieldName) {
+        Integer index = (PropertyCache.camelToUnderline ? underlineNameIndexMap : nameIndexMap).get(fieldName);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * 获取带有指定注解的字段在{@link #getFields()}中的下标
+     * @param annotationClass 注解类
+     * @return {@link int[]}
+     * @author anwen
+     */
+    public int[] getAnnotationFieldIndexes(Class<? extends Annotation> annotationClass) {
+        return annotationIndexMap.computeIfAbsent(annotationClass, k -> indexOfAnnotation(fields, k));
+    }
+
+    /**
+     * 获取带有指定注解的字段在{@link #getThisFields()}中的下标
+     * @param annotationClass 注解类
+     * @return {@link int[]}
+     * @author anwen
+     */
+    public int[] getAnnotationThisFieldIndexes(Class<? extends Annotation> annotationClass) {
+        return annotationThisIndexMap.computeIfAbsent(annotationClass, k -> indexOfAnnotation(thisFields, k));
+    }
+
+    private List<FieldMetadata> getSuperFields() {
+        List<FieldMetadata> superFields = new ArrayList<>();
+        thisFields.forEach(fieldMetadata -> {
+            if (!Modifier.isStatic(fieldMetadata.getField().getModifiers())) {
+                superFields.add(fieldMetadata);
+            }
+        });
+        Class<?> superClass = clazz.getSuperclass();
+        if (superClass != null && !superClass.equals(Object.class)) {
+            superFields.addAll(of(superClass).getSuperFields());
+        }
+        return superFields;
+    }
+
+    private static int[] indexOfAnnotation(List<FieldMetadata> fieldList, Class<? extends Annotation> annotationClass) {
+        if (ID.class.equals(annotationClass)) {
+            return indexOf(fieldList, FieldMetadata::isId);
+        }
+        return indexOf(fieldList, fieldMetadata -> fieldMetadata.isAnnotation(annotationClass));
+    }
+
+    private static int[] indexOf(List<FieldMetadata> fieldList, Predicate<FieldMetadata> predicate) {
+        int[] indexes = new int[fieldList.size()];
+        int size = 0;
+        for (int i = 0; i < fieldList.size(); i++) {
+            if (predicate.test(fieldList.get(i))) {
+                indexes[size++] = i;
+            }
+        }
+        return size == 0 ? EMPTY_INDEX : Arrays.copyOf(indexes, size);
+    }
+
+}
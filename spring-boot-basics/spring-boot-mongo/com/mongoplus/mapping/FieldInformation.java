@@ -7,6 +7,7 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
+import java.util.function.Function;
 
 /**
  * 对Field的简单封装
@@ -221,4 +222,16 @@ public interface FieldInformation {
      */
     Type getGenericType();
 
+    /**
+     * 处理器是否对该字段激活
+     * @param handler 处理器
+     * @param activate 处理器的激活条件
+     * @param staticActivate 激活条件是否只与字段本身有关，为true时可以按字段缓存结果
+     * @return {@link boolean}
+     * @author anwen
+     */
+    default boolean isActivate(Object handler, Function<FieldInformation, Boolean> activate, boolean staticActivate) {
+        return Boolean.TRUE.equals(activate.apply(this));
+    }
+
 }
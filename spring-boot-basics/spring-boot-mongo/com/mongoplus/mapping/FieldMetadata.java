@@ -0,0 +1,235 @@
+package com.mongoplus.mapping;
+
+import com.mongoplus.annotation.ID;
+import com.mongoplus.annotation.collection.CollectionField;
+import com.mongoplus.cache.global.AccessorCache;
+import com.mongoplus.cache.global.PropertyCache;
+import com.mongoplus.cache.global.SimpleCache;
+import com.mongoplus.constant.SqlOperationConstant;
+import com.mongoplus.strategy.accessor.FieldAccessor;
+import com.mongoplus.toolkit.ClassTypeUtil;
+import com.mongoplus.toolkit.StringUtils;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 字段的元数据，每个Field只解析一次，不持有任何实例相关的状态，可在多线程间共享
+ *
+ * @author anwen
+ */
+public final class FieldMetadata {
+
+    private static final Type[] EMPTY_TYPES = new Type[0];
+
+    private final Field field;
+
+    private final Class<?> typeClass;
+
+    private final Type genericType;
+
+    private final Type[] types;
+
+    private final ID id;
+
+    private final CollectionField collectionField;
+
+    /**
+     * 受{@link CollectionField}注解影响的字段名
+     */
+    private final String name;
+
+    /**
+     * 开启驼峰转下划线时使用的字段名
+     */
+    private final String underlineName;
+
+    private final boolean map;
+
+    private final boolean collection;
+
+    private final Class<?> mapValueType;
+
+    private final Class<?> collectionValueType;
+
+    /**
+     * 字段访问器，第一次读写时创建
+     */
+    private volatile FieldAccessor fieldAccessor;
+
+    /**
+     * 静态激活条件的处理器是否对该字段激活，key为处理器实例
+     */
+    private final Map<Object, Boolean> activateCache = new ConcurrentHashMap<>();
+
+    FieldMetadata(Field field) {
+        field.setAccessible(true);
+        this.field = field;
+        this.typeClass = field.getType();
+        this.genericType = field.getGenericType();
+        this.types = genericType instanceof ParameterizedType
+                ? ((ParameterizedType) genericType).getActualTypeArguments()
+                : EMPTY_TYPES;
+        this.id = field.getAnnotation(ID.class);
+        this.collectionField = field.getAnnotation(CollectionField.class);
+        boolean customName = collectionField != null && StringUtils.isNotBlank(collectionField.value());
+        this.name = customName ? collectionField.value() : field.getName();
+        this.underlineName = customName ? this.name : StringUtils.camelToUnderline(this.name);
+        this.map = ClassTypeUtil.isTargetClass(Map.class, typeClass);
+        this.collection = typeClass.isArray()
+                || Iterable.class.equals(typeClass)
+                || ClassTypeUtil.isTargetClass(Collection.class, typeClass);
+        this.mapValueType = map && types.length > 1 && types[1] instanceof Class ? (Class<?>) types[1] : null;
+        this.collectionValueType = collection && types.length > 0 && types[0] instanceof Class
+                ? (Class<?>) types[0]
+                : Object.class;
+    }
+
+    /**
+     * 获取字段的元数据，会从所属类的{@link EntityMetadata}中获取
+     * @param field 字段
+     * @return {@link FieldMetadata}
+     * @author anwen
+     */
+    public static FieldMetadata of(Field field) {
+        FieldMetadata fieldMetadata = EntityMetadata.of(field.getDeclaringClass()).getDeclaredField(field.getName());
+        return fieldMetadata != null && fieldMetadata.getField().equals(field) ? fieldMetadata : new FieldMetadata(field);
+    }
+
+    public Field getField() {
+        return field;
+    }
+
+    /**
+     * 获取字段访问器，由{@link AccessorCache}中的策略创建
+     * @return {@link FieldAccessor}
+     * @author anwen
+     */
+    public FieldAccessor getFieldAccessor() {
+        FieldAccessor accessor = fieldAccessor;
+        if (accessor == null) {
+            // 并发时可能重复创建，但结果是等价的
+            accessor = AccessorCache.getFieldAccessorStrategy().create(field);
+            fieldAccessor = accessor;
+        }
+        return accessor;
+    }
+
+    /**
+     * 获取实例的字段值
+     * @param instance 实例
+     * @return {@link java.lang.Object}
+     * @author anwen
+     */
+    public Object getValue(Object instance) {
+        return getFieldAccessor().get(instance);
+    }
+
+    /**
+     * 设置实例的字段值
+     * @param instance 实例
+     * @param value 值
+     * @author anwen
+     */
+    public void setValue(Object instance, Object value) {
+        getFieldAccessor().set(instance, value);
+    }
+
+    public Class<?> getTypeClass() {
+        return typeClass;
+    }
+
+    public Type getGenericType() {
+        return genericType;
+    }
+
+    public Type[] getType() {
+        return types.length == 0 ? null : types.clone();
+    }
+
+    public ID getId() {
+        return id;
+    }
+
+    public boolean isId() {
+        return id != null;
+    }
+
+    public CollectionField getCollectionField() {
+        return collectionField;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getUnderlineName() {
+        return underlineName;
+    }
+
+    /**
+     * 获取字段名，根据当前驼峰转下划线配置选择，不需要在配置变更时清空缓存
+     * @return {@link java.lang.String}
+     * @author anwen
+     */
+    public String getCamelCaseName() {
+        return PropertyCache.camelToUnderline ? underlineName : name;
+    }
+
+    public String getIdOrCamelCaseName() {
+        return isId() ? SqlOperationConstant._ID : getCamelCaseName();
+    }
+
+    public boolean isMap() {
+        return map;
+    }
+
+    public Class<?> mapValueType() {
+        return mapValueType;
+    }
+
+    public boolean isCollection() {
+        return collection;
+    }
+
+    public Class<?> collectionValueType() {
+        return collectionValueType;
+    }
+
+    public boolean isSimpleType() {
+        return SimpleCache.getSimpleTypeHolder().isSimpleType(typeClass);
+    }
+
+    public boolean isSkipCheckField() {
+        return collectionField != null && !collectionField.exist();
+    }
+
+    public <A extends Annotation> A getAnnotation(Class<A> annotationClass) {
+        return field.getAnnotation(annotationClass);
+    }
+
+    public boolean isAnnotation(Class<? extends Annotation> annotationClass) {
+        return field.isAnnotationPresent(annotationClass);
+    }
+
+    /**
+     * 处理器是否对该字段激活，每个处理器只判断一次
+     * <p>只用于声明了静态激活条件的处理器，激活条件只与字段本身有关，与字段值无关</p>
+     * @param handler 处理器
+     * @param activate 激活条件
+     * @param fieldInformation 字段信息
+     * @return {@link boolean}
+     * @author anwen
+     */
+    public boolean isActivate(Object handler, Function<FieldInformation, Boolean> activate,
+                              FieldInformation fieldInformation) {
+        return activateCache.computeIfAbsent(handler, k -> Boolean.TRUE.equals(activate.apply(fieldInformation)));
+    }
+
+}
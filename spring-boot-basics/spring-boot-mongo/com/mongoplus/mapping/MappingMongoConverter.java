@@ -82,11 +82,7 @@ public class MappingMongoConverter extends AbstractMongoConverter {
                 .forEach(fieldInformation -> {
                     CollectionField collectionField = fieldInformation.getCollectionField();
                     Object obj = null;
-                    String fieldName = fieldInformation.getName();
-                    if ((collectionField == null || StringUtils.isBlank(collectionField.value()))
-                            && PropertyCache.camelToUnderline){
-                        fieldName = StringUtils.camelToUnderline(fieldName);
-                    }
+                    String fieldName = fieldInformation.getCamelCaseName();
                     if (ignoreType.contains(fieldInformation.getTypeClass())){
                         obj = fieldInformation.getValue();
                     }
@@ -94,7 +90,7 @@ public class MappingMongoConverter extends AbstractMongoConverter {
                         obj = ObjectIdUtil.getObjectIdValue(fieldInformation.getValue());
                     }
                     for (FieldHandler fieldHandler : HandlerCache.fieldHandlers) {
-                        if (fieldHandler.activate().apply(fieldInformation)) {
+                        if (fieldInformation.isActivate(fieldHandler, fieldHandler.activate(), fieldHandler.staticActivate())) {
                             obj = fieldHandler.handler(fieldInformation);
                         }
                     }
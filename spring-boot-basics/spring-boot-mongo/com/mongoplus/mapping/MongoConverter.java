@@ -4,6 +4,7 @@ import com.mongodb.client.MongoIterable;
 import com.mongoplus.annotation.ID;
 import com.mongoplus.constant.SqlOperationConstant;
 import com.mongoplus.domain.MongoPlusFieldException;
+import com.mongoplus.model.MongoPlusCursor;
 import com.mongoplus.strategy.conversion.ConversionStrategy;
 import com.mongoplus.toolkit.ClassTypeUtil;
 import org.bson.Document;
@@ -149,6 +150,14 @@ public interface MongoConverter extends MongoWriter,EntityRead {
         return resultList;
     }
 
+    /**
+     * 写为class，根据传入的type，返回逐条映射的游标，不会将结果集全部加载到内存
+     * @author anwen
+     */
+    default <T> MongoPlusCursor<T> cursor(MongoIterable<Document> findIterable, TypeReference<T> typeReference){
+        return new MongoPlusCursor<>(findIterable.cursor(), document -> read(document, typeReference));
+    }
+
     /**
      * 写为class
      * @author anwen
@@ -2,23 +2,13 @@ package com.mongoplus.mapping;
 
 import com.mongoplus.annotation.ID;
 import com.mongoplus.annotation.collection.CollectionField;
-import com.mongoplus.cache.global.FieldCache;
-import com.mongoplus.cache.global.PropertyCache;
-import com.mongoplus.cache.global.SimpleCache;
-import com.mongoplus.constant.SqlOperationConstant;
 import com.mongoplus.domain.MongoPlusFieldException;
-import com.mongoplus.toolkit.ArrayUtils;
-import com.mongoplus.toolkit.ClassTypeUtil;
-import com.mongoplus.toolkit.StringUtils;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
-import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
-import java.util.Collection;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 /**
  * @author JiaChaoYang
@@ -28,28 +18,17 @@ public class SimpleFieldInformation<T> implements FieldInformation {
 
     private Object value;
 
-    private String name;
-
-    private Class<?> mapValueType;
-
-    private Class<?> collectionValueType = Object.class;
+    /**
+     * 字段的元数据，同一个Field共享
+     */
+    private final FieldMetadata fieldMetadata;
 
     private final Field field;
 
-    private ID id;
-
-    private CollectionField collectionField;
-
     private Method get;
 
     private Method set;
 
-    private Type[] types;
-
-    private String camelCaseName;
-
-    Map<Object,Object> instanceValueMap = new ConcurrentHashMap<>();
-
     @Override
     public Field getField() {
         return field;
@@ -57,17 +36,11 @@ public class SimpleFieldInformation<T> implements FieldInformation {
 
     @Override
     public Class<?> getTypeClass() {
-        return typeClass;
+        return fieldMetadata.getTypeClass();
     }
 
     public Type[] getType() {
-        if (ArrayUtils.isEmpty(types)) {
-            try {
-                types = ((ParameterizedType) getGenericType()).getActualTypeArguments();
-            }catch (Exception ignored){
-            }
-        }
-        return this.types;
+        return fieldMetadata.getType();
     }
 
     @Override
@@ -75,15 +48,25 @@ public class SimpleFieldInformation<T> implements FieldInformation {
         return new SimpleTypeInformation<>(getTypeClass(),getType());
     }
 
-    private final Class<?> typeClass;
-
     private T instance;
 
     public SimpleFieldInformation(T instance, Field field) {
+        this(instance, FieldMetadata.of(field));
+    }
+
+    public SimpleFieldInformation(T instance, FieldMetadata fieldMetadata) {
         this.instance = instance;
-        field.setAccessible(true);
-        this.field = field;
-        this.typeClass = field.getType();
+        this.fieldMetadata = fieldMetadata;
+        this.field = fieldMetadata.getField();
+    }
+
+    /**
+     * 获取字段的元数据
+     * @return {@link FieldMetadata}
+     * @author anwen
+     */
+    public FieldMetadata getFieldMetadata() {
+        return fieldMetadata;
     }
 
     @Override
@@ -95,7 +78,6 @@ public class SimpleFieldInformation<T> implements FieldInformation {
     @Override
     public void clear() {
         this.value = null;
-        this.instanceValueMap.clear();
         this.get = null;
         this.set = null;
     }
@@ -103,100 +85,59 @@ public class SimpleFieldInformation<T> implements FieldInformation {
     @Override
     public Object getValue() {
         if (this.value == null){
-            try {
-                this.value = field.get(instance);
-            } catch (IllegalAccessException e) {
-                throw new RuntimeException(e);
-            }
+            this.value = fieldMetadata.getValue(instance);
         }
         return this.value;
     }
 
     @Override
     public Object getValue(Object instance) {
-        return instanceValueMap.computeIfAbsent(instance, k -> {
-            try {
-                return field.get(instance);
-            } catch (IllegalAccessException e) {
-                throw new RuntimeException(e);
-            }
-        });
+        return fieldMetadata.getValue(instance);
     }
 
     @Override
     public String getName() {
-        if (this.name == null){
-            this.name = field.getName();
-            if (getCollectionField() != null && StringUtils.isNotBlank(getCollectionField().value())){
-                this.name = getCollectionField().value();
-            }
-        }
-        return this.name;
+        return fieldMetadata.getName();
     }
 
     @Override
     public String getCamelCaseName() {
-        if (this.camelCaseName == null) {
-            String fieldName = getName();
-            if (PropertyCache.camelToUnderline){
-                if (getCollectionField() == null || StringUtils.isBlank(getCollectionField().value())){
-                    fieldName = StringUtils.camelToUnderline(fieldName);
-                }
-            }
-            this.camelCaseName = fieldName;
-        }
-        return this.camelCaseName;
+        return fieldMetadata.getCamelCaseName();
     }
 
     @Override
     public String getIdOrCamelCaseName() {
-        return isId() ? SqlOperationConstant._ID : getCamelCaseName();
+        return fieldMetadata.getIdOrCamelCaseName();
     }
 
     @Override
     public boolean isMap(){
-        return ClassTypeUtil.isTargetClass(Map.class,typeClass);
+        return fieldMetadata.isMap();
     }
 
     @Override
     public Class<?> mapValueType(){
-        if (isMap() && this.mapValueType == null) {
-            Type[] typeArguments = ((ParameterizedType) getGenericType()).getActualTypeArguments();
-            this.mapValueType = (Class<?>) typeArguments[1];
-        }
-        return this.mapValueType;
+        return fieldMetadata.mapValueType();
     }
 
     @Override
     public Class<?> collectionValueType() {
-        if (isCollection() && this.collectionValueType == null){
-            Type genericType = getGenericType();
-            if (genericType instanceof ParameterizedType) {
-                ParameterizedType parameterizedType = (ParameterizedType) genericType;
-                Type[] actualTypeArguments = parameterizedType.getActualTypeArguments();
-                if (actualTypeArguments.length > 0 && actualTypeArguments[0] instanceof Class) {
-                    this.collectionValueType = (Class<?>) actualTypeArguments[0];
-                }
-            }
-        }
-        return this.collectionValueType;
+        return fieldMetadata.collectionValueType();
     }
 
     @Override
     public boolean isCollection(){
-        return typeClass.isArray()
-                || Iterable.class.equals(typeClass)
-                || ClassTypeUtil.isTargetClass(Collection.class,typeClass);
+        return fieldMetadata.isCollection();
     }
 
     @Override
     public boolean isSimpleType(){
-        return SimpleCache.getSimpleTypeHolder().isSimpleType(typeClass);
+        return fieldMetadata.isSimpleType();
     }
 
     @Override
     public boolean isSkipCheckField() {
-        return getCollectionField() != null && !getCollectionField().exist();
+        return fieldMetadata.isSkipCheckField();
     }
 
     @Override
@@ -206,22 +147,19 @@ public class SimpleFieldInformation<T> implements FieldInformation {
 
     @Override
     public boolean isId() {
-        return getId() != null;
+        return fieldMetadata.isId();
     }
 
     @Override
     public ID getId() {
-        if (this.id == null){
-            this.id = field.getAnnotation(ID.class);
-        }
-        return this.id;
+        return fieldMetadata.getId();
     }
 
     @Override
     public Method getMethod() {
         try {
             if (get == null) {
-                get = instance.getClass().getMethod(capitalize("get", field.getName()), typeClass);
+                get = instance.getClass().getMethod(capitalize("get", field.getName()), getTypeClass());
             }
         } catch (NoSuchMethodException e) {
             throw new MongoPlusFieldException("The get method to obtain the " + field.getName() +" field failed",e);
@@ -233,7 +171,7 @@ public class SimpleFieldInformation<T> implements FieldInformation {
     public Method setMethod() {
         try {
             if (set == null) {
-                set = instance.getClass().getMethod(capitalize("set", field.getName()), typeClass);
+                set = instance.getClass().getMethod(capitalize("set", field.getName()), getTypeClass());
             }
         } catch (NoSuchMethodException e) {
             throw new MongoPlusFieldException("The set method to obtain the " + field.getName() +" field failed",e);
@@ -248,11 +186,7 @@ public class SimpleFieldInformation<T> implements FieldInformation {
 
     @Override
     public void setValue(Object instance, Object value) {
-        try {
-            field.set(instance, value);
-        } catch (IllegalAccessException e) {
-            throw new MongoPlusFieldException("Failed to set the " + field.getName()+" field content",e);
-        }
+        fieldMetadata.setValue(instance, value);
     }
 
     private String capitalize(String method,String str) {
@@ -261,31 +195,31 @@ public class SimpleFieldInformation<T> implements FieldInformation {
 
     @Override
     public CollectionField getCollectionField() {
-        CollectionField collectionField;
-        if ((collectionField = FieldCache.getCollectionField(field)) == null){
-            collectionField = field.getAnnotation(CollectionField.class);
-            FieldCache.setCollectionFieldMapCache(field,collectionField);
-        }
-        return collectionField;
+        return fieldMetadata.getCollectionField();
     }
 
     @Override
     @SuppressWarnings("all")
     public <T extends Annotation> T getAnnotation(Class<T> annotationClass){
-        return getField().getAnnotation(annotationClass);
+        return fieldMetadata.getAnnotation(annotationClass);
     }
 
     @Override
     public boolean isAnnotation(Class<? extends Annotation> annotationClass) {
-        return getField().isAnnotationPresent(annotationClass);
+        return fieldMetadata.isAnnotation(annotationClass);
     }
 
     @Override
     public Type getGenericType() {
-        if (FieldCache.getGenericType(field) == null){
-            FieldCache.setGenericTypeMapCache(field,field.getGenericType());
+        return fieldMetadata.getGenericType();
+    }
+
+    @Override
+    public boolean isActivate(Object handler, Function<FieldInformation, Boolean> activate, boolean staticActivate) {
+        if (!staticActivate) {
+            return Boolean.TRUE.equals(activate.apply(this));
         }
-        return FieldCache.getGenericType(field);
+        return fieldMetadata.isActivate(handler, activate, this);
     }
 
 }
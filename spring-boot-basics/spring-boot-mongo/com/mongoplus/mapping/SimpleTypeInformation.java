@@ -7,10 +7,8 @@ import com.mongoplus.toolkit.ClassTypeUtil;
 import com.mongoplus.toolkit.CollUtil;
 
 import java.lang.annotation.Annotation;
-import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Class的一些信息和操作
@@ -33,6 +31,11 @@ public class SimpleTypeInformation<T> implements TypeInformation {
 
     private Type[] types;
 
+    /**
+     * Class的元数据，全局共享
+     */
+    private EntityMetadata entityMetadata;
+
     private final Map<String, FieldInformation> fieldMap = new HashMap<>();
 
     /**
@@ -126,21 +129,23 @@ public class SimpleTypeInformation<T> implements TypeInformation {
         this.instance = (T) instance;
     }
 
+    /**
+     * 获取Class的元数据
+     * @return {@link EntityMetadata}
+     * @author anwen
+     */
+    public EntityMetadata getEntityMetadata() {
+        if (entityMetadata == null) {
+            entityMetadata = EntityMetadata.of(clazz);
+        }
+        return entityMetadata;
+    }
+
     @Override
     public List<FieldInformation> getFields() {
         if (CollUtil.isEmpty(fieldList)) {
-            Class<?> enclosingClass = clazz.getEnclosingClass();
-            Arrays.stream(clazz.getDeclaredFields()).forEach(field -> {
-                field.setAccessible(true);
-                if (Modifier.isStatic(field.getModifiers())) {
-                    return;
-                }
-                if (field.getType().equals(enclosingClass)) {
-                    return;
-                }
-                fieldList.add(new SimpleFieldInformation<>(instance, field));
-            });
-            getSupperFields(clazz.getSuperclass());
+            getEntityMetadata().getFields().forEach(fieldMetadata ->
+                    fieldList.add(new SimpleFieldInformation<>(instance, fieldMetadata)));
         }
         return this.fieldList;
     }
@@ -148,10 +153,8 @@ public class SimpleTypeInformation<T> implements TypeInformation {
     @Override
     public List<FieldInformation> getThisFields() {
         if (CollUtil.isEmpty(thisFieldList)) {
-            Arrays.stream(clazz.getDeclaredFields()).forEach(field -> {
-                field.setAccessible(true);
-                thisFieldList.add(new SimpleFieldInformation<>(instance, field));
-            });
+            getEntityMetadata().getThisFields().forEach(fieldMetadata ->
+                    thisFieldList.add(new SimpleFieldInformation<>(instance, fieldMetadata)));
         }
         return this.thisFieldList;
     }
@@ -159,12 +162,8 @@ public class SimpleTypeInformation<T> implements TypeInformation {
     @Override
     public FieldInformation getField(String fieldName) {
         if (!fieldMap.containsKey(fieldName)) {
-            FieldInformation fieldInformation = getFields().stream()
-                    .filter(field ->
-                            Objects.equals(field.getCamelCaseName(), fieldName))
-                    .findFirst()
-                    .orElse(null);
-            fieldMap.put(fieldName, fieldInformation);
+            int index = getEntityMetadata().indexOfField(fieldName);
+            fieldMap.put(fieldName, index < 0 ? null : getFields().get(index));
         }
         return fieldMap.get(fieldName);
     }
@@ -172,11 +171,11 @@ public class SimpleTypeInformation<T> implements TypeInformation {
     @Override
     public FieldInformation getFieldNotException(String fieldName) {
         if (!fieldMap.containsKey(fieldName)) {
-            try {
-                fieldMap.put(fieldName, new SimpleFieldInformation<>(instance, clazz.getDeclaredField(fieldName)));
-            } catch (Exception e) {
+            FieldMetadata fieldMetadata = getEntityMetadata().getDeclaredField(fieldName);
+            if (fieldMetadata == null) {
                 return null;
             }
+            fieldMap.put(fieldName, new SimpleFieldInformation<>(instance, fieldMetadata));
         }
         return fieldMap.get(fieldName);
     }
@@ -191,10 +190,7 @@ public class SimpleTypeInformation<T> implements TypeInformation {
         if (!annotationFieldMap.containsKey(annotationClass)) {
             annotationFieldMap.put(
                     annotationClass,
-                    getFields()
-                            .stream()
-                            .filter(field -> field.getField().getAnnotation(annotationClass) != null)
-                            .collect(Collectors.toList()));
+                    pick(getFields(), getEntityMetadata().getAnnotationFieldIndexes(annotationClass)));
         }
         return annotationFieldMap.get(annotationClass);
     }
@@ -204,10 +200,7 @@ public class SimpleTypeInformation<T> implements TypeInformation {
         if (!annotationThisFieldMap.containsKey(annotationClass)) {
             annotationThisFieldMap.put(
                     annotationClass,
-                    getThisFields()
-                            .stream()
-                            .filter(field -> field.getField().getAnnotation(annotationClass) != null)
-                            .collect(Collectors.toList()));
+                    pick(getThisFields(), getEntityMetadata().getAnnotationThisFieldIndexes(annotationClass)));
         }
         return annotationThisFieldMap.get(annotationClass);
     }
@@ -249,17 +242,12 @@ public class SimpleTypeInformation<T> implements TypeInformation {
         return getAnnotationField(annotationClass).getValue();
     }
 
-    private void getSupperFields(Class<?> clazz){
-        if (clazz != null && !clazz.equals(Object.class)){
-            Arrays.asList(clazz.getDeclaredFields()).forEach(field -> {
-                field.setAccessible(true);
-                if (Modifier.isStatic(field.getModifiers())) {
-                    return;
-                }
-                fieldList.add(new SimpleFieldInformation<>(instance, field));
-            });
-            getSupperFields(clazz.getSuperclass());
+    private static List<FieldInformation> pick(List<FieldInformation> fieldList, int[] indexes) {
+        List<FieldInformation> result = new ArrayList<>(indexes.length);
+        for (int index : indexes) {
+            result.add(fieldList.get(index));
         }
+        return result;
     }
 
 }
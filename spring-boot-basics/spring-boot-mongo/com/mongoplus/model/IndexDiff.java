@@ -0,0 +1,58 @@
+package com.mongoplus.model;
+
+import com.mongodb.client.model.IndexModel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 注解中的索引与集合中已存在的索引的差异
+ *
+ * @author anwen
+ */
+public class IndexDiff {
+
+    /**
+     * 命名空间
+     */
+    private final String namespace;
+
+    /**
+     * 需要创建的索引
+     */
+    private final List<IndexModel> missingIndexModels = new ArrayList<>();
+
+    /**
+     * 冲突的索引描述，名称相同但定义不同，或定义相同但名称不同
+     */
+    private final List<String> conflicts = new ArrayList<>();
+
+    public IndexDiff(String namespace) {
+        this.namespace = namespace;
+    }
+
+    public String getNamespace() {
+        return namespace;
+    }
+
+    public List<IndexModel> getMissingIndexModels() {
+        return missingIndexModels;
+    }
+
+    public List<String> getConflicts() {
+        return conflicts;
+    }
+
+    public boolean hasConflict() {
+        return !conflicts.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "{" +
+                "namespace='" + namespace + '\'' +
+                ", missingIndexModels=" + missingIndexModels +
+                ", conflicts=" + conflicts +
+                '}';
+    }
+}
@@ -0,0 +1,138 @@
+package com.mongoplus.model;
+
+import java.util.Objects;
+
+/**
+ * 游标分页（keyset/seek）参数
+ * <p>根据上一页最后一条（或第一条）数据的排序字段值定位，不使用skip，翻页的耗时与页码无关</p>
+ * <p>排序字段取自条件构造器中的排序，并自动追加_id作为唯一排序依据</p>
+ * @author anwen
+ */
+public class KeysetPageParam {
+
+    /**
+     * 每页显示行数
+     */
+    private Integer pageSize;
+
+    /**
+     * 游标，为null则查询第一页
+     */
+    private String token;
+
+    /**
+     * 是否向前翻页，即查询游标之前的数据
+     */
+    private boolean backward;
+
+    /**
+     * 是否查询总条数
+     */
+    private boolean searchCount = true;
+
+    public KeysetPageParam() {
+    }
+
+    public KeysetPageParam(Integer pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * 查询第一页
+     * @param pageSize 每页显示行数
+     * @return {@link KeysetPageParam}
+     * @author anwen
+     */
+    public static KeysetPageParam first(Integer pageSize) {
+        return new KeysetPageParam(pageSize);
+    }
+
+    /**
+     * 查询游标之后的一页，游标为{@link KeysetPageResult#getNextToken()}
+     * @param token 游标，为null则查询第一页
+     * @param pageSize 每页显示行数
+     * @return {@link KeysetPageParam}
+     * @author anwen
+     */
+    public static KeysetPageParam after(String token, Integer pageSize) {
+        KeysetPageParam keysetPageParam = new KeysetPageParam(pageSize);
+        keysetPageParam.setToken(token);
+        return keysetPageParam;
+    }
+
+    /**
+     * 查询游标之前的一页，游标为{@link KeysetPageResult#getPreviousToken()}
+     * @param token 游标
+     * @param pageSize 每页显示行数
+     * @return {@link KeysetPageParam}
+     * @author anwen
+     */
+    public static KeysetPageParam before(String token, Integer pageSize) {
+        KeysetPageParam keysetPageParam = after(token, pageSize);
+        keysetPageParam.setBackward(true);
+        return keysetPageParam;
+    }
+
+    /**
+     * 不查询总条数，{@link KeysetPageResult#getTotalSize()}将返回-1
+     * @return {@link KeysetPageParam}
+     * @author anwen
+     */
+    public KeysetPageParam withoutCount() {
+        this.searchCount = false;
+        return this;
+    }
+
+    public Integer getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(Integer pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public boolean isBackward() {
+        return backward;
+    }
+
+    public void setBackward(boolean backward) {
+        this.backward = backward;
+    }
+
+    public boolean isSearchCount() {
+        return searchCount;
+    }
+
+    public void setSearchCount(boolean searchCount) {
+        this.searchCount = searchCount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        KeysetPageParam that = (KeysetPageParam) o;
+        return backward == that.backward && searchCount == that.searchCount
+                && Objects.equals(pageSize, that.pageSize) && Objects.equals(token, that.token);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(pageSize, token, backward, searchCount);
+    }
+
+    @Override
+    public String toString() {
+        return "KeysetPageParam(pageSize=" + pageSize + ", token=" + token + ", backward=" + backward
+                + ", searchCount=" + searchCount + ")";
+    }
+
+}
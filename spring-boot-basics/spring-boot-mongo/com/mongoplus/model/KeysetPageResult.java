@@ -0,0 +1,125 @@
+package com.mongoplus.model;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 游标分页（keyset/seek）结果
+ * @author anwen
+ */
+public class KeysetPageResult<T> implements Serializable {
+
+    private static final long serialVersionUID = -3263431628510829475L;
+
+    /**
+     * 每页显示行数
+     */
+    private long pageSize;
+
+    /**
+     * 总行数，不查询总条数时为-1
+     */
+    private long totalSize;
+
+    /**
+     * 数据模型
+     */
+    private List<T> contentData;
+
+    /**
+     * 下一页的游标，没有下一页时为null
+     */
+    private String nextToken;
+
+    /**
+     * 上一页的游标，没有上一页时为null
+     */
+    private String previousToken;
+
+    public KeysetPageResult() {
+    }
+
+    public KeysetPageResult(long pageSize, long totalSize, List<T> contentData, String nextToken,
+                            String previousToken) {
+        this.pageSize = pageSize;
+        this.totalSize = totalSize;
+        this.contentData = contentData;
+        this.nextToken = nextToken;
+        this.previousToken = previousToken;
+    }
+
+    public long getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(long pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public long getTotalSize() {
+        return totalSize;
+    }
+
+    public void setTotalSize(long totalSize) {
+        this.totalSize = totalSize;
+    }
+
+    public List<T> getContentData() {
+        return contentData;
+    }
+
+    public void setContentData(List<T> contentData) {
+        this.contentData = contentData;
+    }
+
+    public String getNextToken() {
+        return nextToken;
+    }
+
+    public void setNextToken(String nextToken) {
+        this.nextToken = nextToken;
+    }
+
+    public String getPreviousToken() {
+        return previousToken;
+    }
+
+    public void setPreviousToken(String previousToken) {
+        this.previousToken = previousToken;
+    }
+
+    public boolean isHasNextPage() {
+        return nextToken != null;
+    }
+
+    public boolean isHasPreviousPage() {
+        return previousToken != null;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) return true;
+        if (object == null || getClass() != object.getClass()) return false;
+        KeysetPageResult<?> that = (KeysetPageResult<?>) object;
+        return pageSize == that.pageSize && totalSize == that.totalSize
+                && Objects.equals(contentData, that.contentData) && Objects.equals(nextToken, that.nextToken)
+                && Objects.equals(previousToken, that.previousToken);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(pageSize, totalSize, contentData, nextToken, previousToken);
+    }
+
+    @Override
+    public String toString() {
+        return "{" +
+                "\"pageSize\": " + pageSize + "," +
+                "\"totalSize\": " + totalSize + "," +
+                "\"nextToken\": " + (nextToken == null ? null : "\"" + nextToken + "\"") + "," +
+                "\"previousToken\": " + (previousToken == null ? null : "\"" + previousToken + "\"") + "," +
+                "\"contentData\": " + contentData +
+                '}';
+    }
+}
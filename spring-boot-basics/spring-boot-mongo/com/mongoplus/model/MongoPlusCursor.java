@@ -0,0 +1,89 @@
+package com.mongoplus.model;
+
+import com.mongodb.client.MongoCursor;
+import org.bson.Document;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 逐条映射的游标，每次只转换一个Document，不会将结果集全部加载到内存
+ * <p>遍历结束后自动关闭，提前结束遍历时需要调用{@link #close()}，推荐使用try-with-resources</p>
+ *
+ * @author anwen
+ */
+public class MongoPlusCursor<T> implements Iterator<T>, Closeable {
+
+    private final MongoCursor<Document> cursor;
+
+    private final Function<Document, T> mapper;
+
+    private boolean closed;
+
+    public MongoPlusCursor(MongoCursor<Document> cursor, Function<Document, T> mapper) {
+        this.cursor = cursor;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (closed) {
+            return false;
+        }
+        boolean hasNext = cursor.hasNext();
+        if (!hasNext) {
+            close();
+        }
+        return hasNext;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return mapper.apply(cursor.next());
+    }
+
+    /**
+     * 遍历剩余所有数据，结束或异常时关闭游标
+     * @param action 处理每条数据
+     * @author anwen
+     */
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        try {
+            while (hasNext()) {
+                action.accept(next());
+            }
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * 转为Stream，Stream关闭时关闭游标，推荐使用try-with-resources
+     * @return {@link Stream}
+     * @author anwen
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED), false)
+                .onClose(this::close);
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            cursor.close();
+        }
+    }
+
+}
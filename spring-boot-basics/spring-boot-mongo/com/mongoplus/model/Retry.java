@@ -1,12 +1,16 @@
 package com.mongoplus.model;
 
 import com.mongoplus.interceptor.Invocation;
+import com.mongoplus.strategy.retry.RetryPolicy;
+import com.mongoplus.strategy.retry.impl.ExponentialBackoffRetryPolicy;
 
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 
 /**
  * 重试策略
+ * <p>默认使用指数退避+全抖动的{@link ExponentialBackoffRetryPolicy}，以{@link #retryInterval}为基础等待时间，
+ * 单次等待不超过{@link #maxRetryInterval}，总耗时不超过{@link #maxRetryTime}；可以通过{@link #retryPolicy}自定义</p>
  *
  * @author anwen
  */
@@ -18,10 +22,25 @@ public class Retry {
     private Integer maxRetryNum;
 
     /**
-     * 重试间隔时间，ms单位
+     * 重试间隔时间，ms单位，作为指数退避的基础等待时间
      */
     private Long retryInterval;
 
+    /**
+     * 单次重试的最大等待时间，ms单位
+     */
+    private Long maxRetryInterval;
+
+    /**
+     * 重试的总时间预算，ms单位，小于等于0表示不限制
+     */
+    private Long maxRetryTime;
+
+    /**
+     * 自定义重试策略，设置后忽略retryInterval、maxRetryInterval、maxRetryTime
+     */
+    private RetryPolicy retryPolicy;
+
     /**
      * 重试是否继续执行后续拦截器，默认为true
      * <p>如果后续的执行器中，进行了某些操作，请将该属性设置为false。比如在后续拦截器中做了修改其他表的操作，在重试时则会修改多次</p>
@@ -35,7 +54,11 @@ public class Retry {
 
     /**
      * 开启异步重试，默认false
-     * <p>开启异步后，会立即返回当前更新失败的响应，并且异步的重试，不受事务控制。可以通过回调配置查看最终结果</p>
+     * <p>开启异步后，会立即返回当前更新失败的响应，并且异步的重试，不受事务控制。可以通过回调配置查看最终结果，
+     * 或通过{@link com.mongoplus.interceptor.business.OptimisticLockerInterceptor#updateWithRetry(Runnable)}
+     * 返回的CompletableFuture获取</p>
+     * <p>存在事务时仍然同步重试；租户id等保存在自定义ThreadLocal中时，需要通过
+     * {@link com.mongoplus.cache.global.ConcurrentCache#addContextDecorator(com.mongoplus.context.ContextDecorator)}传递到重试线程</p>
      */
     private Boolean asyncRetry;
 
@@ -61,6 +84,9 @@ public class Retry {
 
     Retry(final Integer maxRetryNum,
           final Long retryInterval,
+          final Long maxRetryInterval,
+          final Long maxRetryTime,
+          final RetryPolicy retryPolicy,
           final Boolean processIntercept,
           final Boolean asyncRetry,
           final Integer autoVersionNum,
@@ -70,6 +96,9 @@ public class Retry {
           final BiFunction<UpdateRetryResult, Invocation, Object> fallback) {
         this.maxRetryNum = maxRetryNum;
         this.retryInterval = retryInterval;
+        this.maxRetryInterval = maxRetryInterval;
+        this.maxRetryTime = maxRetryTime;
+        this.retryPolicy = retryPolicy;
         this.processIntercept = processIntercept;
         this.asyncRetry = asyncRetry;
         this.autoVersionNum = autoVersionNum;
@@ -90,9 +119,24 @@ public class Retry {
         private Integer maxRetryNum = 5;
 
         /**
-         * 重试间隔时间，ms单位
+         * 重试间隔时间，ms单位，作为指数退避的基础等待时间
+         */
+        private Long retryInterval = 100L;
+
+        /**
+         * 单次重试的最大等待时间，ms单位
+         */
+        private Long maxRetryInterval = 2000L;
+
+        /**
+         * 重试的总时间预算，ms单位
+         */
+        private Long maxRetryTime = 5000L;
+
+        /**
+         * 自定义重试策略
          */
-        private Long retryInterval = 500L;
+        private RetryPolicy retryPolicy;
 
         /**
          * 重试是否继续执行后续拦截器，默认为true
@@ -153,6 +197,36 @@ public class Retry {
             return this;
         }
 
+        /**
+         * 单次重试的最大等待时间
+         *
+         * @author anwen
+         */
+        public RetryBuilder maxRetryInterval(final Long maxRetryInterval) {
+            this.maxRetryInterval = maxRetryInterval;
+            return this;
+        }
+
+        /**
+         * 重试的总时间预算，小于等于0表示不限制
+         *
+         * @author anwen
+         */
+        public RetryBuilder maxRetryTime(final Long maxRetryTime) {
+            this.maxRetryTime = maxRetryTime;
+            return this;
+        }
+
+        /**
+         * 自定义重试策略，如固定间隔的{@link com.mongoplus.strategy.retry.impl.FixedRetryPolicy}
+         *
+         * @author anwen
+         */
+        public RetryBuilder retryPolicy(final RetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+
         /**
          * 重试是否继续执行后续拦截器，默认为true
          * <p>如果后续的执行器中，进行了某些操作，请将该属性设置为false。比如在后续拦截器中做了修改其他表的操作，在重试时则会修改多次</p>
@@ -225,7 +299,8 @@ public class Retry {
         }
 
         public Retry build() {
-            return new Retry(this.maxRetryNum, this.retryInterval, this.processIntercept, this.asyncRetry, this.autoVersionNum, this.hitRetry, this.onSuccess, this.onFailure, this.fallback);
+            return new Retry(this.maxRetryNum, this.retryInterval, this.maxRetryInterval, this.maxRetryTime,
+                    this.retryPolicy, this.processIntercept, this.asyncRetry, this.autoVersionNum, this.hitRetry, this.onSuccess, this.onFailure, this.fallback);
         }
 
         public String toString() {
@@ -233,6 +308,12 @@ public class Retry {
                     this.maxRetryNum +
                     ", retryInterval=" +
                     this.retryInterval +
+                    ", maxRetryInterval=" +
+                    this.maxRetryInterval +
+                    ", maxRetryTime=" +
+                    this.maxRetryTime +
+                    ", retryPolicy=" +
+                    this.retryPolicy +
                     ", processIntercept=" +
                     this.processIntercept +
                     ", asyncRetry=" +
@@ -256,6 +337,31 @@ public class Retry {
         return this.retryInterval;
     }
 
+    public Long getMaxRetryInterval() {
+        return this.maxRetryInterval;
+    }
+
+    public Long getMaxRetryTime() {
+        return this.maxRetryTime;
+    }
+
+    /**
+     * 获取重试策略，未自定义时根据重试次数和间隔时间生成指数退避策略
+     * @return {@link RetryPolicy}
+     * @author anwen
+     */
+    public RetryPolicy getRetryPolicy() {
+        if (this.retryPolicy != null) {
+            return this.retryPolicy;
+        }
+        return new ExponentialBackoffRetryPolicy(
+                this.maxRetryNum == null ? 0 : this.maxRetryNum,
+                this.retryInterval == null ? 0 : this.retryInterval,
+                this.maxRetryInterval == null ? 0 : this.maxRetryInterval,
+                this.maxRetryTime == null ? 0 : this.maxRetryTime
+        );
+    }
+
     public Boolean getProcessIntercept() {
         return this.processIntercept;
     }
@@ -292,6 +398,18 @@ public class Retry {
         this.retryInterval = retryInterval;
     }
 
+    public void setMaxRetryInterval(final Long maxRetryInterval) {
+        this.maxRetryInterval = maxRetryInterval;
+    }
+
+    public void setMaxRetryTime(final Long maxRetryTime) {
+        this.maxRetryTime = maxRetryTime;
+    }
+
+    public void setRetryPolicy(final RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
     public void setProcessIntercept(final Boolean processIntercept) {
         this.processIntercept = processIntercept;
     }
@@ -350,6 +468,36 @@ public class Retry {
                     return false;
                 }
 
+                Object this$maxRetryInterval = this.getMaxRetryInterval();
+                Object other$maxRetryInterval = other.getMaxRetryInterval();
+                if (this$maxRetryInterval == null) {
+                    if (other$maxRetryInterval != null) {
+                        return false;
+                    }
+                } else if (!this$maxRetryInterval.equals(other$maxRetryInterval)) {
+                    return false;
+                }
+
+                Object this$maxRetryTime = this.getMaxRetryTime();
+                Object other$maxRetryTime = other.getMaxRetryTime();
+                if (this$maxRetryTime == null) {
+                    if (other$maxRetryTime != null) {
+                        return false;
+                    }
+                } else if (!this$maxRetryTime.equals(other$maxRetryTime)) {
+                    return false;
+                }
+
+                Object this$retryPolicy = this.retryPolicy;
+                Object other$retryPolicy = other.retryPolicy;
+                if (this$retryPolicy == null) {
+                    if (other$retryPolicy != null) {
+                        return false;
+                    }
+                } else if (!this$retryPolicy.equals(other$retryPolicy)) {
+                    return false;
+                }
+
                 Object this$processIntercept = this.getProcessIntercept();
                 Object other$processIntercept = other.getProcessIntercept();
                 if (this$processIntercept == null) {
@@ -430,6 +578,12 @@ public class Retry {
         result = result * 59 + ($maxRetryNum == null ? 43 : $maxRetryNum.hashCode());
         Object $retryInterval = this.getRetryInterval();
         result = result * 59 + ($retryInterval == null ? 43 : $retryInterval.hashCode());
+        Object $maxRetryInterval = this.getMaxRetryInterval();
+        result = result * 59 + ($maxRetryInterval == null ? 43 : $maxRetryInterval.hashCode());
+        Object $maxRetryTime = this.getMaxRetryTime();
+        result = result * 59 + ($maxRetryTime == null ? 43 : $maxRetryTime.hashCode());
+        Object $retryPolicy = this.retryPolicy;
+        result = result * 59 + ($retryPolicy == null ? 43 : $retryPolicy.hashCode());
         Object $processIntercept = this.getProcessIntercept();
         result = result * 59 + ($processIntercept == null ? 43 : $processIntercept.hashCode());
         Object $asyncRetry = this.getAsyncRetry();
@@ -448,7 +602,7 @@ public class Retry {
     }
 
     public String toString() {
-        return "Retry(maxRetryNum=" + this.getMaxRetryNum() + ", retryInterval=" + this.getRetryInterval() + ", processIntercept=" + this.getProcessIntercept() + ", asyncRetry=" + this.getAsyncRetry() + ", autoVersionNum=" + this.getAutoVersionNum() + ", hitRetry=" + this.getHitRetry() + ", onSuccess=" + this.getOnSuccess() + ", onFailure=" + this.getOnFailure() + ", fallback=" + this.getFallback() + ")";
+        return "Retry(maxRetryNum=" + this.getMaxRetryNum() + ", retryInterval=" + this.getRetryInterval() + ", maxRetryInterval=" + this.getMaxRetryInterval() + ", maxRetryTime=" + this.getMaxRetryTime() + ", retryPolicy=" + this.retryPolicy + ", processIntercept=" + this.getProcessIntercept() + ", asyncRetry=" + this.getAsyncRetry() + ", autoVersionNum=" + this.getAutoVersionNum() + ", hitRetry=" + this.getHitRetry() + ", onSuccess=" + this.getOnSuccess() + ", onFailure=" + this.getOnFailure() + ", fallback=" + this.getFallback() + ")";
     }
 
 }
@@ -15,7 +15,7 @@ public class CommandStarted extends BaseCommand {
     private BsonDocument commandDocument;
 
     /**
-     * 命令，解析为json的类型
+     * 命令，解析为json的类型，第一次获取时才会生成
     */
     private String command;
 
@@ -33,7 +33,12 @@ public class CommandStarted extends BaseCommand {
     }
 
     public String getCommand() {
-        return command;
+        String json = command;
+        if (json == null && commandDocument != null) {
+            json = commandDocument.toJson();
+            command = json;
+        }
+        return json;
     }
 
     public void setCommand(String command) {
@@ -55,6 +60,12 @@ public class CommandStarted extends BaseCommand {
         this.commandStartedEvent = commandStartedEvent;
     }
 
+    public CommandStarted(String commandName, BsonDocument commandDocument, CommandStartedEvent commandStartedEvent) {
+        super(commandName);
+        this.commandDocument = commandDocument;
+        this.commandStartedEvent = commandStartedEvent;
+    }
+
     public CommandStarted() {
     }
 }
@@ -1,8 +1,14 @@
 package com.mongoplus.parser;
 
+import com.mongoplus.cache.codec.MapCodecCache;
+import com.mongoplus.cache.global.CommandTemplateCache;
 import com.mongoplus.domain.MongoPlusConvertException;
 import com.mongoplus.enums.CommandOperate;
 import com.mongoplus.model.command.ParseCommand;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.codecs.configuration.CodecRegistry;
 import org.bson.conversions.Bson;
 
 import java.util.List;
@@ -11,6 +17,8 @@ import java.util.regex.Pattern;
 
 /**
  * 抽象的解析器
+ * <p>命令只在第一次执行时解析并编译为{@link CommandTemplate}，按命令原文缓存在{@link CommandTemplateCache}中，
+ * 之后每次执行只绑定参数</p>
  * @author anwen
  */
 public abstract class AbstractCommandParse implements Parser {
@@ -18,21 +26,46 @@ public abstract class AbstractCommandParse implements Parser {
     // 正则表达式：支持 db.user 和 db.getCollection("user")
     static final String pattern = "^([a-zA-Z0-9_]+)\\.(getCollection\\([\"'][a-zA-Z0-9_]+[\"']\\)|[a-zA-Z0-9_]+)\\.(\\w+)\\((.*)\\)$";
 
+    private static final Pattern COMMAND_PATTERN = Pattern.compile(pattern);
+
+    private static final Pattern QUOTED_PATTERN = Pattern.compile(".*['\"].*['\"].*");
+
+    private static final Pattern QUOTED_CONTENT_PATTERN = Pattern.compile(".*?['\"](.*?)['\"].*");
+
     @Override
     public ParseCommand parse(String command) {
+        return parse(command, (Object[]) null);
+    }
+
+    @Override
+    public ParseCommand parse(String command, Object... args) {
+        return CommandTemplateCache.getTemplate(command, this::compile).bind(args);
+    }
+
+    /**
+     * 解析命令并编译为模板，未加引号的占位符会先加上引号
+     * @param command 命令
+     * @return {@link CommandTemplate}
+     * @author anwen
+     */
+    public CommandTemplate compile(String command) {
         ParseCommand parseCommand = buildParseCommand(command);
         if (parseCommand.getCollection().startsWith("get")){
             parseCommand.setCollection(extractContent(parseCommand.getCollection()));
         }
         CommandOperate commandOperate = CommandOperate.getCommandOperate(parseCommand.getOperate());
-        Object actualCommand;
+        String unresolvedCommand = CommandTemplate.quotePlaceholders(parseCommand.getUnresolvedCommand());
+        CodecRegistry codecRegistry = MapCodecCache.getDefaultCodecRegistry();
+        BsonValue actualCommand;
         if (commandOperate == CommandOperate.FIND) {
-            actualCommand = parseCommand(parseCommand.getUnresolvedCommand());
+            actualCommand = parseCommand(unresolvedCommand).toBsonDocument(BsonDocument.class, codecRegistry);
         } else {
-            actualCommand = parseArrayCommand(parseCommand.getUnresolvedCommand());
+            BsonArray bsonArray = new BsonArray();
+            parseArrayCommand(unresolvedCommand).forEach(bson ->
+                    bsonArray.add(bson.toBsonDocument(BsonDocument.class, codecRegistry)));
+            actualCommand = bsonArray;
         }
-        parseCommand.setCommand(actualCommand);
-        return parseCommand;
+        return CommandTemplate.compile(parseCommand, actualCommand);
     }
 
     /**
@@ -58,8 +91,7 @@ public abstract class AbstractCommandParse implements Parser {
      * @author anwen
      */
     public ParseCommand buildParseCommand(String command){
-        Pattern regex = Pattern.compile(pattern);
-        Matcher matcher = regex.matcher(command);
+        Matcher matcher = COMMAND_PATTERN.matcher(command);
         if (matcher.find()) {
             // db 部分
             String db = matcher.group(1);
@@ -81,11 +113,9 @@ public abstract class AbstractCommandParse implements Parser {
 
     public static String extractContent(String input) {
         // 使用正则表达式从括号内提取引号中的内容
-        String regex = "(?<=['\"]).*?(?=['\"])";
-        // 使用正则表达式提取内容
-        if (input != null && input.matches(".*['\"].*['\"].*")) {
+        if (input != null && QUOTED_PATTERN.matcher(input).matches()) {
             // 提取并返回引号内的内容
-            return input.replaceAll(".*?['\"](.*?)['\"].*", "$1");
+            return QUOTED_CONTENT_PATTERN.matcher(input).replaceAll("$1");
         }
         throw new MongoPlusConvertException("Unable to extract collection name from "+input);
     }
@@ -1,8 +1,9 @@
 package com.mongoplus.parser;
 
+import com.mongoplus.cache.global.CommandTemplateCache;
 import org.bson.BsonArray;
+import org.bson.BsonDocument;
 import org.bson.BsonValue;
-import org.bson.Document;
 import org.bson.conversions.Bson;
 
 import java.util.List;
@@ -14,6 +15,7 @@ public class CommandParse extends AbstractCommandParse {
 
     public static void setParser(Parser parser){
         parserInstance = parser;
+        CommandTemplateCache.clear();
     }
 
     static {
@@ -22,7 +24,7 @@ public class CommandParse extends AbstractCommandParse {
 
     @Override
     public Bson parseCommand(String command) {
-        return Document.parse(command);
+        return BsonDocument.parse(command);
     }
 
     @Override
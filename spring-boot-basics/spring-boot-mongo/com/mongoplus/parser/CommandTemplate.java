@@ -0,0 +1,334 @@
+package com.mongoplus.parser;
+
+import com.mongoplus.cache.codec.MapCodecCache;
+import com.mongoplus.domain.MongoPlusException;
+import com.mongoplus.enums.CommandOperate;
+import com.mongoplus.model.command.ParseCommand;
+import org.bson.*;
+import org.bson.codecs.Encoder;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecConfigurationException;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.conversions.Bson;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 预编译的命令模板，json只在编译时解析一次，执行时只将参数绑定到模板的副本中
+ * <p>占位符使用{@code ?0}、{@code ?1}...的形式，只能出现在值的位置，可以不加引号，如：
+ * {@code db.user.find({"age": {"$gt": ?0}, "name": ?1})}，加了引号的{@code "?1"}是普通字符串</p>
+ *
+ * @author anwen
+ */
+public class CommandTemplate {
+
+    private static final String PLACEHOLDER_PREFIX = "?";
+
+    /**
+     * 加引号后的占位符前的标记，只有带标记的字符串才是占位符，命令中原本的字符串"?1"仍是常量
+     */
+    private static final char PLACEHOLDER_MARK = '\uE000';
+
+    private static final String VALUE_NAME = "v";
+
+    private final String operate;
+
+    private final String collection;
+
+    private final String unresolvedCommand;
+
+    private final String original;
+
+    /**
+     * find为单个文档，其他为文档数组
+     */
+    private final boolean array;
+
+    private final Node root;
+
+    /**
+     * 占位符的最大下标，-1表示没有占位符
+     */
+    private final int maxParameterIndex;
+
+    private CommandTemplate(ParseCommand parseCommand, BsonValue command) {
+        this.operate = parseCommand.getOperate();
+        this.collection = parseCommand.getCollection();
+        this.unresolvedCommand = parseCommand.getUnresolvedCommand();
+        this.original = parseCommand.getOriginal();
+        this.array = command.isArray();
+        int[] maxIndex = {-1};
+        this.root = compile(command, maxIndex);
+        this.maxParameterIndex = maxIndex[0];
+    }
+
+    /**
+     * 编译命令模板
+     * @param parseCommand 已提取操作和集合的命令
+     * @param command 解析后的命令，find为{@link BsonDocument}，其他为{@link BsonArray}
+     * @return {@link CommandTemplate}
+     * @author anwen
+     */
+    public static CommandTemplate compile(ParseCommand parseCommand, BsonValue command) {
+        return new CommandTemplate(parseCommand, command);
+    }
+
+    /**
+     * 绑定参数，生成新的{@link ParseCommand}，每次调用返回的命令都是独立的副本
+     * @param args 参数，按下标对应占位符
+     * @return {@link ParseCommand}
+     * @author anwen
+     */
+    public ParseCommand bind(Object... args) {
+        int length = args == null ? 0 : args.length;
+        if (maxParameterIndex >= length) {
+            throw new MongoPlusException("Missing parameter for placeholder " + PLACEHOLDER_PREFIX + maxParameterIndex
+                    + ", " + length + " parameters given, original -> " + original);
+        }
+        BsonValue[] params = new BsonValue[maxParameterIndex + 1];
+        if (params.length > 0) {
+            CodecRegistry codecRegistry = MapCodecCache.getDefaultCodecRegistry();
+            for (int i = 0; i < params.length; i++) {
+                params[i] = toBsonValue(args[i], codecRegistry);
+            }
+        }
+        BsonValue command = root.bind(params);
+        ParseCommand parseCommand = new ParseCommand();
+        parseCommand.setOperate(operate);
+        parseCommand.setCollection(collection);
+        parseCommand.setUnresolvedCommand(unresolvedCommand);
+        parseCommand.setOriginal(original);
+        if (array) {
+            List<Bson> bsonList = new ArrayList<>();
+            command.asArray().forEach(value -> bsonList.add(value.asDocument()));
+            parseCommand.setCommand(bsonList);
+        } else {
+            parseCommand.setCommand(command.asDocument());
+        }
+        return parseCommand;
+    }
+
+    public String getOperate() {
+        return operate;
+    }
+
+    public CommandOperate getCommandOperate() {
+        return CommandOperate.getCommandOperate(operate);
+    }
+
+    public String getCollection() {
+        return collection;
+    }
+
+    /**
+     * 占位符数量，按最大下标计算
+     * @return {@link int}
+     * @author anwen
+     */
+    public int getParameterCount() {
+        return maxParameterIndex + 1;
+    }
+
+    /**
+     * 将json中未加引号的占位符加上引号和标记，使其可以被json解析
+     * <p>字符串和正则表达式字面量（如{@code /^a?1/i}）中的内容不受影响，与json解析器相同，
+     * 正则表达式从{@code /}开始，到下一个未转义的{@code /}结束</p>
+     * @param json json
+     * @return {@link String}
+     * @author anwen
+     */
+    public static String quotePlaceholders(String json) {
+        if (json == null || !json.contains(PLACEHOLDER_PREFIX)) {
+            return json;
+        }
+        StringBuilder builder = new StringBuilder(json.length() + 16);
+        // 当前所在的字符串或正则表达式的结束字符，0表示不在其中
+        char quote = 0;
+        int length = json.length();
+        for (int i = 0; i < length; i++) {
+            char c = json.charAt(i);
+            if (quote != 0) {
+                builder.append(c);
+                if (c == '\\' && i + 1 < length) {
+                    builder.append(json.charAt(++i));
+                } else if (c == quote) {
+                    quote = 0;
+                }
+                continue;
+            }
+            if (c == '"' || c == '\'' || c == '/') {
+                quote = c;
+                builder.append(c);
+                continue;
+            }
+            if (c == '?' && i + 1 < length && Character.isDigit(json.charAt(i + 1))) {
+                int end = i + 1;
+                while (end < length && Character.isDigit(json.charAt(end))) {
+                    end++;
+                }
+                builder.append('"').append(PLACEHOLDER_MARK).append(json, i, end).append('"');
+                i = end - 1;
+                continue;
+            }
+            builder.append(c);
+        }
+        return builder.toString();
+    }
+
+    private static Node compile(BsonValue value, int[] maxIndex) {
+        if (value.isDocument()) {
+            BsonDocument document = value.asDocument();
+            String[] keys = new String[document.size()];
+            Node[] nodes = new Node[document.size()];
+            int i = 0;
+            for (Map.Entry<String, BsonValue> entry : document.entrySet()) {
+                keys[i] = entry.getKey();
+                nodes[i++] = compile(entry.getValue(), maxIndex);
+            }
+            return new DocumentNode(keys, nodes);
+        }
+        if (value.isArray()) {
+            BsonArray bsonArray = value.asArray();
+            Node[] nodes = new Node[bsonArray.size()];
+            for (int i = 0; i < nodes.length; i++) {
+                nodes[i] = compile(bsonArray.get(i), maxIndex);
+            }
+            return new ArrayNode(nodes);
+        }
+        int index = getPlaceholderIndex(value);
+        if (index >= 0) {
+            maxIndex[0] = Math.max(maxIndex[0], index);
+            return new SlotNode(index);
+        }
+        return new ConstantNode(value);
+    }
+
+    private static int getPlaceholderIndex(BsonValue value) {
+        if (!value.isString()) {
+            return -1;
+        }
+        String text = value.asString().getValue();
+        if (text.length() < 3 || text.charAt(0) != PLACEHOLDER_MARK || !text.startsWith(PLACEHOLDER_PREFIX, 1)) {
+            return -1;
+        }
+        for (int i = 2; i < text.length(); i++) {
+            if (!Character.isDigit(text.charAt(i))) {
+                return -1;
+            }
+        }
+        return Integer.parseInt(text.substring(2));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static BsonValue toBsonValue(Object value, CodecRegistry codecRegistry) {
+        if (value == null) {
+            return BsonNull.VALUE;
+        }
+        if (value instanceof BsonValue) {
+            return (BsonValue) value;
+        }
+        if (value instanceof Bson) {
+            return ((Bson) value).toBsonDocument(BsonDocument.class, codecRegistry);
+        }
+        if (value instanceof Object[]) {
+            value = Arrays.asList((Object[]) value);
+        }
+        BsonDocumentWriter writer = new BsonDocumentWriter(new BsonDocument());
+        writer.writeStartDocument();
+        writer.writeName(VALUE_NAME);
+        try {
+            ((Encoder) codecRegistry.get(value.getClass())).encode(writer, value, EncoderContext.builder().build());
+        } catch (CodecConfigurationException e) {
+            throw new MongoPlusException("Unsupported command parameter type: " + value.getClass().getName(), e);
+        }
+        writer.writeEndDocument();
+        return writer.getDocument().get(VALUE_NAME);
+    }
+
+    /**
+     * 模板节点
+     */
+    private interface Node {
+
+        BsonValue bind(BsonValue[] params);
+
+    }
+
+    private static final class DocumentNode implements Node {
+
+        private final String[] keys;
+
+        private final Node[] nodes;
+
+        private DocumentNode(String[] keys, Node[] nodes) {
+            this.keys = keys;
+            this.nodes = nodes;
+        }
+
+        @Override
+        public BsonValue bind(BsonValue[] params) {
+            BsonDocument document = new BsonDocument();
+            for (int i = 0; i < keys.length; i++) {
+                document.put(keys[i], nodes[i].bind(params));
+            }
+            return document;
+        }
+
+    }
+
+    private static final class ArrayNode implements Node {
+
+        private final Node[] nodes;
+
+        private ArrayNode(Node[] nodes) {
+            this.nodes = nodes;
+        }
+
+        @Override
+        public BsonValue bind(BsonValue[] params) {
+            List<BsonValue> values = new ArrayList<>(nodes.length);
+            for (Node node : nodes) {
+                values.add(node.bind(params));
+            }
+            return new BsonArray(values);
+        }
+
+    }
+
+    /**
+     * 常量节点，文档和数组之外的值不可变，直接复用
+     */
+    private static final class ConstantNode implements Node {
+
+        private final BsonValue value;
+
+        private ConstantNode(BsonValue value) {
+            this.value = value;
+        }
+
+        @Override
+        public BsonValue bind(BsonValue[] params) {
+            return value;
+        }
+
+    }
+
+    private static final class SlotNode implements Node {
+
+        private final int index;
+
+        private SlotNode(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public BsonValue bind(BsonValue[] params) {
+            return params[index];
+        }
+
+    }
+
+}
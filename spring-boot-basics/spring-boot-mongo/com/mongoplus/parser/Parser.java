@@ -1,5 +1,6 @@
 package com.mongoplus.parser;
 
+import com.mongoplus.domain.MongoPlusException;
 import com.mongoplus.model.command.ParseCommand;
 
 /**
@@ -16,4 +17,18 @@ public interface Parser {
      */
     ParseCommand parse(String command);
 
+    /**
+     * 解析命令并绑定参数，占位符使用{@code ?0}、{@code ?1}...的形式
+     * @param command 命令
+     * @param args 参数，按下标对应占位符
+     * @return {@link ParseCommand}
+     * @author anwen
+     */
+    default ParseCommand parse(String command, Object... args) {
+        if (args == null || args.length == 0) {
+            return parse(command);
+        }
+        throw new MongoPlusException("Parser " + getClass().getName() + " does not support command parameters");
+    }
+
 }
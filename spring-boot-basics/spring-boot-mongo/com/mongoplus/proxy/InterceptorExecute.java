@@ -0,0 +1,499 @@
+package com.mongoplus.proxy;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.AggregateIterable;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.*;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.InsertManyResult;
+import com.mongodb.client.result.InsertOneResult;
+import com.mongodb.client.result.UpdateResult;
+import com.mongoplus.cache.global.ExecutorProxyCache;
+import com.mongoplus.enums.ExecuteMethodEnum;
+import com.mongoplus.execute.Execute;
+import com.mongoplus.interceptor.Interceptor;
+import com.mongoplus.interceptor.InterceptorChain;
+import com.mongoplus.model.MutablePair;
+import com.mongoplus.strategy.executor.MethodExecutorStrategy;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 预编译拦截器链的执行器，替代{@link ExecutorProxy}
+ * <p>拦截器链按{@link Execute}的每个方法预先编译为数组，只包含会对该方法生效的拦截器，
+ * 调用时直接调用目标执行器，不需要反射和按方法名查找</p>
+ * <p>拦截器变化时（引用或数量变化）重新编译，拦截顺序、参数替换方式以及传给拦截器的集合对象与{@link ExecutorProxy}一致</p>
+ *
+ * @author anwen
+ */
+@SuppressWarnings("unchecked")
+public class InterceptorExecute implements Execute {
+
+    private static final int SAVE_ONE = 0;
+    private static final int SAVE = 1;
+    private static final int REMOVE_ONE = 2;
+    private static final int REMOVE = 3;
+    private static final int UPDATE_ONE = 4;
+    private static final int UPDATE = 5;
+    private static final int QUERY = 6;
+    private static final int AGGREGATE = 7;
+    private static final int COUNT = 8;
+    private static final int ESTIMATED_DOCUMENT_COUNT = 9;
+    private static final int BULK_WRITE = 10;
+    private static final int CREATE_INDEX = 11;
+    private static final int CREATE_INDEXES = 12;
+    private static final int LIST_INDEXES = 13;
+    private static final int DROP_INDEX = 14;
+    private static final int DROP_INDEXES = 15;
+
+    /**
+     * 执行器方法名，和拦截该方法的{@link Interceptor}方法名，下标与上方常量对应
+     */
+    private static final String[][] METHODS = {
+            {"executeSaveOne", "executeSave"},
+            {"executeSave", "executeSave"},
+            {"executeRemoveOne", "executeRemoveOne"},
+            {"executeRemove", "executeRemove"},
+            {"executeUpdateOne", "executeUpdate"},
+            {"executeUpdate", "executeUpdate"},
+            {"executeQuery", "executeQuery"},
+            {"executeAggregate", "executeAggregates"},
+            {"executeCount", "executeCount"},
+            {"estimatedDocumentCount", "executeEstimatedDocumentCount"},
+            {"executeBulkWrite", "executeBulkWrite"},
+            {"doCreateIndex", null},
+            {"doCreateIndexes", null},
+            {"doListIndexes", null},
+            {"doDropIndex", null},
+            {"doDropIndexes", null}
+    };
+
+    private static volatile ChainSnapshot snapshot;
+
+    private final Execute target;
+
+    public InterceptorExecute(Execute target) {
+        this.target = target;
+    }
+
+    /**
+     * 包装执行器
+     * @param execute 执行器
+     * @return {@link Execute}
+     * @author anwen
+     */
+    public static Execute wrap(Execute execute) {
+        return new InterceptorExecute(execute);
+    }
+
+    @Override
+    public InsertOneResult executeSaveOne(Document document, InsertOneOptions options,
+                                          MongoCollection<Document> collection) {
+        MethodChain chain = getChain(SAVE_ONE);
+        if (chain.isEmpty()) {
+            return target.executeSaveOne(document, options, collection);
+        }
+        Object[] args = {document, options, collection};
+        chain.before(args, collection);
+        InsertOneResult result = target.executeSaveOne((Document) args[0], (InsertOneOptions) args[1],
+                getCollection(args));
+        chain.after(args, result, collection);
+        return result;
+    }
+
+    @Override
+    public InsertManyResult executeSave(List<Document> documentList, InsertManyOptions options,
+                                        MongoCollection<Document> collection) {
+        MethodChain chain = getChain(SAVE);
+        if (chain.isEmpty()) {
+            return target.executeSave(documentList, options, collection);
+        }
+        Object[] args = {documentList, options, collection};
+        chain.before(args, collection);
+        InsertManyResult result = target.executeSave((List<Document>) args[0], (InsertManyOptions) args[1],
+                getCollection(args));
+        chain.after(args, result, collection);
+        return result;
+    }
+
+    @Override
+    public DeleteResult executeRemoveOne(Bson filter, DeleteOptions options, MongoCollection<Document> collection) {
+        MethodChain chain = getChain(REMOVE_ONE);
+        if (chain.isEmpty()) {
+            return target.executeRemoveOne(filter, options, collection);
+        }
+        Object[] args = {filter, options, collection};
+        chain.before(args, collection);
+        DeleteResult result = target.executeRemoveOne((Bson) args[0], (DeleteOptions) args[1], getCollection(args));
+        chain.after(args, result, collection);
+        return result;
+    }
+
+    @Override
+    public DeleteResult executeRemove(Bson filter, DeleteOptions options, MongoCollection<Document> collection) {
+        MethodChain chain = getChain(REMOVE);
+        if (chain.isEmpty()) {
+            return target.executeRemove(filter, options, collection);
+        }
+        Object[] args = {filter, options, collection};
+        chain.before(args, collection);
+        DeleteResult result = target.executeRemove((Bson) args[0], (DeleteOptions) args[1], getCollection(args));
+        chain.after(args, result, collection);
+        return result;
+    }
+
+    @Override
+    public UpdateResult executeUpdateOne(MutablePair<Bson, Bson> bsonPair, UpdateOptions options,
+                                         MongoCollection<Document> collection) {
+        MethodChain chain = getChain(UPDATE_ONE);
+        if (chain.isEmpty()) {
+            return target.executeUpdateOne(bsonPair, options, collection);
+        }
+        Object[] args = {bsonPair, options, collection};
+        chain.before(args, collection);
+        UpdateResult result = target.executeUpdateOne((MutablePair<Bson, Bson>) args[0], (UpdateOptions) args[1],
+                getCollection(args));
+        chain.after(args, result, collection);
+        return result;
+    }
+
+    @Override
+    public UpdateResult executeUpdate(List<MutablePair<Bson, Bson>> bsonPairList, UpdateOptions options,
+                                      MongoCollection<Document> collection) {
+        MethodChain chain = getChain(UPDATE);
+        if (chain.isEmpty()) {
+            return target.executeUpdate(bsonPairList, options, collection);
+        }
+        Object[] args = {bsonPairList, options, collection};
+        chain.before(args, collection);
+        UpdateResult result = target.executeUpdate((List<MutablePair<Bson, Bson>>) args[0], (UpdateOptions) args[1],
+                getCollection(args));
+        chain.after(args, result, collection);
+        return result;
+    }
+
+    @Override
+    public <T> FindIterable<T> executeQuery(Bson queryBasic, BasicDBObject projectionList, BasicDBObject sortCond,
+                                            Class<T> clazz, MongoCollection<Document> collection) {
+        MethodChain chain = getChain(QUERY);
+        if (chain.isEmpty()) {
+            return target.executeQuery(queryBasic, projectionList, sortCond, clazz, collection);
+        }
+        Object[] args = {queryBasic, projectionList, sortCond, clazz, collection};
+        chain.before(args, collection);
+        FindIterable<T> result = target.executeQuery((Bson) args[0], (BasicDBObject) args[1], (BasicDBObject) args[2],
+                (Class<T>) args[3], getCollection(args));
+        chain.after(args, result, collection);
+        return result;
+    }
+
+    @Override
+    public <T> AggregateIterable<T> executeAggregate(List<? extends Bson> aggregateConditionList, Class<T> clazz,
+                                                     MongoCollection<Document> collection) {
+        MethodChain chain = getChain(AGGREGATE);
+        if (chain.isEmpty()) {
+            return target.executeAggregate(aggregateConditionList, clazz, collection);
+        }
+        Object[] args = {aggregateConditionList, clazz, collection};
+        chain.before(args, collection);
+        AggregateIterable<T> result = target.executeAggregate((List<? extends Bson>) args[0], (Class<T>) args[1],
+                getCollection(args));
+        chain.after(args, result, collection);
+        return result;
+    }
+
+    @Override
+    public long executeCount(BasicDBObject queryBasic, CountOptions countOptions, MongoCollection<Document> collection) {
+        MethodChain chain = getChain(COUNT);
+        if (chain.isEmpty()) {
+            return target.executeCount(queryBasic, countOptions, collection);
+        }
+        Object[] args = {queryBasic, countOptions, collection};
+        chain.before(args, collection);
+        long result = target.executeCount((BasicDBObject) args[0], (CountOptions) args[1], getCollection(args));
+        chain.after(args, result, collection);
+        return result;
+    }
+
+    @Override
+    public long estimatedDocumentCount(MongoCollection<Document> collection) {
+        MethodChain chain = getChain(ESTIMATED_DOCUMENT_COUNT);
+        if (chain.isEmpty()) {
+            return target.estimatedDocumentCount(collection);
+        }
+        Object[] args = {collection};
+        chain.before(args, collection);
+        long result = target.estimatedDocumentCount(getCollection(args));
+        chain.after(args, result, collection);
+        return result;
+    }
+
+    @Override
+    public BulkWriteResult executeBulkWrite(List<WriteModel<Document>> writeModelList, BulkWriteOptions options,
+                                            MongoCollection<Document> collection) {
+        MethodChain chain = getChain(BULK_WRITE);
+        if (chain.isEmpty()) {
+            return target.executeBulkWrite(writeModelList, options, collection);
+        }
+        Object[] args = {writeModelList, options, collection};
+        chain.before(args, collection);
+        BulkWriteResult result = target.executeBulkWrite((List<WriteModel<Document>>) args[0],
+                (BulkWriteOptions) args[1], getCollection(args));
+        chain.after(args, result, collection);
+        return result;
+    }
+
+    @Override
+    public String doCreateIndex(Bson bson, MongoCollection<Document> collection) {
+        MethodChain chain = getChain(CREATE_INDEX);
+        if (chain.isEmpty()) {
+            return target.doCreateIndex(bson, collection);
+        }
+        Object[] args = {bson, collection};
+        chain.before(args, collection);
+        String result = target.doCreateIndex((Bson) args[0], getCollection(args));
+        chain.after(args, result, collection);
+        return result;
+    }
+
+    @Override
+    public String doCreateIndex(Bson bson, IndexOptions indexOptions, MongoCollection<Document> collection) {
+        MethodChain chain = getChain(CREATE_INDEX);
+        if (chain.isEmpty()) {
+            return target.doCreateIndex(bson, indexOptions, collection);
+        }
+        Object[] args = {bson, indexOptions, collection};
+        chain.before(args, collection);
+        String result = target.doCreateIndex((Bson) args[0], (IndexOptions) args[1], getCollection(args));
+        chain.after(args, result, collection);
+        return result;
+    }
+
+    @Override
+    public List<String> doCreateIndexes(List<IndexModel> indexes, MongoCollection<Document> collection) {
+        MethodChain chain = getChain(CREATE_INDEXES);
+        if (chain.isEmpty()) {
+            return target.doCreateIndexes(indexes, collection);
+        }
+        Object[] args = {indexes, collection};
+        chain.before(args, collection);
+        List<String> result = target.doCreateIndexes((List<IndexModel>) args[0], getCollection(args));
+        chain.after(args, result, collection);
+        return result;
+    }
+
+    @Override
+    public List<String> doCreateIndexes(List<IndexModel> indexes, CreateIndexOptions createIndexOptions,
+                                        MongoCollection<Document> collection) {
+        MethodChain chain = getChain(CREATE_INDEXES);
+        if (chain.isEmpty()) {
+            return target.doCreateIndexes(indexes, createIndexOptions, collection);
+        }
+        Object[] args = {indexes, createIndexOptions, collection};
+        chain.before(args, collection);
+        List<String> result = target.doCreateIndexes((List<IndexModel>) args[0], (CreateIndexOptions) args[1],
+                getCollection(args));
+        chain.after(args, result, collection);
+        return result;
+    }
+
+    @Override
+    public List<Document> doListIndexes(MongoCollection<Document> collection) {
+        MethodChain chain = getChain(LIST_INDEXES);
+        if (chain.isEmpty()) {
+            return target.doListIndexes(collection);
+        }
+        Object[] args = {collection};
+        chain.before(args, collection);
+        List<Document> result = target.doListIndexes(getCollection(args));
+        chain.after(args, result, collection);
+        return result;
+    }
+
+    @Override
+    public void doDropIndex(String indexName, MongoCollection<Document> collection) {
+        MethodChain chain = getChain(DROP_INDEX);
+        if (chain.isEmpty()) {
+            target.doDropIndex(indexName, collection);
+            return;
+        }
+        Object[] args = {indexName, collection};
+        chain.before(args, collection);
+        target.doDropIndex((String) args[0], getCollection(args));
+        chain.after(args, null, collection);
+    }
+
+    @Override
+    public void doDropIndex(String indexName, DropIndexOptions dropIndexOptions, MongoCollection<Document> collection) {
+        MethodChain chain = getChain(DROP_INDEX);
+        if (chain.isEmpty()) {
+            target.doDropIndex(indexName, dropIndexOptions, collection);
+            return;
+        }
+        Object[] args = {indexName, dropIndexOptions, collection};
+        chain.before(args, collection);
+        target.doDropIndex((String) args[0], (DropIndexOptions) args[1], getCollection(args));
+        chain.after(args, null, collection);
+    }
+
+    @Override
+    public void doDropIndex(Bson keys, MongoCollection<Document> collection) {
+        MethodChain chain = getChain(DROP_INDEX);
+        if (chain.isEmpty()) {
+            target.doDropIndex(keys, collection);
+            return;
+        }
+        Object[] args = {keys, collection};
+        chain.before(args, collection);
+        target.doDropIndex((Bson) args[0], getCollection(args));
+        chain.after(args, null, collection);
+    }
+
+    @Override
+    public void doDropIndex(Bson keys, DropIndexOptions dropIndexOptions, MongoCollection<Document> collection) {
+        MethodChain chain = getChain(DROP_INDEX);
+        if (chain.isEmpty()) {
+            target.doDropIndex(keys, dropIndexOptions, collection);
+            return;
+        }
+        Object[] args = {keys, dropIndexOptions, collection};
+        chain.before(args, collection);
+        target.doDropIndex((Bson) args[0], (DropIndexOptions) args[1], getCollection(args));
+        chain.after(args, null, collection);
+    }
+
+    @Override
+    public void doDropIndexes(MongoCollection<Document> collection) {
+        MethodChain chain = getChain(DROP_INDEXES);
+        if (chain.isEmpty()) {
+            target.doDropIndexes(collection);
+            return;
+        }
+        Object[] args = {collection};
+        chain.before(args, collection);
+        target.doDropIndexes(getCollection(args));
+        chain.after(args, null, collection);
+    }
+
+    @Override
+    public void doDropIndexes(DropIndexOptions dropIndexOptions, MongoCollection<Document> collection) {
+        MethodChain chain = getChain(DROP_INDEXES);
+        if (chain.isEmpty()) {
+            target.doDropIndexes(dropIndexOptions, collection);
+            return;
+        }
+        Object[] args = {dropIndexOptions, collection};
+        chain.before(args, collection);
+        target.doDropIndexes((DropIndexOptions) args[0], getCollection(args));
+        chain.after(args, null, collection);
+    }
+
+    /**
+     * 集合固定为最后一个参数，拦截器可能替换，执行时使用替换后的集合
+     */
+    private static MongoCollection<Document> getCollection(Object[] args) {
+        return (MongoCollection<Document>) args[args.length - 1];
+    }
+
+    private static MethodChain getChain(int method) {
+        ChainSnapshot chainSnapshot = snapshot;
+        List<Interceptor> currentInterceptors = InterceptorChain.getInterceptors();
+        // 兼容直接修改拦截器链的情况
+        if (chainSnapshot == null || chainSnapshot.source != currentInterceptors
+                || chainSnapshot.size != currentInterceptors.size()) {
+            chainSnapshot = new ChainSnapshot(currentInterceptors);
+            snapshot = chainSnapshot;
+        }
+        return chainSnapshot.chains[method];
+    }
+
+    /**
+     * 拦截器是否重写了指定名称的方法
+     */
+    private static boolean overrides(Interceptor interceptor, String methodName) {
+        for (Method method : interceptor.getClass().getMethods()) {
+            if (method.getName().equals(methodName) && method.getDeclaringClass() != Interceptor.class) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class ChainSnapshot {
+
+        private final List<Interceptor> source;
+
+        private final int size;
+
+        private final MethodChain[] chains;
+
+        private ChainSnapshot(List<Interceptor> source) {
+            this.source = source;
+            this.size = source.size();
+            Interceptor[] interceptors = source.toArray(new Interceptor[0]);
+            this.chains = new MethodChain[METHODS.length];
+            for (int i = 0; i < METHODS.length; i++) {
+                chains[i] = new MethodChain(METHODS[i][0], METHODS[i][1], interceptors);
+            }
+        }
+
+    }
+
+    /**
+     * 单个执行器方法的拦截器链
+     */
+    private static final class MethodChain {
+
+        private final ExecuteMethodEnum executeMethodEnum;
+
+        private final MethodExecutorStrategy executor;
+
+        /**
+         * 需要执行前置处理和参数替换的拦截器
+         */
+        private final Interceptor[] beforeInterceptors;
+
+        /**
+         * 需要执行后置处理的拦截器
+         */
+        private final Interceptor[] afterInterceptors;
+
+        private MethodChain(String methodName, String interceptMethodName, Interceptor[] interceptors) {
+            this.executeMethodEnum = ExecuteMethodEnum.getMethod(methodName);
+            this.executor = ExecutorProxyCache.EXECUTOR_MAP.get(executeMethodEnum);
+            // 没有方法执行策略的方法，不执行前置处理
+            this.beforeInterceptors = executor == null ? new Interceptor[0] : Arrays.stream(interceptors)
+                    .filter(interceptor -> overrides(interceptor, "beforeExecute")
+                            || (interceptMethodName != null && overrides(interceptor, interceptMethodName)))
+                    .toArray(Interceptor[]::new);
+            this.afterInterceptors = Arrays.stream(interceptors)
+                    .filter(interceptor -> overrides(interceptor, "afterExecute"))
+                    .toArray(Interceptor[]::new);
+        }
+
+        private boolean isEmpty() {
+            return beforeInterceptors.length == 0 && afterInterceptors.length == 0;
+        }
+
+        private void before(Object[] args, MongoCollection<Document> collection) {
+            for (Interceptor interceptor : beforeInterceptors) {
+                interceptor.beforeExecute(executeMethodEnum, args, collection);
+                executor.invoke(interceptor, args);
+            }
+        }
+
+        private void after(Object[] args, Object result, MongoCollection<Document> collection) {
+            for (Interceptor interceptor : afterInterceptors) {
+                interceptor.afterExecute(executeMethodEnum, args, result, collection);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,233 @@
+package com.mongoplus.proxy;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.AggregateIterable;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.*;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.InsertManyResult;
+import com.mongodb.client.result.InsertOneResult;
+import com.mongodb.client.result.UpdateResult;
+import com.mongoplus.cache.codec.MapCodecCache;
+import com.mongoplus.cache.global.ReadWriteCache;
+import com.mongoplus.execute.Execute;
+import com.mongoplus.manager.MongoPlusClient;
+import com.mongoplus.model.MutablePair;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 读写分离执行器，只读操作通过{@link MongoPlusClient#getReadCollection(MongoCollection)}路由到从数据源，
+ * 写操作使用原集合，并记录当前线程的写入时间
+ * <p>包含$out或$merge的管道属于写操作，不会路由；索引操作始终使用原集合</p>
+ *
+ * @author anwen
+ */
+public class ReadWriteExecute implements Execute {
+
+    private static final String OUT = "$out";
+
+    private static final String MERGE = "$merge";
+
+    private final Execute target;
+
+    private final MongoPlusClient mongoPlusClient;
+
+    public ReadWriteExecute(Execute target, MongoPlusClient mongoPlusClient) {
+        this.target = target;
+        this.mongoPlusClient = mongoPlusClient;
+    }
+
+    /**
+     * 包装执行器，未配置从数据源时直接返回原执行器
+     * @param execute 执行器
+     * @param mongoPlusClient MongoPlusClient
+     * @return {@link Execute}
+     * @author anwen
+     */
+    public static Execute wrap(Execute execute, MongoPlusClient mongoPlusClient) {
+        if (ReadWriteCache.isEmpty() || mongoPlusClient == null) {
+            return execute;
+        }
+        return new ReadWriteExecute(execute, mongoPlusClient);
+    }
+
+    @Override
+    public InsertOneResult executeSaveOne(Document document, InsertOneOptions options,
+                                          MongoCollection<Document> collection) {
+        try {
+            return target.executeSaveOne(document, options, collection);
+        } finally {
+            ReadWriteCache.markWrite();
+        }
+    }
+
+    @Override
+    public InsertManyResult executeSave(List<Document> documentList, InsertManyOptions options,
+                                        MongoCollection<Document> collection) {
+        try {
+            return target.executeSave(documentList, options, collection);
+        } finally {
+            ReadWriteCache.markWrite();
+        }
+    }
+
+    @Override
+    public DeleteResult executeRemoveOne(Bson filter, DeleteOptions options, MongoCollection<Document> collection) {
+        try {
+            return target.executeRemoveOne(filter, options, collection);
+        } finally {
+            ReadWriteCache.markWrite();
+        }
+    }
+
+    @Override
+    public DeleteResult executeRemove(Bson filter, DeleteOptions options, MongoCollection<Document> collection) {
+        try {
+            return target.executeRemove(filter, options, collection);
+        } finally {
+            ReadWriteCache.markWrite();
+        }
+    }
+
+    @Override
+    public UpdateResult executeUpdateOne(MutablePair<Bson, Bson> bsonPair, UpdateOptions options,
+                                         MongoCollection<Document> collection) {
+        try {
+            return target.executeUpdateOne(bsonPair, options, collection);
+        } finally {
+            ReadWriteCache.markWrite();
+        }
+    }
+
+    @Override
+    public UpdateResult executeUpdate(List<MutablePair<Bson, Bson>> bsonPairList, UpdateOptions options,
+                                      MongoCollection<Document> collection) {
+        try {
+            return target.executeUpdate(bsonPairList, options, collection);
+        } finally {
+            ReadWriteCache.markWrite();
+        }
+    }
+
+    @Override
+    public <T> FindIterable<T> executeQuery(Bson queryBasic, BasicDBObject projectionList, BasicDBObject sortCond,
+                                            Class<T> clazz, MongoCollection<Document> collection) {
+        return target.executeQuery(queryBasic, projectionList, sortCond, clazz,
+                mongoPlusClient.getReadCollection(collection));
+    }
+
+    @Override
+    public <T> AggregateIterable<T> executeAggregate(List<? extends Bson> aggregateConditionList, Class<T> clazz,
+                                                     MongoCollection<Document> collection) {
+        if (isWriteAggregate(aggregateConditionList)) {
+            try {
+                return target.executeAggregate(aggregateConditionList, clazz, collection);
+            } finally {
+                ReadWriteCache.markWrite();
+            }
+        }
+        return target.executeAggregate(aggregateConditionList, clazz, mongoPlusClient.getReadCollection(collection));
+    }
+
+    @Override
+    public long executeCount(BasicDBObject queryBasic, CountOptions countOptions,
+                             MongoCollection<Document> collection) {
+        return target.executeCount(queryBasic, countOptions, mongoPlusClient.getReadCollection(collection));
+    }
+
+    @Override
+    public long estimatedDocumentCount(MongoCollection<Document> collection) {
+        return target.estimatedDocumentCount(mongoPlusClient.getReadCollection(collection));
+    }
+
+    @Override
+    public BulkWriteResult executeBulkWrite(List<WriteModel<Document>> writeModelList, BulkWriteOptions options,
+                                            MongoCollection<Document> collection) {
+        try {
+            return target.executeBulkWrite(writeModelList, options, collection);
+        } finally {
+            ReadWriteCache.markWrite();
+        }
+    }
+
+    @Override
+    public String doCreateIndex(Bson bson, MongoCollection<Document> collection) {
+        return target.doCreateIndex(bson, collection);
+    }
+
+    @Override
+    public String doCreateIndex(Bson bson, IndexOptions indexOptions, MongoCollection<Document> collection) {
+        return target.doCreateIndex(bson, indexOptions, collection);
+    }
+
+    @Override
+    public List<String> doCreateIndexes(List<IndexModel> indexes, MongoCollection<Document> collection) {
+        return target.doCreateIndexes(indexes, collection);
+    }
+
+    @Override
+    public List<String> doCreateIndexes(List<IndexModel> indexes, CreateIndexOptions createIndexOptions,
+                                        MongoCollection<Document> collection) {
+        return target.doCreateIndexes(indexes, createIndexOptions, collection);
+    }
+
+    @Override
+    public List<Document> doListIndexes(MongoCollection<Document> collection) {
+        return target.doListIndexes(collection);
+    }
+
+    @Override
+    public void doDropIndex(String indexName, MongoCollection<Document> collection) {
+        target.doDropIndex(indexName, collection);
+    }
+
+    @Override
+    public void doDropIndex(String indexName, DropIndexOptions dropIndexOptions,
+                            MongoCollection<Document> collection) {
+        target.doDropIndex(indexName, dropIndexOptions, collection);
+    }
+
+    @Override
+    public void doDropIndex(Bson keys, MongoCollection<Document> collection) {
+        target.doDropIndex(keys, collection);
+    }
+
+    @Override
+    public void doDropIndex(Bson keys, DropIndexOptions dropIndexOptions, MongoCollection<Document> collection) {
+        target.doDropIndex(keys, dropIndexOptions, collection);
+    }
+
+    @Override
+    public void doDropIndexes(MongoCollection<Document> collection) {
+        target.doDropIndexes(collection);
+    }
+
+    @Override
+    public void doDropIndexes(DropIndexOptions dropIndexOptions, MongoCollection<Document> collection) {
+        target.doDropIndexes(dropIndexOptions, collection);
+    }
+
+    /**
+     * $out和$merge只能是管道的最后一个阶段
+     */
+    private static boolean isWriteAggregate(List<? extends Bson> aggregateConditionList) {
+        if (aggregateConditionList == null || aggregateConditionList.isEmpty()) {
+            return false;
+        }
+        Bson stage = aggregateConditionList.get(aggregateConditionList.size() - 1);
+        if (stage instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) stage;
+            return map.containsKey(OUT) || map.containsKey(MERGE);
+        }
+        BsonDocument document = stage.toBsonDocument(BsonDocument.class, MapCodecCache.getDefaultCodecRegistry());
+        return document.containsKey(OUT) || document.containsKey(MERGE);
+    }
+
+}
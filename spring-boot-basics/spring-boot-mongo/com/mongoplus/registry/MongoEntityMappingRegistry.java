@@ -1,5 +1,7 @@
 package com.mongoplus.registry;
 
+import com.mongoplus.logic.UnClassCollection;
+
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -37,12 +39,20 @@ public class MongoEntityMappingRegistry {
 
     /**
      * 添加映射关系
+     * <p>已有映射时不会覆盖，只有已有的是{@link UnClassCollection}时会替换为实体类；每次获取集合都会调用，已有映射时只读取</p>
      * @author anwen
      * @param fullName Mongo 连接 fullName
      * @param clazz    实体类
      */
     public void setMappingRelation(String fullName, Class<?> clazz) {
-        mappingResources.putIfAbsent(fullName, clazz);
+        Class<?> existing = mappingResources.get(fullName);
+        if (existing == clazz || (existing != null && existing != UnClassCollection.class)) {
+            return;
+        }
+        existing = mappingResources.putIfAbsent(fullName, clazz);
+        if (existing == UnClassCollection.class && clazz != UnClassCollection.class) {
+            mappingResources.replace(fullName, existing, clazz);
+        }
     }
 
     /**
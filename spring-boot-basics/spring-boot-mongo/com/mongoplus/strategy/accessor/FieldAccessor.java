@@ -0,0 +1,26 @@
+package com.mongoplus.strategy.accessor;
+
+/**
+ * 字段访问器，每个字段只创建一次，不持有实例
+ *
+ * @author anwen
+ */
+public interface FieldAccessor {
+
+    /**
+     * 获取字段值
+     * @param instance 实例
+     * @return {@link java.lang.Object}
+     * @author anwen
+     */
+    Object get(Object instance);
+
+    /**
+     * 设置字段值
+     * @param instance 实例
+     * @param value 值
+     * @author anwen
+     */
+    void set(Object instance, Object value);
+
+}
@@ -0,0 +1,21 @@
+package com.mongoplus.strategy.accessor;
+
+import java.lang.reflect.Field;
+
+/**
+ * 字段访问策略，决定如何读写实体类的字段
+ * <p>可通过{@link com.mongoplus.cache.global.AccessorCache}替换，需在映射任何实体类之前设置</p>
+ *
+ * @author anwen
+ */
+public interface FieldAccessorStrategy {
+
+    /**
+     * 为字段创建访问器
+     * @param field 字段，已经调用过setAccessible
+     * @return {@link FieldAccessor}
+     * @author anwen
+     */
+    FieldAccessor create(Field field);
+
+}
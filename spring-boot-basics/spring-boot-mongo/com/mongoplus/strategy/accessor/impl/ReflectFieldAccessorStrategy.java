@@ -0,0 +1,40 @@
+package com.mongoplus.strategy.accessor.impl;
+
+import com.mongoplus.domain.MongoPlusFieldException;
+import com.mongoplus.strategy.accessor.FieldAccessor;
+import com.mongoplus.strategy.accessor.FieldAccessorStrategy;
+
+import java.lang.reflect.Field;
+
+/**
+ * 使用{@link Field}反射读写字段，默认策略
+ * <p>访问器保存在字段元数据中而不是常量中，MethodHandle在这种情况下不能被JIT内联，相比反射没有优势</p>
+ *
+ * @author anwen
+ */
+public class ReflectFieldAccessorStrategy implements FieldAccessorStrategy {
+
+    @Override
+    public FieldAccessor create(Field field) {
+        return new FieldAccessor() {
+            @Override
+            public Object get(Object instance) {
+                try {
+                    return field.get(instance);
+                } catch (IllegalAccessException e) {
+                    throw new MongoPlusFieldException("Failed to get the " + field.getName() + " field content", e);
+                }
+            }
+
+            @Override
+            public void set(Object instance, Object value) {
+                try {
+                    field.set(instance, value);
+                } catch (IllegalAccessException e) {
+                    throw new MongoPlusFieldException("Failed to set the " + field.getName() + " field content", e);
+                }
+            }
+        };
+    }
+
+}
@@ -0,0 +1,20 @@
+package com.mongoplus.strategy.retry;
+
+/**
+ * 重试策略，决定是否继续重试，以及重试前的等待时间
+ * <p>通过{@link com.mongoplus.model.Retry.RetryBuilder#retryPolicy(RetryPolicy)}设置，实现需要是线程安全的</p>
+ *
+ * @author anwen
+ */
+public interface RetryPolicy {
+
+    /**
+     * 获取下一次重试前的等待时间
+     * @param retryCount 即将进行的重试次数，从1开始
+     * @param elapsedMillis 从第一次更新失败到现在经过的时间，毫秒
+     * @return {@link long} 等待时间，毫秒，小于0表示不再重试
+     * @author anwen
+     */
+    long nextDelayMillis(int retryCount, long elapsedMillis);
+
+}
@@ -0,0 +1,69 @@
+package com.mongoplus.strategy.retry.impl;
+
+import com.mongoplus.strategy.retry.RetryPolicy;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 指数退避重试，使用全抖动（full jitter）
+ * <p>第n次重试的等待时间在[0, min(maxDelay, baseDelay * 2^(n-1))]之间随机，避免并发冲突的请求同时重试；
+ * 超过最大重试次数或总时间预算后不再重试</p>
+ *
+ * @author anwen
+ */
+public class ExponentialBackoffRetryPolicy implements RetryPolicy {
+
+    /**
+     * 最大重试次数
+     */
+    private final int maxRetryNum;
+
+    /**
+     * 基础等待时间，毫秒
+     */
+    private final long baseDelayMillis;
+
+    /**
+     * 单次最大等待时间，毫秒
+     */
+    private final long maxDelayMillis;
+
+    /**
+     * 总时间预算，毫秒，小于等于0表示不限制
+     */
+    private final long maxElapsedMillis;
+
+    public ExponentialBackoffRetryPolicy(int maxRetryNum, long baseDelayMillis, long maxDelayMillis,
+                                         long maxElapsedMillis) {
+        this.maxRetryNum = maxRetryNum;
+        this.baseDelayMillis = Math.max(baseDelayMillis, 0);
+        this.maxDelayMillis = Math.max(maxDelayMillis, this.baseDelayMillis);
+        this.maxElapsedMillis = maxElapsedMillis;
+    }
+
+    @Override
+    public long nextDelayMillis(int retryCount, long elapsedMillis) {
+        if (retryCount > maxRetryNum) {
+            return -1;
+        }
+        long remainingMillis = Long.MAX_VALUE;
+        if (maxElapsedMillis > 0) {
+            remainingMillis = maxElapsedMillis - elapsedMillis;
+            if (remainingMillis <= 0) {
+                return -1;
+            }
+        }
+        // 避免移位溢出
+        int shift = Math.min(retryCount - 1, 30);
+        long ceiling = baseDelayMillis > (maxDelayMillis >> shift) ? maxDelayMillis : baseDelayMillis << shift;
+        long delay = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        return Math.min(delay, remainingMillis);
+    }
+
+    @Override
+    public String toString() {
+        return "ExponentialBackoffRetryPolicy(maxRetryNum=" + maxRetryNum + ", baseDelayMillis=" + baseDelayMillis
+                + ", maxDelayMillis=" + maxDelayMillis + ", maxElapsedMillis=" + maxElapsedMillis + ")";
+    }
+
+}
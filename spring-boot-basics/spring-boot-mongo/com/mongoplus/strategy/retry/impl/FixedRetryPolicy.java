@@ -0,0 +1,37 @@
+package com.mongoplus.strategy.retry.impl;
+
+import com.mongoplus.strategy.retry.RetryPolicy;
+
+/**
+ * 固定间隔重试
+ *
+ * @author anwen
+ */
+public class FixedRetryPolicy implements RetryPolicy {
+
+    /**
+     * 最大重试次数
+     */
+    private final int maxRetryNum;
+
+    /**
+     * 重试间隔，毫秒
+     */
+    private final long retryInterval;
+
+    public FixedRetryPolicy(int maxRetryNum, long retryInterval) {
+        this.maxRetryNum = maxRetryNum;
+        this.retryInterval = retryInterval;
+    }
+
+    @Override
+    public long nextDelayMillis(int retryCount, long elapsedMillis) {
+        return retryCount > maxRetryNum ? -1 : Math.max(retryInterval, 0);
+    }
+
+    @Override
+    public String toString() {
+        return "FixedRetryPolicy(maxRetryNum=" + maxRetryNum + ", retryInterval=" + retryInterval + ")";
+    }
+
+}
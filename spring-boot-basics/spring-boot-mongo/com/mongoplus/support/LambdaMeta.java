@@ -0,0 +1,142 @@
+package com.mongoplus.support;
+
+import com.mongoplus.annotation.ID;
+import com.mongoplus.annotation.collection.CollectionField;
+import com.mongoplus.cache.global.LambdaCache;
+import com.mongoplus.constant.SqlOperationConstant;
+import com.mongoplus.toolkit.StringUtils;
+
+import java.lang.invoke.SerializedLambda;
+import java.lang.reflect.Field;
+
+/**
+ * lambda解析后的信息，同一个lambda类只解析一次
+ * <p>字段和返回类型在第一次使用时解析，列名同时缓存了驼峰转下划线前后两种形式，配置变更后不需要清空</p>
+ *
+ * @author anwen
+ */
+public final class LambdaMeta {
+
+    private final Class<?> implClass;
+
+    private final String implMethodName;
+
+    /**
+     * 根据方法名推断出的Java字段名
+     */
+    private final String fieldName;
+
+    private volatile Field field;
+
+    private volatile Class<?> returnType;
+
+    private volatile String column;
+
+    private volatile String underlineColumn;
+
+    LambdaMeta(SerializedLambda serializedLambda) {
+        try {
+            this.implClass = Class.forName(serializedLambda.getImplClass().replace("/", "."));
+        } catch (ClassNotFoundException e) {
+            throw new RuntimeException(e);
+        }
+        this.implMethodName = serializedLambda.getImplMethodName();
+        String name = implMethodName.substring("get".length());
+        if (!name.equals(name.toUpperCase())){
+            name = name.replaceFirst(name.charAt(0) + "", (name.charAt(0) + "").toLowerCase());
+        }
+        this.fieldName = name;
+    }
+
+    /**
+     * 获取lambda的信息，优先从缓存中获取
+     * @param function lambda
+     * @return {@link LambdaMeta}
+     * @author anwen
+     */
+    public static LambdaMeta of(SFunction<?, ?> function) {
+        Class<?> lambdaClass = function.getClass();
+        LambdaMeta lambdaMeta = LambdaCache.get(lambdaClass);
+        if (lambdaMeta == null) {
+            lambdaMeta = LambdaCache.putIfAbsent(lambdaClass, new LambdaMeta(function.getSerializedLambda()));
+        }
+        return lambdaMeta;
+    }
+
+    public Class<?> getImplClass() {
+        return implClass;
+    }
+
+    public String getImplMethodName() {
+        return implMethodName;
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    public Field getField() {
+        Field f = field;
+        if (f == null) {
+            try {
+                f = implClass.getDeclaredField(fieldName);
+            } catch (NoSuchFieldException e) {
+                throw new RuntimeException(e);
+            }
+            field = f;
+        }
+        return f;
+    }
+
+    public Class<?> getReturnType() {
+        Class<?> type = returnType;
+        if (type == null) {
+            try {
+                type = implClass.getMethod(implMethodName).getReturnType();
+            } catch (NoSuchMethodException e) {
+                throw new RuntimeException(e);
+            }
+            returnType = type;
+        }
+        return type;
+    }
+
+    /**
+     * 获取列名，受{@link CollectionField}、{@link ID}和驼峰转下划线配置的影响
+     * @param camelToUnderline 是否驼峰转下划线
+     * @return {@link java.lang.String}
+     * @author anwen
+     */
+    public String getColumn(boolean camelToUnderline) {
+        String result = camelToUnderline ? underlineColumn : column;
+        if (result == null) {
+            result = getAnnotatedColumn();
+            if (result == null) {
+                result = camelToUnderline ? StringUtils.camelToUnderline(fieldName) : fieldName;
+            }
+            if (camelToUnderline) {
+                underlineColumn = result;
+            } else {
+                column = result;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 根据注解获取列名，{@link CollectionField}优先，其次是{@link ID}，都不存在则返回null
+     * @return {@link java.lang.String}
+     * @author anwen
+     */
+    public String getAnnotatedColumn() {
+        Field f = getField();
+        CollectionField collectionField = f.getAnnotation(CollectionField.class);
+        if (collectionField != null && StringUtils.isNotBlank(collectionField.value())) {
+            return collectionField.value();
+        } else if (f.getAnnotation(ID.class) != null) {
+            return SqlOperationConstant._ID;
+        }
+        return null;
+    }
+
+}
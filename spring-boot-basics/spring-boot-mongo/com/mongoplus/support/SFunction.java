@@ -1,9 +1,6 @@
 package com.mongoplus.support;
 
-import com.mongoplus.annotation.ID;
-import com.mongoplus.annotation.collection.CollectionField;
 import com.mongoplus.cache.global.PropertyCache;
-import com.mongoplus.constant.SqlOperationConstant;
 import com.mongoplus.toolkit.StringUtils;
 
 import java.io.Serializable;
@@ -60,47 +57,49 @@ public interface SFunction<T,R> extends Function<T,R>, Serializable {
      * @param toType 转换方式，多个字母以大小写方式返回 0.不做转换 1.大写 2.小写
      */
     default String getFieldName(SFunction<T, ?> fn, String split, Integer toType) {
-        Field field = getField(fn);
-        String fieldName = getFieldName(fn);
+        LambdaMeta lambdaMeta = LambdaMeta.of(fn);
+        //默认配置下不需要再做转换，直接使用缓存的列名
+        if (defaultSplit.equals(split) && defaultToType.equals(toType)) {
+            return lambdaMeta.getColumn(PropertyCache.camelToUnderline);
+        }
+        String column = lambdaMeta.getAnnotatedColumn();
+        if (column != null) {
+            return column;
+        }
+        String fieldName = lambdaMeta.getFieldName();
         if (PropertyCache.camelToUnderline){
             fieldName = StringUtils.camelToUnderline(fieldName);
         }
-        // 从field取出字段名
-        CollectionField collectionField = field.getAnnotation(CollectionField.class);
-        ID id = field.getAnnotation(ID.class);
-        if (collectionField != null && StringUtils.isNotBlank(collectionField.value())) {
-            return collectionField.value();
-        }else if (id != null){
-            return SqlOperationConstant._ID;
-        }else {
-            //0.不做转换 1.大写 2.小写
-            switch (toType) {
-                case 1:
-                    return fieldName.replaceAll("[A-Z]", split + "$0").toUpperCase();
-                case 2:
-                    return fieldName.replaceAll("[A-Z]", split + "$0").toLowerCase();
-                default:
-                    return fieldName.replaceAll("[A-Z]", split + "$0");
-            }
-
+        //0.不做转换 1.大写 2.小写
+        switch (toType) {
+            case 1:
+                return fieldName.replaceAll("[A-Z]", split + "$0").toUpperCase();
+            case 2:
+                return fieldName.replaceAll("[A-Z]", split + "$0").toLowerCase();
+            default:
+                return fieldName.replaceAll("[A-Z]", split + "$0");
         }
     }
 
+    /**
+     * 获取lambda解析后的信息，同一个lambda类只解析一次
+     * @return {@link LambdaMeta}
+     * @author anwen
+     */
+    default LambdaMeta getLambdaMeta() {
+        return LambdaMeta.of(this);
+    }
+
     /**
      * 获取实体类型
      * @author anwen
      */
     default Class<?> getImplClass() {
-        SerializedLambda serializedLambda = getSerializedLambda();
-        try {
-            return Class.forName(serializedLambda.getImplClass().replace("/", "."));
-        } catch (ClassNotFoundException e) {
-            throw new RuntimeException(e);
-        }
+        return getLambdaMeta().getImplClass();
     }
 
     default String getMethodName() {
-        return getSerializedLambda().getImplMethodName();
+        return getLambdaMeta().getImplMethodName();
     }
 
     default Class<?> getFieldClass() {
@@ -145,20 +144,7 @@ public interface SFunction<T,R> extends Function<T,R>, Serializable {
     }
 
     default Class<?> getReturnType() {
-        SerializedLambda lambda = getSerializedLambda();
-        Class<?> className;
-        try {
-            className = Class.forName(lambda.getImplClass().replace("/", "."));
-        } catch (ClassNotFoundException e) {
-            throw new RuntimeException(e);
-        }
-        Method method;
-        try {
-            method = className.getMethod(getMethodName());
-        } catch (NoSuchMethodException e) {
-            throw new RuntimeException(e);
-        }
-        return method.getReturnType();
+        return getLambdaMeta().getReturnType();
     }
 
     default Field getField() {
@@ -166,24 +152,11 @@ public interface SFunction<T,R> extends Function<T,R>, Serializable {
     }
 
     default Field getField(SFunction<T,?> fn) {
-        SerializedLambda serializedLambda = getSerializedLambdaOne(this);
-
-        try {
-            return Class.forName(serializedLambda.getImplClass().replace("/", ".")).getDeclaredField(getFieldName(fn));
-        } catch (ClassNotFoundException | NoSuchFieldException e) {
-            throw new RuntimeException(e);
-        }
+        return LambdaMeta.of(fn).getField();
     }
 
     default String getFieldName(SFunction<T,?> fn){
-        SerializedLambda serializedLambda = getSerializedLambdaOne(fn);
-
-        // 从lambda信息取出method、field、class等
-        String fieldName = serializedLambda.getImplMethodName().substring("get".length());
-        if (!fieldName.equals(fieldName.toUpperCase())){
-            fieldName = fieldName.replaceFirst(fieldName.charAt(0) + "", (fieldName.charAt(0) + "").toLowerCase());
-        }
-        return fieldName;
+        return LambdaMeta.of(fn).getFieldName();
     }
 
 }
@@ -4,14 +4,54 @@ import com.mongodb.BasicDBObject;
 import com.mongodb.client.AggregateIterable;
 import com.mongodb.client.model.Collation;
 import com.mongoplus.enums.AggregateOptionsEnum;
+import org.bson.Document;
 import org.bson.conversions.Bson;
 
-import java.util.Objects;
-import java.util.Set;
+import java.util.*;
 import java.util.concurrent.TimeUnit;
 
 public class AggregateUtil {
 
+    private static final String MATCH = "$match";
+
+    /**
+     * 必须位于管道第一个阶段的操作
+     */
+    public static final Set<String> FIRST_STAGES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "$geoNear", "$search", "$searchMeta", "$vectorSearch"
+    )));
+
+    /**
+     * 返回开头带有$match阶段的管道副本，没有时插入空的$match（$geoNear等必须位于第一个阶段的操作之后）
+     * <p>逻辑删除等拦截器会把条件合并到已有的$match中，没有$match时追加在管道末尾；
+     * 管道后面还会拼接$facet、$count、$skip、$limit时，需要先保证开头有$match，条件才会在这些阶段之前生效</p>
+     * @param pipeline 管道
+     * @return {@link List<Bson>} 新的管道
+     * @author anwen
+     */
+    public static List<Bson> withLeadingMatch(List<Bson> pipeline) {
+        List<Bson> leadingMatchPipeline = new ArrayList<>(pipeline.size() + 1);
+        leadingMatchPipeline.addAll(pipeline);
+        int matchIndex = !pipeline.isEmpty() && FIRST_STAGES.contains(stageName(pipeline.get(0))) ? 1 : 0;
+        if (matchIndex >= pipeline.size() || !MATCH.equals(stageName(pipeline.get(matchIndex)))) {
+            leadingMatchPipeline.add(matchIndex, new Document(MATCH, new Document()));
+        }
+        return leadingMatchPipeline;
+    }
+
+    /**
+     * 获取管道阶段的操作名
+     * @param stage 管道阶段
+     * @return {@link String} 空阶段时返回null
+     * @author anwen
+     */
+    @SuppressWarnings("unchecked")
+    public static String stageName(Bson stage) {
+        Set<String> keySet = stage instanceof Map ?
+                ((Map<String, ?>) stage).keySet() : BsonUtil.asBsonDocument(stage).keySet();
+        return keySet.isEmpty() ? null : keySet.iterator().next();
+    }
+
     public static void aggregateOptions(AggregateIterable<?> aggregateIterable, BasicDBObject optionsBasicDBObject){
         options(aggregateIterable, optionsBasicDBObject);
     }
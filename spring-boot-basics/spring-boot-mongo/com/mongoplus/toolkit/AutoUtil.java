@@ -1,86 +1,117 @@
 package com.mongoplus.toolkit;
 
 import com.mongodb.MongoCommandException;
-import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.model.CreateCollectionOptions;
+import com.mongodb.client.model.IndexModel;
 import com.mongodb.client.model.TimeSeriesOptions;
 import com.mongoplus.annotation.collection.TimeSeries;
 import com.mongoplus.cache.global.DataSourceNameCache;
+import com.mongoplus.cache.global.PropertyCache;
+import com.mongoplus.domain.MongoPlusException;
 import com.mongoplus.handlers.collection.AnnotationOperate;
 import com.mongoplus.logging.Log;
 import com.mongoplus.logging.LogFactory;
 import com.mongoplus.manager.MongoPlusClient;
 import com.mongoplus.mapping.TypeInformation;
+import com.mongoplus.model.IndexDiff;
 import com.mongoplus.model.IndexMetaObject;
 import org.bson.Document;
 
-import java.util.Collection;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import static com.mongoplus.toolkit.ClassTypeUtil.getFieldNameAndCheck;
 
 /**
  * 自动操作
+ * <p>启动时每个数据库只读取一次已有的集合，每个集合只读取一次已有的索引，与注解比较后只创建缺失的部分，
+ * 不同集合之间使用独立的有界线程池并行执行，同步结束后关闭线程池</p>
+ * <p>{@link PropertyCache#autoIndexDryRun}为true时只输出计划的变更；{@link PropertyCache#autoIndexFailFast}为true时，
+ * 存在冲突的定义直接抛出异常，不执行任何变更</p>
  * @author anwen
  */
 public class AutoUtil {
 
     private static final Log log = LogFactory.getLog(AutoUtil.class);
 
+    private static final String TIME_SERIES = "timeseries";
+
+    /**
+     * 同步时的最大并行数，启动时执行的都是等待网络的命令，不占用业务的执行器
+     */
+    private static final int MAX_PARALLELISM = 8;
+
     public static void autoCreateTimeSeries(Collection<Class<?>> classCollection, MongoPlusClient mongoPlusClient){
         if (CollUtil.isEmpty(classCollection)) {
             return;
         }
+        ExecutorService executor = newExecutor();
+        try {
+            autoCreateTimeSeries(classCollection, mongoPlusClient, executor);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void autoCreateTimeSeries(Collection<Class<?>> classCollection, MongoPlusClient mongoPlusClient,
+                                             ExecutorService executor){
+        Map<String, Future<Map<String, String>>> collectionTypeMap = new HashMap<>();
+        Map<Class<?>, MongoDatabase> databaseMap = new LinkedHashMap<>();
+        Map<Class<?>, Future<Map<String, String>>> classCollectionTypeMap = new HashMap<>();
         classCollection.forEach(collectionClass -> {
             TimeSeries timeSeries = collectionClass.getAnnotation(TimeSeries.class);
             String dataSource = DataSourceNameCache.getDataSource();
             if (StringUtils.isNotBlank(timeSeries.dataSource())){
                 dataSource = timeSeries.dataSource();
             }
-            MongoClient mongoClient = mongoPlusClient.getMongoClient(dataSource);
-            MongoDatabase mongoDatabase = mongoClient.getDatabase(mongoPlusClient.getDatabase(collectionClass));
-            Document paramDocument = new Document();
-            paramDocument.put("listCollections",1);
-            paramDocument.put("filter",new Document("type","timeseries"));
-            Document document = mongoDatabase.runCommand(paramDocument);
-            List<String> timeSeriesList = document.get("cursor", Document.class)
-                    .getList("firstBatch", Document.class)
-                    .stream().map(doc -> doc.getString("name"))
-                    .collect(Collectors.toList());
+            MongoDatabase mongoDatabase = mongoPlusClient.getMongoClient(dataSource)
+                    .getDatabase(mongoPlusClient.getDatabase(collectionClass));
+            databaseMap.put(collectionClass, mongoDatabase);
+            // 每个数据库只执行一次listCollections
+            classCollectionTypeMap.put(collectionClass, collectionTypeMap.computeIfAbsent(
+                    dataSource + "|" + mongoDatabase.getName(),
+                    key -> executor.submit(() -> getCollectionTypes(mongoDatabase))));
+        });
+
+        List<String> conflicts = new ArrayList<>();
+        Map<String, Runnable> createMap = new LinkedHashMap<>();
+        databaseMap.forEach((collectionClass, mongoDatabase) -> {
+            Map<String, String> collectionTypes = ConcurrentUtil.join(classCollectionTypeMap.get(collectionClass));
             String collectionName = AnnotationOperate.getCollectionName(collectionClass);
-            if (timeSeriesList.contains(collectionName)){
+            String namespace = mongoDatabase.getName() + "." + collectionName;
+            String type = collectionTypes.get(collectionName);
+            if (TIME_SERIES.equals(type)){
                 log.warn("The {} temporal collection already exists",collectionName);
                 return;
             }
-            TypeInformation typeInformation = TypeInformation.of(collectionClass);
-            TimeSeriesOptions options = new TimeSeriesOptions(getFieldNameAndCheck(typeInformation,timeSeries.timeField()));
-            options.granularity(timeSeries.granularity());
-            if (StringUtils.isNotBlank(timeSeries.metaField())){
-                options.metaField(getFieldNameAndCheck(typeInformation,timeSeries.metaField()));
-            }
-            if (timeSeries.bucketMaxSpan() > 0){
-                options.bucketMaxSpan(timeSeries.bucketMaxSpan(), TimeUnit.SECONDS);
-                options.metaField(null);
-            }
-            if (timeSeries.bucketRounding() > 0){
-                options.bucketRounding(timeSeries.bucketRounding(), TimeUnit.SECONDS);
-                options.metaField(null);
-            }
-            CreateCollectionOptions createCollectionOptions = new CreateCollectionOptions();
-            createCollectionOptions.timeSeriesOptions(options);
-            if (timeSeries.expireAfter() > 0){
-                createCollectionOptions.expireAfter(timeSeries.expireAfter(), TimeUnit.SECONDS);
+            if (type != null){
+                conflicts.add(String.format("Collection %s already exists as a %s collection, " +
+                        "unable to create it as a time series collection", namespace, type));
+                return;
             }
-            try {
-                mongoDatabase.createCollection(
-                        collectionName,
-                        createCollectionOptions);
-            } catch (MongoCommandException ignored){}
+            CreateCollectionOptions createCollectionOptions = getTimeSeriesOptions(collectionClass,
+                    collectionClass.getAnnotation(TimeSeries.class));
+            createMap.put(namespace, () -> {
+                try {
+                    mongoDatabase.createCollection(collectionName, createCollectionOptions);
+                    log.info("Time series collection created: " + namespace);
+                } catch (MongoCommandException ignored){}
+            });
         });
+        handleConflicts(conflicts);
+        if (PropertyCache.autoIndexDryRun) {
+            createMap.keySet().forEach(namespace ->
+                    log.info("[dry-run] Time series collection will be created: " + namespace));
+            return;
+        }
+        execute(createMap.values(), executor);
     }
 
     public static void autoCreateIndexes(Collection<Class<?>> classCollection, MongoPlusClient mongoPlusClient){
@@ -88,20 +119,158 @@ public class AutoUtil {
             return;
         }
         List<IndexMetaObject> indexMetaObjectList = IndexUtil.getIndex(classCollection);
-        if (CollUtil.isNotEmpty(indexMetaObjectList)) {
-            indexMetaObjectList.forEach(indexMetaObject -> {
-                if (CollUtil.isNotEmpty(indexMetaObject.getIndexModels())){
-                    String dataSource = DataSourceNameCache.getDataSource();
-                    if (StringUtils.isNotBlank(indexMetaObject.getDataSource())){
-                        dataSource = indexMetaObject.getDataSource();
-                    }
-                    Class<?> clazz = indexMetaObject.getTypeInformation().getClazz();
-                    MongoCollection<Document> collection = mongoPlusClient.getCollectionManager(dataSource,clazz)
-                            .getCollection(clazz);
-                    collection.createIndexes(indexMetaObject.getIndexModels());
-                }
+        if (CollUtil.isEmpty(indexMetaObjectList)) {
+            return;
+        }
+        ExecutorService executor = newExecutor();
+        try {
+            autoCreateIndexes(indexMetaObjectList, mongoPlusClient, executor);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void autoCreateIndexes(List<IndexMetaObject> indexMetaObjectList, MongoPlusClient mongoPlusClient,
+                                          ExecutorService executor){
+        // 多个实体映射到同一个集合时合并
+        Map<String, MongoCollection<Document>> collectionMap = new LinkedHashMap<>();
+        Map<String, List<IndexModel>> indexModelMap = new HashMap<>();
+        Map<String, Future<Set<String>>> collectionNameMap = new HashMap<>();
+        Map<String, Future<Set<String>>> existingCollectionMap = new HashMap<>();
+        indexMetaObjectList.forEach(indexMetaObject -> {
+            if (CollUtil.isEmpty(indexMetaObject.getIndexModels())){
+                return;
+            }
+            String dataSource = DataSourceNameCache.getDataSource();
+            if (StringUtils.isNotBlank(indexMetaObject.getDataSource())){
+                dataSource = indexMetaObject.getDataSource();
+            }
+            Class<?> clazz = indexMetaObject.getTypeInformation().getClazz();
+            MongoCollection<Document> collection = mongoPlusClient.getCollectionManager(dataSource,clazz)
+                    .getCollection(clazz);
+            String databaseKey = dataSource + "|" + collection.getNamespace().getDatabaseName();
+            String key = dataSource + "|" + collection.getNamespace().getFullName();
+            collectionMap.putIfAbsent(key, collection);
+            indexModelMap.computeIfAbsent(key, k -> new ArrayList<>()).addAll(indexMetaObject.getIndexModels());
+            // 每个数据库只读取一次集合名称，不存在的集合不需要读取索引
+            MongoDatabase mongoDatabase = mongoPlusClient.getMongoClient(dataSource)
+                    .getDatabase(collection.getNamespace().getDatabaseName());
+            existingCollectionMap.put(key, collectionNameMap.computeIfAbsent(databaseKey, k -> executor.submit(
+                    () -> mongoDatabase.listCollectionNames().into(new HashSet<>()))));
+        });
+        if (collectionMap.isEmpty()) {
+            return;
+        }
+
+        // 读取已有的索引并计算差异
+        Map<String, Future<IndexDiff>> diffFutureMap = new LinkedHashMap<>();
+        collectionMap.forEach((key, collection) -> {
+            boolean exists = ConcurrentUtil.join(existingCollectionMap.get(key))
+                    .contains(collection.getNamespace().getCollectionName());
+            diffFutureMap.put(key, executor.submit(() -> {
+                List<Document> existingIndexes = exists
+                        ? collection.listIndexes().into(new ArrayList<>())
+                        : Collections.emptyList();
+                return IndexUtil.diff(collection.getNamespace().getFullName(), indexModelMap.get(key), existingIndexes);
+            }));
+        });
+        Map<String, IndexDiff> diffMap = new LinkedHashMap<>();
+        diffFutureMap.forEach((key, future) -> diffMap.put(key, ConcurrentUtil.join(future)));
+        handleConflicts(diffMap.values().stream()
+                .flatMap(indexDiff -> indexDiff.getConflicts().stream())
+                .collect(Collectors.toList()));
+
+        // 并行创建缺失的索引
+        List<Runnable> createList = new ArrayList<>();
+        diffMap.forEach((key, indexDiff) -> {
+            List<IndexModel> missingIndexModels = indexDiff.getMissingIndexModels();
+            if (missingIndexModels.isEmpty()) {
+                return;
+            }
+            String indexNames = missingIndexModels.stream()
+                    .map(IndexUtil::getIndexName)
+                    .collect(Collectors.joining(", "));
+            if (PropertyCache.autoIndexDryRun) {
+                log.info("[dry-run] Indexes will be created on " + indexDiff.getNamespace() + ": " + indexNames);
+                return;
+            }
+            createList.add(() -> {
+                collectionMap.get(key).createIndexes(missingIndexModels);
+                log.info("Indexes created on " + indexDiff.getNamespace() + ": " + indexNames);
             });
+        });
+        execute(createList, executor);
+    }
+
+    /**
+     * 读取数据库中所有集合的名称和类型
+     */
+    private static Map<String, String> getCollectionTypes(MongoDatabase mongoDatabase) {
+        Map<String, String> collectionTypes = new HashMap<>();
+        mongoDatabase.listCollections().forEach(document ->
+                collectionTypes.put(document.getString("name"), document.getString("type")));
+        return collectionTypes;
+    }
+
+    private static CreateCollectionOptions getTimeSeriesOptions(Class<?> collectionClass, TimeSeries timeSeries) {
+        TypeInformation typeInformation = TypeInformation.of(collectionClass);
+        TimeSeriesOptions options = new TimeSeriesOptions(getFieldNameAndCheck(typeInformation,timeSeries.timeField()));
+        options.granularity(timeSeries.granularity());
+        if (StringUtils.isNotBlank(timeSeries.metaField())){
+            options.metaField(getFieldNameAndCheck(typeInformation,timeSeries.metaField()));
+        }
+        if (timeSeries.bucketMaxSpan() > 0){
+            options.bucketMaxSpan(timeSeries.bucketMaxSpan(), TimeUnit.SECONDS);
+            options.metaField(null);
         }
+        if (timeSeries.bucketRounding() > 0){
+            options.bucketRounding(timeSeries.bucketRounding(), TimeUnit.SECONDS);
+            options.metaField(null);
+        }
+        CreateCollectionOptions createCollectionOptions = new CreateCollectionOptions();
+        createCollectionOptions.timeSeriesOptions(options);
+        if (timeSeries.expireAfter() > 0){
+            createCollectionOptions.expireAfter(timeSeries.expireAfter(), TimeUnit.SECONDS);
+        }
+        return createCollectionOptions;
+    }
+
+    /**
+     * 处理冲突，开启failFast时抛出异常，否则输出警告并跳过
+     */
+    private static void handleConflicts(List<String> conflicts) {
+        if (conflicts.isEmpty()) {
+            return;
+        }
+        if (PropertyCache.autoIndexFailFast) {
+            throw new MongoPlusException("Conflicting index or collection definitions: " + String.join("; ", conflicts));
+        }
+        conflicts.forEach(conflict -> log.warn(conflict + ", skipped"));
+    }
+
+    /**
+     * 并行执行，等待全部完成
+     */
+    private static void execute(Collection<Runnable> runnables, ExecutorService executor) {
+        List<Future<Void>> futureList = runnables.stream()
+                .map(runnable -> executor.<Void>submit(() -> {
+                    runnable.run();
+                    return null;
+                }))
+                .collect(Collectors.toList());
+        futureList.forEach(ConcurrentUtil::join);
+    }
+
+    /**
+     * 创建同步使用的线程池，线程按需创建，不超过{@link #MAX_PARALLELISM}个，使用守护线程
+     */
+    private static ExecutorService newExecutor() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return Executors.newFixedThreadPool(MAX_PARALLELISM, runnable -> {
+            Thread thread = new Thread(runnable, "mongo-plus-auto-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
 }
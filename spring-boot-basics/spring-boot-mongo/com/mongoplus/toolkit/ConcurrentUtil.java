@@ -0,0 +1,66 @@
+package com.mongoplus.toolkit;
+
+import com.mongoplus.cache.global.ConcurrentCache;
+import com.mongoplus.context.MongoTransactionContext;
+import com.mongoplus.domain.MongoPlusException;
+
+import java.util.concurrent.*;
+
+/**
+ * 并发执行工具类，执行器和上下文传递由{@link ConcurrentCache}配置
+ *
+ * @author anwen
+ */
+public class ConcurrentUtil {
+
+    /**
+     * 提交任务
+     * <p>未配置执行器或处于事务中时，直接在调用线程中执行，ClientSession不能被多个线程同时使用</p>
+     * <p>调用线程的上下文由{@link ConcurrentCache#decorate(Runnable)}传递到执行任务的线程中</p>
+     * @param callable 任务
+     * @return {@link Future<T>}
+     * @author anwen
+     */
+    public static <T> Future<T> submit(Callable<T> callable) {
+        Executor executor = ConcurrentCache.getExecutor();
+        FutureTask<T> futureTask = new FutureTask<>(callable);
+        if (executor == null || MongoTransactionContext.getClientSessionContext() != null) {
+            futureTask.run();
+            return futureTask;
+        }
+        Runnable decorated = ConcurrentCache.decorate(futureTask);
+        try {
+            executor.execute(decorated);
+        } catch (RejectedExecutionException e) {
+            decorated.run();
+        }
+        return futureTask;
+    }
+
+    /**
+     * 等待任务结束并获取结果，任务抛出的RuntimeException会原样抛出
+     * <p>等待被中断时取消任务但不中断执行任务的线程，中断正在读写的线程会导致驱动关闭连接</p>
+     * @param future 任务
+     * @return {@link T}
+     * @author anwen
+     */
+    public static <T> T join(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(false);
+            throw new MongoPlusException("Interrupted while waiting for concurrent task", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new MongoPlusException(cause);
+        }
+    }
+
+}
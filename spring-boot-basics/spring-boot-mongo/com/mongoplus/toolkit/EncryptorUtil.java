@@ -11,8 +11,15 @@ import java.security.PrivateKey;
 import java.security.PublicKey;
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.security.spec.X509EncodedKeySpec;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
 
 /**
  * @author anwen
@@ -21,9 +28,14 @@ public class EncryptorUtil {
 
     private static final Log log = LogFactory.getLog(EncryptorUtil.class);
 
-    public final static Map<AlgorithmEnum, Encryptor> algorithmEnumEncryptorMap = new HashMap<>();
+    public final static Map<AlgorithmEnum, Encryptor> algorithmEnumEncryptorMap = new ConcurrentHashMap<>();
 
-    public final static Map<Class<?>,Encryptor> encryptorCache = new HashMap<>();
+    public final static Map<Class<?>,Encryptor> encryptorCache = new ConcurrentHashMap<>();
+
+    /**
+     * 批量加解密时，每个并行任务处理的最小数量
+     */
+    private static final int PARALLEL_BATCH_SIZE = 1024;
 
     static {
         algorithmEnumEncryptorMap.put(AlgorithmEnum.MD5_16,new MD5Example(16));
@@ -61,25 +73,101 @@ public class EncryptorUtil {
         return value;
     }
 
+    /**
+     * 批量加密文档中的一个字段，只处理顶层字段
+     * @param fieldEncrypt 加密注解
+     * @param documentList 文档集合
+     * @param fieldName 字段名
+     * @param parallel 是否并行，数量较少时仍在当前线程中执行
+     * @author anwen
+     */
+    public static void encrypt(FieldEncrypt fieldEncrypt, List<? extends Map<String, Object>> documentList,
+                               String fieldName, boolean parallel) {
+        apply(documentList, fieldName, parallel, value -> encrypt(fieldEncrypt, value));
+    }
+
+    /**
+     * 批量解密文档中的一个字段，只处理顶层字段
+     * @param fieldEncrypt 加密注解
+     * @param documentList 文档集合
+     * @param fieldName 字段名
+     * @param parallel 是否并行，数量较少时仍在当前线程中执行
+     * @author anwen
+     */
+    public static void decrypt(FieldEncrypt fieldEncrypt, List<? extends Map<String, Object>> documentList,
+                               String fieldName, boolean parallel) {
+        apply(documentList, fieldName, parallel, value -> decrypt(fieldEncrypt, value));
+    }
+
+    private static void apply(List<? extends Map<String, Object>> documentList, String fieldName, boolean parallel,
+                              UnaryOperator<Object> operator) {
+        if (CollUtil.isEmpty(documentList)) {
+            return;
+        }
+        int size = documentList.size();
+        int taskCount = parallel
+                ? Math.min(Runtime.getRuntime().availableProcessors(), (size + PARALLEL_BATCH_SIZE - 1) / PARALLEL_BATCH_SIZE)
+                : 1;
+        if (taskCount <= 1) {
+            apply(documentList, fieldName, operator);
+            return;
+        }
+        int taskSize = (size + taskCount - 1) / taskCount;
+        List<Future<Void>> futureList = new ArrayList<>(taskCount - 1);
+        // 加解密是纯计算，不使用会话，使用独立的线程池，不受ConcurrentCache是否配置执行器和事务的影响
+        ExecutorService executor = ParallelExecutorHolder.EXECUTOR;
+        for (int from = taskSize; from < size; from += taskSize) {
+            List<? extends Map<String, Object>> subList = documentList.subList(from, Math.min(from + taskSize, size));
+            futureList.add(executor.submit(() -> {
+                apply(subList, fieldName, operator);
+                return null;
+            }));
+        }
+        // 第一段在当前线程中执行
+        apply(documentList.subList(0, Math.min(taskSize, size)), fieldName, operator);
+        futureList.forEach(ConcurrentUtil::join);
+    }
+
+    private static void apply(List<? extends Map<String, Object>> documentList, String fieldName,
+                              UnaryOperator<Object> operator) {
+        for (Map<String, Object> document : documentList) {
+            if (document != null && document.containsKey(fieldName)) {
+                document.put(fieldName, operator.apply(document.get(fieldName)));
+            }
+        }
+    }
+
+    /**
+     * 批量加解密的线程池，第一次并行时才创建，线程数为CPU核数，守护线程不阻止JVM退出
+     */
+    private static class ParallelExecutorHolder {
+
+        private static final AtomicInteger THREAD_NUMBER = new AtomicInteger(1);
+
+        private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(
+                Runtime.getRuntime().availableProcessors(), runnable -> {
+                    Thread thread = new Thread(runnable, "mongo-plus-encryptor-" + THREAD_NUMBER.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+    }
+
     public static Encryptor getEncryptor(FieldEncrypt fieldEncrypt){
-        Encryptor encryptor = algorithmEnumEncryptorMap.get(fieldEncrypt.algorithm());
+        Encryptor encryptor;
+        // 国密算法依赖BouncyCastle，使用时才创建，只创建一次
         if (fieldEncrypt.algorithm() == AlgorithmEnum.SM2){
-            encryptor = new SM2Example();
-            algorithmEnumEncryptorMap.put(AlgorithmEnum.SM2,encryptor);
+            encryptor = algorithmEnumEncryptorMap.computeIfAbsent(AlgorithmEnum.SM2, algorithm -> new SM2Example());
         } else if (fieldEncrypt.algorithm() == AlgorithmEnum.SM3){
-            encryptor = new SM3Example();
-            algorithmEnumEncryptorMap.put(AlgorithmEnum.SM3,encryptor);
+            encryptor = algorithmEnumEncryptorMap.computeIfAbsent(AlgorithmEnum.SM3, algorithm -> new SM3Example());
         } else if (fieldEncrypt.algorithm() == AlgorithmEnum.SM4){
-            encryptor = new SM4Example();
-            algorithmEnumEncryptorMap.put(AlgorithmEnum.SM4,encryptor);
+            encryptor = algorithmEnumEncryptorMap.computeIfAbsent(AlgorithmEnum.SM4, algorithm -> new SM4Example());
+        } else {
+            encryptor = algorithmEnumEncryptorMap.get(fieldEncrypt.algorithm());
         }
         if (fieldEncrypt.encryptor() != Void.class){
-            if (encryptorCache.get(fieldEncrypt.encryptor()) != null){
-                encryptor = encryptorCache.get(fieldEncrypt.encryptor());
-            }else {
-                encryptor = (Encryptor) ClassTypeUtil.getInstanceByClass(fieldEncrypt.encryptor());
-                encryptorCache.put(fieldEncrypt.encryptor(),encryptor);
-            }
+            encryptor = encryptorCache.computeIfAbsent(fieldEncrypt.encryptor(),
+                    clazz -> (Encryptor) ClassTypeUtil.getInstanceByClass(clazz));
         }
         return encryptor;
     }
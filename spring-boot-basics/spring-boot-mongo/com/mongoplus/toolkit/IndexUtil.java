@@ -9,13 +9,14 @@ import com.mongoplus.domain.MongoPlusFieldException;
 import com.mongoplus.enums.IndexType;
 import com.mongoplus.mapping.FieldInformation;
 import com.mongoplus.mapping.TypeInformation;
+import com.mongoplus.model.IndexDiff;
 import com.mongoplus.model.IndexMetaObject;
-import org.bson.Document;
+import org.bson.*;
+import org.bson.conversions.Bson;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
+import java.util.*;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import static com.mongoplus.toolkit.ClassTypeUtil.getFieldName;
 
@@ -225,6 +226,176 @@ public class IndexUtil {
         return indexOptions;
     }
 
+    /**
+     * 计算注解中的索引与集合中已存在的索引的差异
+     * <p>按名称和键匹配，键的数字值按数值比较；文本索引在服务端的键为_fts，集合中只能有一个文本索引，按是否存在文本索引匹配</p>
+     * @param namespace 命名空间，用于描述冲突
+     * @param indexModels 注解中的索引
+     * @param existingIndexes listIndexes返回的索引
+     * @return {@link IndexDiff}
+     * @author anwen
+     */
+    public static IndexDiff diff(String namespace, List<IndexModel> indexModels, List<Document> existingIndexes) {
+        IndexDiff indexDiff = new IndexDiff(namespace);
+        List<BsonDocument> existingIndexList = existingIndexes.stream()
+                .map(IndexUtil::toBsonDocument)
+                .collect(Collectors.toList());
+        Map<String, IndexModel> plannedIndexModels = new HashMap<>();
+        for (IndexModel indexModel : indexModels) {
+            BsonDocument keys = toBsonDocument(indexModel.getKeys());
+            String name = getIndexName(indexModel);
+            // 多个实体映射到同一个集合时，可能存在重复的索引，完全相同时忽略，否则为冲突
+            IndexModel plannedIndexModel = plannedIndexModels.putIfAbsent(name, indexModel);
+            if (plannedIndexModel != null) {
+                if (!valueEquals(keys, toBsonDocument(plannedIndexModel.getKeys()))) {
+                    indexDiff.getConflicts().add(String.format("Index '%s' on %s is declared with different keys %s and %s",
+                            name, namespace, plannedIndexModel.getKeys(), indexModel.getKeys()));
+                } else if (!optionsEquals(indexModel.getOptions(), toIndexDocument(plannedIndexModel.getOptions()))) {
+                    indexDiff.getConflicts().add(String.format("Index '%s' on %s is declared with different options",
+                            name, namespace));
+                }
+                continue;
+            }
+            boolean textIndex = isTextIndex(keys);
+            BsonDocument sameName = null;
+            BsonDocument sameKeys = null;
+            for (BsonDocument existingIndex : existingIndexList) {
+                BsonDocument existingKeys = existingIndex.getDocument("key", new BsonDocument());
+                if (name.equals(existingIndex.getString("name", new BsonString("")).getValue())) {
+                    sameName = existingIndex;
+                }
+                if (textIndex ? existingKeys.containsKey("_fts") : valueEquals(keys, existingKeys)) {
+                    sameKeys = existingIndex;
+                }
+            }
+            if (sameName == null && sameKeys == null) {
+                indexDiff.getMissingIndexModels().add(indexModel);
+            } else if (sameName == null) {
+                indexDiff.getConflicts().add(String.format("Index '%s' on %s already exists with name '%s'",
+                        name, namespace, sameKeys.getString("name").getValue()));
+            } else if (sameName != sameKeys) {
+                indexDiff.getConflicts().add(String.format("Index '%s' on %s already exists with different keys %s",
+                        name, namespace, sameName.get("key")));
+            } else if (!optionsEquals(indexModel.getOptions(), sameName)) {
+                indexDiff.getConflicts().add(String.format("Index '%s' on %s already exists with different options",
+                        name, namespace));
+            }
+        }
+        return indexDiff;
+    }
+
+    /**
+     * 获取索引名称，未指定时和驱动生成的默认名称一致
+     * @param indexModel 索引
+     * @return {@link String}
+     * @author anwen
+     */
+    public static String getIndexName(IndexModel indexModel) {
+        String name = indexModel.getOptions().getName();
+        if (StringUtils.isNotBlank(name)) {
+            return name;
+        }
+        StringJoiner indexName = new StringJoiner("_");
+        toBsonDocument(indexModel.getKeys()).forEach((key, value) -> {
+            indexName.add(key);
+            if (value.isNumber()) {
+                indexName.add(String.valueOf(value.asNumber().intValue()));
+            } else if (value.isString()) {
+                indexName.add(value.asString().getValue());
+            }
+        });
+        return indexName.toString();
+    }
+
+    private static boolean isTextIndex(BsonDocument keys) {
+        return keys.values().stream().anyMatch(value -> value.isString() && "text".equals(value.asString().getValue()));
+    }
+
+    private static boolean optionsEquals(IndexOptions indexOptions, BsonDocument existingIndex) {
+        if (indexOptions.isUnique() != existingIndex.getBoolean("unique", BsonBoolean.FALSE).getValue()) {
+            return false;
+        }
+        if (indexOptions.isSparse() != existingIndex.getBoolean("sparse", BsonBoolean.FALSE).getValue()) {
+            return false;
+        }
+        Long expireAfter = indexOptions.getExpireAfter(TimeUnit.SECONDS);
+        BsonValue existingExpireAfter = existingIndex.get("expireAfterSeconds");
+        if (expireAfter == null ? existingExpireAfter != null
+                : existingExpireAfter == null || !existingExpireAfter.isNumber()
+                || existingExpireAfter.asNumber().longValue() != expireAfter) {
+            return false;
+        }
+        Bson partialFilterExpression = indexOptions.getPartialFilterExpression();
+        BsonValue existingPartialFilterExpression = existingIndex.get("partialFilterExpression");
+        if (partialFilterExpression == null) {
+            return existingPartialFilterExpression == null;
+        }
+        return existingPartialFilterExpression != null
+                && valueEquals(toBsonDocument(partialFilterExpression), existingPartialFilterExpression);
+    }
+
+    /**
+     * 将索引选项转换为listIndexes返回的格式，只包含{@link #optionsEquals(IndexOptions, BsonDocument)}比较的选项
+     */
+    private static BsonDocument toIndexDocument(IndexOptions indexOptions) {
+        BsonDocument indexDocument = new BsonDocument();
+        if (indexOptions.isUnique()) {
+            indexDocument.put("unique", BsonBoolean.TRUE);
+        }
+        if (indexOptions.isSparse()) {
+            indexDocument.put("sparse", BsonBoolean.TRUE);
+        }
+        Long expireAfter = indexOptions.getExpireAfter(TimeUnit.SECONDS);
+        if (expireAfter != null) {
+            indexDocument.put("expireAfterSeconds", new BsonInt64(expireAfter));
+        }
+        if (indexOptions.getPartialFilterExpression() != null) {
+            indexDocument.put("partialFilterExpression", toBsonDocument(indexOptions.getPartialFilterExpression()));
+        }
+        return indexDocument;
+    }
+
+    /**
+     * 比较两个值，数字按数值比较，文档比较字段顺序
+     */
+    private static boolean valueEquals(BsonValue value, BsonValue other) {
+        if (value.isNumber() && other.isNumber()) {
+            return value.asNumber().doubleValue() == other.asNumber().doubleValue();
+        }
+        if (value.isDocument() && other.isDocument()) {
+            List<Map.Entry<String, BsonValue>> entries = new ArrayList<>(value.asDocument().entrySet());
+            List<Map.Entry<String, BsonValue>> otherEntries = new ArrayList<>(other.asDocument().entrySet());
+            if (entries.size() != otherEntries.size()) {
+                return false;
+            }
+            for (int i = 0; i < entries.size(); i++) {
+                if (!entries.get(i).getKey().equals(otherEntries.get(i).getKey())
+                        || !valueEquals(entries.get(i).getValue(), otherEntries.get(i).getValue())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (value.isArray() && other.isArray()) {
+            List<BsonValue> values = value.asArray().getValues();
+            List<BsonValue> otherValues = other.asArray().getValues();
+            if (values.size() != otherValues.size()) {
+                return false;
+            }
+            for (int i = 0; i < values.size(); i++) {
+                if (!valueEquals(values.get(i), otherValues.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return value.equals(other);
+    }
+
+    private static BsonDocument toBsonDocument(Bson bson) {
+        return bson.toBsonDocument(BsonDocument.class, MapCodecCache.getDefaultCodecRegistry());
+    }
+
     public static TimeUnit getTimeUnit(String timeUnit) {
         timeUnit = timeUnit.toLowerCase();
         if (timeUnit.contains("d")) {
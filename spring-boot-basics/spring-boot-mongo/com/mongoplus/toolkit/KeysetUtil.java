@@ -0,0 +1,214 @@
+package com.mongoplus.toolkit;
+
+import com.mongodb.BasicDBObject;
+import com.mongoplus.constant.SqlOperationConstant;
+import com.mongoplus.domain.MongoPlusException;
+import org.bson.Document;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * 游标分页（keyset/seek）工具类，负责排序字段的解析、游标的编解码以及定位条件的构建
+ * <p>游标中保存的是排序字段的值，使用扩展JSON保留ObjectId、Date、Long等类型，再进行Base64编码</p>
+ * <p>排序字段中的null值按MongoDB的排序规则视为最小值，同一排序字段存在多种类型的值时结果不保证正确</p>
+ *
+ * @author anwen
+ */
+public class KeysetUtil {
+
+    private static final JsonWriterSettings TOKEN_SETTINGS = JsonWriterSettings.builder()
+            .outputMode(JsonMode.EXTENDED)
+            .build();
+
+    private static final String TOKEN_KEYS = "k";
+
+    private static final String TOKEN_VALUES = "v";
+
+    /**
+     * 获取排序字段，并追加_id作为唯一排序依据
+     * @param sort 条件构造器中的排序
+     * @return {@link LinkedHashMap<String,Integer>} key为字段名，value为1或-1
+     * @author anwen
+     */
+    public static LinkedHashMap<String, Integer> getSort(BasicDBObject sort) {
+        LinkedHashMap<String, Integer> sortMap = new LinkedHashMap<>();
+        int lastDirection = 1;
+        if (sort != null) {
+            for (Map.Entry<String, Object> entry : sort.entrySet()) {
+                if (!(entry.getValue() instanceof Number)) {
+                    throw new MongoPlusException("Keyset pagination only supports ascending or descending sort, " +
+                            "field: " + entry.getKey());
+                }
+                lastDirection = ((Number) entry.getValue()).intValue() < 0 ? -1 : 1;
+                sortMap.put(entry.getKey(), lastDirection);
+            }
+        }
+        sortMap.putIfAbsent(SqlOperationConstant._ID, lastDirection);
+        return sortMap;
+    }
+
+    /**
+     * 获取查询使用的排序，向前翻页时排序方向相反
+     * @param sortMap 排序字段
+     * @param backward 是否向前翻页
+     * @return {@link BasicDBObject}
+     * @author anwen
+     */
+    public static BasicDBObject getSortCondition(LinkedHashMap<String, Integer> sortMap, boolean backward) {
+        BasicDBObject sortCondition = new BasicDBObject();
+        sortMap.forEach((key, direction) -> sortCondition.put(key, backward ? -direction : direction));
+        return sortCondition;
+    }
+
+    /**
+     * 保证投影中包含排序字段，否则无法生成游标
+     * @param projection 条件构造器中的投影
+     * @param keys 排序字段
+     * @return {@link BasicDBObject}
+     * @author anwen
+     */
+    public static BasicDBObject getProjection(BasicDBObject projection, Collection<String> keys) {
+        if (projection == null || projection.isEmpty()) {
+            return projection;
+        }
+        boolean inclusion = projection.entrySet().stream()
+                .anyMatch(entry -> !SqlOperationConstant._ID.equals(entry.getKey()) && isInclude(entry.getValue()));
+        BasicDBObject keysetProjection = new BasicDBObject(projection);
+        keys.forEach(key -> {
+            if (inclusion) {
+                keysetProjection.put(key, 1);
+            } else {
+                keysetProjection.remove(key);
+            }
+        });
+        return keysetProjection;
+    }
+
+    /**
+     * 根据文档中的排序字段值生成游标
+     * @param sortMap 排序字段
+     * @param document 文档
+     * @return {@link String}
+     * @author anwen
+     */
+    public static String encode(LinkedHashMap<String, Integer> sortMap, Document document) {
+        List<Object> values = new ArrayList<>(sortMap.size());
+        sortMap.keySet().forEach(key -> values.add(getValue(document, key)));
+        String json = new Document(TOKEN_KEYS, new ArrayList<>(sortMap.keySet()))
+                .append(TOKEN_VALUES, values)
+                .toJson(TOKEN_SETTINGS);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标，游标中的排序字段必须与当前排序一致
+     * @param token 游标
+     * @param sortMap 排序字段
+     * @return {@link List<Object>} 排序字段的值
+     * @author anwen
+     */
+    public static List<Object> decode(String token, LinkedHashMap<String, Integer> sortMap) {
+        Document document;
+        try {
+            document = Document.parse(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            throw new MongoPlusException("Invalid keyset pagination token: " + token, e);
+        }
+        List<?> keys = document.get(TOKEN_KEYS, List.class);
+        List<?> values = document.get(TOKEN_VALUES, List.class);
+        if (keys == null || values == null || !new ArrayList<>(sortMap.keySet()).equals(keys)
+                || keys.size() != values.size()) {
+            throw new MongoPlusException("Keyset pagination token does not match the current sort: " + token);
+        }
+        return new ArrayList<>(values);
+    }
+
+    /**
+     * 构建定位条件，查询排在游标之后（向前翻页时为之前）的数据
+     * <p>对于排序字段k1..kn，条件为 (k1 > v1) or (k1 = v1 and k2 > v2) or ...，方向为-1或向前翻页时使用小于</p>
+     * <p>游标来自客户端，所有的值都通过比较操作符使用，不会被解析为查询条件</p>
+     * @param sortMap 排序字段
+     * @param values 游标中排序字段的值
+     * @param backward 是否向前翻页
+     * @return {@link BasicDBObject}
+     * @author anwen
+     */
+    public static BasicDBObject getSeekCondition(LinkedHashMap<String, Integer> sortMap, List<Object> values,
+                                                 boolean backward) {
+        List<String> keys = new ArrayList<>(sortMap.keySet());
+        List<BasicDBObject> orList = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            String key = keys.get(i);
+            boolean greater = sortMap.get(key) > 0 != backward;
+            BasicDBObject compare = getCompareCondition(key, values.get(i), greater);
+            if (compare == null) {
+                continue;
+            }
+            List<BasicDBObject> andList = new ArrayList<>(i + 1);
+            for (int j = 0; j < i; j++) {
+                // 使用$eq，游标中的值是嵌套文档时按值比较，不会被当作查询操作符
+                andList.add(new BasicDBObject(keys.get(j), new BasicDBObject("$eq", values.get(j))));
+            }
+            andList.add(compare);
+            orList.add(andList.size() == 1 ? andList.get(0) : new BasicDBObject("$and", andList));
+        }
+        if (orList.isEmpty()) {
+            // 游标已经位于最末端，不存在更多数据
+            return new BasicDBObject(SqlOperationConstant._ID, new BasicDBObject("$exists", false));
+        }
+        return orList.size() == 1 ? orList.get(0) : new BasicDBObject("$or", orList);
+    }
+
+    /**
+     * 合并查询条件与定位条件
+     * @param condition 查询条件
+     * @param seekCondition 定位条件
+     * @return {@link BasicDBObject}
+     * @author anwen
+     */
+    public static BasicDBObject and(BasicDBObject condition, BasicDBObject seekCondition) {
+        if (condition == null || condition.isEmpty()) {
+            return seekCondition;
+        }
+        return new BasicDBObject("$and", Arrays.asList(condition, seekCondition));
+    }
+
+    private static BasicDBObject getCompareCondition(String key, Object value, boolean greater) {
+        if (value == null) {
+            // null为最小值，不存在比null更小的值
+            return greater ? new BasicDBObject(key, new BasicDBObject("$ne", null)) : null;
+        }
+        if (greater) {
+            return new BasicDBObject(key, new BasicDBObject("$gt", value));
+        }
+        return new BasicDBObject("$or", Arrays.asList(
+                new BasicDBObject(key, new BasicDBObject("$lt", value)),
+                new BasicDBObject(key, null)
+        ));
+    }
+
+    private static Object getValue(Document document, String key) {
+        if (!key.contains(".")) {
+            return document.get(key);
+        }
+        Object value = document;
+        for (String path : key.split("\\.")) {
+            if (!(value instanceof Map)) {
+                return null;
+            }
+            value = ((Map<?, ?>) value).get(path);
+        }
+        return value;
+    }
+
+    private static boolean isInclude(Object value) {
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        return value instanceof Number && ((Number) value).intValue() != 0;
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.spring.mongo.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.result.DeleteResult;
+import com.mongoplus.enums.ExecuteMethodEnum;
+import com.mongoplus.execute.Execute;
+import com.mongoplus.interceptor.Interceptor;
+import com.mongoplus.interceptor.InterceptorChain;
+import com.mongoplus.proxy.ExecutorProxy;
+import com.mongoplus.proxy.InterceptorExecute;
+
+/**
+ * 执行器拦截器分发的基准测试，对比反射代理 {@link ExecutorProxy} 与预编译拦截器链 {@link InterceptorExecute}
+ * <p>被代理的执行器是空实现，不访问 MongoDB，测量的是分发本身的开销</p>
+ * <p>依赖 com/mongoplus 下的源码，需要使用 mongo-plus-source profile 编译</p>
+ *
+ * @author qujianlei
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExecutorDispatchBenchmark {
+
+    /**
+     * 拦截器数量，每组参数在独立的 JVM 中运行，不会互相影响
+     */
+    @Param({"0", "4"})
+    private int interceptorCount;
+
+    private Execute execute;
+
+    private Execute executorProxy;
+
+    private Execute interceptorExecute;
+
+    private final Bson filter = new Document("_id", "65f1c2a7e4b0a1b2c3d4e5f6");
+
+    @Setup
+    public void setup() {
+        execute = (Execute) Proxy.newProxyInstance(
+                Execute.class.getClassLoader(),
+                new Class<?>[]{Execute.class},
+                (target, method, args) -> method.getReturnType() == long.class ? 0L : null
+        );
+        for (int i = 0; i < interceptorCount; i++) {
+            InterceptorChain.addInterceptor(new PassThroughInterceptor());
+        }
+        executorProxy = ExecutorProxy.wrap(execute);
+        interceptorExecute = InterceptorExecute.wrap(execute);
+    }
+
+    @Benchmark
+    public DeleteResult direct() {
+        return execute.executeRemoveOne(filter, null, null);
+    }
+
+    @Benchmark
+    public DeleteResult executorProxy() {
+        return executorProxy.executeRemoveOne(filter, null, null);
+    }
+
+    @Benchmark
+    public DeleteResult interceptorExecute() {
+        return interceptorExecute.executeRemoveOne(filter, null, null);
+    }
+
+    /**
+     * 重写前置处理和参数替换的拦截器，两种分发方式都需要调用
+     */
+    public static class PassThroughInterceptor implements Interceptor {
+
+        @Override
+        public void beforeExecute(ExecuteMethodEnum executeMethodEnum, Object[] source,
+                                  MongoCollection<Document> collection) {
+        }
+
+        @Override
+        public Bson executeRemoveOne(Bson filter, MongoCollection<Document> collection) {
+            return filter;
+        }
+    }
+}
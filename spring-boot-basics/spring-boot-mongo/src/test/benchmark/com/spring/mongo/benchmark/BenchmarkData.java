@@ -0,0 +1,116 @@
+package com.spring.mongo.benchmark;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.mongoplus.annotation.ID;
+import com.mongoplus.annotation.collection.CollectionName;
+import com.spring.mongo.module.mongo.entity.User;
+
+/**
+ * 基准测试数据
+ *
+ * @author qujianlei
+ * @since 1.0.0
+ */
+public final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * 扁平实体
+     */
+    public static User user() {
+        User user = new User();
+        user.setId("65f1c2a7e4b0a1b2c3d4e5f6");
+        user.setName("小明");
+        user.setAge(25L);
+        user.setEmail("xiaoming@example.com");
+        user.setBalance(new BigDecimal("1000.50"));
+        user.setStatus(1);
+        user.setCreatedAt(LocalDateTime.of(2024, 3, 1, 12, 0));
+        user.setUpdatedAt(LocalDateTime.of(2024, 3, 2, 8, 30));
+        user.setDeleted(0);
+        return user;
+    }
+
+    /**
+     * 嵌套实体，包含内嵌对象、集合和Map
+     */
+    public static Order order(int itemCount) {
+        Order order = new Order();
+        order.setId("65f1c2a7e4b0a1b2c3d4e5f7");
+        order.setOrderNo("NO202403010001");
+        order.setUser(user());
+        order.setAmount(new BigDecimal("299.90"));
+        order.setCreatedAt(LocalDateTime.of(2024, 3, 1, 12, 0));
+        Address address = new Address();
+        address.setProvince("浙江省");
+        address.setCity("杭州市");
+        address.setDetail("西湖区文三路 1 号");
+        order.setAddress(address);
+        List<OrderItem> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            OrderItem item = new OrderItem();
+            item.setSku("SKU-" + i);
+            item.setQuantity(i + 1);
+            item.setPrice(new BigDecimal("9.99"));
+            items.add(item);
+        }
+        order.setItems(items);
+        Map<String, String> tags = new LinkedHashMap<>();
+        tags.put("channel", "app");
+        tags.put("source", "campaign");
+        order.setTags(tags);
+        return order;
+    }
+
+    @Data
+    @CollectionName("benchmark_order")
+    public static class Order {
+
+        @ID
+        private String id;
+
+        private String orderNo;
+
+        private User user;
+
+        private BigDecimal amount;
+
+        private LocalDateTime createdAt;
+
+        private Address address;
+
+        private List<OrderItem> items;
+
+        private Map<String, String> tags;
+    }
+
+    @Data
+    public static class Address {
+
+        private String province;
+
+        private String city;
+
+        private String detail;
+    }
+
+    @Data
+    public static class OrderItem {
+
+        private String sku;
+
+        private Integer quantity;
+
+        private BigDecimal price;
+    }
+}
@@ -0,0 +1,120 @@
+package com.spring.mongo.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.mongoplus.cache.global.ConversionCache;
+import com.mongoplus.mapping.MappingMongoConverter;
+import com.mongoplus.mapping.TypeReference;
+import com.spring.mongo.module.mongo.entity.User;
+
+/**
+ * 实体与 Document 互相转换的基准测试，不需要 MongoDB 服务
+ *
+ * @author qujianlei
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+    private static final TypeReference<User> USER_TYPE = new TypeReference<User>() {
+    };
+
+    private static final TypeReference<BenchmarkData.Order> ORDER_TYPE = new TypeReference<BenchmarkData.Order>() {
+    };
+
+    private MappingMongoConverter converter;
+
+    private User user;
+
+    private Document userDocument;
+
+    @Setup
+    public void setup() {
+        converter = new MappingMongoConverter();
+        user = BenchmarkData.user();
+        userDocument = encodeUser();
+    }
+
+    @Benchmark
+    public Document encodeUser() {
+        Document document = new Document();
+        converter.writeBySave(user, document);
+        return document;
+    }
+
+    @Benchmark
+    public Document encodeOrder(OrderState state) {
+        return state.encode();
+    }
+
+    @Benchmark
+    public User decodeUser() {
+        return converter.readInternal(userDocument, USER_TYPE, true);
+    }
+
+    @Benchmark
+    public BenchmarkData.Order decodeOrder(OrderState state) {
+        return state.converter.readInternal(state.orderDocument, ORDER_TYPE, true);
+    }
+
+    @Benchmark
+    public void conversionLookup(Blackhole blackhole) {
+        blackhole.consume(ConversionCache.getConversionStrategy(String.class));
+        blackhole.consume(ConversionCache.getConversionStrategy(BigDecimal.class));
+        blackhole.consume(ConversionCache.getConversionStrategy(LocalDateTime.class));
+        blackhole.consume(ConversionCache.getConversionStrategy(Long.class));
+    }
+
+    /**
+     * 嵌套实体的数据，只有订单相关的基准测试按明细条数运行多组
+     */
+    @State(Scope.Benchmark)
+    public static class OrderState {
+
+        /**
+         * 订单明细条数
+         */
+        @Param({"1", "20"})
+        private int itemCount;
+
+        private MappingMongoConverter converter;
+
+        private BenchmarkData.Order order;
+
+        private Document orderDocument;
+
+        @Setup
+        public void setup() {
+            converter = new MappingMongoConverter();
+            order = BenchmarkData.order(itemCount);
+            orderDocument = encode();
+        }
+
+        private Document encode() {
+            Document document = new Document();
+            converter.writeBySave(order, document);
+            return document;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.spring.mongo.benchmark;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mongoplus.conditions.query.QueryWrapper;
+import com.mongoplus.model.BaseConditionResult;
+import com.mongoplus.toolkit.FunctionUtil;
+import com.mongoplus.toolkit.Wrappers;
+import com.spring.mongo.module.mongo.entity.User;
+
+import static com.mongoplus.handlers.condition.BuildCondition.condition;
+
+/**
+ * 条件构造器与 SFunction 字段解析的基准测试，不需要 MongoDB 服务
+ *
+ * @author qujianlei
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WrapperBenchmark {
+
+    private final List<Integer> statusList = Arrays.asList(0, 1);
+
+    @Benchmark
+    public String resolveColumn() {
+        return FunctionUtil.getFieldName(User::getEmail);
+    }
+
+    @Benchmark
+    public QueryWrapper<User> buildWrapper() {
+        return newWrapper();
+    }
+
+    @Benchmark
+    public BaseConditionResult buildCondition() {
+        return condition().queryCondition(newWrapper());
+    }
+
+    private QueryWrapper<User> newWrapper() {
+        QueryWrapper<User> wrapper = Wrappers.lambdaQuery();
+        return wrapper.eq(User::getName, "小明")
+                .gte(User::getAge, 18L)
+                .ne(User::getDeleted, 1)
+                .in(User::getStatus, statusList)
+                .like(User::getEmail, "example.com")
+                .orderByDesc(User::getCreatedAt);
+    }
+}
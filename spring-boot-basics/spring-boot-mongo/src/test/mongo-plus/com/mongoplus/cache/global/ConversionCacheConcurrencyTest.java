@@ -0,0 +1,84 @@
+package com.mongoplus.cache.global;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.mongoplus.strategy.conversion.ConversionStrategy;
+import com.mongoplus.toolkit.ClassTypeUtil;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * 并发查询与注册可赋值类型策略时，{@link ConversionCache}的匹配结果不会停留在旧的策略上
+ * <p>依赖 com/mongoplus 下的源码，需要使用 mongo-plus-source profile 编译</p>
+ *
+ * @author qujianlei
+ * @since 1.0.0
+ */
+public class ConversionCacheConcurrencyTest {
+
+    private static final int READER_COUNT = 8;
+
+    private static final int ROUND_COUNT = 200;
+
+    private ExecutorService executorService;
+
+    @BeforeEach
+    public void setup() {
+        executorService = Executors.newFixedThreadPool(READER_COUNT);
+        // isTargetClass的缓存不是线程安全的，先在单线程中写入，之后并发时只读
+        ClassTypeUtil.isTargetClass(Marker.class, MarkerImpl.class);
+    }
+
+    @AfterEach
+    public void shutdown() throws InterruptedException {
+        executorService.shutdownNow();
+        executorService.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void resolvedStrategyFollowsLatestRegistration() throws Exception {
+        for (int round = 0; round < ROUND_COUNT; round++) {
+            ConversionStrategy<?> strategy = (fieldValue, fieldType, mongoConverter) -> fieldValue;
+            AtomicBoolean running = new AtomicBoolean(true);
+            CountDownLatch started = new CountDownLatch(READER_COUNT);
+            List<Future<?>> readers = new ArrayList<>(READER_COUNT);
+            for (int i = 0; i < READER_COUNT; i++) {
+                readers.add(executorService.submit(() -> {
+                    started.countDown();
+                    while (running.get()) {
+                        ConversionCache.getConversionStrategy(MarkerImpl.class);
+                    }
+                }));
+            }
+            started.await();
+            ConversionCache.putAssignableConversionStrategy(Marker.class, strategy);
+            // 注册后继续查询一段时间，覆盖替换前开始计算、替换后才写入结果的情况
+            for (int i = 0; i < 1000; i++) {
+                ConversionCache.getConversionStrategy(MarkerImpl.class);
+            }
+            running.set(false);
+            for (Future<?> reader : readers) {
+                reader.get(10, TimeUnit.SECONDS);
+            }
+            assertSame(strategy, ConversionCache.getConversionStrategy(MarkerImpl.class), "round " + round);
+        }
+    }
+
+    interface Marker {
+    }
+
+    static class MarkerImpl implements Marker {
+    }
+
+}
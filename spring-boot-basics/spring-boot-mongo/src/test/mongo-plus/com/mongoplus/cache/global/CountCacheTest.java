@@ -0,0 +1,46 @@
+package com.mongoplus.cache.global;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * {@link CountCache}数量有上限，超过时淘汰最久未访问的缓存，过期的缓存不会返回
+ * <p>依赖 com/mongoplus 下的源码，需要使用 mongo-plus-source profile 编译</p>
+ *
+ * @author qujianlei
+ * @since 1.0.0
+ */
+public class CountCacheTest {
+
+    private static final long TIMEOUT_MILLIS = 60_000L;
+
+    @AfterEach
+    public void clear() {
+        CountCache.clear();
+    }
+
+    @Test
+    public void leastRecentlyUsedEntriesAreEvicted() {
+        CountCache.put("hot", 1L, TIMEOUT_MILLIS);
+        CountCache.put("cold", 2L, TIMEOUT_MILLIS);
+        for (int i = 0; i < 100_000; i++) {
+            CountCache.put("key-" + i, i, TIMEOUT_MILLIS);
+            assertEquals(Long.valueOf(1L), CountCache.get("hot"));
+        }
+        assertNull(CountCache.get("cold"));
+        assertNull(CountCache.get("key-0"));
+        assertEquals(Long.valueOf(99_999L), CountCache.get("key-99999"));
+    }
+
+    @Test
+    public void expiredEntriesAreNotReturned() {
+        CountCache.put("expired", 1L, 0L);
+        CountCache.put("valid", 2L, TIMEOUT_MILLIS);
+        assertNull(CountCache.get("expired"));
+        assertEquals(Long.valueOf(2L), CountCache.get("valid"));
+    }
+
+}
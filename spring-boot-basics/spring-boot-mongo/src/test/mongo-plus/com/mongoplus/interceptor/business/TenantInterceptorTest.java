@@ -0,0 +1,251 @@
+package com.mongoplus.interceptor.business;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.CountOptions;
+import com.mongodb.client.model.DeleteManyModel;
+import com.mongodb.client.model.DeleteOneModel;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.UpdateManyModel;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import com.mongoplus.handlers.TenantHandler;
+import com.mongoplus.model.MutablePair;
+import com.mongoplus.toolkit.BsonUtil;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link TenantInterceptor}改写后的查询、更新、删除、批量写入和聚合管道都带有租户条件，不会遗漏
+ * <p>依赖 com/mongoplus 下的源码，需要使用 mongo-plus-source profile 编译</p>
+ *
+ * @author qujianlei
+ * @since 1.0.0
+ */
+public class TenantInterceptorTest {
+
+    private static final String TENANT_ID_COLUMN = "tenant_id";
+
+    private static final BsonValue TENANT_ID = new BsonString("tenant-1");
+
+    private static final ThreadLocal<Boolean> IGNORE_ORDERS = ThreadLocal.withInitial(() -> false);
+
+    private TenantInterceptor tenantInterceptor;
+
+    private MongoCollection<Document> collection;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        tenantInterceptor = new TenantInterceptor(new TestTenantHandler());
+        tenantInterceptor.setCheckTenantIndex(false);
+        collection = mock(MongoCollection.class);
+        when(collection.getNamespace()).thenReturn(new MongoNamespace("shop", "orders"));
+    }
+
+    @AfterEach
+    public void clear() {
+        IGNORE_ORDERS.remove();
+    }
+
+    @Test
+    public void queryCountRemoveAndUpdateCarryTenantFilter() {
+        assertTenantFilter(tenantInterceptor.executeQuery(Filters.eq("status", 1), new BasicDBObject(),
+                new BasicDBObject(), collection).getQuery());
+        assertTenantFilter(tenantInterceptor.executeQuery(null, new BasicDBObject(),
+                new BasicDBObject(), collection).getQuery());
+        assertTenantFilter(tenantInterceptor.executeCount(null, new CountOptions(), collection).getLeft());
+        assertTenantFilter(tenantInterceptor.executeRemove(new Document("status", 0), collection));
+        List<MutablePair<Bson, Bson>> updatePairList = new ArrayList<>();
+        updatePairList.add(new MutablePair<>(Filters.eq("status", 1), Updates.set("status", 2)));
+        updatePairList.add(new MutablePair<>((Bson) null, Updates.set("status", 3)));
+        tenantInterceptor.executeUpdate(updatePairList, collection).forEach(pair -> assertTenantFilter(pair.getLeft()));
+        assertTenantFilter(tenantInterceptor.executeUpdate(
+                new MutablePair<>(Filters.eq("status", 1), Updates.set("status", 2)), collection).getLeft());
+    }
+
+    @Test
+    public void saveAddsTenantColumn() {
+        Document document = tenantInterceptor.executeSave(new Document("status", 1), collection);
+        assertEquals(TENANT_ID, document.get(TENANT_ID_COLUMN));
+        tenantInterceptor.executeSave(Collections.singletonList(new Document("status", 1)), collection)
+                .forEach(saved -> assertEquals(TENANT_ID, saved.get(TENANT_ID_COLUMN)));
+    }
+
+    @Test
+    public void bulkWriteModelsCarryTenantFilter() {
+        List<WriteModel<Document>> writeModelList = Arrays.asList(
+                new InsertOneModel<>(new Document("status", 1)),
+                new UpdateOneModel<>(Filters.eq("status", 1), Updates.set("status", 2)),
+                new UpdateManyModel<>(Filters.eq("status", 1), Collections.singletonList(Updates.set("status", 2))),
+                new ReplaceOneModel<>(Filters.eq("status", 1), new Document("status", 2)),
+                new DeleteOneModel<>(Filters.eq("status", 1)),
+                new DeleteManyModel<>(Filters.eq("status", 1))
+        );
+        List<WriteModel<Document>> tenantWriteModelList = tenantInterceptor.executeBulkWrite(writeModelList, collection);
+        assertEquals(writeModelList.size(), tenantWriteModelList.size());
+        for (WriteModel<Document> writeModel : tenantWriteModelList) {
+            if (writeModel instanceof InsertOneModel) {
+                assertEquals(TENANT_ID, ((InsertOneModel<Document>) writeModel).getDocument().get(TENANT_ID_COLUMN));
+            } else if (writeModel instanceof UpdateOneModel) {
+                assertTenantFilter(((UpdateOneModel<Document>) writeModel).getFilter());
+            } else if (writeModel instanceof UpdateManyModel) {
+                assertTenantFilter(((UpdateManyModel<Document>) writeModel).getFilter());
+            } else if (writeModel instanceof ReplaceOneModel) {
+                ReplaceOneModel<Document> model = (ReplaceOneModel<Document>) writeModel;
+                assertTenantFilter(model.getFilter());
+                assertEquals(TENANT_ID, model.getReplacement().get(TENANT_ID_COLUMN));
+            } else if (writeModel instanceof DeleteOneModel) {
+                assertTenantFilter(((DeleteOneModel<Document>) writeModel).getFilter());
+            } else if (writeModel instanceof DeleteManyModel) {
+                assertTenantFilter(((DeleteManyModel<Document>) writeModel).getFilter());
+            }
+        }
+    }
+
+    @Test
+    public void aggregatePipelineAndSubPipelinesCarryTenantStage() {
+        tenantInterceptor.setCombinedLookup(true);
+        List<Bson> pipeline = Arrays.asList(
+                BsonDocument.parse("{$geoNear: {near: [0, 0], distanceField: 'distance'}}"),
+                BsonDocument.parse("{$lookup: {from: 'items', let: {id: '$_id'}, as: 'items', "
+                        + "pipeline: [{$match: {$expr: {$eq: ['$orderId', '$$id']}}}]}}"),
+                BsonDocument.parse("{$lookup: {from: 'users', localField: 'userId', foreignField: '_id', as: 'user'}}"),
+                BsonDocument.parse("{$unionWith: 'archivedOrders'}"),
+                BsonDocument.parse("{$unionWith: {coll: 'refunds', pipeline: [{$project: {_id: 1}}]}}")
+        );
+        List<Bson> tenantPipeline = tenantInterceptor.executeAggregates(pipeline, collection);
+        assertEquals(pipeline.size() + 1, tenantPipeline.size());
+        assertEquals("$geoNear", BsonUtil.asBsonDocument(tenantPipeline.get(0)).getFirstKey());
+        assertTenantStage(BsonUtil.asBsonDocument(tenantPipeline.get(1)));
+        for (Bson stage : tenantPipeline.subList(2, tenantPipeline.size())) {
+            BsonDocument stageDocument = BsonUtil.asBsonDocument(stage);
+            BsonDocument spec = stageDocument.get(stageDocument.getFirstKey()).asDocument();
+            BsonArray subPipeline = spec.getArray("pipeline");
+            assertFalse(subPipeline.isEmpty());
+            assertTenantStage(subPipeline.get(0).asDocument());
+        }
+        // 相同阶段结构的管道使用缓存的计划，结果一致
+        List<Bson> samePipeline = Arrays.asList(
+                BsonDocument.parse("{$geoNear: {near: [1, 1], distanceField: 'distance'}}"),
+                BsonDocument.parse("{$lookup: {from: 'items', as: 'items', pipeline: []}}"),
+                BsonDocument.parse("{$lookup: {from: 'users', localField: 'buyerId', foreignField: '_id', as: 'buyer'}}"),
+                BsonDocument.parse("{$unionWith: 'archivedOrders'}"),
+                BsonDocument.parse("{$unionWith: {coll: 'refunds'}}")
+        );
+        List<Bson> sameTenantPipeline = tenantInterceptor.executeAggregates(samePipeline, collection);
+        assertEquals(samePipeline.size() + 1, sameTenantPipeline.size());
+        assertTenantStage(BsonUtil.asBsonDocument(sameTenantPipeline.get(1)));
+    }
+
+    @Test
+    public void graphLookupRestrictsSearchToTenant() {
+        List<Bson> pipeline = Arrays.asList(
+                new Document("$match", new Document("status", 1)),
+                BsonDocument.parse("{$graphLookup: {from: 'categories', startWith: '$parentId', "
+                        + "connectFromField: 'parentId', connectToField: '_id', as: 'ancestors'}}"),
+                BsonDocument.parse("{$graphLookup: {from: 'categories', startWith: '$parentId', "
+                        + "connectFromField: 'parentId', connectToField: '_id', as: 'visible', "
+                        + "restrictSearchWithMatch: {visible: true}}}")
+        );
+        List<Bson> tenantPipeline = tenantInterceptor.executeAggregates(pipeline, collection);
+        assertEquals(pipeline.size(), tenantPipeline.size());
+        assertTenantStage(BsonUtil.asBsonDocument(tenantPipeline.get(0)));
+        for (Bson stage : tenantPipeline.subList(1, tenantPipeline.size())) {
+            BsonDocument restrict = BsonUtil.asBsonDocument(stage).getDocument("$graphLookup")
+                    .getDocument("restrictSearchWithMatch");
+            assertEquals(new BsonDocument("$eq", TENANT_ID), restrict.get(TENANT_ID_COLUMN));
+        }
+    }
+
+    @Test
+    public void localFieldLookupIsLeftUnchangedWithoutCombinedLookup() {
+        tenantInterceptor.setCombinedLookup(false);
+        BsonDocument lookup = BsonDocument.parse(
+                "{$lookup: {from: 'users', localField: 'userId', foreignField: '_id', as: 'user'}}");
+        List<Bson> tenantPipeline = tenantInterceptor.executeAggregates(
+                Collections.singletonList(lookup.clone()), collection);
+        assertEquals(2, tenantPipeline.size());
+        assertTenantStage(BsonUtil.asBsonDocument(tenantPipeline.get(0)));
+        assertEquals(lookup, BsonUtil.asBsonDocument(tenantPipeline.get(1)));
+    }
+
+    @Test
+    public void ignoreDecisionIsEvaluatedPerCallByDefault() {
+        assertTenantFilter(tenantInterceptor.executeRemove(new Document(), collection));
+        IGNORE_ORDERS.set(true);
+        Bson filter = tenantInterceptor.executeRemove(new Document(), collection);
+        assertFalse(BsonUtil.asBsonDocument(filter).containsKey(TENANT_ID_COLUMN));
+        IGNORE_ORDERS.set(false);
+        assertTenantFilter(tenantInterceptor.executeRemove(new Document(), collection));
+    }
+
+    @Test
+    public void staticIgnoreDecisionIsCachedInPlan() {
+        TenantInterceptor staticTenantInterceptor = new TenantInterceptor(new TestTenantHandler() {
+            @Override
+            public boolean staticIgnore() {
+                return true;
+            }
+        });
+        staticTenantInterceptor.setCheckTenantIndex(false);
+        assertTenantFilter(staticTenantInterceptor.executeRemove(new Document(), collection));
+        IGNORE_ORDERS.set(true);
+        assertTenantFilter(staticTenantInterceptor.executeRemove(new Document(), collection));
+        staticTenantInterceptor.clearPlanCache();
+        Bson filter = staticTenantInterceptor.executeRemove(new Document(), collection);
+        assertFalse(BsonUtil.asBsonDocument(filter).containsKey(TENANT_ID_COLUMN));
+    }
+
+    private static void assertTenantFilter(Bson filter) {
+        BsonDocument filterDocument = BsonUtil.asBsonDocument(filter);
+        assertTrue(filterDocument.containsKey(TENANT_ID_COLUMN), () -> "missing tenant filter: " + filterDocument);
+        assertEquals(TENANT_ID, filterDocument.get(TENANT_ID_COLUMN));
+    }
+
+    private static void assertTenantStage(BsonDocument stage) {
+        assertEquals("$match", stage.getFirstKey(), () -> "missing tenant stage: " + stage);
+        assertEquals(new BsonDocument("$eq", TENANT_ID), stage.getDocument("$match").get(TENANT_ID_COLUMN));
+    }
+
+    /**
+     * orders集合是否忽略租户取决于当前线程的上下文
+     */
+    private static class TestTenantHandler implements TenantHandler {
+
+        @Override
+        public BsonValue getTenantId() {
+            return TENANT_ID;
+        }
+
+        @Override
+        public boolean ignoreCollection(String collectionName) {
+            return "orders".equals(collectionName) && IGNORE_ORDERS.get();
+        }
+
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.mongoplus.mapper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.MongoCollection;
+import com.mongoplus.interceptor.business.CollectionLogiceInterceptor;
+import com.mongoplus.manager.LogicManager;
+import com.mongoplus.model.LogicDeleteResult;
+import com.mongoplus.registry.MongoEntityMappingRegistry;
+import com.mongoplus.toolkit.AggregateUtil;
+import com.mongoplus.toolkit.BsonUtil;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 开启逻辑删除时，$facet分页和聚合分页的管道中逻辑删除条件位于$facet、$count之前，不会过滤掉分页结果
+ * <p>依赖 com/mongoplus 下的源码，需要使用 mongo-plus-source profile 编译</p>
+ *
+ * @author qujianlei
+ * @since 1.0.0
+ */
+public class FacetPageLogicDeleteTest {
+
+    private static final String NAMESPACE = "shop.orders";
+
+    private static final String LOGIC_COLUMN = "deleted";
+
+    private Boolean logicOpen;
+
+    private MongoCollection<Document> collection;
+
+    private final CollectionLogiceInterceptor interceptor = new CollectionLogiceInterceptor();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        logicOpen = LogicManager.open;
+        LogicManager.open = true;
+        LogicDeleteResult logicDeleteResult = new LogicDeleteResult();
+        logicDeleteResult.setColumn(LOGIC_COLUMN);
+        LogicManager.logicDeleteResultHashMap.put(Order.class, logicDeleteResult);
+        MongoEntityMappingRegistry.getInstance().setMappingRelation(NAMESPACE, Order.class);
+        collection = mock(MongoCollection.class);
+        when(collection.getNamespace()).thenReturn(new MongoNamespace(NAMESPACE));
+    }
+
+    @AfterEach
+    public void clear() {
+        LogicManager.open = logicOpen;
+        LogicManager.logicDeleteResultHashMap.remove(Order.class);
+        MongoEntityMappingRegistry.getInstance().removeMappingRelation(NAMESPACE);
+    }
+
+    @Test
+    public void facetPageWithEmptyConditionFiltersBeforeFacet() {
+        List<Bson> pipeline = AbstractBaseMapper.facetPipeline(
+                AbstractBaseMapper.conditionPipeline(new BasicDBObject(), new BasicDBObject("_id", -1)),
+                Collections.singletonList(new Document("$limit", 10)));
+        List<Bson> logicPipeline = interceptor.executeAggregates(pipeline, collection);
+        assertEquals(3, logicPipeline.size());
+        assertLogicMatch(logicPipeline.get(0));
+        assertEquals("$facet", AggregateUtil.stageName(logicPipeline.get(2)));
+    }
+
+    @Test
+    public void aggregatePageCountFiltersBeforeCount() {
+        List<Bson> pipeline = AggregateUtil.withLeadingMatch(Collections.singletonList(
+                new Document("$project", new Document("amount", 1))));
+        List<Bson> countPipeline = new ArrayList<>(pipeline);
+        countPipeline.add(new Document("$count", "total"));
+        List<Bson> logicPipeline = interceptor.executeAggregates(countPipeline, collection);
+        assertEquals(3, logicPipeline.size());
+        assertLogicMatch(logicPipeline.get(0));
+        assertEquals("$count", AggregateUtil.stageName(logicPipeline.get(2)));
+    }
+
+    @Test
+    public void leadingMatchFollowsFirstStageOperators() {
+        List<Bson> pipeline = AggregateUtil.withLeadingMatch(Arrays.asList(
+                BsonDocument.parse("{$geoNear: {near: [0, 0], distanceField: 'distance'}}"),
+                new Document("$project", new Document("amount", 1))));
+        assertEquals("$geoNear", AggregateUtil.stageName(pipeline.get(0)));
+        assertEquals("$match", AggregateUtil.stageName(pipeline.get(1)));
+        List<Bson> matchPipeline = Collections.singletonList(new Document("$match", new Document("amount", 1)));
+        assertEquals(matchPipeline, AggregateUtil.withLeadingMatch(matchPipeline));
+    }
+
+    private static void assertLogicMatch(Bson stage) {
+        BsonDocument stageDocument = BsonUtil.asBsonDocument(stage);
+        assertEquals("$match", stageDocument.getFirstKey());
+        assertTrue(stageDocument.getDocument("$match").containsKey(LOGIC_COLUMN), stageDocument::toJson);
+    }
+
+    static class Order {
+    }
+
+}
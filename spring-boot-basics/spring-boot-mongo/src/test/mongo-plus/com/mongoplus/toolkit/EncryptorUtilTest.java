@@ -0,0 +1,109 @@
+package com.mongoplus.toolkit;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.mongoplus.annotation.comm.FieldEncrypt;
+import com.mongoplus.enums.AlgorithmEnum;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * {@link EncryptorUtil}批量加解密文档字段，串行和并行的结果一致，不会遗漏或错位
+ * <p>依赖 com/mongoplus 下的源码，需要使用 mongo-plus-source profile 编译</p>
+ *
+ * @author qujianlei
+ * @since 1.0.0
+ */
+public class EncryptorUtilTest {
+
+    private static final String FIELD_NAME = "phone";
+
+    /**
+     * 超过多个并行批次的数量，并且不能被批次大小整除
+     */
+    private static final int DOCUMENT_COUNT = 5000;
+
+    private FieldEncrypt fieldEncrypt;
+
+    @BeforeEach
+    public void setup() throws NoSuchFieldException {
+        fieldEncrypt = User.class.getDeclaredField(FIELD_NAME).getAnnotation(FieldEncrypt.class);
+    }
+
+    @Test
+    public void parallelEncryptAndDecryptEveryDocument() {
+        List<Map<String, Object>> documentList = newDocumentList();
+        EncryptorUtil.encrypt(fieldEncrypt, documentList, FIELD_NAME, true);
+        for (int i = 0; i < DOCUMENT_COUNT; i++) {
+            if (i % 100 == 0) {
+                assertFalse(documentList.get(i).containsKey(FIELD_NAME));
+                continue;
+            }
+            assertEquals(base64(phone(i)), documentList.get(i).get(FIELD_NAME), "index " + i);
+        }
+        EncryptorUtil.decrypt(fieldEncrypt, documentList, FIELD_NAME, true);
+        assertEquals(newDocumentList(), documentList);
+    }
+
+    @Test
+    public void serialAndParallelProduceSameResult() {
+        List<Map<String, Object>> serialList = newDocumentList();
+        List<Map<String, Object>> parallelList = newDocumentList();
+        EncryptorUtil.encrypt(fieldEncrypt, serialList, FIELD_NAME, false);
+        EncryptorUtil.encrypt(fieldEncrypt, parallelList, FIELD_NAME, true);
+        assertEquals(serialList, parallelList);
+    }
+
+    @Test
+    public void nullValuesAndDocumentsAreSkipped() {
+        List<Map<String, Object>> documentList = new ArrayList<>();
+        documentList.add(null);
+        Map<String, Object> document = new HashMap<>();
+        document.put(FIELD_NAME, null);
+        documentList.add(document);
+        EncryptorUtil.encrypt(fieldEncrypt, documentList, FIELD_NAME, true);
+        assertNull(documentList.get(0));
+        assertNull(documentList.get(1).get(FIELD_NAME));
+        EncryptorUtil.encrypt(fieldEncrypt, null, FIELD_NAME, true);
+    }
+
+    private static List<Map<String, Object>> newDocumentList() {
+        List<Map<String, Object>> documentList = new ArrayList<>(DOCUMENT_COUNT);
+        for (int i = 0; i < DOCUMENT_COUNT; i++) {
+            Map<String, Object> document = new HashMap<>();
+            document.put("_id", i);
+            // 部分文档没有加密字段
+            if (i % 100 != 0) {
+                document.put(FIELD_NAME, phone(i));
+            }
+            documentList.add(document);
+        }
+        return documentList;
+    }
+
+    private static String phone(int i) {
+        return "1380000" + String.format("%04d", i);
+    }
+
+    private static String base64(String value) {
+        return Base64.getEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static class User {
+
+        @FieldEncrypt(algorithm = AlgorithmEnum.BASE64)
+        private String phone;
+
+    }
+
+}